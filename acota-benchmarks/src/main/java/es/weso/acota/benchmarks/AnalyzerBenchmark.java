@@ -0,0 +1,115 @@
+package es.weso.acota.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.EnglishOpenNLPAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.OpenNLPAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.SpanishOpenNLPAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.tokenizer.EnglishTokenizerAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.tokenizer.SpanishTokenizerAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.tokenizer.TokenizerAnalyzer;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.lang.LanguageDetector;
+
+/**
+ * Measures the natural language processing operations, tokenize, tag and 
+ * sentDetect, of {@link TokenizerAnalyzer}s and {@link OpenNLPAnalyzer}s, 
+ * over the labels and the descriptions of the {@link Corpus}.
+ * 
+ * @author César Luis Alvargonzález
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyzerBenchmark {
+
+	@Param({"en", "es"})
+	public String language;
+
+	@Param({Corpus.LABEL, Corpus.DESCRIPTION})
+	public String kind;
+
+	protected Corpus corpus;
+	protected int next;
+
+	protected TokenizerAnalyzer tokenizerAnalyzer;
+	protected OpenNLPAnalyzer openNlpAnalyzer;
+
+	protected String[][] tokens;
+
+	@Setup
+	public void setUp() throws IOException, AcotaConfigurationException {
+		CoreConfiguration configuration = new CoreConfiguration();
+		this.corpus = Corpus.load(language);
+		if (LanguageDetector.ISO_639_SPANISH.equals(language)) {
+			this.tokenizerAnalyzer = new SpanishTokenizerAnalyzer(configuration);
+			this.openNlpAnalyzer = new SpanishOpenNLPAnalyzer(configuration);
+		} else {
+			this.tokenizerAnalyzer = new EnglishTokenizerAnalyzer(configuration);
+			this.openNlpAnalyzer = new EnglishOpenNLPAnalyzer(configuration);
+		}
+
+		this.tokens = new String[corpus.size()][];
+		for (int i = 0; i < corpus.size(); i++) {
+			tokens[i] = openNlpAnalyzer.tokenize(corpus.getText(i, kind));
+		}
+	}
+
+	@Benchmark
+	public String[] tokenizerTokenize() throws AcotaConfigurationException {
+		return tokenizerAnalyzer.tokenize(corpus.getText(next(), kind));
+	}
+
+	@Benchmark
+	public String[] tokenizerTag() throws AcotaConfigurationException {
+		return tokenizerAnalyzer.tag(tokens[next()]);
+	}
+
+	@Benchmark
+	public String[] tokenizerSentDetect() throws AcotaConfigurationException {
+		return tokenizerAnalyzer.sentDetect(corpus.getText(next(), kind));
+	}
+
+	@Benchmark
+	public String[] openNlpTokenize() throws AcotaConfigurationException {
+		return openNlpAnalyzer.tokenize(corpus.getText(next(), kind));
+	}
+
+	@Benchmark
+	public String[] openNlpTag() throws AcotaConfigurationException {
+		return openNlpAnalyzer.tag(tokens[next()]);
+	}
+
+	@Benchmark
+	public String[] openNlpSentDetect() throws AcotaConfigurationException {
+		return openNlpAnalyzer.sentDetect(corpus.getText(next(), kind));
+	}
+
+	/**
+	 * Returns the position of the next resource of the corpus
+	 * @return Position of the next resource
+	 */
+	protected int next() {
+		int i = next;
+		this.next = (i + 1) % corpus.size();
+		return i;
+	}
+
+}
@@ -0,0 +1,116 @@
+package es.weso.acota.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import es.weso.acota.core.entity.RequestSuggestionTO;
+import es.weso.acota.core.entity.ResourceTO;
+import es.weso.acota.core.entity.SuggestionTO;
+
+/**
+ * Corpus of short labels and long descriptions, in English and Spanish, used
+ * by the benchmarks. Each language is stored in the classpath resource
+ * <code>corpus/&lt;language&gt;.tsv</code>, one resource per line with its label
+ * and its description separated by a tab, lines starting with '#' are comments.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class Corpus {
+
+	public static final String LABEL = "label";
+	public static final String DESCRIPTION = "description";
+
+	protected final String language;
+	protected final List<String> labels;
+	protected final List<String> descriptions;
+
+	/**
+	 * Three-argument constructor
+	 * @param language ISO 639 code of the corpus' language
+	 * @param labels Labels of the resources
+	 * @param descriptions Descriptions of the resources
+	 */
+	protected Corpus(String language, List<String> labels, List<String> descriptions) {
+		this.language = language;
+		this.labels = Collections.unmodifiableList(labels);
+		this.descriptions = Collections.unmodifiableList(descriptions);
+	}
+
+	/**
+	 * Loads the corpus of the supplied language
+	 * @param language ISO 639 code of the corpus' language
+	 * @return The corpus
+	 * @throws IOException If the corpus does not exist or it could not be read
+	 */
+	public static Corpus load(String language) throws IOException {
+		String resource = "corpus/" + language + ".tsv";
+		InputStream in = Corpus.class.getClassLoader().getResourceAsStream(resource);
+		if (in == null) {
+			throw new IOException("Corpus not found: " + resource);
+		}
+		List<String> labels = new ArrayList<String>();
+		List<String> descriptions = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.trim().isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				int tab = line.indexOf('\t');
+				labels.add(tab < 0 ? line : line.substring(0, tab));
+				descriptions.add(tab < 0 ? "" : line.substring(tab + 1));
+			}
+		} finally {
+			reader.close();
+		}
+		return new Corpus(language, labels, descriptions);
+	}
+
+	public String getLanguage() {
+		return language;
+	}
+
+	public int size() {
+		return labels.size();
+	}
+
+	public String getLabel(int i) {
+		return labels.get(i % labels.size());
+	}
+
+	public String getDescription(int i) {
+		return descriptions.get(i % descriptions.size());
+	}
+
+	/**
+	 * Returns the label or the description of a resource
+	 * @param i Position of the resource, it wraps around the corpus
+	 * @param kind {@link #LABEL} or {@link #DESCRIPTION}
+	 * @return The label or the description of the resource
+	 */
+	public String getText(int i, String kind) {
+		return LABEL.equals(kind) ? getLabel(i) : getDescription(i);
+	}
+
+	/**
+	 * Creates a new request, with empty suggestions, for a resource 
+	 * @param i Position of the resource, it wraps around the corpus
+	 * @return A new request
+	 */
+	public RequestSuggestionTO createRequest(int i) {
+		ResourceTO resource = new ResourceTO();
+		resource.setLabel(getLabel(i));
+		resource.setDescription(getDescription(i));
+		RequestSuggestionTO request = new RequestSuggestionTO();
+		request.setResource(resource);
+		request.setSuggestions(new SuggestionTO());
+		return request;
+	}
+
+}
@@ -0,0 +1,136 @@
+package es.weso.acota.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.LuceneEnhancer;
+import es.weso.acota.core.business.enhancer.OpenNLPEnhancer;
+import es.weso.acota.core.business.enhancer.TokenizerEnhancer;
+import es.weso.acota.core.business.enhancer.WordnetEnhancer;
+import es.weso.acota.core.entity.RequestSuggestionTO;
+import es.weso.acota.core.entity.SuggestionTO;
+import es.weso.acota.core.entity.TagTO;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+/**
+ * Measures the enhancement of a single request by each one of the enhancers,
+ * requests are taken in turn from the {@link Corpus}. {@link OfflineGoogleEnhancer}
+ * replaces the Google Autocomplete's calls, and it is fed with the suggestions of
+ * {@link LuceneEnhancer}, as it only expands the existing tags.
+ * 
+ * @author César Luis Alvargonzález
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnhancerBenchmark {
+
+	@Param({"en", "es"})
+	public String language;
+
+	protected Corpus corpus;
+	protected int next;
+
+	protected LuceneEnhancer luceneEnhancer;
+	protected TokenizerEnhancer tokenizerEnhancer;
+	protected OpenNLPEnhancer openNlpEnhancer;
+	protected WordnetEnhancer wordnetEnhancer;
+	protected OfflineGoogleEnhancer googleEnhancer;
+
+	protected List<Map<String, TagTO>> luceneTags;
+
+	@Setup
+	public void setUp() throws IOException, AcotaConfigurationException {
+		CoreConfiguration configuration = new CoreConfiguration();
+		this.corpus = Corpus.load(language);
+		this.luceneEnhancer = new LuceneEnhancer(configuration);
+		this.tokenizerEnhancer = new TokenizerEnhancer(configuration);
+		this.openNlpEnhancer = new OpenNLPEnhancer(configuration);
+		this.wordnetEnhancer = new WordnetEnhancer(configuration);
+		this.googleEnhancer = new OfflineGoogleEnhancer(configuration);
+
+		this.luceneTags = new ArrayList<Map<String, TagTO>>(corpus.size());
+		for (int i = 0; i < corpus.size(); i++) {
+			luceneTags.add(luceneEnhancer.enhance(corpus.createRequest(i)).getTags());
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		googleEnhancer.shutdown();
+	}
+
+	@Benchmark
+	public SuggestionTO lucene() {
+		return luceneEnhancer.enhance(corpus.createRequest(next()));
+	}
+
+	@Benchmark
+	public SuggestionTO tokenizer() {
+		return tokenizerEnhancer.enhance(corpus.createRequest(next()));
+	}
+
+	@Benchmark
+	public SuggestionTO openNlp() {
+		return openNlpEnhancer.enhance(corpus.createRequest(next()));
+	}
+
+	@Benchmark
+	public SuggestionTO wordnet() {
+		return wordnetEnhancer.enhance(createLuceneRequest(next()));
+	}
+
+	@Benchmark
+	public SuggestionTO google() {
+		return googleEnhancer.enhance(createLuceneRequest(next()));
+	}
+
+	/**
+	 * Returns the position of the next resource of the corpus
+	 * @return Position of the next resource
+	 */
+	protected int next() {
+		int i = next;
+		this.next = (i + 1) % corpus.size();
+		return i;
+	}
+
+	/**
+	 * Creates a request with a copy of the suggestions of {@link LuceneEnhancer}
+	 * @param i Position of the resource
+	 * @return A new request
+	 */
+	protected RequestSuggestionTO createLuceneRequest(int i) {
+		RequestSuggestionTO request = corpus.createRequest(i);
+		Map<String, TagTO> tags = new HashMap<String, TagTO>();
+		for (TagTO tag : luceneTags.get(i).values()) {
+			TagTO copy = new TagTO(tag.getLabel(), tag.getLang(), tag.getProvider(), request.getResource());
+			copy.setValue(tag.getValue());
+			tags.put(copy.getLabel(), copy);
+		}
+		request.getSuggestions().setTags(tags);
+		return request;
+	}
+
+}
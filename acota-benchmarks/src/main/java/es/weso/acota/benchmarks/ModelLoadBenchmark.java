@@ -0,0 +1,90 @@
+package es.weso.acota.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import opennlp.maxent.MaxentModel;
+import opennlp.maxent.io.SuggestedModelReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.model.ModelSnapshot;
+import es.weso.acota.core.business.enhancer.analyzer.model.ModelSnapshotWriter;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.lang.LanguageDetector;
+
+/**
+ * Measures the time to load the OpenNLP models, parsing their binaries or
+ * reading their {@link ModelSnapshot}s. Unless a model has a snapshot next to
+ * its binary, it is converted into a temporary file.
+ * 
+ * @author César Luis Alvargonzález
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ModelLoadBenchmark {
+
+	@Param({"binary", "snapshot"})
+	public String format;
+
+	@Param({"en", "es"})
+	public String language;
+
+	@Param({"pos", "sent", "tok"})
+	public String model;
+
+	protected File modelFile;
+	protected File snapshotFile;
+	protected boolean temporary;
+
+	@Setup
+	public void setUp() throws IOException, AcotaConfigurationException {
+		CoreConfiguration configuration = new CoreConfiguration();
+		boolean spanish = LanguageDetector.ISO_639_SPANISH.equals(language);
+		String path;
+		if ("sent".equals(model))
+			path = spanish ? configuration.getOpenNlpEsSentBin() : configuration.getOpenNlpEnSentBin();
+		else if ("tok".equals(model))
+			path = spanish ? configuration.getOpenNlpEsTokBin() : configuration.getOpenNlpEnTokBin();
+		else
+			path = spanish ? configuration.getOpenNlpEsPosBin() : configuration.getOpenNlpEnPosBin();
+		this.modelFile = new File(path);
+		this.snapshotFile = ModelSnapshot.getSnapshotFile(modelFile);
+		if ("snapshot".equals(format) && !snapshotFile.exists()) {
+			this.snapshotFile = File.createTempFile("acota-" + language + "-" + model, ModelSnapshot.EXTENSION);
+			this.temporary = true;
+			new ModelSnapshotWriter(modelFile).write(snapshotFile);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (temporary)
+			snapshotFile.delete();
+	}
+
+	@Benchmark
+	public MaxentModel load() throws IOException {
+		if ("snapshot".equals(format))
+			return new ModelSnapshot(snapshotFile).getModel();
+		return new SuggestedModelReader(modelFile).getModel();
+	}
+
+}
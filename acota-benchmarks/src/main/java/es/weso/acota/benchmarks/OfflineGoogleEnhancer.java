@@ -0,0 +1,57 @@
+package es.weso.acota.benchmarks;
+
+import java.util.Locale;
+
+import org.w3c.dom.Document;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.GoogleEnhancer;
+import es.weso.acota.core.entity.TagTO;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.exceptions.AcotaDocumentBuilderException;
+
+/**
+ * {@link GoogleEnhancer} that answers the Google Autocomplete's calls with a
+ * synthetic response, so the benchmarks measure the parsing and the folding of
+ * the suggestions without depending on the network.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class OfflineGoogleEnhancer extends GoogleEnhancer {
+
+	private static final String[] SUFFIXES = {"", "s", " online", " definition",
+		" wiki", " news", " images", " video", " map", " review"};
+
+	/**
+	 * One-argument constructor
+	 * @param configuration acota-core's configuration class
+	 * @throws AcotaConfigurationException Any exception that occurs 
+	 * while initializing Configuration object
+	 */
+	public OfflineGoogleEnhancer(CoreConfiguration configuration) throws AcotaConfigurationException {
+		super(configuration);
+	}
+
+	@Override
+	protected Document lookup(TagTO tag) throws AcotaDocumentBuilderException {
+		return processResponse(createResponse(tag.getLabel()));
+	}
+
+	/**
+	 * Creates a Google Autocomplete's XML response with ten suggestions
+	 * @param label Label looked up
+	 * @return Google Autocomplete's XML response
+	 */
+	protected String createResponse(String label) {
+		String escaped = label.toLowerCase(Locale.ROOT).replace("&", "&amp;")
+				.replace("\"", "&quot;").replace("<", "&lt;");
+		StringBuilder response = new StringBuilder("<?xml version=\"1.0\"?><toplevel>");
+		for (String suffix : SUFFIXES) {
+			response.append("<CompleteSuggestion><suggestion data=\"")
+				.append(escaped).append(suffix)
+				.append("\"/></CompleteSuggestion>");
+		}
+		return response.append("</toplevel>").toString();
+	}
+
+}
@@ -0,0 +1,157 @@
+package es.weso.acota.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.lexicon.PosLexiconBuilder;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.EnglishOpenNLPAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.OpenNLPAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.SpanishOpenNLPAnalyzer;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.lang.LanguageDetector;
+
+/**
+ * Compares tagging the descriptions of the {@link Corpus} with the maxent POS tagger
+ * and with the POS lexicon fast path. Unless a lexicon is configured, it is built from
+ * the maxent tags of the even resources of the corpus, and the tags of the odd ones
+ * are compared with the maxent tags, so the agreement is measured on unseen text.
+ * 
+ * @author César Luis Alvargonzález
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PosLexiconBenchmark {
+
+	@Param({"maxent", "lexicon"})
+	public String mode;
+
+	@Param({"en", "es"})
+	public String language;
+
+	protected Corpus corpus;
+	protected int next;
+
+	protected OpenNLPAnalyzer openNlpAnalyzer;
+
+	protected String[][] tokens;
+	protected String[][] maxentTags;
+	protected File lexiconFile;
+
+	/**
+	 * Number of tagged tokens and of tokens whose tag agrees with the maxent POS tagger
+	 */
+	@State(Scope.Thread)
+	@AuxCounters
+	public static class Agreement {
+
+		public long tokens;
+		public long agreed;
+
+		@Setup(Level.Iteration)
+		public void clean() {
+			this.tokens = 0;
+			this.agreed = 0;
+		}
+	}
+
+	@Setup
+	public void setUp() throws IOException, AcotaConfigurationException {
+		CoreConfiguration configuration = new CoreConfiguration();
+		this.corpus = Corpus.load(language);
+		boolean spanish = LanguageDetector.ISO_639_SPANISH.equals(language);
+		OpenNLPAnalyzer maxent = createAnalyzer(configuration, spanish, null);
+
+		this.tokens = new String[corpus.size()][];
+		this.maxentTags = new String[corpus.size()][];
+		PosLexiconBuilder builder = new PosLexiconBuilder();
+		for (int i = 0; i < corpus.size(); i++) {
+			tokens[i] = maxent.tokenize(corpus.getDescription(i));
+			maxentTags[i] = maxent.tag(tokens[i]);
+			if (i % 2 == 0)
+				builder.addSentence(tokens[i], maxentTags[i]);
+		}
+
+		if (!"lexicon".equals(mode)) {
+			this.openNlpAnalyzer = maxent;
+			return;
+		}
+		String lexicon = spanish ? configuration.getOpenNlpEsLexicon() : configuration.getOpenNlpEnLexicon();
+		if (!configuration.isOpenNlpLexiconEnabled() || lexicon == null || !new File(lexicon).exists()) {
+			this.lexiconFile = File.createTempFile("acota-lexicon-" + language, ".bin");
+			builder.write(lexiconFile);
+			lexicon = lexiconFile.getPath();
+		}
+		this.openNlpAnalyzer = createAnalyzer(configuration, spanish, lexicon);
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (lexiconFile != null)
+			lexiconFile.delete();
+	}
+
+	@Benchmark
+	public String[] tag(Agreement agreement) throws AcotaConfigurationException {
+		int i = next();
+		String[] tags = openNlpAnalyzer.tag(tokens[i]);
+		if (i % 2 == 1) {
+			agreement.tokens += tags.length;
+			for (int j = 0; j < tags.length; j++) {
+				if (tags[j].equals(maxentTags[i][j]))
+					agreement.agreed++;
+			}
+		}
+		return tags;
+	}
+
+	/**
+	 * Creates an analyzer
+	 * @param configuration Acota's Configuration Object
+	 * @param spanish true for Spanish, false for English
+	 * @param lexicon Path of the POS lexicon, null to tag every word with the maxent POS tagger
+	 * @return The analyzer
+	 * @throws AcotaConfigurationException Any exception that occurs while loading the models
+	 */
+	protected OpenNLPAnalyzer createAnalyzer(CoreConfiguration configuration, boolean spanish, String lexicon)
+			throws AcotaConfigurationException {
+		configuration.setOpenNlpLexiconEnabled(lexicon != null);
+		if (spanish) {
+			configuration.setOpenNlpEsLexicon(lexicon);
+			return new SpanishOpenNLPAnalyzer(configuration);
+		}
+		configuration.setOpenNlpEnLexicon(lexicon);
+		return new EnglishOpenNLPAnalyzer(configuration);
+	}
+
+	/**
+	 * Returns the position of the next resource of the corpus
+	 * @return Position of the next resource
+	 */
+	protected int next() {
+		int i = next;
+		this.next = (i + 1) % corpus.size();
+		return i;
+	}
+
+}
@@ -0,0 +1,88 @@
+package es.weso.acota.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import net.rubyeye.xmemcached.MemcachedClient;
+import net.rubyeye.xmemcached.XMemcachedClientBuilder;
+import net.rubyeye.xmemcached.exception.MemcachedException;
+import net.rubyeye.xmemcached.utils.AddrUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.exceptions.AcotaRESTException;
+import es.weso.acota.core.utils.rest.MemcachedRESTClient;
+
+/**
+ * Measures the cache path of {@link MemcachedRESTClient}, the responses of the
+ * URLs of the {@link Corpus}' labels are stored in Memcached before the
+ * measurement, so no REST call is performed. It requires a Memcached server
+ * listening at the configured memcached.urls, and memcached.enabled set to true.
+ * 
+ * @author César Luis Alvargonzález
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RESTClientBenchmark {
+
+	@Param({"en", "es"})
+	public String language;
+
+	protected String[] urls;
+	protected int next;
+
+	protected MemcachedRESTClient restClient;
+	protected MemcachedClient memcachedClient;
+
+	@Setup
+	public void setUp() throws IOException, AcotaConfigurationException, 
+			TimeoutException, InterruptedException, MemcachedException {
+		CoreConfiguration configuration = new CoreConfiguration();
+		if (!configuration.getMemcachedEnabled()) {
+			throw new AcotaConfigurationException("memcached.enabled must be true");
+		}
+		this.restClient = MemcachedRESTClient.getInstance(configuration);
+		this.memcachedClient = new XMemcachedClientBuilder(
+				AddrUtil.getAddresses(configuration.getMemcachedUrls())).build();
+
+		Corpus corpus = Corpus.load(language);
+		this.urls = new String[corpus.size()];
+		for (int i = 0; i < corpus.size(); i++) {
+			urls[i] = configuration.getGoogleUrl() + corpus.getLabel(i).replace(' ', '+');
+			// Same key than MemcachedRESTClient
+			memcachedClient.set("rest_" + urls[i].hashCode(), 
+					configuration.getMemcachedExpireTime(), corpus.getDescription(i));
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		memcachedClient.shutdown();
+	}
+
+	@Benchmark
+	public String cacheHit() throws IOException, AcotaRESTException {
+		String url = urls[next];
+		this.next = (next + 1) % urls.length;
+		return restClient.execute(url, MemcachedRESTClient.APPLICATION_XML, "UTF-8");
+	}
+
+}
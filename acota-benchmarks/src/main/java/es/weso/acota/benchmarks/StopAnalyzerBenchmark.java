@@ -0,0 +1,97 @@
+package es.weso.acota.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import es.weso.acota.core.business.enhancer.analyzer.lucene.DefaultStopAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.lucene.EnglishStopAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.lucene.SpanishStopAnalyzer;
+
+/**
+ * Measures the analysis, until the last token, of the labels and the descriptions
+ * of the {@link Corpus} with the Lucene's stop analyzers used by LuceneEnhancer.
+ * 
+ * @author César Luis Alvargonzález
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StopAnalyzerBenchmark {
+
+	@Param({"en", "es"})
+	public String language;
+
+	@Param({Corpus.LABEL, Corpus.DESCRIPTION})
+	public String kind;
+
+	protected Corpus corpus;
+	protected int next;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.corpus = Corpus.load(language);
+	}
+
+	@Benchmark
+	public int defaultStopAnalyzer(Blackhole blackhole) throws IOException {
+		return analyze(DefaultStopAnalyzer.getInstance(), blackhole);
+	}
+
+	@Benchmark
+	public int englishStopAnalyzer(Blackhole blackhole) throws IOException {
+		return analyze(EnglishStopAnalyzer.getInstance(), blackhole);
+	}
+
+	@Benchmark
+	public int spanishStopAnalyzer(Blackhole blackhole) throws IOException {
+		return analyze(SpanishStopAnalyzer.getInstance(), blackhole);
+	}
+
+	/**
+	 * Consumes all the tokens of the next text of the corpus
+	 * @param analyzer Analyzer to use
+	 * @param blackhole Sink of the tokens
+	 * @return Number of tokens
+	 * @throws IOException Any exception that occurs while analyzing the text
+	 */
+	protected int analyze(Analyzer analyzer, Blackhole blackhole) throws IOException {
+		String text = corpus.getText(next, kind);
+		this.next = (next + 1) % corpus.size();
+
+		TokenStream tokenStream = analyzer.tokenStream("label", new StringReader(text));
+		CharTermAttribute term = tokenStream.addAttribute(CharTermAttribute.class);
+		int count = 0;
+		try {
+			tokenStream.reset();
+			while (tokenStream.incrementToken()) {
+				blackhole.consume(term.buffer());
+				count++;
+			}
+			tokenStream.end();
+		} finally {
+			tokenStream.close();
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,92 @@
+package es.weso.acota.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.TokenizerEnhancer;
+import es.weso.acota.core.business.enhancer.ngram.TokenizerEngine;
+import es.weso.acota.core.entity.SuggestionTO;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+/**
+ * Compares the engines of {@link TokenizerEnhancer}, the OpenNLP maxent path and the
+ * Lucene shingles path, enhancing the resources of the {@link Corpus} in turn. Besides
+ * the time, the number of tags produced per request is reported as an auxiliary counter.
+ * 
+ * @author César Luis Alvargonzález
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerEngineBenchmark {
+
+	@Param({"maxent", "shingle"})
+	public String engine;
+
+	@Param({"en", "es"})
+	public String language;
+
+	protected Corpus corpus;
+	protected int next;
+
+	protected TokenizerEnhancer tokenizerEnhancer;
+
+	/**
+	 * Number of tags produced by the enhancer
+	 */
+	@State(Scope.Thread)
+	@AuxCounters
+	public static class Tags {
+
+		public long tags;
+
+		@Setup(Level.Iteration)
+		public void clean() {
+			this.tags = 0;
+		}
+	}
+
+	@Setup
+	public void setUp() throws IOException, AcotaConfigurationException {
+		CoreConfiguration configuration = new CoreConfiguration();
+		configuration.setTokenizerEngine(TokenizerEngine.parse(engine).name());
+		this.corpus = Corpus.load(language);
+		this.tokenizerEnhancer = new TokenizerEnhancer(configuration);
+	}
+
+	@Benchmark
+	public SuggestionTO tokenizer(Tags tags) {
+		SuggestionTO suggestion = tokenizerEnhancer.enhance(corpus.createRequest(next()));
+		tags.tags += suggestion.getTags().size();
+		return suggestion;
+	}
+
+	/**
+	 * Returns the position of the next resource of the corpus
+	 * @return Position of the next resource
+	 */
+	protected int next() {
+		int i = next;
+		this.next = (i + 1) % corpus.size();
+		return i;
+	}
+
+}
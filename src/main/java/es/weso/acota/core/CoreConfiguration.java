@@ -30,9 +30,16 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 	protected int googlePercentile;
 	protected int googleLimit;
 	protected String googleUrl;
+	protected boolean googleAsync;
+	protected int googleAsyncThreads;
+	protected int googleTimeout;
 	
 	protected Double luceneLabelRelevance;
 	protected Double luceneTermRelevance;
+	protected boolean luceneIdfEnabled;
+	protected String luceneIdfFile;
+	protected String luceneEnStopWords;
+	protected String luceneEsStopWords;
 	
 	protected String openNlpEnPosBin;
 	protected String openNlpEnSentBin;
@@ -49,6 +56,11 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 	protected List<String> openNlpEsNouns;
 	protected List<String> openNlpEsVerbs;
 	protected List<String> openNlpEsAdjectives;
+	protected int openNlpPoolSize;
+	protected int openNlpPoolIdleTimeout;
+	protected boolean openNlpLexiconEnabled;
+	protected String openNlpEnLexicon;
+	protected String openNlpEsLexicon;
 
 	protected String tokenizerEnPattern;
 	protected List<String> tokenizerEnTokens;
@@ -60,6 +72,12 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 
 	protected Double tokenizerLabelRelevance;
 	protected Double tokenizerTermRelevance;
+	
+	protected int tokenizerMinCount;
+	protected double tokenizerMinRelevance;
+	protected int tokenizerTopK;
+	protected String tokenizerEngine;
+	protected String tokenizerGazetteer;
 
 	protected String wordnetEnDict;
 
@@ -69,6 +87,15 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 	protected String memcachedUrls;
 	protected int memcachedExpireTime;
 	
+	protected int batchThreads;
+	protected int batchQueueSize;
+	protected int graphThreads;
+	protected int languageCacheSize;
+	protected boolean languageInherit;
+	protected int languageInheritLength;
+	protected boolean metricsEnabled;
+	protected boolean metricsJmx;
+	
 	/**
 	 * Zero-argument default constructor.
 	 * 
@@ -89,6 +116,10 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 		loadWordnetEnhancerConfig();
 		loadGoogleEnhancerConfig();
 		loadMemcachedConfig();
+		loadBatchConfig();
+		loadGraphConfig();
+		loadLanguageDetectorConfig();
+		loadMetricsConfig();
 	}
 
 	public String getGoogleEncoding() {
@@ -119,6 +150,30 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 		return googleUrl;
 	}
 
+	public boolean isGoogleAsync() {
+		return googleAsync;
+	}
+
+	public void setGoogleAsync(boolean googleAsync) {
+		this.googleAsync = googleAsync;
+	}
+
+	public int getGoogleAsyncThreads() {
+		return googleAsyncThreads;
+	}
+
+	public void setGoogleAsyncThreads(int googleAsyncThreads) {
+		this.googleAsyncThreads = googleAsyncThreads;
+	}
+
+	public int getGoogleTimeout() {
+		return googleTimeout;
+	}
+
+	public void setGoogleTimeout(int googleTimeout) {
+		this.googleTimeout = googleTimeout;
+	}
+
 	public Double getLuceneLabelRelevance() {
 		return luceneLabelRelevance;
 	}
@@ -127,6 +182,22 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 		return luceneTermRelevance;
 	}
 
+	public boolean isLuceneIdfEnabled() {
+		return luceneIdfEnabled;
+	}
+
+	public String getLuceneIdfFile() {
+		return luceneIdfFile;
+	}
+
+	public String getLuceneEnStopWords() {
+		return luceneEnStopWords;
+	}
+
+	public String getLuceneEsStopWords() {
+		return luceneEsStopWords;
+	}
+
 	public String getOpenNlpEnPosBin() {
 		return openNlpEnPosBin;
 	}
@@ -179,6 +250,26 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 		return tokenizerTermRelevance;
 	}
 
+	public int getTokenizerMinCount() {
+		return tokenizerMinCount;
+	}
+
+	public double getTokenizerMinRelevance() {
+		return tokenizerMinRelevance;
+	}
+
+	public int getTokenizerTopK() {
+		return tokenizerTopK;
+	}
+
+	public String getTokenizerEngine() {
+		return tokenizerEngine;
+	}
+
+	public String getTokenizerGazetteer() {
+		return tokenizerGazetteer;
+	}
+
 	public String getWordnetEnDict() {
 		return wordnetEnDict;
 	}
@@ -207,6 +298,22 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 		this.luceneTermRelevance = luceneTermRelevance;
 	}
 
+	public void setLuceneIdfEnabled(boolean luceneIdfEnabled) {
+		this.luceneIdfEnabled = luceneIdfEnabled;
+	}
+
+	public void setLuceneIdfFile(String luceneIdfFile) {
+		this.luceneIdfFile = luceneIdfFile;
+	}
+
+	public void setLuceneEnStopWords(String luceneEnStopWords) {
+		this.luceneEnStopWords = luceneEnStopWords;
+	}
+
+	public void setLuceneEsStopWords(String luceneEsStopWords) {
+		this.luceneEsStopWords = luceneEsStopWords;
+	}
+
 	public void setOpenNlpEnPosBin(String openNlpEnPosBin) {
 		this.openNlpEnPosBin = openNlpEnPosBin;
 	}
@@ -295,6 +402,46 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 		this.openNlpEsAdjectives = openNlpEsAdjectives;
 	}
 
+	public int getOpenNlpPoolSize() {
+		return openNlpPoolSize;
+	}
+
+	public void setOpenNlpPoolSize(int openNlpPoolSize) {
+		this.openNlpPoolSize = openNlpPoolSize;
+	}
+
+	public int getOpenNlpPoolIdleTimeout() {
+		return openNlpPoolIdleTimeout;
+	}
+
+	public void setOpenNlpPoolIdleTimeout(int openNlpPoolIdleTimeout) {
+		this.openNlpPoolIdleTimeout = openNlpPoolIdleTimeout;
+	}
+
+	public boolean isOpenNlpLexiconEnabled() {
+		return openNlpLexiconEnabled;
+	}
+
+	public void setOpenNlpLexiconEnabled(boolean openNlpLexiconEnabled) {
+		this.openNlpLexiconEnabled = openNlpLexiconEnabled;
+	}
+
+	public String getOpenNlpEnLexicon() {
+		return openNlpEnLexicon;
+	}
+
+	public void setOpenNlpEnLexicon(String openNlpEnLexicon) {
+		this.openNlpEnLexicon = openNlpEnLexicon;
+	}
+
+	public String getOpenNlpEsLexicon() {
+		return openNlpEsLexicon;
+	}
+
+	public void setOpenNlpEsLexicon(String openNlpEsLexicon) {
+		this.openNlpEsLexicon = openNlpEsLexicon;
+	}
+
 	public void setTokenizerEnPattern(String tokenizerEnPattern) {
 		this.tokenizerEnPattern = tokenizerEnPattern;
 	}
@@ -323,6 +470,26 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 		this.tokenizerTermRelevance = tokenizerTermRelevance;
 	}
 
+	public void setTokenizerMinCount(int tokenizerMinCount) {
+		this.tokenizerMinCount = tokenizerMinCount;
+	}
+
+	public void setTokenizerMinRelevance(double tokenizerMinRelevance) {
+		this.tokenizerMinRelevance = tokenizerMinRelevance;
+	}
+
+	public void setTokenizerTopK(int tokenizerTopK) {
+		this.tokenizerTopK = tokenizerTopK;
+	}
+
+	public void setTokenizerEngine(String tokenizerEngine) {
+		this.tokenizerEngine = tokenizerEngine;
+	}
+
+	public void setTokenizerGazetteer(String tokenizerGazetteer) {
+		this.tokenizerGazetteer = tokenizerGazetteer;
+	}
+
 	public void setWordnetEnDict(String wordnetEnDict) {
 		this.wordnetEnDict = wordnetEnDict;
 	}
@@ -355,6 +522,70 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 		this.memcachedExpireTime = memcachedExpireTime;
 	}
 
+	public int getBatchThreads() {
+		return batchThreads;
+	}
+
+	public void setBatchThreads(int batchThreads) {
+		this.batchThreads = batchThreads;
+	}
+
+	public int getGraphThreads() {
+		return graphThreads;
+	}
+
+	public void setGraphThreads(int graphThreads) {
+		this.graphThreads = graphThreads;
+	}
+
+	public int getLanguageCacheSize() {
+		return languageCacheSize;
+	}
+
+	public void setLanguageCacheSize(int languageCacheSize) {
+		this.languageCacheSize = languageCacheSize;
+	}
+
+	public boolean isLanguageInherit() {
+		return languageInherit;
+	}
+
+	public void setLanguageInherit(boolean languageInherit) {
+		this.languageInherit = languageInherit;
+	}
+
+	public int getLanguageInheritLength() {
+		return languageInheritLength;
+	}
+
+	public void setLanguageInheritLength(int languageInheritLength) {
+		this.languageInheritLength = languageInheritLength;
+	}
+
+	public boolean isMetricsEnabled() {
+		return metricsEnabled;
+	}
+
+	public void setMetricsEnabled(boolean metricsEnabled) {
+		this.metricsEnabled = metricsEnabled;
+	}
+
+	public boolean isMetricsJmx() {
+		return metricsJmx;
+	}
+
+	public void setMetricsJmx(boolean metricsJmx) {
+		this.metricsJmx = metricsJmx;
+	}
+
+	public int getBatchQueueSize() {
+		return batchQueueSize;
+	}
+
+	public void setBatchQueueSize(int batchQueueSize) {
+		this.batchQueueSize = batchQueueSize;
+	}
+
 	@Override
 	protected void loadCustomConfiguration(CompositeConfiguration config) throws AcotaConfigurationException {
 		try {
@@ -385,6 +616,9 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 		this.setGoogleRelevance(CONFIG.getDouble("google.relevance"));
 		this.setGooglePercentile(CONFIG.getInt("google.percentile"));
 		this.setGoogleLimit(CONFIG.getInt("google.limit"));
+		this.setGoogleAsync(CONFIG.getBoolean("google.async", false));
+		this.setGoogleAsyncThreads(CONFIG.getInt("google.async.threads", 16));
+		this.setGoogleTimeout(CONFIG.getInt("google.timeout", 0));
 	}
 
 	/**
@@ -394,6 +628,10 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 	private void loadLuceneEnhancerConfig() {
 		this.setLuceneTermRelevance(CONFIG.getDouble("lucene.term.relevance"));
 		this.setLuceneLabelRelevance(CONFIG.getDouble("lucene.label.relevance"));
+		this.setLuceneIdfEnabled(CONFIG.getBoolean("lucene.idf.enabled", false));
+		this.setLuceneIdfFile(CONFIG.getString("lucene.idf.file"));
+		this.setLuceneEnStopWords(CONFIG.getString("lucene.en.stopwords", ""));
+		this.setLuceneEsStopWords(CONFIG.getString("lucene.es.stopwords", ""));
 	}
 
 	/**
@@ -425,6 +663,13 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 				Collections.EMPTY_LIST));
 		this.setOpenNlpEnAdjectives((List) CONFIG.getList("opennlp.en.adjectives",
 				Collections.EMPTY_LIST));
+
+		this.setOpenNlpPoolSize(CONFIG.getInt("opennlp.pool.size", 0));
+		this.setOpenNlpPoolIdleTimeout(CONFIG.getInt("opennlp.pool.idle.timeout", 300000));
+
+		this.setOpenNlpLexiconEnabled(CONFIG.getBoolean("opennlp.lexicon.enabled", false));
+		this.setOpenNlpEnLexicon(CONFIG.getString("opennlp.en.lexicon"));
+		this.setOpenNlpEsLexicon(CONFIG.getString("opennlp.es.lexicon"));
 	}
 
 	/**
@@ -444,6 +689,11 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 		this.setTokenizerEsPattern(CONFIG.getString("tokenizer.es.pattern"));
 		this.setTokenizerEsTokens((List) CONFIG.getList("tokenizer.es.tokens",
 				Collections.EMPTY_LIST));
+		this.setTokenizerMinCount(CONFIG.getInt("tokenizer.min.count", 1));
+		this.setTokenizerMinRelevance(CONFIG.getDouble("tokenizer.min.relevance", 0d));
+		this.setTokenizerTopK(CONFIG.getInt("tokenizer.top.k", 0));
+		this.setTokenizerEngine(CONFIG.getString("tokenizer.engine", "maxent"));
+		this.setTokenizerGazetteer(CONFIG.getString("tokenizer.gazetteer", ""));
 	}
 
 	/**
@@ -463,5 +713,41 @@ public class CoreConfiguration extends SeedConfiguration implements Configuratio
 		this.setMemcachedUrls(CONFIG.getString("memcached.urls"));
 		this.setMemcachedExpireTime(CONFIG.getInt("memcached.expireTime"));
 	}
+	
+	/**
+	 * Loads {@linked es.weso.acota.core.business.enhancer.BatchEnhancer}'s
+	 * Configuration
+	 */
+	private void loadBatchConfig() {
+		this.setBatchThreads(CONFIG.getInt("batch.threads", 0));
+		this.setBatchQueueSize(CONFIG.getInt("batch.queue.size", 256));
+	}
+
+	/**
+	 * Loads {@linked es.weso.acota.core.business.enhancer.EnhancerGraph}'s
+	 * Configuration
+	 */
+	private void loadGraphConfig() {
+		this.setGraphThreads(CONFIG.getInt("graph.threads", 0));
+	}
+
+	/**
+	 * Loads {@linked es.weso.acota.core.utils.lang.CachedLanguageDetector}'s
+	 * Configuration
+	 */
+	private void loadLanguageDetectorConfig() {
+		this.setLanguageCacheSize(CONFIG.getInt("language.cache.size", 4096));
+		this.setLanguageInherit(CONFIG.getBoolean("language.inherit", false));
+		this.setLanguageInheritLength(CONFIG.getInt("language.inherit.length", 64));
+	}
+
+	/**
+	 * Loads {@linked es.weso.acota.core.business.enhancer.metrics.MetricsRegistry}'s
+	 * Configuration
+	 */
+	private void loadMetricsConfig() {
+		this.setMetricsEnabled(CONFIG.getBoolean("metrics.enabled", true));
+		this.setMetricsJmx(CONFIG.getBoolean("metrics.jmx", true));
+	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,334 @@
+package es.weso.acota.core.business.enhancer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.entity.ProviderTO;
+import es.weso.acota.core.entity.RequestSuggestionTO;
+import es.weso.acota.core.entity.ResourceTO;
+import es.weso.acota.core.entity.SuggestionTO;
+import es.weso.acota.core.entity.TagTO;
+import es.weso.acota.core.exceptions.AcotaBatchException;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.stream.ResourceReader;
+import es.weso.acota.core.utils.stream.StreamFormat;
+import es.weso.acota.core.utils.stream.SuggestionWriter;
+
+/**
+ * BatchEnhancer runs a set of {@link RequestSuggestionTO}s through a chain of
+ * {@link EnhancerAdapter}s on a pool of workers, the size of the pool is
+ * configurable and supplied by {@link CoreConfiguration}. Each worker builds
+ * its own chain through the supplied {@link EnhancerFactory}, unless a chain of
+ * {@link ConcurrentEnhancerAdapter}s is shared by all of them, and the results
+ * are returned in the same order as the requests. Large corpora could be
+ * streamed, from a {@link ResourceReader} to a {@link SuggestionWriter}, with
+ * a bounded number of requests in flight.
+ *
+ * @author César Luis Alvargonzález
+ */
+public class BatchEnhancer implements Configurable {
+
+	protected static Logger logger = Logger.getLogger(BatchEnhancer.class);
+
+	protected int batchThreads;
+	protected int batchQueueSize;
+
+	protected EnhancerFactory factory;
+	protected ExecutorService executor;
+	protected ThreadLocal<EnhancerAdapter> chains;
+
+	protected CoreConfiguration configuration;
+
+	/**
+	 * One-argument constructor
+	 * @param factory Factory of the chain of enhancers used by each worker
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing
+	 * a Configuration object
+	 */
+	public BatchEnhancer(EnhancerFactory factory) throws AcotaConfigurationException {
+		this(factory, null);
+	}
+
+	/**
+	 * Two-argument constructor
+	 * @param factory Factory of the chain of enhancers used by each worker
+	 * @param configuration acota-core's configuration class
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing
+	 * a Configuration object
+	 */
+	public BatchEnhancer(EnhancerFactory factory, CoreConfiguration configuration) throws AcotaConfigurationException {
+		this.factory = factory;
+		this.chains = new ThreadLocal<EnhancerAdapter>();
+		loadConfiguration(configuration);
+	}
+
+	/**
+	 * Two-argument constructor, every worker shares the supplied chain, so all the
+	 * enhancers of the chain must keep the state of the requests in an
+	 * {@link EnhancerContext}
+	 * @param chain First {@link ConcurrentEnhancerAdapter} of the shared chain
+	 * @param configuration acota-core's configuration class
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing
+	 * a Configuration object
+	 */
+	public BatchEnhancer(final ConcurrentEnhancerAdapter<?> chain, CoreConfiguration configuration) throws AcotaConfigurationException {
+		this(new EnhancerFactory() {
+			@Override
+			public EnhancerAdapter createEnhancer() {
+				return chain;
+			}
+		}, configuration);
+	}
+
+	/**
+	 * @see Configurable#loadConfiguration(CoreConfiguration)
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing
+	 * a Configuration object
+	 */
+	@Override
+	public synchronized void loadConfiguration(CoreConfiguration configuration) throws AcotaConfigurationException {
+		if (configuration == null)
+			configuration = new CoreConfiguration();
+		this.configuration = configuration;
+
+		int threads = configuration.getBatchThreads() > 0 ? configuration.getBatchThreads()
+				: Runtime.getRuntime().availableProcessors();
+		if (executor != null && threads != batchThreads) {
+			executor.shutdown();
+			this.executor = null;
+		}
+		this.batchThreads = threads;
+		this.batchQueueSize = Math.max(configuration.getBatchQueueSize(), 1);
+	}
+
+	/**
+	 * Enhances a collection of requests
+	 * @param requests Requests to enhance
+	 * @return The {@link SuggestionTO}s, in the same order as the requests
+	 * @throws AcotaBatchException Any exception that occurs while enhancing the requests
+	 */
+	public List<SuggestionTO> enhance(Collection<RequestSuggestionTO> requests) throws AcotaBatchException {
+		return enhance(requests.iterator());
+	}
+
+	/**
+	 * Enhances the requests supplied by an iterator, at most batch.queue.size
+	 * requests are in flight, the iteration waits while the queue is full, so 
+	 * the requests could be produced lazily
+	 * @param requests Requests to enhance
+	 * @return The {@link SuggestionTO}s, in the same order as the requests
+	 * @throws AcotaBatchException Any exception that occurs while enhancing the requests
+	 */
+	public List<SuggestionTO> enhance(Iterator<RequestSuggestionTO> requests) throws AcotaBatchException {
+		ExecutorService executor = loadExecutor();
+		LinkedList<Future<SuggestionTO>> pending = new LinkedList<Future<SuggestionTO>>();
+		List<SuggestionTO> results = new ArrayList<SuggestionTO>();
+		try {
+			while (requests.hasNext()) {
+				if (pending.size() >= batchQueueSize) {
+					results.add(pending.removeFirst().get());
+				}
+				pending.addLast(executor.submit(new EnhanceTask(requests.next())));
+			}
+			while (!pending.isEmpty()) {
+				results.add(pending.removeFirst().get());
+			}
+		} catch (InterruptedException e) {
+			cancel(pending);
+			Thread.currentThread().interrupt();
+			throw new AcotaBatchException("Batch enhancement interrupted", e);
+		} catch (ExecutionException e) {
+			cancel(pending);
+			throw new AcotaBatchException("Batch enhancement failed", e.getCause());
+		}
+		return results;
+	}
+
+	/**
+	 * Enhances the resources of a stream, writing their suggestions to other stream
+	 * @param in Stream of resources
+	 * @param out Stream of suggestions, it is flushed but not closed
+	 * @param format Format of both streams
+	 * @return Number of written suggestions
+	 * @throws AcotaBatchException Any exception that occurs while enhancing the resources
+	 * @see #enhance(ResourceReader, SuggestionWriter)
+	 */
+	public long enhance(InputStream in, OutputStream out, StreamFormat format) throws AcotaBatchException {
+		return enhance(format.createReader(in), format.createWriter(out));
+	}
+
+	/**
+	 * Enhances the resources supplied by a reader, the suggestions of each resource are
+	 * written, in the same order as the resources, as soon as they are available. 
+	 * At most batch.queue.size requests are in flight, the reading waits while
+	 * the queue is full, so the memory use does not depend on the size of the stream
+	 * @param reader Reader of the resources
+	 * @param writer Writer of the suggestions, it is flushed but not closed
+	 * @return Number of written suggestions
+	 * @throws AcotaBatchException Any exception that occurs while reading, enhancing 
+	 * or writing the resources
+	 */
+	public long enhance(ResourceReader reader, SuggestionWriter writer) throws AcotaBatchException {
+		ExecutorService executor = loadExecutor();
+		LinkedList<Future<SuggestionTO>> pending = new LinkedList<Future<SuggestionTO>>();
+		long written = 0;
+		try {
+			ResourceTO resource;
+			while ((resource = reader.read()) != null) {
+				if (pending.size() >= batchQueueSize) {
+					writer.write(pending.removeFirst().get());
+					written++;
+				}
+				pending.addLast(executor.submit(new EnhanceTask(createRequest(resource))));
+				while (!pending.isEmpty() && pending.getFirst().isDone()) {
+					writer.write(pending.removeFirst().get());
+					written++;
+				}
+			}
+			while (!pending.isEmpty()) {
+				writer.write(pending.removeFirst().get());
+				written++;
+			}
+			writer.flush();
+		} catch (IOException e) {
+			cancel(pending);
+			throw new AcotaBatchException("Stream enhancement failed after " + written + " resources", e);
+		} catch (InterruptedException e) {
+			cancel(pending);
+			Thread.currentThread().interrupt();
+			throw new AcotaBatchException("Stream enhancement interrupted", e);
+		} catch (ExecutionException e) {
+			cancel(pending);
+			throw new AcotaBatchException("Stream enhancement failed", e.getCause());
+		}
+		return written;
+	}
+
+	/**
+	 * Creates a request, with empty suggestions, for a resource
+	 * @param resource Resource to enhance
+	 * @return A new request
+	 */
+	protected RequestSuggestionTO createRequest(ResourceTO resource) {
+		RequestSuggestionTO request = new RequestSuggestionTO(resource);
+		request.setSuggestions(new SuggestionTO(new HashMap<String, TagTO>(), resource));
+		request.setTargetProviders(new LinkedList<ProviderTO>());
+		return request;
+	}
+
+	/**
+	 * Stops the workers, pending requests will be completed, and each worker
+	 * releases its chain of enhancers when it terminates
+	 */
+	public synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdown();
+			this.executor = null;
+		}
+	}
+
+	/**
+	 * Loads the pool of workers, in the case it does not exists, it will create one
+	 * @return Pool of workers
+	 */
+	protected synchronized ExecutorService loadExecutor() {
+		if (executor == null) {
+			logger.debug("Starting " + batchThreads + " batch workers");
+			this.executor = Executors.newFixedThreadPool(batchThreads, new EnhancerThreadFactory("batch") {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					return super.newThread(new ChainReleaser(runnable));
+				}
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * Loads the chain of enhancers of the current worker,
+	 * in the case it does not exists, it will create one
+	 * @return The first {@link EnhancerAdapter} of the chain
+	 * @throws Exception Any exception that occurs while building the chain
+	 */
+	protected EnhancerAdapter loadChain() throws Exception {
+		EnhancerAdapter chain = chains.get();
+		if (chain == null) {
+			chain = factory.createEnhancer();
+			chains.set(chain);
+		}
+		return chain;
+	}
+
+	/**
+	 * Cancels the pending requests
+	 * @param futures Requests' futures
+	 */
+	protected void cancel(List<Future<SuggestionTO>> futures) {
+		for (Future<SuggestionTO> future : futures) {
+			future.cancel(true);
+		}
+	}
+
+	/**
+	 * Runs a worker and removes its chain of enhancers when the worker terminates, 
+	 * so the chains do not outlive the pool
+	 */
+	protected class ChainReleaser implements Runnable {
+
+		protected final Runnable worker;
+
+		/**
+		 * One-argument constructor
+		 * @param worker Worker of the pool
+		 */
+		public ChainReleaser(Runnable worker) {
+			this.worker = worker;
+		}
+
+		@Override
+		public void run() {
+			try {
+				worker.run();
+			} finally {
+				chains.remove();
+			}
+		}
+	}
+
+	/**
+	 * Task that enhances a single request with the chain of the current worker
+	 */
+	protected class EnhanceTask implements Callable<SuggestionTO> {
+
+		protected final RequestSuggestionTO request;
+
+		/**
+		 * One-argument constructor
+		 * @param request Request to enhance
+		 */
+		public EnhanceTask(RequestSuggestionTO request) {
+			this.request = request;
+		}
+
+		@Override
+		public SuggestionTO call() throws Exception {
+			return loadChain().enhance(request);
+		}
+	}
+
+}
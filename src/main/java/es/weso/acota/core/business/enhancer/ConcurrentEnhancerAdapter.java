@@ -0,0 +1,279 @@
+package es.weso.acota.core.business.enhancer;
+
+import org.apache.log4j.Logger;
+
+import es.weso.acota.core.business.enhancer.analyzer.document.RequestDocuments;
+import es.weso.acota.core.business.enhancer.metrics.EnhancerMetrics;
+import es.weso.acota.core.business.enhancer.metrics.MetricsRegistry;
+import es.weso.acota.core.business.enhancer.metrics.Stage;
+import es.weso.acota.core.entity.ProviderTO;
+import es.weso.acota.core.entity.RequestSuggestionTO;
+import es.weso.acota.core.entity.ResourceTO;
+import es.weso.acota.core.entity.SuggestionTO;
+import es.weso.acota.core.entity.TagTO;
+
+/**
+ * This class adapts {@link EnhancerAdapter} to keep the state of each request
+ * in an {@link EnhancerContext} instead of in fields, so a single chain of
+ * enhancers, and its models, could be shared by any number of threads.
+ * When a {@link MetricsRegistry} is set, the wall time of each stage of the
+ * lifecycle, the tags added and removed, and the length of the processed text
+ * are recorded by enhancer and language. The lifecycle inherited from
+ * {@link EnhancerAdapter} is still supported, it runs over a context created
+ * for the request of the enhancer. Each enhancer keeps its own provider, instead
+ * of the one shared by every {@link EnhancerAdapter}.
+ *
+ * @param <C> Type of the context used by the enhancer
+ * @author César Luis Alvargonzález
+ */
+public abstract class ConcurrentEnhancerAdapter<C extends EnhancerContext> extends EnhancerAdapter {
+
+	protected static Logger logger = Logger.getLogger(ConcurrentEnhancerAdapter.class);
+
+	protected volatile MetricsRegistry metrics;
+
+	protected ProviderTO provider;
+
+	private final ThreadLocal<C> legacyContexts = new ThreadLocal<C>();
+
+	/**
+	 * @see Enhancer#getProvider()
+	 */
+	@Override
+	public ProviderTO getProvider() {
+		return provider;
+	}
+
+	/**
+	 * Enhances the request with this enhancer and its successors
+	 * @param request Request to enhance
+	 * @return The enhanced {@link SuggestionTO}
+	 */
+	@Override
+	public SuggestionTO enhance(RequestSuggestionTO request) {
+		return enhance(request, new RequestDocuments());
+	}
+
+	/**
+	 * Enhances the request with this enhancer and its successors, the documents
+	 * of the request are passed down the chain of {@link ConcurrentEnhancerAdapter}s
+	 * @param request Request to enhance
+	 * @param documents Documents of the request
+	 * @return The enhanced {@link SuggestionTO}
+	 */
+	public SuggestionTO enhance(RequestSuggestionTO request, RequestDocuments documents) {
+		SuggestionTO suggestion = process(request, documents);
+		if (successor instanceof ConcurrentEnhancerAdapter) {
+			return ((ConcurrentEnhancerAdapter<?>) successor).enhance(request, documents);
+		} else if (successor != null) {
+			return successor.enhance(request);
+		}
+		return suggestion;
+	}
+
+	/**
+	 * Enhances the request only with this enhancer, without calling its successor
+	 * @param request Request to enhance
+	 * @return The enhanced {@link SuggestionTO}
+	 */
+	public SuggestionTO process(RequestSuggestionTO request) {
+		return process(request, new RequestDocuments());
+	}
+
+	/**
+	 * Enhances the request only with this enhancer, without calling its successor
+	 * @param request Request to enhance
+	 * @param documents Documents of the request, shared with the rest of the chain
+	 * @return The enhanced {@link SuggestionTO}
+	 */
+	public SuggestionTO process(RequestSuggestionTO request, RequestDocuments documents) {
+		C context = createContext(request);
+		context.setDocuments(documents);
+		MetricsRegistry metrics = this.metrics;
+		if (metrics != null && metrics.isEnabled()) {
+			processAndRecord(context, metrics);
+		} else {
+			try {
+				preExecute(context);
+				execute(context);
+				postExecute(context);
+			} catch (Exception e) {
+				logger.error("An error occurred while enhancing the request", e);
+			}
+		}
+		return context.getSuggest();
+	}
+
+	/**
+	 * Performs the lifecycle of the request, recording its metrics
+	 * @param context Request's context
+	 * @param metrics Registry of the metrics
+	 */
+	protected void processAndRecord(C context, MetricsRegistry metrics) {
+		long start = System.nanoTime();
+		long preExecuted = -1;
+		long executed = -1;
+		boolean failed = false;
+		try {
+			preExecute(context);
+			preExecuted = System.nanoTime();
+			execute(context);
+			executed = System.nanoTime();
+			postExecute(context);
+		} catch (Exception e) {
+			failed = true;
+			logger.error("An error occurred while enhancing the request", e);
+		}
+		long end = System.nanoTime();
+
+		EnhancerMetrics enhancerMetrics = metrics.getMetrics(getMetricsName(), context.getLanguage());
+		if (preExecuted >= 0) {
+			enhancerMetrics.record(Stage.PRE_EXECUTE, preExecuted - start);
+			if (executed >= 0) {
+				enhancerMetrics.record(Stage.EXECUTE, executed - preExecuted);
+				if (!failed)
+					enhancerMetrics.record(Stage.POST_EXECUTE, end - executed);
+			}
+		}
+		enhancerMetrics.recordRequest(end - start, textLength(context.getRequest()),
+				context.getAddedTags(), context.getRemovedTags(), failed);
+	}
+
+	/**
+	 * Name of the enhancer in the metrics
+	 * @return By default, the simple name of the class
+	 */
+	protected String getMetricsName() {
+		String name = getClass().getSimpleName();
+		return name.length() > 0 ? name : getClass().getName();
+	}
+
+	/**
+	 * Calculates the length of the text of the request
+	 * @param request Request to measure
+	 * @return Length of the label plus the length of the description
+	 */
+	protected int textLength(RequestSuggestionTO request) {
+		ResourceTO resource = request.getResource();
+		if (resource == null)
+			return 0;
+		int length = 0;
+		if (resource.getLabel() != null)
+			length += resource.getLabel().length();
+		if (resource.getDescription() != null)
+			length += resource.getDescription().length();
+		return length;
+	}
+
+	/**
+	 * Creates the context that will keep the state of the request
+	 * @param request Request to process
+	 * @return A new context
+	 */
+	protected abstract C createContext(RequestSuggestionTO request);
+
+	/**
+	 * Loads the suggestions of the request into the context
+	 * @param context Request's context
+	 * @throws Exception Any exception that occurs
+	 */
+	protected void preExecute(C context) throws Exception {
+		RequestSuggestionTO request = context.getRequest();
+		SuggestionTO suggest = request.getSuggestions();
+		context.setSuggest(suggest);
+		context.setTags(suggest.getTags());
+		suggest.setResource(request.getResource());
+	}
+
+	/**
+	 * Performs the enhancement
+	 * @param context Request's context
+	 * @throws Exception Any exception that occurs
+	 */
+	protected abstract void execute(C context) throws Exception;
+
+	/**
+	 * Stores the provider and the suggestions into the request
+	 * @param context Request's context
+	 * @throws Exception Any exception that occurs
+	 */
+	protected void postExecute(C context) throws Exception {
+		RequestSuggestionTO request = context.getRequest();
+		logger.debug("Add providers to request");
+		request.getTargetProviders().add(provider);
+		logger.debug("Add suggestons to request");
+		request.setSuggestions(context.getSuggest());
+	}
+
+	/**
+	 * Adds the tag to the context's tags, or increases its weight
+	 * if it already exists
+	 * @param context Request's context
+	 * @param tag Tag to add
+	 * @param relevance Weight to add to the tag
+	 */
+	protected void fillSuggestions(C context, TagTO tag, double relevance) {
+		if (context.getTagIndex().add(tag, relevance)) {
+			context.tagAdded();
+		}
+	}
+
+	/**
+	 * Creates the context of the request of the enhancer and loads its suggestions,
+	 * lifecycle of {@link EnhancerAdapter}, {@link #process(RequestSuggestionTO)} is
+	 * preferred, as it does not keep the request in the enhancer
+	 * @throws Exception Any exception that occurs
+	 */
+	@Override
+	protected void preExecute() throws Exception {
+		if (request == null)
+			throw new IllegalStateException("There is no request to enhance");
+		C context = createContext(request);
+		legacyContexts.set(context);
+		try {
+			preExecute(context);
+		} catch (Exception e) {
+			legacyContexts.remove();
+			throw e;
+		}
+	}
+
+	/**
+	 * Performs the enhancement over the context created by {@link #preExecute()},
+	 * lifecycle of {@link EnhancerAdapter}
+	 * @throws Exception Any exception that occurs
+	 */
+	@Override
+	protected void execute() throws Exception {
+		execute(getLegacyContext());
+	}
+
+	/**
+	 * Stores the provider and the suggestions of the context created by
+	 * {@link #preExecute()} into the request, lifecycle of {@link EnhancerAdapter}
+	 * @throws Exception Any exception that occurs
+	 */
+	@Override
+	protected void postExecute() throws Exception {
+		C context = getLegacyContext();
+		try {
+			postExecute(context);
+			this.suggest = context.getSuggest();
+			this.tags = context.getTags();
+		} finally {
+			legacyContexts.remove();
+		}
+	}
+
+	/**
+	 * Returns the context created by {@link #preExecute()} in the current thread
+	 * @return The context of the request
+	 */
+	private C getLegacyContext() {
+		C context = legacyContexts.get();
+		if (context == null)
+			throw new IllegalStateException("preExecute() has not been called");
+		return context;
+	}
+
+}
@@ -0,0 +1,115 @@
+package es.weso.acota.core.business.enhancer;
+
+import java.util.Map;
+
+import es.weso.acota.core.business.enhancer.analyzer.document.RequestDocuments;
+import es.weso.acota.core.entity.RequestSuggestionTO;
+import es.weso.acota.core.entity.SuggestionTO;
+import es.weso.acota.core.entity.TagTO;
+
+/**
+ * EnhancerContext keeps the state of a single request while it is processed
+ * by an {@link ConcurrentEnhancerAdapter}, so the enhancer itself only holds
+ * shared, read-only data and could serve concurrent requests.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class EnhancerContext {
+
+	protected final RequestSuggestionTO request;
+	protected SuggestionTO suggest;
+	protected Map<String, TagTO> tags;
+	protected TagIndex tagIndex;
+	protected String language;
+	protected RequestDocuments documents;
+	protected int addedTags;
+	protected int removedTags;
+
+	/**
+	 * One-argument constructor
+	 * @param request Request to process
+	 */
+	public EnhancerContext(RequestSuggestionTO request) {
+		this.request = request;
+	}
+
+	public RequestSuggestionTO getRequest() {
+		return request;
+	}
+
+	public SuggestionTO getSuggest() {
+		return suggest;
+	}
+
+	public void setSuggest(SuggestionTO suggest) {
+		this.suggest = suggest;
+	}
+
+	public Map<String, TagTO> getTags() {
+		return tags;
+	}
+
+	public void setTags(Map<String, TagTO> tags) {
+		this.tags = tags;
+		this.tagIndex = null;
+	}
+
+	/**
+	 * Returns the index of the tags, in the case it does not exists, or the tags
+	 * have been replaced or changed from outside it, it will create one
+	 * @return The {@link TagIndex} of the tags
+	 */
+	public TagIndex getTagIndex() {
+		if (tagIndex == null || !tagIndex.isIndexing(tags)) {
+			this.tagIndex = new TagIndex(tags);
+		}
+		return tagIndex;
+	}
+
+	public String getLanguage() {
+		return language;
+	}
+
+	public void setLanguage(String language) {
+		this.language = language;
+	}
+
+	/**
+	 * Returns the documents of the request, shared by the enhancers of the chain,
+	 * in the case they do not exist, it will create them
+	 * @return The {@link RequestDocuments} of the request
+	 */
+	public RequestDocuments getDocuments() {
+		if (documents == null) {
+			this.documents = new RequestDocuments();
+		}
+		return documents;
+	}
+
+	public void setDocuments(RequestDocuments documents) {
+		this.documents = documents;
+	}
+
+	public int getAddedTags() {
+		return addedTags;
+	}
+
+	public int getRemovedTags() {
+		return removedTags;
+	}
+
+	/**
+	 * Counts a tag added to the suggestions
+	 */
+	public void tagAdded() {
+		addedTags++;
+	}
+
+	/**
+	 * Counts a tag removed from the suggestions
+	 */
+	public void tagRemoved() {
+		removedTags++;
+	}
+
+}
@@ -0,0 +1,23 @@
+package es.weso.acota.core.business.enhancer;
+
+import java.io.IOException;
+
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+/**
+ * EnhancerFactory Interface, a class that implements this interface
+ * is able to build a complete chain of {@link EnhancerAdapter}s
+ * 
+ * @author César Luis Alvargonzález
+ */
+public interface EnhancerFactory {
+	
+	/**
+	 * Builds a new chain of enhancers
+	 * @return The first {@link EnhancerAdapter} of the chain
+	 * @throws IOException If there is some issue reading the enhancers' files
+	 * @throws AcotaConfigurationException Any exception that occurs while 
+	 * initializing a Acota's Configuration object
+	 */
+	public EnhancerAdapter createEnhancer() throws IOException, AcotaConfigurationException;
+}
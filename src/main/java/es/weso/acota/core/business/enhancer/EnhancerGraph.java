@@ -0,0 +1,356 @@
+package es.weso.acota.core.business.enhancer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.document.RequestDocuments;
+import es.weso.acota.core.entity.ProviderTO;
+import es.weso.acota.core.entity.RequestSuggestionTO;
+import es.weso.acota.core.entity.SuggestionTO;
+import es.weso.acota.core.entity.TagTO;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+/**
+ * EnhancerGraph is an {@link Enhancer} that runs a set of
+ * {@link ConcurrentEnhancerAdapter}s declared as a DAG, each enhancer declares
+ * the enhancers whose output it consumes. The enhancers that do not depend on
+ * each other run concurrently, each one over its own copy of the suggestions,
+ * and their contributions are merged in declaration order before the dependent
+ * enhancers run, so the result does not depend on the scheduling.
+ * 
+ * <pre>
+ * graph.addEnhancer("lucene", new LuceneEnhancer())
+ *      .addEnhancer("tokenizer", new TokenizerEnhancer())
+ *      .addEnhancer("opennlp", new OpenNLPEnhancer(), "lucene", "tokenizer")
+ *      .addEnhancer("wordnet", new WordnetEnhancer(), "opennlp")
+ *      .addEnhancer("google", new GoogleEnhancer(), "wordnet");
+ * </pre>
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class EnhancerGraph extends ConcurrentEnhancerAdapter<EnhancerContext> implements Configurable {
+
+	protected static Logger logger = Logger.getLogger(EnhancerGraph.class);
+
+	protected int graphThreads;
+
+	protected Map<String, EnhancerNode> nodes;
+	protected volatile List<List<EnhancerNode>> layers;
+	protected ExecutorService executor;
+
+	protected CoreConfiguration configuration;
+
+	/**
+	 * Zero-argument default constructor
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing
+	 * a Configuration object
+	 */
+	public EnhancerGraph() throws AcotaConfigurationException {
+		this(null);
+	}
+
+	/**
+	 * One-argument constructor
+	 * @param configuration acota-core's configuration class
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing
+	 * a Configuration object
+	 */
+	public EnhancerGraph(CoreConfiguration configuration) throws AcotaConfigurationException {
+		super();
+		this.nodes = new LinkedHashMap<String, EnhancerNode>();
+		this.layers = Collections.emptyList();
+		loadConfiguration(configuration);
+	}
+
+	/**
+	 * @see Configurable#loadConfiguration(CoreConfiguration)
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing
+	 * a Configuration object
+	 */
+	@Override
+	public synchronized void loadConfiguration(CoreConfiguration configuration) throws AcotaConfigurationException {
+		if (configuration == null)
+			configuration = new CoreConfiguration();
+		this.configuration = configuration;
+
+		int threads = configuration.getGraphThreads() > 0 ? configuration.getGraphThreads()
+				: Runtime.getRuntime().availableProcessors();
+		if (executor != null && threads != graphThreads) {
+			executor.shutdown();
+			this.executor = null;
+		}
+		this.graphThreads = threads;
+	}
+
+	/**
+	 * Adds an enhancer to the graph, its inputs must have been added before, so
+	 * the graph could not contain cycles
+	 * @param name Name of the enhancer
+	 * @param enhancer Enhancer to add
+	 * @param inputs Names of the enhancers whose output is consumed by the enhancer
+	 * @return The graph itself
+	 */
+	public synchronized EnhancerGraph addEnhancer(String name, ConcurrentEnhancerAdapter<?> enhancer,
+			String... inputs) {
+		if (nodes.containsKey(name))
+			throw new IllegalArgumentException("Duplicated enhancer: " + name);
+
+		int layer = 0;
+		for (String input : inputs) {
+			EnhancerNode node = nodes.get(input);
+			if (node == null)
+				throw new IllegalArgumentException("Unknown input " + input + " of enhancer " + name);
+			layer = Math.max(layer, node.layer + 1);
+		}
+		nodes.put(name, new EnhancerNode(name, enhancer, layer));
+		this.layers = loadLayers();
+		return this;
+	}
+
+	/**
+	 * Stops the workers, pending enhancers will be completed
+	 */
+	public synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdown();
+			this.executor = null;
+		}
+	}
+
+	/**
+	 * @see ConcurrentEnhancerAdapter#createContext(RequestSuggestionTO)
+	 */
+	@Override
+	protected EnhancerContext createContext(RequestSuggestionTO request) {
+		return new EnhancerContext(request);
+	}
+
+	/**
+	 * The enhancers of the graph load the suggestions by themselves
+	 * @see ConcurrentEnhancerAdapter#preExecute(EnhancerContext)
+	 */
+	@Override
+	protected void preExecute(EnhancerContext context) throws Exception {
+	}
+
+	/**
+	 * Runs the layers of the graph, one after another
+	 * @see ConcurrentEnhancerAdapter#execute(EnhancerContext)
+	 */
+	@Override
+	protected void execute(EnhancerContext context) throws Exception {
+		RequestSuggestionTO request = context.getRequest();
+		for (List<EnhancerNode> layer : layers) {
+			if (layer.size() == 1) {
+				layer.get(0).enhancer.process(request, context.getDocuments());
+			} else {
+				fork(request, context.getDocuments(), layer);
+			}
+		}
+	}
+
+	/**
+	 * The enhancers of the graph store their providers and suggestions by themselves
+	 * @see ConcurrentEnhancerAdapter#postExecute(EnhancerContext)
+	 */
+	@Override
+	protected void postExecute(EnhancerContext context) throws Exception {
+		context.setSuggest(context.getRequest().getSuggestions());
+	}
+
+	/**
+	 * Runs concurrently the enhancers of a layer, the first one in the calling
+	 * thread, and merges their contributions in declaration order
+	 * @param request Request to enhance
+	 * @param documents Documents of the request, shared by the branches
+	 * @param layer Enhancers that do not depend on each other
+	 */
+	protected void fork(RequestSuggestionTO request, RequestDocuments documents, List<EnhancerNode> layer) {
+		SuggestionTO suggest = request.getSuggestions();
+		suggest.setResource(request.getResource());
+		Map<String, Double> snapshot = loadSnapshot(suggest.getTags());
+
+		ExecutorService executor = loadExecutor();
+		List<RequestSuggestionTO> branches = new ArrayList<RequestSuggestionTO>(layer.size());
+		List<Future<SuggestionTO>> futures = new ArrayList<Future<SuggestionTO>>(layer.size());
+		for (int i = 0; i < layer.size(); i++) {
+			RequestSuggestionTO branch = createBranch(request);
+			branches.add(branch);
+			if (i > 0)
+				futures.add(executor.submit(new ProcessTask(layer.get(i).enhancer, branch, documents)));
+		}
+
+		boolean[] completed = new boolean[layer.size()];
+		layer.get(0).enhancer.process(branches.get(0), documents);
+		completed[0] = true;
+		for (int i = 1; i < layer.size(); i++) {
+			try {
+				futures.get(i - 1).get();
+				completed[i] = true;
+			} catch (InterruptedException e) {
+				for (Future<SuggestionTO> future : futures) {
+					future.cancel(true);
+				}
+				Thread.currentThread().interrupt();
+				logger.error("Enhancement interrupted", e);
+				return;
+			} catch (ExecutionException e) {
+				logger.error("An error occurred in the enhancer " + layer.get(i).name, e.getCause());
+			}
+		}
+
+		for (int i = 0; i < branches.size(); i++) {
+			if (completed[i]) {
+				RequestSuggestionTO branch = branches.get(i);
+				merge(suggest.getTags(), snapshot, branch.getSuggestions().getTags());
+				request.getTargetProviders().addAll(branch.getTargetProviders());
+			}
+		}
+		request.setSuggestions(suggest);
+	}
+
+	/**
+	 * Merges the contribution of a branch: the tags removed by the branch are
+	 * removed, and the weight added or subtracted by the branch is added to the tags
+	 * @param tags Merged tags
+	 * @param snapshot Weights of the tags before forking
+	 * @param branchTags Tags of the branch
+	 */
+	protected void merge(Map<String, TagTO> tags, Map<String, Double> snapshot, Map<String, TagTO> branchTags) {
+		for (String label : snapshot.keySet()) {
+			if (!branchTags.containsKey(label))
+				tags.remove(label);
+		}
+		for (TagTO tag : branchTags.values()) {
+			Double previous = snapshot.get(tag.getLabel());
+			TagTO current = tags.get(tag.getLabel());
+			if (current != null) {
+				current.addValue(previous == null ? tag.getValue() : tag.getValue() - previous);
+			} else if (previous == null) {
+				tags.put(tag.getLabel(), tag);
+			}
+		}
+	}
+
+	/**
+	 * Creates a copy of the request, with its own copy of the suggestions
+	 * @param request Request to copy
+	 * @return Copy of the request
+	 */
+	protected RequestSuggestionTO createBranch(RequestSuggestionTO request) {
+		Map<String, TagTO> tags = new HashMap<String, TagTO>();
+		for (TagTO tag : request.getSuggestions().getTags().values()) {
+			TagTO copy = new TagTO(tag.getLabel(), tag.getLang(), tag.getProvider(), request.getResource());
+			copy.setValue(tag.getValue());
+			tags.put(copy.getLabel(), copy);
+		}
+		RequestSuggestionTO branch = new RequestSuggestionTO(request.getResource());
+		branch.setSuggestions(new SuggestionTO(tags, request.getResource()));
+		branch.setTargetProviders(new LinkedList<ProviderTO>());
+		return branch;
+	}
+
+	/**
+	 * Saves the weight of each tag
+	 * @param tags Tags to save
+	 * @return The weight of each tag, by label
+	 */
+	protected Map<String, Double> loadSnapshot(Map<String, TagTO> tags) {
+		Map<String, Double> snapshot = new HashMap<String, Double>();
+		for (TagTO tag : tags.values()) {
+			snapshot.put(tag.getLabel(), tag.getValue());
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Groups the enhancers by layer, keeping the declaration order
+	 * @return Layers of the graph
+	 */
+	protected List<List<EnhancerNode>> loadLayers() {
+		List<List<EnhancerNode>> layers = new ArrayList<List<EnhancerNode>>();
+		for (EnhancerNode node : nodes.values()) {
+			while (layers.size() <= node.layer) {
+				layers.add(new ArrayList<EnhancerNode>());
+			}
+			layers.get(node.layer).add(node);
+		}
+		return layers;
+	}
+
+	/**
+	 * Loads the pool of workers, in the case it does not exists, it will create one
+	 * @return Pool of workers
+	 */
+	protected synchronized ExecutorService loadExecutor() {
+		if (executor == null) {
+			logger.debug("Starting " + graphThreads + " graph workers");
+			this.executor = Executors.newFixedThreadPool(graphThreads, new EnhancerThreadFactory("graph"));
+		}
+		return executor;
+	}
+
+	/**
+	 * Enhancer of the graph, and the layer in which it runs
+	 */
+	protected static class EnhancerNode {
+
+		protected final String name;
+		protected final ConcurrentEnhancerAdapter<?> enhancer;
+		protected final int layer;
+
+		/**
+		 * Three-argument constructor
+		 * @param name Name of the enhancer
+		 * @param enhancer The enhancer
+		 * @param layer Layer in which the enhancer runs
+		 */
+		public EnhancerNode(String name, ConcurrentEnhancerAdapter<?> enhancer, int layer) {
+			this.name = name;
+			this.enhancer = enhancer;
+			this.layer = layer;
+		}
+	}
+
+	/**
+	 * Task that runs an enhancer of the graph over a branch of the request
+	 */
+	protected static class ProcessTask implements Callable<SuggestionTO> {
+
+		protected final ConcurrentEnhancerAdapter<?> enhancer;
+		protected final RequestSuggestionTO request;
+		protected final RequestDocuments documents;
+
+		/**
+		 * Three-argument constructor
+		 * @param enhancer Enhancer to run
+		 * @param request Branch of the request
+		 * @param documents Documents of the request
+		 */
+		public ProcessTask(ConcurrentEnhancerAdapter<?> enhancer, RequestSuggestionTO request,
+				RequestDocuments documents) {
+			this.enhancer = enhancer;
+			this.request = request;
+			this.documents = documents;
+		}
+
+		@Override
+		public SuggestionTO call() throws Exception {
+			return enhancer.process(request, documents);
+		}
+	}
+
+}
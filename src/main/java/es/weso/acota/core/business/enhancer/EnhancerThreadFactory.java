@@ -0,0 +1,34 @@
+package es.weso.acota.core.business.enhancer;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates daemon workers, so a pool that has not been shutdown
+ * does not prevent the JVM from exiting
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class EnhancerThreadFactory implements ThreadFactory {
+
+	protected static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+	protected final AtomicInteger threadNumber;
+	protected final String prefix;
+
+	/**
+	 * One-argument constructor
+	 * @param name Name of the pool, used as the prefix of its workers' names
+	 */
+	public EnhancerThreadFactory(String name) {
+		this.threadNumber = new AtomicInteger(1);
+		this.prefix = "acota-" + name + "-" + POOL_NUMBER.getAndIncrement() + "-";
+	}
+
+	@Override
+	public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, prefix + threadNumber.getAndIncrement());
+		thread.setDaemon(true);
+		return thread;
+	}
+}
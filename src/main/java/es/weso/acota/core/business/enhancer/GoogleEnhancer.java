@@ -3,8 +3,16 @@ package es.weso.acota.core.business.enhancer;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.xml.transform.TransformerException;
 
@@ -16,26 +24,29 @@ import org.w3c.dom.traversal.NodeIterator;
 import com.sun.org.apache.xpath.internal.XPathAPI;
 
 import es.weso.acota.core.CoreConfiguration;
-import es.weso.acota.core.business.enhancer.EnhancerAdapter;
+import es.weso.acota.core.business.enhancer.metrics.MetricsRegistry;
 import es.weso.acota.core.entity.ProviderTO;
+import es.weso.acota.core.entity.RequestSuggestionTO;
 import es.weso.acota.core.entity.TagTO;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
 import es.weso.acota.core.exceptions.AcotaDocumentBuilderException;
 import es.weso.acota.core.exceptions.AcotaRESTException;
-import es.weso.acota.core.utils.AcotaUtil;
 import es.weso.acota.core.utils.documents.DocumentBuilderHelper;
+import es.weso.acota.core.utils.lang.CachedLanguageDetector;
 import es.weso.acota.core.utils.lang.LanguageDetector;
 import es.weso.acota.core.utils.rest.MemcachedRESTClient;
 
 /**
  * GoogleEnhancer is an {@link Enhancer} specialized in making calls to Google 
  * Autocomplete's API with the different {@link TagTO}'s labels, enriching
- * the set of {@link TagTO}s
+ * the set of {@link TagTO}s. In asynchronous mode the calls are issued concurrently,
+ * bounded by a maximum of in-flight calls, and their results are folded into the
+ * suggestions as they complete.
  * 
  * @author Jose María Álvarez
  * @author César Luis Alvargonzález
  */
-public class GoogleEnhancer extends EnhancerAdapter implements Configurable {
+public class GoogleEnhancer extends ConcurrentEnhancerAdapter<EnhancerContext> implements Configurable {
 
 	protected static Logger logger = Logger.getLogger(GoogleEnhancer.class);
 	
@@ -46,8 +57,13 @@ public class GoogleEnhancer extends EnhancerAdapter implements Configurable {
 	protected int googlePercentile ;
 	protected double googleRelevance;
 	
+	protected boolean googleAsync;
+	protected int googleAsyncThreads;
+	protected int googleTimeout;
+	
+	protected ExecutorService executor;
 	protected MemcachedRESTClient restClient;
-	protected LanguageDetector languageDetector;
+	protected CachedLanguageDetector languageDetector;
 	
 	protected CoreConfiguration configuration;
 	
@@ -58,7 +74,7 @@ public class GoogleEnhancer extends EnhancerAdapter implements Configurable {
 	 */
 	public GoogleEnhancer() throws AcotaConfigurationException{
 		super();
-		GoogleEnhancer.provider = new ProviderTO("Google Enhancer");
+		this.provider = new ProviderTO("Google Enhancer");
 		loadConfiguration(configuration);
 	}
 
@@ -70,12 +86,12 @@ public class GoogleEnhancer extends EnhancerAdapter implements Configurable {
 	 */
 	public GoogleEnhancer(CoreConfiguration configuration) throws AcotaConfigurationException{
 		super();
-		GoogleEnhancer.provider = new ProviderTO("Google Enhancer");
+		this.provider = new ProviderTO("Google Enhancer");
 		loadConfiguration(configuration);
 	}
 	
 	@Override
-	public void loadConfiguration(CoreConfiguration configuration) throws AcotaConfigurationException{
+	public synchronized void loadConfiguration(CoreConfiguration configuration) throws AcotaConfigurationException{
 		if(configuration==null)
 			configuration = new CoreConfiguration();
 		this.configuration = configuration;
@@ -84,25 +100,112 @@ public class GoogleEnhancer extends EnhancerAdapter implements Configurable {
 		this.googleRelevance = configuration.getGoogleRelevance();
 		this.googlePercentile = configuration.getGooglePercentile();
 		this.googleLimit = configuration.getGoogleLimit();
+		this.googleAsync = configuration.isGoogleAsync();
+		this.googleTimeout = configuration.getGoogleTimeout();
+		if(executor != null && googleAsyncThreads != configuration.getGoogleAsyncThreads()){
+			executor.shutdown();
+			this.executor = null;
+		}
+		this.googleAsyncThreads = configuration.getGoogleAsyncThreads();
 		this.restClient = MemcachedRESTClient.getInstance(configuration);
-		this.languageDetector = LanguageDetector.getInstance(configuration);
+		this.languageDetector = CachedLanguageDetector.getInstance(configuration);
+		this.metrics = MetricsRegistry.getInstance(configuration);
 	}
 	
 	@Override
-	protected void execute() throws Exception {	
-		List<Entry<String, TagTO>> sortedTags = 
-				AcotaUtil.sortTags(AcotaUtil.backupTags(tags));
-		
-		long percentileLimit = Math.round(sortedTags.size() * ((double)googlePercentile/100));
+	protected EnhancerContext createContext(RequestSuggestionTO request) {
+		return new EnhancerContext(request);
+	}
+	
+	@Override
+	protected void execute(EnhancerContext context) throws Exception {	
+		TagIndex index = context.getTagIndex();
+		long percentileLimit = Math.round(index.size() * ((double)googlePercentile/100));
 		long currentLimit = googleLimit < percentileLimit ? googleLimit : percentileLimit;
+		List<TagTO> sortedTags = index.top((int) currentLimit);
+		
+		if (googleAsync) {
+			enrichAsync(context, sortedTags, (int) currentLimit);
+		} else {
+			for (int i = 0; i < currentLimit; i++) {
+				enrich(context, sortedTags, i);
+			}
+		}
+	}
+	
+	/**
+	 * Stops the workers of the asynchronous mode
+	 */
+	public synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdown();
+			this.executor = null;
+		}
+	}
+
+	/**
+	 * Performs the enrichment of the first tags concurrently, the results
+	 * are folded into the suggestions, by the calling thread, as they complete.
+	 * The lookups share a single deadline, google.timeout after they are 
+	 * submitted, the ones that do not complete in time are cancelled
+	 * @param context Request's context
+	 * @param sortedTags List of Sorted Tags, the first ones of the tags Map
+	 * @param limit Number of tags to enrich
+	 * @throws InterruptedException If the calling thread is interrupted
+	 * @throws TransformerException If happens an exceptional condition that
+	 * occurred during the transformation process.
+	 * @throws AcotaConfigurationException Any exception that occurs 
+	 * while initializing Configuration object
+	 */
+	protected void enrichAsync(EnhancerContext context, List<TagTO> sortedTags, int limit)
+			throws InterruptedException, TransformerException, AcotaConfigurationException {
+		CompletionService<LookupResult> completionService = 
+				new ExecutorCompletionService<LookupResult>(loadExecutor());
+		List<Future<LookupResult>> futures = new ArrayList<Future<LookupResult>>(limit);
+		for (int i = 0; i < limit; i++) {
+			futures.add(completionService.submit(new LookupTask(sortedTags.get(i))));
+		}
 		
-		for (int i = 0; i < currentLimit; i++) {
-			enrich(sortedTags, i);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(googleTimeout);
+		try {
+			for (int i = 0; i < limit; i++) {
+				Future<LookupResult> future = googleTimeout > 0 ? 
+						completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) 
+						: completionService.take();
+				if (future == null) {
+					logger.warn((limit - i) + " Google lookups timed out");
+					break;
+				}
+				try {
+					LookupResult result = future.get();
+					processDocument(context, result.document, result.language);
+				} catch (ExecutionException e) {
+					logger.error("An error occurred performing a Google lookup", e.getCause());
+				}
+			}
+		} finally {
+			for (Future<LookupResult> future : futures) {
+				future.cancel(true);
+			}
 		}
 	}
+	
+	/**
+	 * Loads the pool of workers of the asynchronous mode, in the case it does not 
+	 * exists, it will create one
+	 * @return Pool of workers
+	 */
+	protected synchronized ExecutorService loadExecutor() {
+		if (executor == null) {
+			this.executor = Executors.newFixedThreadPool(googleAsyncThreads, 
+					new EnhancerThreadFactory("google"));
+		}
+		return executor;
+	}
 
 	/**
 	 * Performs the enrichment
+	 * @param context Request's context
 	 * @param sortedTags List of Sorted Tags
 	 * @param i Position to enrich
 	 * @throws AcotaConfigurationException Any exception that occurs 
@@ -114,18 +217,33 @@ public class GoogleEnhancer extends EnhancerAdapter implements Configurable {
 	 * @throws TransformerException If happens an exceptional condition that
 	 * occurred during the transformation process.
 	 */
-	private void enrich(List<Entry<String, TagTO>> sortedTags, int i)
+	private void enrich(EnhancerContext context, List<TagTO> sortedTags, int i)
 			throws AcotaConfigurationException, IOException, AcotaRESTException,
 			UnsupportedEncodingException, AcotaDocumentBuilderException,
 			TransformerException {
-		TagTO tag = sortedTags.get(i).getValue();
+		TagTO tag = sortedTags.get(i);
+		processDocument(context, lookup(tag), tag.getLang());
+	}
+
+	/**
+	 * Performs the Google (Auto)Complete call of a tag, the connect and read 
+	 * timeout is only applied in the asynchronous mode
+	 * @param tag Tag to look up
+	 * @return Google Autocomplete's XML result document
+	 * @throws AcotaConfigurationException Any exception that occurs 
+	 * while initializing Configuration object
+	 * @throws IOException
+	 * @throws AcotaRESTException
+	 * @throws UnsupportedEncodingException The Character Encoding is not supported.
+	 * @throws AcotaDocumentBuilderException
+	 */
+	protected Document lookup(TagTO tag) throws AcotaConfigurationException, IOException,
+			AcotaRESTException, UnsupportedEncodingException, AcotaDocumentBuilderException {
 		String label = tag.getLabel();
 		String language = tag.getLang();
-				languageDetector.detect(label);
 		String result = restClient.execute(generateURL(label, language), 
-				MemcachedRESTClient.APPLICATION_XML, googleEncoding);
-		Document document = processResponse(result);
-		processDocument(document, language);
+				MemcachedRESTClient.APPLICATION_XML, googleEncoding, googleAsync ? googleTimeout : 0);
+		return processResponse(result);
 	}
 
 	/**
@@ -142,24 +260,11 @@ public class GoogleEnhancer extends EnhancerAdapter implements Configurable {
 		StringBuilder url = new StringBuilder(googleUrl)
 			.append(URLEncoder.encode(label, "utf8"));
 		if(!language.equals(LanguageDetector.ISO_639_UNDEFINED)){
-			url.append("&hl=").append(languageDetector.detect(label));
+			url.append("&hl=").append(language);
 		}
 		return url.toString();
 	}
 
-	@Override
-	protected void preExecute() throws Exception {
-		this.suggest = request.getSuggestions();
-		this.tags = suggest.getTags();
-		suggest.setResource(request.getResource());
-	}
-
-	@Override
-	protected void postExecute() throws Exception {
-		this.request.getTargetProviders().add(provider);
-		this.request.setSuggestions(suggest);
-	}
-
 	/**
 	 * Transforms the Google Autocomplete REST call return to an XML Document
 	 * @param response Rest call response on RAW
@@ -172,22 +277,63 @@ public class GoogleEnhancer extends EnhancerAdapter implements Configurable {
 
 	/**
 	 * Loads Google Autocomplete's XML result document into the tags map
+	 * @param context Request's context
 	 * @param result Google Autocomplete's XML result document
 	 * @param language Language of the document
 	 * @throws TransformerException If happens an exceptional condition that
 	 * occurred during the transformation process.
 	 * @throws AcotaConfigurationException 
 	 */
-	protected void processDocument(Document result, String language) throws TransformerException, AcotaConfigurationException {
+	protected void processDocument(EnhancerContext context, Document result, String language) throws TransformerException, AcotaConfigurationException {
 		NodeIterator it = XPathAPI.selectNodeIterator(result, "//suggestion/@data");
 		Node node = null;
 		String value = null;
 		while ((node = it.nextNode()) != null) {
 			value = node.getNodeValue().trim();
-			TagTO tag = new TagTO(value, languageDetector.detect(value), provider,
-					request.getResource());
-			fillSuggestions(tag, googleRelevance);
+			TagTO tag = new TagTO(value, languageDetector.detect(value, language), provider,
+					context.getRequest().getResource());
+			fillSuggestions(context, tag, googleRelevance);
+		}
+	}
+	
+	/**
+	 * Result of a Google (Auto)Complete call
+	 */
+	protected static class LookupResult {
+		
+		protected final Document document;
+		protected final String language;
+		
+		/**
+		 * Two-argument constructor
+		 * @param document Google Autocomplete's XML result document
+		 * @param language Language of the looked up tag
+		 */
+		public LookupResult(Document document, String language) {
+			this.document = document;
+			this.language = language;
+		}
+	}
+	
+	/**
+	 * Task that performs the Google (Auto)Complete call of a tag
+	 */
+	protected class LookupTask implements Callable<LookupResult> {
+		
+		protected final TagTO tag;
+		
+		/**
+		 * One-argument constructor
+		 * @param tag Tag to look up
+		 */
+		public LookupTask(TagTO tag) {
+			this.tag = tag;
+		}
+		
+		@Override
+		public LookupResult call() throws Exception {
+			return new LookupResult(lookup(tag), tag.getLang());
 		}
 	}
 
-}
\ No newline at end of file
+}
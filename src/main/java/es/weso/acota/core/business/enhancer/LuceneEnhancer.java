@@ -9,13 +9,14 @@ import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 
 import es.weso.acota.core.CoreConfiguration;
-import es.weso.acota.core.business.enhancer.EnhancerAdapter;
-import es.weso.acota.core.business.enhancer.analyzer.lucene.DefaultStopAnalyzer;
-import es.weso.acota.core.business.enhancer.analyzer.lucene.EnglishStopAnalyzer;
-import es.weso.acota.core.business.enhancer.analyzer.lucene.SpanishStopAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.lucene.StopAnalyzerFactory;
+import es.weso.acota.core.business.enhancer.idf.DocumentFrequencyTable;
+import es.weso.acota.core.business.enhancer.metrics.MetricsRegistry;
 import es.weso.acota.core.entity.ProviderTO;
+import es.weso.acota.core.entity.RequestSuggestionTO;
 import es.weso.acota.core.entity.TagTO;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.lang.CachedLanguageDetector;
 import es.weso.acota.core.utils.lang.LanguageDetector;
 
 import static es.weso.acota.core.utils.lang.LanguageDetector.ISO_639_ENGLISH;
@@ -24,12 +25,13 @@ import static es.weso.acota.core.utils.lang.LanguageDetector.ISO_639_SPANISH;
 
 /**
  * LuceneEnhancer is an {@link Enhancer} specialized in tokenizing, removing stop-words and
- * cleaning the input data, producing a set of single-word {@link TagTO}s
+ * cleaning the input data, producing a set of single-word {@link TagTO}s. Optionally, the
+ * relevance of each term is weighted by its IDF in a {@link DocumentFrequencyTable}
  * 
  * @author Jose María Álvarez
  * @author César Luis Alvargonzález
  */
-public class LuceneEnhancer extends EnhancerAdapter implements Configurable {
+public class LuceneEnhancer extends ConcurrentEnhancerAdapter<EnhancerContext> implements Configurable {
 
 	protected static Logger logger = Logger.getLogger(LuceneEnhancer.class);
 	
@@ -38,8 +40,13 @@ public class LuceneEnhancer extends EnhancerAdapter implements Configurable {
 	
 	protected double luceneLabelRelevance;
 	protected double luceneTermRelevance;
+	
+	protected DocumentFrequencyTable documentFrequencies;
 
-	protected LanguageDetector languageDetector;
+	protected CachedLanguageDetector languageDetector;
+	
+	protected Analyzer spanishStopAnalyzer;
+	protected Analyzer englishStopAnalyzer;
 	
 	protected CoreConfiguration configuration;
 	
@@ -50,7 +57,7 @@ public class LuceneEnhancer extends EnhancerAdapter implements Configurable {
 	 */
 	public LuceneEnhancer() throws AcotaConfigurationException{
 		super();
-		LuceneEnhancer.provider = new ProviderTO("Lucene Enhancer");
+		this.provider = new ProviderTO("Lucene Enhancer");
 		loadConfiguration(configuration);
 	}
 	
@@ -62,7 +69,7 @@ public class LuceneEnhancer extends EnhancerAdapter implements Configurable {
 	 */
 	public LuceneEnhancer(CoreConfiguration configuration) throws AcotaConfigurationException{
 		super();
-		LuceneEnhancer.provider = new ProviderTO("Lucene Enhancer");
+		this.provider = new ProviderTO("Lucene Enhancer");
 		loadConfiguration(configuration);
 	}
 	
@@ -74,90 +81,104 @@ public class LuceneEnhancer extends EnhancerAdapter implements Configurable {
 		
 		this.luceneLabelRelevance = configuration.getLuceneLabelRelevance();
 		this.luceneTermRelevance = configuration.getLuceneTermRelevance();
+		this.documentFrequencies = configuration.isLuceneIdfEnabled() ? 
+				DocumentFrequencyTable.getInstance(configuration) : null;
 		
-		this.languageDetector = LanguageDetector.getInstance(configuration);
+		this.spanishStopAnalyzer = StopAnalyzerFactory.getAnalyzer(ISO_639_SPANISH, configuration);
+		this.englishStopAnalyzer = StopAnalyzerFactory.getAnalyzer(ISO_639_ENGLISH, configuration);
+		this.languageDetector = CachedLanguageDetector.getInstance(configuration);
+		this.metrics = MetricsRegistry.getInstance(configuration);
 	}
 	
 	@Override
-	protected void preExecute() throws Exception {
-		this.suggest = request.getSuggestions();
-		this.tags = suggest.getTags();
-		suggest.setResource(request.getResource());
+	protected EnhancerContext createContext(RequestSuggestionTO request) {
+		return new EnhancerContext(request);
 	}
 	
 	@Override
-	protected void execute() throws Exception {
-		extractLabelTerms();
-		extractDescriptionTerms();
-	}
-
-	@Override
-	protected void postExecute() throws Exception {
-		logger.debug("Add providers to request");
-		this.request.getTargetProviders().add(provider);
-		logger.debug("Add suggestons to request");
-		this.request.setSuggestions(suggest);
+	protected void execute(EnhancerContext context) throws Exception {
+		extractLabelTerms(context);
+		extractDescriptionTerms(context);
 	}
 
 	/**
 	 * Extracts Description Terms
+	 * @param context Request's context
 	 * @throws IOException Any exception that occurs while reading Lucene's TokenStream
 	 * @throws AcotaConfigurationException 
 	 */
-	protected void extractDescriptionTerms() throws IOException, AcotaConfigurationException {
-		extractTerms(DESCIPTION, request.getResource().getDescription(),
+	protected void extractDescriptionTerms(EnhancerContext context) throws IOException, AcotaConfigurationException {
+		extractTerms(context, DESCIPTION, context.getRequest().getResource().getDescription(),
 			luceneTermRelevance);
 	}
 
 	/**
 	 * Extracts Label Terms
+	 * @param context Request's context
 	 * @throws IOException Any exception that occurs while reading Lucene's TokenStream
 	 * @throws AcotaConfigurationException 
 	 */
-	protected void extractLabelTerms() throws IOException, AcotaConfigurationException {
-		extractTerms(LABEL, request.getResource().getLabel(),
+	protected void extractLabelTerms(EnhancerContext context) throws IOException, AcotaConfigurationException {
+		extractTerms(context, LABEL, context.getRequest().getResource().getLabel(),
 					luceneLabelRelevance);
 	}
 
 	/**
-	 * Tokenizes and removes stop-words (Spanish and English) from the supplied text
+	 * Tokenizes and removes stop-words (Spanish and English) from the supplied text,
+	 * with the token stream of the analyzer reused by the current thread
+	 * @param context Request's context
 	 * @param title FieldName (description, label)
 	 * @param text Text to extract the terms
-	 * @param relevance Weight which is incremented each matched term
+	 * @param relevance Weight which is incremented each matched term, multiplied by the
+	 * IDF weight of the term when the document frequency table is enabled
 	 * @throws IOException Any exception that occurs while reading Lucene's TokenStream
 	 * @throws AcotaConfigurationException 
 	 */
-	protected void extractTerms(String title, String text, double relevance)
+	protected void extractTerms(EnhancerContext context, String title, String text, double relevance)
 			throws IOException, AcotaConfigurationException {
 
-		String language = languageDetector.detect(text);
+		String language = languageDetector.detect(text, context.getDocuments());
+		context.setLanguage(language);
 		Analyzer analyzer = loadAnalyzer(language);
 
 		logger.debug("Get tokens of texts");
-		TokenStream stream = analyzer.tokenStream(title, new StringReader(
+		TokenStream stream = analyzer.reusableTokenStream(title, new StringReader(
 				text));
 		CharTermAttribute termAttribute = stream
-				.getAttribute(CharTermAttribute.class);
+				.addAttribute(CharTermAttribute.class);
 
+		DocumentFrequencyTable documentFrequencies = this.documentFrequencies;
 		TagTO tag = null;
 		logger.debug("Add tag to suggestions");
-		while (stream.incrementToken()) {
-			tag = createTag(termAttribute, language);
-			fillSuggestions(tag, relevance);
+		try {
+			stream.reset();
+			while (stream.incrementToken()) {
+				tag = createTag(context, termAttribute, language);
+				if (documentFrequencies == null) {
+					fillSuggestions(context, tag, relevance);
+				} else {
+					fillSuggestions(context, tag, relevance * documentFrequencies.getWeight(
+							termAttribute.buffer(), 0, termAttribute.length()));
+				}
+			}
+			stream.end();
+		} finally {
+			stream.close();
 		}
 	}
 
 	/**
 	 * Creates and adds a new tag to the suggest tags set
+	 * @param context Request's context
 	 * @param attribute Label's attribute
 	 * @param language Tag Language
 	 * @return Created tag
 	 */
-	protected TagTO createTag(CharTermAttribute attribute, String language) {
+	protected TagTO createTag(EnhancerContext context, CharTermAttribute attribute, String language) {
 		TagTO tag = new TagTO();
 		tag.setLabel(attribute.toString());
 		tag.setProvider(provider);
-		tag.setTagged(request.getResource());
+		tag.setTagged(context.getRequest().getResource());
 		tag.setLang(language);
 		return tag;
 	}
@@ -169,15 +190,12 @@ public class LuceneEnhancer extends EnhancerAdapter implements Configurable {
 	 * @throws AcotaConfigurationException 
 	 */
 	protected Analyzer loadAnalyzer(String language) throws AcotaConfigurationException {
-		Analyzer analyzer = null;
-		if (language.equals(ISO_639_SPANISH)) {
-			analyzer = SpanishStopAnalyzer.getInstance();
-		} else if (language.equals(ISO_639_ENGLISH)) {
-			analyzer = EnglishStopAnalyzer.getInstance();
-		} else {
-			analyzer = DefaultStopAnalyzer.getInstance();
+		if (ISO_639_SPANISH.equals(language)) {
+			return spanishStopAnalyzer;
+		} else if (ISO_639_ENGLISH.equals(language)) {
+			return englishStopAnalyzer;
 		}
-		return analyzer;
+		return StopAnalyzerFactory.getAnalyzer(language);
 	}
 
 }
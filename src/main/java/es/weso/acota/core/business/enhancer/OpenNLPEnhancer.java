@@ -1,27 +1,21 @@
 package es.weso.acota.core.business.enhancer;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
-import java.util.Map.Entry;
 
 import org.apache.log4j.Logger;
-import org.apache.lucene.analysis.Analyzer;
 
 import es.weso.acota.core.CoreConfiguration;
-import es.weso.acota.core.business.enhancer.EnhancerAdapter;
-import es.weso.acota.core.business.enhancer.analyzer.opennlp.EnglishOpenNLPAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.document.AnnotatedDocument;
+import es.weso.acota.core.business.enhancer.analyzer.document.DocumentAnalyzer;
 import es.weso.acota.core.business.enhancer.analyzer.opennlp.OpenNLPAnalyzer;
-import es.weso.acota.core.business.enhancer.analyzer.opennlp.SpanishOpenNLPAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.TagClassTable;
+import es.weso.acota.core.business.enhancer.metrics.MetricsRegistry;
 import es.weso.acota.core.entity.ProviderTO;
+import es.weso.acota.core.entity.RequestSuggestionTO;
 import es.weso.acota.core.entity.TagTO;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
-import es.weso.acota.core.utils.lang.LanguageDetector;
-
-import static es.weso.acota.core.utils.lang.LanguageDetector.ISO_639_SPANISH;
 
 /**
  * OpenNLPEnhancer is an {@link Enhancer} specialized in modifying
@@ -30,22 +24,71 @@ import static es.weso.acota.core.utils.lang.LanguageDetector.ISO_639_SPANISH;
  * @author César Luis Alvargonzález
  * @author Weena Jimenez
  */
-public class OpenNLPEnhancer extends EnhancerAdapter implements Configurable {
+public class OpenNLPEnhancer extends ConcurrentEnhancerAdapter<OpenNLPEnhancer.OpenNLPContext> implements Configurable {
 	
 	protected static Logger logger;
-
-	protected Set<String> nouns;
-	protected Set<String> verbs;
-	protected Set<String> adjectives;
-	
-	protected EnglishOpenNLPAnalyzer englishOpenNlpAnalyzer;
-	protected SpanishOpenNLPAnalyzer spanishOpenNlpAnalyzer;
 	
-	protected OpenNLPAnalyzer openNlpAnalyzer;
-	
-	protected LanguageDetector languageDetector;
+	protected DocumentAnalyzer documentAnalyzer;
 	protected CoreConfiguration configuration;
 	
+	/**
+	 * Context of a request processed by the {@link OpenNLPEnhancer}
+	 * @author César Luis Alvargonzález
+	 */
+	public static class OpenNLPContext extends EnhancerContext {
+		
+		protected Set<String> nouns;
+		protected Set<String> verbs;
+		protected Set<String> adjectives;
+		
+		protected OpenNLPAnalyzer openNlpAnalyzer;
+		protected TagClassTable tagClasses;
+		
+		/**
+		 * One-argument constructor
+		 * @param request Request to process
+		 */
+		public OpenNLPContext(RequestSuggestionTO request) {
+			super(request);
+			this.nouns = new HashSet<String>();
+			this.verbs = new HashSet<String>();
+			this.adjectives = new HashSet<String>();
+		}
+
+		public Set<String> getNouns() {
+			return nouns;
+		}
+
+		public Set<String> getVerbs() {
+			return verbs;
+		}
+
+		public Set<String> getAdjectives() {
+			return adjectives;
+		}
+
+		public OpenNLPAnalyzer getOpenNlpAnalyzer() {
+			return openNlpAnalyzer;
+		}
+
+		public void setOpenNlpAnalyzer(OpenNLPAnalyzer openNlpAnalyzer) {
+			this.openNlpAnalyzer = openNlpAnalyzer;
+			this.tagClasses = null;
+		}
+
+		/**
+		 * Returns the tag classes of the analyzer, they are resolved once per
+		 * request, instead of once per tag
+		 * @return The {@link TagClassTable} of the analyzer
+		 */
+		public TagClassTable getTagClasses() {
+			if (tagClasses == null)
+				this.tagClasses = openNlpAnalyzer.getTagClasses();
+			return tagClasses;
+		}
+		
+	}
+	
 	/**
 	 * Zero-argument default constructor
 	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
@@ -54,11 +97,7 @@ public class OpenNLPEnhancer extends EnhancerAdapter implements Configurable {
 	public OpenNLPEnhancer() throws AcotaConfigurationException {
 		super();
 		OpenNLPEnhancer.logger = Logger.getLogger(OpenNLPEnhancer.class);
-		OpenNLPEnhancer.provider = new ProviderTO("OpenNPL Enhancer");
-		
-		this.nouns = new HashSet<String>();
-		this.verbs = new HashSet<String>();
-		this.adjectives = new HashSet<String>();
+		this.provider = new ProviderTO("OpenNPL Enhancer");
 		
 		loadConfiguration(configuration);
 	}
@@ -72,11 +111,7 @@ public class OpenNLPEnhancer extends EnhancerAdapter implements Configurable {
 	public OpenNLPEnhancer(CoreConfiguration configuration) throws AcotaConfigurationException {
 		super();
 		OpenNLPEnhancer.logger = Logger.getLogger(OpenNLPEnhancer.class);
-		OpenNLPEnhancer.provider = new ProviderTO("OpenNPL tagger");
-		
-		this.nouns = new HashSet<String>();
-		this.verbs = new HashSet<String>();
-		this.adjectives = new HashSet<String>();
+		this.provider = new ProviderTO("OpenNPL tagger");
 		
 		loadConfiguration(configuration);
 	}
@@ -86,101 +121,89 @@ public class OpenNLPEnhancer extends EnhancerAdapter implements Configurable {
 		if(configuration==null)
 			configuration = new CoreConfiguration();
 		this.configuration = configuration;
-		
-		if(spanishOpenNlpAnalyzer == null)
-			this.spanishOpenNlpAnalyzer = new SpanishOpenNLPAnalyzer(configuration);
-		else
-			spanishOpenNlpAnalyzer.loadConfiguration(configuration);
-		
-		if(englishOpenNlpAnalyzer == null)
-			this.englishOpenNlpAnalyzer = new EnglishOpenNLPAnalyzer(configuration);
-		else
-			englishOpenNlpAnalyzer.loadConfiguration(configuration);
-		
-		this.languageDetector = LanguageDetector.getInstance(configuration);
+		this.documentAnalyzer = DocumentAnalyzer.getInstance(configuration);
+		this.metrics = MetricsRegistry.getInstance(configuration);
 	}
 	
+	/**
+	 * @see ConcurrentEnhancerAdapter#createContext(RequestSuggestionTO)
+	 */
 	@Override
-	protected void preExecute() throws Exception {
-		this.suggest = request.getSuggestions();
-		this.tags = suggest.getTags();
-		suggest.setResource(request.getResource());
-		
-		nouns.clear();
-		verbs.clear();
-		adjectives.clear();
+	protected OpenNLPContext createContext(RequestSuggestionTO request) {
+		return new OpenNLPContext(request);
 	}
 	
 	@Override
-	protected void execute() throws Exception {
-		analyseDescriptionTerms();
-		analyseLabelTerms();
-	}
-
-	@Override
-	protected void postExecute() throws Exception {
-		logger.debug("Add providers to request");
-		this.request.getTargetProviders().add(provider);
-		logger.debug("Add suggestons to request");
-		this.request.setSuggestions(suggest);
+	protected void execute(OpenNLPContext context) throws Exception {
+		analyseDescriptionTerms(context);
+		analyseLabelTerms(context);
 	}
 
 	/**
 	 * Makes an Analysis of the label terms
+	 * @param context Request's context
 	 * @throws IOException Any exception that occurs while reading OpenNLP's files
 	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
 	 * a Configuration object
 	 */
-	protected void analyseLabelTerms() throws IOException, AcotaConfigurationException {
-		analysisOfTerms(request.getResource().getLabel());
+	protected void analyseLabelTerms(OpenNLPContext context) throws IOException, AcotaConfigurationException {
+		analysisOfTerms(context, context.getRequest().getResource().getLabel());
 	}
 
 	/**
 	 * Makes an Analysis of the descriptions terms
+	 * @param context Request's context
 	 * @throws IOException Any exception that occurs while reading OpenNLP's files
 	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
 	 * a Configuration object
 	 */
-	protected void analyseDescriptionTerms() throws IOException, AcotaConfigurationException {
-		analysisOfTerms(request.getResource().getDescription());
+	protected void analyseDescriptionTerms(OpenNLPContext context) throws IOException, AcotaConfigurationException {
+		analysisOfTerms(context, context.getRequest().getResource().getDescription());
 	}
 
 	/**
 	 * Makes an Analysis of a text's terms
+	 * @param context Request's context
 	 * @param text Text to make the analysis
 	 * @throws IOException Any exception that occurs while reading OpenNLP's files
 	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
 	 * a Configuration object
 	 */
-	public void analysisOfTerms(String text) throws IOException, AcotaConfigurationException {
-		this.openNlpAnalyzer = loadAnalyzer(text);
+	public void analysisOfTerms(OpenNLPContext context, String text) throws IOException, AcotaConfigurationException {
+		AnnotatedDocument document = documentAnalyzer.analyze(text, context.getDocuments());
+		context.setOpenNlpAnalyzer(document.getAnalyzer());
+		context.setLanguage(document.getLanguage());
 
-		String sentences[] = openNlpAnalyzer.sentDetect(text);
-		String[] textTokenized = null;
-		for (String sentence : sentences) {
-			textTokenized = openNlpAnalyzer.tokenize(sentence);
-			processSetence(openNlpAnalyzer.tag(textTokenized), textTokenized);
+		for (int i = 0; i < document.size(); i++) {
+			processSetence(context, document.getTags(i), document.getTokens(i));
 		}
 
-		alterTags();
+		alterTags(context);
 	}
 
 	/**
 	 * Processes a set of terms and saves them depending on its morphosyntactic type
+	 * @param context Request's context
 	 * @param tags OpenNLP Tags related to the Tokenized Text
 	 * @param tokenizedText Tokenized Text
 	 * @throws AcotaConfigurationException 
 	 */
-	protected void processSetence(String[] tags, String[] tokenizedText) throws AcotaConfigurationException {
+	protected void processSetence(OpenNLPContext context, String[] tags, String[] tokenizedText) throws AcotaConfigurationException {
+		if (tokenizedText.length == 0)
+			return;
+		TagClassTable tagClasses = context.getTagClasses();
 		for(int i = tokenizedText.length -1; i >=0; i--){
-			if (openNlpAnalyzer.isDispenasble(tags[i])) {
-				findAndRemove(tokenizedText[i]);
-			} else if (openNlpAnalyzer.isNoun(tags[i])) {
-				nouns.add(tokenizedText[i].toLowerCase());
-			} else if (openNlpAnalyzer.isVerb(tags[i])) {
-				verbs.add(tokenizedText[i].toLowerCase());
-			} else if (openNlpAnalyzer.isAdjective(tags[i])) {
-				adjectives.add(tokenizedText[i].toLowerCase());
+			int tagClass = tagClasses.classify(tags[i]);
+			if (tagClass == TagClassTable.NONE) {
+				continue;
+			} else if ((tagClass & TagClassTable.DISPENSABLE) != 0) {
+				findAndRemove(context, tokenizedText[i]);
+			} else if ((tagClass & TagClassTable.NOUN) != 0) {
+				context.getNouns().add(tokenizedText[i].toLowerCase());
+			} else if ((tagClass & TagClassTable.VERB) != 0) {
+				context.getVerbs().add(tokenizedText[i].toLowerCase());
+			} else if ((tagClass & TagClassTable.ADJECTIVE) != 0) {
+				context.getAdjectives().add(tokenizedText[i].toLowerCase());
 			}
 		}
 	}
@@ -188,43 +211,50 @@ public class OpenNLPEnhancer extends EnhancerAdapter implements Configurable {
 
 	/**
 	 * Alter noun tags, verb tags and adjective tags 
+	 * @param context Request's context
 	 */
-	protected void alterTags() {
+	protected void alterTags(OpenNLPContext context) {
 		String label = null;
-		double maxValue = calculateMaxValue();
-		for (Entry<String, TagTO> entry : tags.entrySet()) {
-			label = entry.getKey().toLowerCase();
-			if (nouns.contains(label)) {
-				alterNounTag(entry.getValue(),maxValue);
-			}else if(adjectives.contains(label)){
-				alterAdjectiveTag(entry.getValue(),maxValue);
-			}else if(verbs.contains(label)){
-				alterVerbTag(entry.getValue(),maxValue);
+		double maxValue = calculateMaxValue(context);
+		TagIndex index = context.getTagIndex();
+		for (int i = 0, count = index.getEntryCount(); i < count; i++) {
+			TagTO tag = index.getEntry(i);
+			if (tag == null)
+				continue;
+			label = index.getLabel(i).toLowerCase();
+			boolean wasMax = tag.getValue() >= maxValue;
+			if (context.getNouns().contains(label)) {
+				alterNounTag(tag,maxValue);
+			}else if(context.getAdjectives().contains(label)){
+				alterAdjectiveTag(tag,maxValue);
+			}else if(context.getVerbs().contains(label)){
+				alterVerbTag(tag,maxValue);
+			}else{
+				continue;
 			}
+			index.updated(tag, wasMax);
 		}
 	}
 	
 	/**
-	 * Calculates the maximum value of the tags Map
+	 * Calculates the maximum value of the tags Map, the maximum is kept by
+	 * the {@link TagIndex} of the context, so the tags are not sorted
+	 * @param context Request's context
 	 * @return The maximum value of the tags Map
 	 */
-	protected double calculateMaxValue() {
-		List<TagTO> list = new ArrayList<TagTO>(tags.values());
-		Collections.sort(list);
-		double value = 0d;
-		if(list.size()>0)
-			value = list.get(0).getValue();
-		return value;
+	protected double calculateMaxValue(OpenNLPContext context) {
+		return context.getTagIndex().getMaxValue();
 	}
 
 	/**
 	 * Removes a word from the tags Map
+	 * @param context Request's context
 	 * @param label Label of the tag to remove
 	 */
-	protected void findAndRemove(String label) {
+	protected void findAndRemove(OpenNLPContext context, String label) {
 		logger.debug("Remove some tags");
-		if (tags.containsKey(label.toLowerCase())) {
-			tags.remove(label.toLowerCase());
+		if (context.getTagIndex().remove(label.toLowerCase()) != null) {
+			context.tagRemoved();
 		}
 	}
 
@@ -254,27 +284,5 @@ public class OpenNLPEnhancer extends EnhancerAdapter implements Configurable {
 	protected void alterAdjectiveTag(TagTO label, double maxValue) {
 		label.addValue(maxValue);
 	}
-	
-	/**
-	 * Loads a language analyzer (English or Spanish)
-	 * @param text Text to analyze
-	 * @return OpenNLP's {@link Analyzer}
-	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
-	 * a Configuration object 
-	 */
-	protected OpenNLPAnalyzer loadAnalyzer(String text) throws AcotaConfigurationException {
-		String language = languageDetector.detect(text);
-		OpenNLPAnalyzer analyzer = null;
-		if (language.equals(ISO_639_SPANISH)) {
-			if(spanishOpenNlpAnalyzer==null)
-				this.spanishOpenNlpAnalyzer = new SpanishOpenNLPAnalyzer(configuration);
-			analyzer = spanishOpenNlpAnalyzer;
-		} else {
-			if(englishOpenNlpAnalyzer==null)
-				this.englishOpenNlpAnalyzer = new EnglishOpenNLPAnalyzer(configuration);
-			analyzer = englishOpenNlpAnalyzer;
-		}
-		return analyzer;
-	}
 
 }
\ No newline at end of file
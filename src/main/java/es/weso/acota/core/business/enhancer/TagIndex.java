@@ -0,0 +1,279 @@
+package es.weso.acota.core.business.enhancer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import es.weso.acota.core.entity.TagTO;
+
+/**
+ * TagIndex indexes the tags Map of a request, so the enhancers do not need to copy
+ * nor sort the whole Map. The tags are kept in insertion order in arrays, so they
+ * can be iterated by position while new tags are added: the added ones are appended
+ * after the count taken before iterating. The maximum value is kept as tags are added
+ * or increased, and it is only recalculated when the maximum tag is removed or
+ * decreased. The tags with the highest values are selected with a bounded heap,
+ * in O(n log k) time.
+ * <p>
+ * The Map is still the storage of the tags, the index only tracks the changes made
+ * through it, a {@link EnhancerContext} rebuilds it when the Map is replaced or its
+ * size is changed from outside.
+ *
+ * @author César Luis Alvargonzález
+ */
+public class TagIndex {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	protected final Map<String, TagTO> tags;
+
+	protected String[] labels;
+	protected TagTO[] entries;
+	protected int count;
+	protected int size;
+
+	protected double maxValue;
+	protected boolean maxValid;
+
+	/**
+	 * One-argument constructor, indexes the tags of a Map
+	 * @param tags Tags Map to index
+	 */
+	public TagIndex(Map<String, TagTO> tags) {
+		this.tags = tags;
+		int capacity = Math.max(INITIAL_CAPACITY, tags.size() + tags.size() / 2);
+		this.labels = new String[capacity];
+		this.entries = new TagTO[capacity];
+		for (Entry<String, TagTO> entry : tags.entrySet()) {
+			labels[count] = entry.getKey();
+			entries[count++] = entry.getValue();
+		}
+		this.size = tags.size();
+	}
+
+	/**
+	 * Checks whether the index still reflects a tags Map
+	 * @param tags Tags Map
+	 * @return true if the index was built over the Map and its size has
+	 * only been changed through the index
+	 */
+	public boolean isIndexing(Map<String, TagTO> tags) {
+		return this.tags == tags && tags.size() == size;
+	}
+
+	/**
+	 * Number of tags
+	 * @return The number of tags of the Map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns a tag
+	 * @param label Label of the tag
+	 * @return The tag, null if it does not exist
+	 */
+	public TagTO get(String label) {
+		return tags.get(label);
+	}
+
+	/**
+	 * Adds the tag, or increases its weight if it already exists
+	 * @param tag Tag to add
+	 * @param relevance Weight to add to the tag
+	 * @return true if the tag has been added, false if it already existed
+	 */
+	public boolean add(TagTO tag, double relevance) {
+		TagTO current = tags.get(tag.getLabel());
+		boolean added = current == null;
+		if (added) {
+			tags.put(tag.getLabel(), tag);
+			append(tag.getLabel(), tag);
+			current = tag;
+		}
+		addValue(current, relevance);
+		return added;
+	}
+
+	/**
+	 * Increases the weight of an indexed tag
+	 * @param tag Tag to alter
+	 * @param value Weight to add, it could be negative
+	 */
+	public void addValue(TagTO tag, double value) {
+		boolean wasMax = maxValid && tag.getValue() >= maxValue;
+		tag.addValue(value);
+		updated(tag, wasMax);
+	}
+
+	/**
+	 * Notifies a change of the weight of an indexed tag made directly on the tag
+	 * @param tag Altered tag
+	 * @param wasMax true if the tag had the maximum value before the change
+	 */
+	public void updated(TagTO tag, boolean wasMax) {
+		if (!maxValid)
+			return;
+		if (tag.getValue() >= maxValue)
+			this.maxValue = tag.getValue();
+		else if (wasMax)
+			this.maxValid = false;
+	}
+
+	/**
+	 * Removes a tag
+	 * @param label Label of the tag
+	 * @return The removed tag, null if it did not exist
+	 */
+	public TagTO remove(String label) {
+		TagTO removed = tags.remove(label);
+		if (removed == null)
+			return null;
+		size--;
+		if (maxValid && removed.getValue() >= maxValue)
+			this.maxValid = false;
+		return removed;
+	}
+
+	/**
+	 * Returns the maximum value of the tags
+	 * @return The maximum value, 0 if there are no tags
+	 */
+	public double getMaxValue() {
+		if (!maxValid) {
+			double max = 0d;
+			boolean found = false;
+			for (int i = 0; i < count; i++) {
+				TagTO tag = getEntry(i);
+				if (tag != null && (!found || tag.getValue() > max)) {
+					max = tag.getValue();
+					found = true;
+				}
+			}
+			this.maxValue = max;
+			this.maxValid = found;
+		}
+		return maxValue;
+	}
+
+	/**
+	 * Number of positions of the index, including the ones of removed tags. Tags
+	 * added later are placed after this count, so the count taken before iterating
+	 * bounds the iteration to the tags that existed at that moment
+	 * @return The number of positions
+	 */
+	public int getEntryCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the tag of a position
+	 * @param position Position of the tag
+	 * @return The tag, null if it has been removed
+	 */
+	public TagTO getEntry(int position) {
+		TagTO tag = entries[position];
+		return tag != null && tags.get(labels[position]) == tag ? tag : null;
+	}
+
+	/**
+	 * Returns the label, the key in the Map, of a position
+	 * @param position Position of the tag
+	 * @return The label
+	 */
+	public String getLabel(int position) {
+		return labels[position];
+	}
+
+	/**
+	 * Selects the tags with the highest values, tags with the same value
+	 * are ranked by insertion order
+	 * @param limit Maximum number of tags to select
+	 * @return The selected tags, sorted by descending value
+	 */
+	public List<TagTO> top(int limit) {
+		int capacity = Math.max(0, Math.min(limit, size));
+		int[] heap = new int[capacity];
+		int heapSize = 0;
+		if (capacity > 0) {
+			for (int i = 0; i < count; i++) {
+				if (getEntry(i) == null)
+					continue;
+				if (heapSize < capacity) {
+					heap[heapSize] = i;
+					siftUp(heap, heapSize++);
+				} else if (lower(heap[0], i)) {
+					heap[0] = i;
+					siftDown(heap, heapSize);
+				}
+			}
+		}
+		TagTO[] top = new TagTO[heapSize];
+		while (heapSize > 0) {
+			top[--heapSize] = entries[heap[0]];
+			heap[0] = heap[heapSize];
+			siftDown(heap, heapSize);
+		}
+		return new ArrayList<TagTO>(Arrays.asList(top));
+	}
+
+	/**
+	 * Checks whether a tag ranks below other
+	 * @param position Position of the tag
+	 * @param other Position of the other tag
+	 * @return true if the tag ranks below the other
+	 */
+	protected boolean lower(int position, int other) {
+		double value = entries[position].getValue();
+		double otherValue = entries[other].getValue();
+		return value < otherValue || (value == otherValue && position > other);
+	}
+
+	private void siftUp(int[] heap, int position) {
+		int index = heap[position];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (!lower(index, heap[parent]))
+				break;
+			heap[position] = heap[parent];
+			position = parent;
+		}
+		heap[position] = index;
+	}
+
+	private void siftDown(int[] heap, int heapSize) {
+		if (heapSize == 0)
+			return;
+		int index = heap[0];
+		int position = 0;
+		int child;
+		while ((child = 2 * position + 1) < heapSize) {
+			if (child + 1 < heapSize && lower(heap[child + 1], heap[child]))
+				child++;
+			if (!lower(heap[child], index))
+				break;
+			heap[position] = heap[child];
+			position = child;
+		}
+		heap[position] = index;
+	}
+
+	/**
+	 * Appends a tag to the index
+	 * @param label Label, the key in the Map, of the tag
+	 * @param tag Tag to append
+	 */
+	protected void append(String label, TagTO tag) {
+		if (count == entries.length) {
+			this.labels = Arrays.copyOf(labels, count * 2);
+			this.entries = Arrays.copyOf(entries, count * 2);
+		}
+		labels[count] = label;
+		entries[count++] = tag;
+		size++;
+	}
+
+}
@@ -1,35 +1,43 @@
 package es.weso.acota.core.business.enhancer;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-
-import org.apache.commons.lang.StringUtils;
+
 import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
 
 import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.document.AnnotatedDocument;
+import es.weso.acota.core.business.enhancer.analyzer.document.DocumentAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.lucene.StopAnalyzerFactory;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.TagClassTable;
 import es.weso.acota.core.business.enhancer.analyzer.tokenizer.EnglishTokenizerAnalyzer;
 import es.weso.acota.core.business.enhancer.analyzer.tokenizer.SpanishTokenizerAnalyzer;
 import es.weso.acota.core.business.enhancer.analyzer.tokenizer.TokenizerAnalyzer;
+import es.weso.acota.core.business.enhancer.metrics.MetricsRegistry;
+import es.weso.acota.core.business.enhancer.ngram.NGramScores;
+import es.weso.acota.core.business.enhancer.ngram.NGramSpans;
+import es.weso.acota.core.business.enhancer.ngram.ShingleExtractor;
+import es.weso.acota.core.business.enhancer.ngram.TokenDictionary;
+import es.weso.acota.core.business.enhancer.ngram.TokenizerEngine;
 import es.weso.acota.core.entity.ProviderTO;
+import es.weso.acota.core.entity.RequestSuggestionTO;
 import es.weso.acota.core.entity.TagTO;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
-import es.weso.acota.core.utils.lang.LanguageDetector;
+import es.weso.acota.core.utils.lang.CachedLanguageDetector;
+import es.weso.acota.core.utils.sets.TermSets;
 
+import static es.weso.acota.core.utils.lang.LanguageDetector.ISO_639_ENGLISH;
 import static es.weso.acota.core.utils.lang.LanguageDetector.ISO_639_SPANISH;
 
 /**
  * TokenizerEnhancer is an {@link Enhancer} specialized in tokenizing, removing stop-words and
  * cleaning the input data, producing a set of k-word {@link TagTO}s, k is configurable and
- * supplied by {@link CoreConfiguration}.
+ * supplied by {@link CoreConfiguration}. The k-words are generated by the configured
+ * {@link TokenizerEngine}: the OpenNLP maxent models or a single pass of Lucene shingles.
  * 
  * @author César Luis Alvargonzález
  */
-public class TokenizerEnhancer extends EnhancerAdapter implements Configurable {
+public class TokenizerEnhancer extends ConcurrentEnhancerAdapter<TokenizerEnhancer.TokenizerContext> implements Configurable {
 	
 	protected static final String DESCIPTION = "description";
 	protected static final String LABEL = "label";
@@ -39,55 +47,142 @@ public class TokenizerEnhancer extends EnhancerAdapter implements Configurable {
 
 	protected int k;
 	
-	protected Map<StringArrayWrapper, Double> auxiliar;
+	protected int tokenizerMinCount;
+	protected double tokenizerMinRelevance;
+	protected int tokenizerTopK;
+	protected CharArraySet gazetteer;
+	
+	protected TokenizerEngine tokenizerEngine;
+	protected ShingleExtractor shingleExtractor;
 
 	protected EnglishTokenizerAnalyzer englishTokenizerAnalyzer;
 	protected SpanishTokenizerAnalyzer spanishTokenizerAnalyzer;
+	protected Analyzer spanishStopAnalyzer;
+	protected Analyzer englishStopAnalyzer;
 	
-	protected TokenizerAnalyzer currentTokenizerAnalyzer;
-	protected LanguageDetector languageDetector;
+	protected DocumentAnalyzer documentAnalyzer;
+	protected CachedLanguageDetector languageDetector;
+	
+	protected final ThreadLocal<NGramScores> threadScores = new ThreadLocal<NGramScores>() {
+		@Override
+		protected NGramScores initialValue() {
+			return new NGramScores();
+		}
+	};
+	protected final ThreadLocal<TokenDictionary> threadDictionaries = new ThreadLocal<TokenDictionary>() {
+		@Override
+		protected TokenDictionary initialValue() {
+			return new TokenDictionary();
+		}
+	};
+	protected final ThreadLocal<NGramBuffers> threadBuffers = new ThreadLocal<NGramBuffers>();
 	
 	protected CoreConfiguration configuration;
 
 	/**
-	 * Inner Class StringArrayWrapper is a wrap of a String[], so
-	 * it could be used as key in Maps or similar
-	 * data structures.
+	 * Context of a request processed by the {@link TokenizerEnhancer}
 	 * @author César Luis Alvargonzález
-	 *
 	 */
-	public final class StringArrayWrapper {
-		protected final String[] data;
+	public static class TokenizerContext extends EnhancerContext {
+		
+		protected NGramSpans ngrams;
+		protected NGramScores scores;
+		protected TokenDictionary dictionary;
+		protected TokenizerAnalyzer currentTokenizerAnalyzer;
+		protected TagClassTable tagClasses;
+		
+		/**
+		 * Four-argument constructor
+		 * @param request Request to process
+		 * @param k Maximum number of tokens of the n-grams
+		 * @param scores Accumulator of the scores of the n-grams, it is 
+		 * cleared before each field
+		 * @param dictionary Dictionary of the tokens of the request, it is cleared
+		 * by the constructor
+		 */
+		public TokenizerContext(RequestSuggestionTO request, int k, NGramScores scores, 
+				TokenDictionary dictionary) {
+			this(request, new NGramSpans(k), scores, dictionary);
+		}
 
 		/**
-		 * One-argument default constructor.
-		 * @param data String[] to store
+		 * Four-argument constructor
+		 * @param request Request to process
+		 * @param ngrams N-grams of the texts, they are cleared before each field
+		 * @param scores Accumulator of the scores of the n-grams, it is 
+		 * cleared before each field
+		 * @param dictionary Dictionary of the tokens of the request, it is cleared
+		 * by the constructor
 		 */
-		public StringArrayWrapper(String[] data) {
-			if (data == null) {
-				throw new NullPointerException();
-			}
-			this.data = data;
+		public TokenizerContext(RequestSuggestionTO request, NGramSpans ngrams, NGramScores scores, 
+				TokenDictionary dictionary) {
+			super(request);
+			this.ngrams = ngrams;
+			this.scores = scores;
+			this.dictionary = dictionary;
+			dictionary.clear();
 		}
 
-		@Override
-		public boolean equals(Object other) {
-			if (!(other instanceof StringArrayWrapper)) {
-				return false;
-			}
-			return Arrays.equals(data, ((StringArrayWrapper) other).data);
+		public NGramSpans getNGrams() {
+			return ngrams;
 		}
 
-		@Override
-		public int hashCode() {
-			return Arrays.hashCode(data);
+		public NGramScores getScores() {
+			return scores;
 		}
 
-		@Override
-		public String toString() {
-			return Arrays.toString(data);
+		public TokenDictionary getDictionary() {
+			return dictionary;
+		}
+
+		public TokenizerAnalyzer getCurrentTokenizerAnalyzer() {
+			return currentTokenizerAnalyzer;
+		}
+
+		public void setCurrentTokenizerAnalyzer(TokenizerAnalyzer currentTokenizerAnalyzer) {
+			this.currentTokenizerAnalyzer = currentTokenizerAnalyzer;
+			this.tagClasses = null;
 		}
 
+		/**
+		 * Returns the tag classes of the current analyzer, they are resolved once
+		 * per request, instead of once per tag
+		 * @return The {@link TagClassTable} of the current analyzer
+		 */
+		public TagClassTable getTagClasses() {
+			if (tagClasses == null)
+				this.tagClasses = currentTokenizerAnalyzer.getTagClasses();
+			return tagClasses;
+		}
+		
+	}
+
+	/**
+	 * Scratch buffers of the n-grams, reused by the requests processed by a thread, 
+	 * the ids and the tags of an n-gram are sliced into the arrays of its length
+	 * @author César Luis Alvargonzález
+	 */
+	protected static class NGramBuffers {
+
+		protected final NGramSpans ngrams;
+		protected final int[] positions;
+		protected final int[][] ids;
+		protected final String[][] tags;
+
+		/**
+		 * One-argument constructor
+		 * @param k Maximum number of tokens of the n-grams
+		 */
+		public NGramBuffers(int k) {
+			this.ngrams = new NGramSpans(k);
+			this.positions = new int[k];
+			this.ids = new int[k + 1][];
+			this.tags = new String[k + 1][];
+			for (int length = 0; length <= k; length++) {
+				ids[length] = new int[length];
+				tags[length] = new String[length];
+			}
+		}
 	}
 
 	/**
@@ -98,9 +193,8 @@ public class TokenizerEnhancer extends EnhancerAdapter implements Configurable {
 	 */
 	public TokenizerEnhancer() throws IOException, AcotaConfigurationException {
 		super();
-		this.auxiliar = new HashMap<StringArrayWrapper, Double>();
 		loadConfiguration(configuration);
-		LuceneEnhancer.provider = new ProviderTO("Tokenizer Enhancer");
+		this.provider = new ProviderTO("Tokenizer Enhancer");
 	}
 	
 	/**
@@ -112,9 +206,8 @@ public class TokenizerEnhancer extends EnhancerAdapter implements Configurable {
 	 */
 	public TokenizerEnhancer(CoreConfiguration configuration) throws IOException, AcotaConfigurationException {
 		super();
-		this.auxiliar = new HashMap<StringArrayWrapper, Double>();
 		loadConfiguration(configuration);
-		LuceneEnhancer.provider = new ProviderTO("Tokenizer Enhancer");
+		this.provider = new ProviderTO("Tokenizer Enhancer");
 	}
 
 	/**
@@ -130,6 +223,17 @@ public class TokenizerEnhancer extends EnhancerAdapter implements Configurable {
 		this.k = configuration.getTokenizerK();
 		this.tokenizerRelevanceLabel = configuration.getTokenizerLabelRelevance();
 		this.tokenizerRelevanceTerm = configuration.getTokenizerTermRelevance();
+		this.tokenizerMinCount = configuration.getTokenizerMinCount();
+		this.tokenizerMinRelevance = configuration.getTokenizerMinRelevance();
+		this.tokenizerTopK = configuration.getTokenizerTopK();
+		String gazetteer = configuration.getTokenizerGazetteer();
+		this.gazetteer = gazetteer == null || gazetteer.trim().length() == 0 ? 
+				null : TermSets.fromFile(gazetteer.trim(), true);
+		this.tokenizerEngine = TokenizerEngine.parse(configuration.getTokenizerEngine());
+		if (tokenizerEngine == null)
+			throw new AcotaConfigurationException("Unknown tokenizer engine: " 
+					+ configuration.getTokenizerEngine());
+		this.shingleExtractor = new ShingleExtractor(k);
 		
 		if(spanishTokenizerAnalyzer==null)
 			this.spanishTokenizerAnalyzer = new SpanishTokenizerAnalyzer(configuration);
@@ -141,63 +245,72 @@ public class TokenizerEnhancer extends EnhancerAdapter implements Configurable {
 		else
 			this.englishTokenizerAnalyzer.loadConfiguration(configuration);
 		
-		this.languageDetector = LanguageDetector.getInstance(configuration);
+		this.documentAnalyzer = DocumentAnalyzer.getInstance(configuration);
+		this.spanishStopAnalyzer = StopAnalyzerFactory.getAnalyzer(ISO_639_SPANISH, configuration);
+		this.englishStopAnalyzer = StopAnalyzerFactory.getAnalyzer(ISO_639_ENGLISH, configuration);
+		this.languageDetector = CachedLanguageDetector.getInstance(configuration);
+		this.metrics = MetricsRegistry.getInstance(configuration);
 	}
 
 	/**
-	 * @see EnhancerAdapter#execute()
+	 * @see ConcurrentEnhancerAdapter#createContext(RequestSuggestionTO)
 	 */
 	@Override
-	protected void execute() throws Exception {
-		extractLabelTerms();
-		extractDescriptionTerms();
+	protected TokenizerContext createContext(RequestSuggestionTO request) {
+		return new TokenizerContext(request, loadBuffers().ngrams, threadScores.get(), 
+				threadDictionaries.get());
 	}
 
 	/**
-	 * @see EnhancerAdapter#preExecute()
+	 * Loads the n-gram buffers of the current thread, in the case they do not
+	 * exist, or they were sized for other k, it will create them
+	 * @return The {@link NGramBuffers} of the current thread
 	 */
-	@Override
-	protected void preExecute() throws Exception {
-		this.suggest = request.getSuggestions();
-		this.tags = suggest.getTags();
-		suggest.setResource(request.getResource());
+	protected NGramBuffers loadBuffers() {
+		NGramBuffers buffers = threadBuffers.get();
+		if (buffers == null || buffers.ngrams.getK() != k) {
+			buffers = new NGramBuffers(k);
+			threadBuffers.set(buffers);
+		}
+		return buffers;
 	}
 
 	/**
-	 * @see EnhancerAdapter#postExecute()
+	 * @see ConcurrentEnhancerAdapter#execute(EnhancerContext)
 	 */
 	@Override
-	protected void postExecute() throws Exception {
-		logger.debug("Add providers to request");
-		this.request.getTargetProviders().add(provider);
-		logger.debug("Add suggestons to request");
-		this.request.setSuggestions(suggest);
+	protected void execute(TokenizerContext context) throws Exception {
+		extractLabelTerms(context);
+		extractDescriptionTerms(context);
 	}
 
 	/**
 	 * Extracts Label terms
+	 * @param context Request's context
 	 * @throws IOException Signals that an I/O exception of some sort has occurred
 	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
 	 * a Configuration object
 	 */
-	protected void extractLabelTerms() throws IOException, AcotaConfigurationException {
-		extractTerms(LABEL, request.getResource().getLabel(),
+	protected void extractLabelTerms(TokenizerContext context) throws IOException, AcotaConfigurationException {
+		extractTerms(context, LABEL, context.getRequest().getResource().getLabel(),
 				tokenizerRelevanceLabel);
 	}
 	
 	/**
 	 * Extracts Description terms
+	 * @param context Request's context
 	 * @throws IOException Signals that an I/O exception of some sort has occurred
 	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
 	 * a Configuration object
 	 */
-	protected void extractDescriptionTerms() throws IOException, AcotaConfigurationException {
-		extractTerms(DESCIPTION, request.getResource().getDescription(),
+	protected void extractDescriptionTerms(TokenizerContext context) throws IOException, AcotaConfigurationException {
+		extractTerms(context, DESCIPTION, context.getRequest().getResource().getDescription(),
 				tokenizerRelevanceTerm);
 	}
 
 	/**
 	 * Tokenizes and removes stop-words (Spanish and English) from the supplied text
+	 * @param context Request's context
 	 * @param title FieldName (description, label)
 	 * @param text Text to extract the terms
 	 * @param relevance Weight which is incremented each matched term
@@ -205,118 +318,165 @@ public class TokenizerEnhancer extends EnhancerAdapter implements Configurable {
 	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
 	 * a Configuration object
 	 */
-	protected void extractTerms(String title, String text, double relevance)
+	protected void extractTerms(TokenizerContext context, String title, String text, double relevance)
 			throws IOException, AcotaConfigurationException {
-		String language = languageDetector.detect(text);
-		this.currentTokenizerAnalyzer = loadAnalyzer(language);
+		if (tokenizerEngine == TokenizerEngine.SHINGLE) {
+			extractShingles(context, title, text, relevance);
+			return;
+		}
+		AnnotatedDocument document = documentAnalyzer.analyze(text, context.getDocuments());
+		context.setCurrentTokenizerAnalyzer(loadAnalyzer(document.getLanguage()));
+		context.setLanguage(document.getLanguage());
 		
-		String[] sentences = currentTokenizerAnalyzer.sentDetect(text);
-		auxiliar.clear();
-		for (String sentence : sentences) {
-			loadChunks(currentTokenizerAnalyzer.tokenize(sentence), relevance);
+		context.getNGrams().clear(context.getCurrentTokenizerAnalyzer(), context.getDictionary());
+		context.getScores().clear();
+		for (int i = 0; i < document.size(); i++) {
+			loadChunks(context, document.getTokens(i));
 		}
-		analysisOfTerms(relevance);
+		analysisOfTerms(context, document, relevance);
+		loadScores(context);
+	}
 
+	/**
+	 * Extracts the k-words of the supplied text as shingles of Lucene's 
+	 * stop analyzer of its language, without using OpenNLP
+	 * @param context Request's context
+	 * @param title FieldName (description, label)
+	 * @param text Text to extract the terms
+	 * @param relevance Weight which is incremented each matched term
+	 * @throws IOException Any exception that occurs while reading Lucene's TokenStream
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
+	 * a Configuration object
+	 */
+	protected void extractShingles(TokenizerContext context, String title, String text, double relevance)
+			throws IOException, AcotaConfigurationException {
+		String language = languageDetector.detect(text, context.getDocuments());
+		context.setLanguage(language);
+		context.getScores().clear();
+		shingleExtractor.extract(loadStopAnalyzer(language), title, text, relevance, 
+				context.getDictionary(), context.getScores());
+		loadScores(context);
 	}
 
 	/**
-	 * Generates the k-words saving them into a auxiliary map
+	 * Generates the k-words of a sentence, saving the unique ones into the context's
+	 * {@link NGramSpans}
+	 * @param context Request's context
 	 * @param tokenizedText Tokenized Text
-	 * @param relevance Weight which is incremented each matched term
 	 * @throws AcotaConfigurationException Any exception that occurs 
 	 */
-	protected void loadChunks(String[] tokenizedText, double relevance) throws AcotaConfigurationException {
-		for (int i = 1; i <= k; i++) {
-			for (int j = 0; j + i <= tokenizedText.length; j++) {
-				addString(
-						cleanChunks(Arrays.copyOfRange(tokenizedText, j, i + j )),
-						relevance);
-			}
-		}
+	protected void loadChunks(TokenizerContext context, String[] tokenizedText) throws AcotaConfigurationException {
+		context.getNGrams().addSentence(tokenizedText);
 	}
 
 	/**
-	 * Trims any word of the edges that not fits with:
-	 * 	<ul>
-	 * 		<li>Characters</li>
-	 * 		<li>Numbers</li>
-	 * 		<li>Length (of the word) bigger than 2</li>
-	 * 	</ul>
-	 * 
-	 * @param chunk
-	 * @return The supplied chunk, cleaned
+	 * Performs a terms analysis, each sentence is tagged once and the
+	 * tags and token ids of each k-word are sliced from its sentence
+	 * @param context Request's context
+	 * @param document Analyzed text
+	 * @param relevance Weight which is incremented each matched term
+	 * @throws IOException Signals that an I/O exception of some sort has occurred
 	 * @throws AcotaConfigurationException Any exception that occurs 
 	 */
-	protected String[] cleanChunks(String[] chunk) throws AcotaConfigurationException {
-		List<String> auxList = new LinkedList<String>();
-		for (int i = 0; i < chunk.length; i++) {
-			if (!currentTokenizerAnalyzer.match(chunk[i])) {
-				if (!((i == 0 || i == chunk.length - 1) && chunk[i].length() <= 2))
-					auxList.add(chunk[i]);
+	protected void analysisOfTerms(TokenizerContext context, AnnotatedDocument document, double relevance) 
+			throws IOException, AcotaConfigurationException {
+		NGramSpans ngrams = context.getNGrams();
+		NGramBuffers buffers = loadBuffers();
+		int[] positions = buffers.positions;
+		int sentence = -1;
+		String[] sentenceTags = null;
+		for (int i = 0; i < ngrams.size(); i++) {
+			if (ngrams.getSentence(i) != sentence) {
+				sentence = ngrams.getSentence(i);
+				sentenceTags = document.getTags(sentence);
 			}
+			int length = ngrams.getPositions(i, positions);
+			int[] ids = buffers.ids[length];
+			String[] tags = buffers.tags[length];
+			for (int j = 0; j < length; j++) {
+				ids[j] = ngrams.getTokenId(sentence, positions[j]);
+				tags[j] = sentenceTags[positions[j]];
+			}
+			processSetence(context, tags, ids, relevance, ngrams.getOccurrences(i));
 		}
-		String[] finalChunk = new String[auxList.size()];
-		return auxList.toArray(finalChunk);
-
 	}
 
 	/**
-	 * Adds or Increases (If currently exists) the label to the auxiliary labels map 
-	 * @param label Label's name
-	 * @param relevance Weight which is incremented each matched term
+	 * Stores the accumulated k-words into the suggestions, pruning the ones seen
+	 * less than the minimum count or whose relevance is less than the minimum 
+	 * relevance, and keeping only the top-K most relevant ones of the field. 
+	 * The k-words of the gazetteer are never pruned
+	 * @param context Request's context
+	 * @throws AcotaConfigurationException Any exception that occurs 
 	 */
-	protected void addString(String[] label, double relevance) {
-		StringArrayWrapper stringArrayWraper = new StringArrayWrapper(label);
-		Double value = auxiliar.get(stringArrayWraper);
-		value = value != null ? value : 0;
-		value += relevance;
-		auxiliar.put(stringArrayWraper, value);
+	protected void loadScores(TokenizerContext context) throws AcotaConfigurationException {
+		NGramScores scores = context.getScores();
+		int[] selected = scores.select(tokenizerMinCount, tokenizerMinRelevance, tokenizerTopK);
+		for (int i : selected) {
+			loadScore(context, i, scores.getLabel(i, context.getDictionary()));
+		}
+		CharArraySet gazetteer = this.gazetteer;
+		if (gazetteer != null && selected.length < scores.size()) {
+			StringBuilder label = new StringBuilder();
+			int next = 0;
+			for (int i = 0; i < scores.size(); i++) {
+				if (next < selected.length && selected[next] == i) {
+					next++;
+					continue;
+				}
+				label.setLength(0);
+				scores.appendLabel(i, context.getDictionary(), label);
+				if (gazetteer.contains(label))
+					loadScore(context, i, label.toString());
+			}
+		}
 	}
 
 	/**
-	 * Performs a terms analysis
-	 * @param relevance Weight which is incremented each matched term
-	 * @throws IOException Signals that an I/O exception of some sort has occurred
+	 * Stores an accumulated k-word into the suggestions
+	 * @param context Request's context
+	 * @param index Index of the k-word in the context's {@link NGramScores}
+	 * @param label Label of the k-word
 	 * @throws AcotaConfigurationException Any exception that occurs 
 	 */
-	protected void analysisOfTerms(double relevance) throws IOException, AcotaConfigurationException {
-		for (Entry<StringArrayWrapper, Double> value : auxiliar.entrySet()) {
-			processSetence(currentTokenizerAnalyzer.tag(value.getKey().data),
-					value.getKey().data, relevance);
-		}
+	protected void loadScore(TokenizerContext context, int index, String label) throws AcotaConfigurationException {
+		TagTO tag = new TagTO(label,
+				languageDetector.detect(label, context.getLanguage()),
+				provider, context.getRequest().getResource());
+		fillSuggestions(context, tag, context.getScores().getValue(index));
 	}
 
 	/**
-	 * Trims the labels removing non meaningful words from the edges of the sentence
+	 * Trims the labels removing non meaningful words from the edges of the sentence,
+	 * accumulating the relevance and the occurrences of the trimmed label
+	 * @param context Request's context
 	 * @param tags OpenNLP Tags related to the Tokenized Text
-	 * @param tokenizedText Tokenized Text
+	 * @param ids Ids of the Tokenized Text in the context's {@link TokenDictionary}
 	 * @param relevance Weight which is incremented each matched term
+	 * @param occurrences Number of occurrences of the Tokenized Text in the field
 	 * @throws AcotaConfigurationException Any exception that occurs 
 	 */
-	protected void processSetence(String[] tags, String[] tokenizedText,
-			double relevance) throws AcotaConfigurationException {
-		int min = calculateMin(tags);
-		int max = calculateMax(tags);
+	protected void processSetence(TokenizerContext context, String[] tags, int[] ids,
+			double relevance, int occurrences) throws AcotaConfigurationException {
+		int min = calculateMin(context, tags);
+		int max = calculateMax(context, tags);
 		if (min <= max && min >= 0 && max >= 0) {
-			String label = StringUtils.join(
-					Arrays.copyOfRange(tokenizedText, min, max + 1), " ");
-			TagTO tag = new TagTO(label,
-					languageDetector.detect(label),
-					provider, request.getResource());
-			fillSuggestions(tag, relevance);
+			context.getScores().add(ids, min, max + 1, relevance, occurrences);
 		}
 	}
 
 	/**
 	 * Calculates the bigger valid index of the array
+	 * @param context Request's context
 	 * @param tags Array of OpenNLP tags
 	 * @return The bigger valid index of the array,
 	 * -1 If there is no valid tags
 	 * @throws AcotaConfigurationException Any exception that occurs 
 	 */
-	protected int calculateMax(String[] tags) throws AcotaConfigurationException {
+	protected int calculateMax(TokenizerContext context, String[] tags) throws AcotaConfigurationException {
+		TagClassTable tagClasses = context.getTagClasses();
 		for (int i = tags.length - 1; i >= 0; i--) {
-			if (currentTokenizerAnalyzer.containsTag(tags[i]))
+			if (tagClasses.is(tags[i], TagClassTable.MEANINGFUL))
 				return i;
 		}
 		return -1;
@@ -324,19 +484,36 @@ public class TokenizerEnhancer extends EnhancerAdapter implements Configurable {
 
 	/**
 	 * Calculates the lower valid index of the array
+	 * @param context Request's context
 	 * @param tags Array of OpenNLP tags
 	 * @return The lower valid index of the array, 
 	 * -1 If there is no valid tags
 	 * @throws AcotaConfigurationException Any exception that occurs 
 	 */
-	protected int calculateMin(String[] tags) throws AcotaConfigurationException {
+	protected int calculateMin(TokenizerContext context, String[] tags) throws AcotaConfigurationException {
+		TagClassTable tagClasses = context.getTagClasses();
 		for (int i = 0; i < tags.length; i++) {
-			if (currentTokenizerAnalyzer.containsTag(tags[i]))
+			if (tagClasses.is(tags[i], TagClassTable.MEANINGFUL))
 				return i;
 		}
 		return -1;
 	}
 
+	/**
+	 * Loads a Lucene's stop analyzer (English, Spanish or Default)
+	 * @param language Language of the analyzer to load
+	 * @return Lucene's {@link Analyzer}
+	 * @throws AcotaConfigurationException If the stop words could not be loaded
+	 */
+	protected Analyzer loadStopAnalyzer(String language) throws AcotaConfigurationException {
+		if (ISO_639_SPANISH.equals(language)) {
+			return spanishStopAnalyzer;
+		} else if (ISO_639_ENGLISH.equals(language)) {
+			return englishStopAnalyzer;
+		}
+		return StopAnalyzerFactory.getAnalyzer(language);
+	}
+
 	/**
 	 * Loads a language analyzer (English or Spanish)
 	 * @param language Language of the analyzer to load
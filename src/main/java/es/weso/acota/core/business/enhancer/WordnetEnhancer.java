@@ -2,8 +2,6 @@ package es.weso.acota.core.business.enhancer;
 
 import java.io.IOException;
 import java.net.URL;
-import java.util.Map.Entry;
-import java.util.Set;
 
 
 import edu.mit.jwi.Dictionary;
@@ -14,10 +12,11 @@ import edu.mit.jwi.item.IWord;
 import edu.mit.jwi.item.IWordID;
 import edu.mit.jwi.item.POS;
 import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.metrics.MetricsRegistry;
 import es.weso.acota.core.entity.ProviderTO;
+import es.weso.acota.core.entity.RequestSuggestionTO;
 import es.weso.acota.core.entity.TagTO;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
-import es.weso.acota.core.utils.AcotaUtil;
 import es.weso.acota.core.utils.lang.LanguageDetector;
 
 /**
@@ -28,13 +27,12 @@ import es.weso.acota.core.utils.lang.LanguageDetector;
  * 
  * @author César Luis Alvargonzález
  */
-public class WordnetEnhancer extends EnhancerAdapter implements Configurable {
+public class WordnetEnhancer extends ConcurrentEnhancerAdapter<EnhancerContext> implements Configurable {
 
 	protected String wordnetEnDict;
-	protected boolean wordnetEnDictModified;
 	protected double wordnetRelevance;
 	
-	protected IDictionary dictionary;
+	protected volatile IDictionary dictionary;
 	
 	protected CoreConfiguration configuration;
 	
@@ -46,7 +44,7 @@ public class WordnetEnhancer extends EnhancerAdapter implements Configurable {
 	 */
 	public WordnetEnhancer() throws IOException, AcotaConfigurationException  {
 		super();
-		WordnetEnhancer.provider = new ProviderTO("Wordnet Enhancer");
+		this.provider = new ProviderTO("Wordnet Enhancer");
 		loadConfiguration(configuration);
 	}
 	
@@ -59,64 +57,67 @@ public class WordnetEnhancer extends EnhancerAdapter implements Configurable {
 	 */
 	public WordnetEnhancer(CoreConfiguration configuration) throws IOException, AcotaConfigurationException  {
 		super();
-		WordnetEnhancer.provider = new ProviderTO("Wordnet Enhancer");
+		this.provider = new ProviderTO("Wordnet Enhancer");
 		loadConfiguration(configuration);
 	}
 	
 	@Override
-	public void loadConfiguration(CoreConfiguration configuration) throws AcotaConfigurationException{
+	public synchronized void loadConfiguration(CoreConfiguration configuration) throws AcotaConfigurationException{
 		if(configuration==null)
 			configuration = new CoreConfiguration();
 		this.configuration = configuration;
 		this.wordnetRelevance = configuration.getWordnetRelevance();
 		if(wordnetEnDict == null || !wordnetEnDict.equals(configuration.getWordnetEnDict())){
-			this.wordnetEnDictModified = true;
+			this.dictionary = loadWordnetDict(configuration.getWordnetEnDict());
 			this.wordnetEnDict = configuration.getWordnetEnDict();
 		}
+		this.metrics = MetricsRegistry.getInstance(configuration);
 	}
 
-	protected void loadWordnetDict() throws IOException{
-		if(dictionary!=null && dictionary.isOpen()){
-			dictionary.close();		
-		}
-		URL url = new URL ("file", null, wordnetEnDict);
-		this.dictionary = new Dictionary ( url );
-		dictionary.open();	
-	}
-
-	@Override
-	protected void execute() throws Exception {
-		if(wordnetEnDictModified){
-			loadWordnetDict();
-		}
-		Set<Entry<String, TagTO>> shallowCoppy = AcotaUtil.backupTags(tags).entrySet();
-		for (Entry<String, TagTO> label : shallowCoppy) {
-			if(label.getValue().getLang().equals(LanguageDetector.ISO_639_ENGLISH))
-				findSynonims(label.getKey());
+	/**
+	 * Opens Wordnet's dictionary. The dictionary it replaces is not closed, 
+	 * since the requests in progress could still be reading it
+	 * @param wordnetEnDict Path of Wordnet's dictionary
+	 * @return Wordnet's dictionary
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
+	 * Wordnet's dictionary
+	 */
+	protected IDictionary loadWordnetDict(String wordnetEnDict) throws AcotaConfigurationException{
+		try {
+			URL url = new URL ("file", null, wordnetEnDict);
+			IDictionary dictionary = new Dictionary ( url );
+			dictionary.open();
+			return dictionary;
+		} catch (IOException e) {
+			throw new AcotaConfigurationException("Fail opening Wordnet's dictionary " + wordnetEnDict, e);
 		}
 	}
 
 	@Override
-	protected void preExecute() throws Exception {
-		this.suggest = request.getSuggestions();
-		this.tags = suggest.getTags();
-		suggest.setResource(request.getResource());
-
+	protected EnhancerContext createContext(RequestSuggestionTO request) {
+		return new EnhancerContext(request);
 	}
 
 	@Override
-	protected void postExecute() throws Exception {
-		this.request.getTargetProviders().add(provider);
-		this.request.setSuggestions(suggest);
-
+	protected void execute(EnhancerContext context) throws Exception {
+		context.setLanguage(LanguageDetector.ISO_639_ENGLISH);
+		IDictionary dictionary = this.dictionary;
+		TagIndex index = context.getTagIndex();
+		for (int i = 0, count = index.getEntryCount(); i < count; i++) {
+			TagTO tag = index.getEntry(i);
+			if(tag != null && tag.getLang().equals(LanguageDetector.ISO_639_ENGLISH))
+				findSynonims(context, dictionary, index.getLabel(i));
+		}
 	}
 
 	/**
 	 * Increases the weight of the terms that match with the synonyms of
 	 * the label founded
+	 * @param context Request's context
+	 * @param dictionary Wordnet's dictionary
 	 * @param label Label founded
 	 */
-	protected void findSynonims(String label){
+	protected void findSynonims(EnhancerContext context, IDictionary dictionary, String label){
 		IIndexWord idxWord = dictionary.getIndexWord (label , POS . NOUN );
 		if(idxWord!=null){
 			IWordID wordID = idxWord.getWordIDs () . get (0) ;
@@ -126,12 +127,12 @@ public class WordnetEnhancer extends EnhancerAdapter implements Configurable {
 			for ( IWord w : synset.getWords () ){
 				cleanWord = w.getLemma().replace('_', ' ').toLowerCase();
 				if(!cleanWord.equals(label)){
-					TagTO tag = tags.get(cleanWord);
+					TagTO tag = context.getTagIndex().get(cleanWord);
 					if(tag == null){
 						tag = new TagTO(cleanWord, LanguageDetector.ISO_639_ENGLISH, 
-								provider, suggest.getResource());
+								provider, context.getSuggest().getResource());
 					}
-					fillSuggestions(tag, wordnetRelevance);
+					fillSuggestions(context, tag, wordnetRelevance);
 				}
 			}
 		}
@@ -0,0 +1,93 @@
+package es.weso.acota.core.business.enhancer.analyzer.document;
+
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.OpenNLPAnalyzer;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+/**
+ * AnnotatedDocument keeps the linguistic analysis of a text: its language, 
+ * its sentences, the tokens of each sentence and their POS tags. The POS tags
+ * are computed the first time they are requested, so the enhancers that only 
+ * need the tokens do not pay for the tagging.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class AnnotatedDocument {
+
+	protected final String text;
+	protected final String language;
+	protected final String[] sentences;
+	protected final String[][] tokens;
+	protected final String[][] tags;
+	
+	protected final OpenNLPAnalyzer analyzer;
+
+	/**
+	 * Five-argument constructor
+	 * @param text Analyzed text
+	 * @param language Language of the text
+	 * @param sentences Sentences of the text
+	 * @param tokens Tokens of each sentence
+	 * @param analyzer Analyzer used to tag the sentences
+	 */
+	public AnnotatedDocument(String text, String language, String[] sentences, 
+			String[][] tokens, OpenNLPAnalyzer analyzer) {
+		this.text = text;
+		this.language = language;
+		this.sentences = sentences;
+		this.tokens = tokens;
+		this.tags = new String[sentences.length][];
+		this.analyzer = analyzer;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public String getLanguage() {
+		return language;
+	}
+
+	public OpenNLPAnalyzer getAnalyzer() {
+		return analyzer;
+	}
+
+	/**
+	 * Returns the number of sentences of the document
+	 * @return Number of sentences
+	 */
+	public int size() {
+		return sentences.length;
+	}
+
+	/**
+	 * Returns a sentence of the document
+	 * @param sentence Index of the sentence
+	 * @return The sentence
+	 */
+	public String getSentence(int sentence) {
+		return sentences[sentence];
+	}
+
+	/**
+	 * Returns the tokens of a sentence
+	 * @param sentence Index of the sentence
+	 * @return Tokens of the sentence
+	 */
+	public String[] getTokens(int sentence) {
+		return tokens[sentence];
+	}
+
+	/**
+	 * Returns the POS tags of a sentence, tagging it if it has not been tagged yet
+	 * @param sentence Index of the sentence
+	 * @return POS tags of the sentence
+	 * @throws AcotaConfigurationException Any exception that occurs while tagging the sentence
+	 */
+	public synchronized String[] getTags(int sentence) throws AcotaConfigurationException {
+		if (tags[sentence] == null) {
+			tags[sentence] = analyzer.tag(tokens[sentence]);
+		}
+		return tags[sentence];
+	}
+
+}
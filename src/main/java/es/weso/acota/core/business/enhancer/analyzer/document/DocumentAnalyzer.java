@@ -0,0 +1,125 @@
+package es.weso.acota.core.business.enhancer.analyzer.document;
+
+import static es.weso.acota.core.utils.lang.LanguageDetector.ISO_639_SPANISH;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.Configurable;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.EnglishOpenNLPAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.OpenNLPAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.SpanishOpenNLPAnalyzer;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.lang.CachedLanguageDetector;
+
+/**
+ * DocumentAnalyzer performs, once per text, the language detection, the sentence
+ * detection and the tokenization required by the enhancers, returning an 
+ * {@link AnnotatedDocument}. The documents are kept in the {@link RequestDocuments}
+ * of the request, so the enhancers of a chain share the analysis of the same resource
+ * without any global state, and a single copy of each OpenNLP model is loaded by the
+ * process.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class DocumentAnalyzer implements Configurable {
+
+	private static DocumentAnalyzer DOCUMENT_ANALYZER;
+
+	protected volatile EnglishOpenNLPAnalyzer englishOpenNlpAnalyzer;
+	protected volatile SpanishOpenNLPAnalyzer spanishOpenNlpAnalyzer;
+
+	protected volatile CachedLanguageDetector languageDetector;
+	protected CoreConfiguration configuration;
+
+	/**
+	 * Default Constructor
+	 * @param configuration acota-core's configuration class
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
+	 * a Configuration object
+	 */
+	protected DocumentAnalyzer(CoreConfiguration configuration) throws AcotaConfigurationException {
+		loadConfiguration(configuration);
+	}
+
+	/**
+	 * Gets an instance of {@link DocumentAnalyzer}, 
+	 * in the case it does not exists, it will create one,
+	 * @param configuration acota-core's configuration class
+	 * @return The {@link DocumentAnalyzer}'s instance
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
+	 * a Configuration object
+	 */
+	public static synchronized DocumentAnalyzer getInstance(CoreConfiguration configuration) throws AcotaConfigurationException {
+		if (DOCUMENT_ANALYZER == null) {
+			DocumentAnalyzer.DOCUMENT_ANALYZER = new DocumentAnalyzer(configuration);
+		}
+		return DOCUMENT_ANALYZER;
+	}
+
+	@Override
+	public synchronized void loadConfiguration(CoreConfiguration configuration) throws AcotaConfigurationException {
+		if (configuration == null)
+			configuration = new CoreConfiguration();
+		this.configuration = configuration;
+
+		if (spanishOpenNlpAnalyzer == null)
+			this.spanishOpenNlpAnalyzer = new SpanishOpenNLPAnalyzer(configuration);
+		else
+			spanishOpenNlpAnalyzer.loadConfiguration(configuration);
+
+		if (englishOpenNlpAnalyzer == null)
+			this.englishOpenNlpAnalyzer = new EnglishOpenNLPAnalyzer(configuration);
+		else
+			englishOpenNlpAnalyzer.loadConfiguration(configuration);
+
+		this.languageDetector = CachedLanguageDetector.getInstance(configuration);
+	}
+
+	/**
+	 * Analyzes a text, if it has already been analyzed for the request the
+	 * {@link AnnotatedDocument} of the request is returned
+	 * @param text Text to analyze
+	 * @param documents Documents of the request, null to analyze the text anyway
+	 * @return The {@link AnnotatedDocument} of the text
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
+	 * a Configuration object
+	 */
+	public AnnotatedDocument analyze(String text, RequestDocuments documents) throws AcotaConfigurationException {
+		if (documents == null || text == null)
+			return createDocument(text, languageDetector.detect(text));
+		AnnotatedDocument document = documents.get(text);
+		if (document == null) {
+			document = documents.put(createDocument(text, languageDetector.detect(text, documents)));
+		}
+		return document;
+	}
+
+	/**
+	 * Loads a language analyzer (English or Spanish)
+	 * @param language Language of the text to analyze
+	 * @return OpenNLP's analyzer of the language
+	 */
+	public OpenNLPAnalyzer loadAnalyzer(String language) {
+		if (ISO_639_SPANISH.equals(language)) 
+			return spanishOpenNlpAnalyzer;
+		return englishOpenNlpAnalyzer;
+	}
+
+	/**
+	 * Detects the sentences and the tokens of a text
+	 * @param text Text to analyze
+	 * @param language Language of the text
+	 * @return The {@link AnnotatedDocument} of the text
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
+	 * a Configuration object
+	 */
+	protected AnnotatedDocument createDocument(String text, String language) throws AcotaConfigurationException {
+		OpenNLPAnalyzer analyzer = loadAnalyzer(language);
+		String[] sentences = analyzer.sentDetect(text);
+		String[][] tokens = new String[sentences.length][];
+		for (int i = 0; i < sentences.length; i++) {
+			tokens[i] = analyzer.tokenize(sentences[i]);
+		}
+		return new AnnotatedDocument(text, language, sentences, tokens, analyzer);
+	}
+
+}
@@ -0,0 +1,80 @@
+package es.weso.acota.core.business.enhancer.analyzer.document;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * RequestDocuments keeps the {@link AnnotatedDocument}s of the texts of a single
+ * request, it is created when the request enters the chain of enhancers and it is
+ * passed down the chain, so the enhancers share the analysis of the request's texts
+ * and the languages of its texts, and it is discarded with the request. The enhancers
+ * of a graph could analyze the texts concurrently, so the documents are kept in a
+ * concurrent map.
+ *
+ * @author César Luis Alvargonzález
+ */
+public class RequestDocuments {
+
+	protected final ConcurrentMap<String, AnnotatedDocument> documents;
+	protected final ConcurrentMap<String, String> languages;
+
+	/**
+	 * Zero-argument default constructor
+	 */
+	public RequestDocuments() {
+		this.documents = new ConcurrentHashMap<String, AnnotatedDocument>(4, 0.75f, 2);
+		this.languages = new ConcurrentHashMap<String, String>(4, 0.75f, 2);
+	}
+
+	/**
+	 * Returns the document of a text
+	 * @param text Analyzed text
+	 * @return The {@link AnnotatedDocument} of the text, null if it has not been analyzed
+	 */
+	public AnnotatedDocument get(String text) {
+		return documents.get(text);
+	}
+
+	/**
+	 * Adds the document of a text, unless another one has been added meanwhile
+	 * @param document {@link AnnotatedDocument} to add
+	 * @return The document kept for the text
+	 */
+	public AnnotatedDocument put(AnnotatedDocument document) {
+		AnnotatedDocument previous = documents.putIfAbsent(document.getText(), document);
+		return previous == null ? document : previous;
+	}
+
+	/**
+	 * Returns the language of a text
+	 * @param text Text of the request
+	 * @return ISO 639 code of the language, null if it has not been detected
+	 */
+	public String getLanguage(String text) {
+		String language = languages.get(text);
+		if (language == null) {
+			AnnotatedDocument document = documents.get(text);
+			if (document != null)
+				language = document.getLanguage();
+		}
+		return language;
+	}
+
+	/**
+	 * Adds the language of a text
+	 * @param text Text of the request
+	 * @param language ISO 639 code of the language
+	 */
+	public void putLanguage(String text, String language) {
+		languages.put(text, language);
+	}
+
+	/**
+	 * Returns the number of analyzed texts
+	 * @return Number of documents
+	 */
+	public int size() {
+		return documents.size();
+	}
+
+}
@@ -0,0 +1,143 @@
+package es.weso.acota.core.business.enhancer.analyzer.lexicon;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.log4j.Logger;
+
+/**
+ * PosLexicon gives the POS tag of the words that, in the tagged corpora it was built
+ * from, have a single tag in practice, so they can be tagged without the maxent POS
+ * tagger. The lexicon is built offline by {@link PosLexiconBuilder} and it is
+ * memory-mapped read-only, so it takes no heap and it is shared, through the page cache,
+ * by every process. The file is an open-addressing hash table of fixed-size slots (hash,
+ * offset of the word, tag) followed by the tagset and the words as UTF-16 chars. The
+ * tagset is decoded when the lexicon is mapped, so a lookup does not allocate. Reads only
+ * use absolute positions, so the lexicon is safe to be used by any number of threads.
+ *
+ * @author César Luis Alvargonzález
+ */
+public class PosLexicon {
+
+	protected static Logger logger = Logger.getLogger(PosLexicon.class);
+
+	protected static final int MAGIC = 0x41504C31;
+	protected static final int VERSION = 1;
+
+	protected static final int HEADER_SIZE = 24;
+	protected static final int SLOT_SIZE = 12;
+
+	protected ByteBuffer table;
+	protected int wordCount;
+	protected int slotCount;
+	protected String[] tags;
+
+	/**
+	 * Maps a lexicon from a file
+	 * @param file File that contains the lexicon
+	 * @throws IOException If the file could not be read or it is not a lexicon
+	 */
+	public PosLexicon(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		MappedByteBuffer buffer;
+		try {
+			FileChannel channel = raf.getChannel();
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			raf.close();
+		}
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+			throw new IOException(file + " is not a POS lexicon");
+		if (buffer.getInt(4) != VERSION)
+			throw new IOException("Unsupported POS lexicon version " + buffer.getInt(4));
+		this.wordCount = buffer.getInt(8);
+		this.slotCount = buffer.getInt(12);
+		this.tags = new String[buffer.getInt(16)];
+		int position = HEADER_SIZE + slotCount * SLOT_SIZE;
+		for (int i = 0; i < tags.length; i++) {
+			int length = buffer.getShort(position);
+			char[] tag = new char[length];
+			for (int j = 0; j < length; j++) {
+				tag[j] = buffer.getChar(position + 2 + 2 * j);
+			}
+			tags[i] = new String(tag).intern();
+			position += 2 + 2 * length;
+		}
+		this.table = buffer;
+		logger.info("Mapped " + wordCount + " words and " + tags.length + " tags from " + file);
+	}
+
+	/**
+	 * Number of unambiguous words
+	 * @return The number of words
+	 */
+	public int size() {
+		return wordCount;
+	}
+
+	/**
+	 * Returns the tagset of the lexicon
+	 * @return The tags
+	 */
+	public String[] getTagset() {
+		return tags.clone();
+	}
+
+	/**
+	 * Returns the tag of a word
+	 * @param word The word, as it appears in the text
+	 * @return The tag of the word, null if the word is unknown or ambiguous
+	 */
+	public String getTag(String word) {
+		int length = word.length();
+		int hash = hash(word);
+		int mask = slotCount - 1;
+		int slot = hash & mask;
+		while (true) {
+			int position = HEADER_SIZE + slot * SLOT_SIZE;
+			int data = table.getInt(position + 4);
+			if (data == 0)
+				return null;
+			if (table.getInt(position) == hash && sameWord(data, word, length))
+				return tags[table.getInt(position + 8)];
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Compares a stored word with a word
+	 * @param data Position of the stored word
+	 * @param word The word
+	 * @param length Number of chars of the word
+	 * @return true if both words are equal
+	 */
+	protected boolean sameWord(int data, String word, int length) {
+		if (table.getShort(data) != length)
+			return false;
+		int position = data + 2;
+		for (int i = 0; i < length; i++, position += 2) {
+			if (table.getChar(position) != word.charAt(i))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Hashes a word, FNV-1a over its chars with a final mix
+	 * @param word The word
+	 * @return The hash of the word
+	 */
+	protected static int hash(String word) {
+		int hash = 0x811C9DC5;
+		for (int i = 0; i < word.length(); i++) {
+			hash = (hash ^ word.charAt(i)) * 0x01000193;
+		}
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+}
@@ -0,0 +1,261 @@
+package es.weso.acota.core.business.enhancer.analyzer.lexicon;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Batch tool that builds a {@link PosLexicon} from tagged corpora. It counts the tags
+ * of each word and keeps the words seen at least a minimum number of times whose most
+ * frequent tag reaches a minimum share of their occurrences, the rest of the words are
+ * left to the maxent POS tagger.
+ * <p>
+ * The corpora are in the OpenNLP training format, a sentence per line and each token
+ * followed by its tag, separated by an underscore (<code>word_TAG</code>).
+ * <p>
+ * Usage: <code>PosLexiconBuilder &lt;lexicon&gt; &lt;corpus&gt;... [-count n] [-ratio r]</code>
+ *
+ * @author César Luis Alvargonzález
+ */
+public class PosLexiconBuilder {
+
+	protected static Logger logger = Logger.getLogger(PosLexiconBuilder.class);
+
+	public static final int DEFAULT_MIN_COUNT = 3;
+	public static final double DEFAULT_MIN_RATIO = 0.99d;
+
+	protected final int minCount;
+	protected final double minRatio;
+
+	protected Map<String, Map<String, int[]>> counts;
+	protected long tokenCount;
+
+	/**
+	 * Zero-argument default constructor
+	 */
+	public PosLexiconBuilder() {
+		this(DEFAULT_MIN_COUNT, DEFAULT_MIN_RATIO);
+	}
+
+	/**
+	 * Two-argument constructor
+	 * @param minCount Minimum number of occurrences of a word
+	 * @param minRatio Minimum share of the occurrences of a word that its tag must have
+	 */
+	public PosLexiconBuilder(int minCount, double minRatio) {
+		this.minCount = minCount;
+		this.minRatio = minRatio;
+		this.counts = new HashMap<String, Map<String, int[]>>();
+	}
+
+	/**
+	 * Adds a tagged sentence
+	 * @param words Words of the sentence
+	 * @param tags Tags of the words
+	 */
+	public void addSentence(String[] words, String[] tags) {
+		for (int i = 0; i < words.length; i++) {
+			addWord(words[i], tags[i]);
+		}
+	}
+
+	/**
+	 * Adds the tagged sentences of a corpus in the OpenNLP training format
+	 * @param reader Reader of the corpus
+	 * @return Number of added sentences
+	 * @throws IOException Any exception that occurs while reading the corpus
+	 */
+	public long addCorpus(Reader reader) throws IOException {
+		BufferedReader lines = new BufferedReader(reader);
+		long sentences = 0;
+		String line;
+		while ((line = lines.readLine()) != null) {
+			for (String token : line.trim().split("\\s+")) {
+				int separator = token.lastIndexOf('_');
+				if (separator > 0 && separator < token.length() - 1)
+					addWord(token.substring(0, separator), token.substring(separator + 1));
+			}
+			sentences++;
+		}
+		return sentences;
+	}
+
+	/**
+	 * Number of added tokens
+	 * @return The number of tokens
+	 */
+	public long getTokenCount() {
+		return tokenCount;
+	}
+
+	/**
+	 * Writes the lexicon
+	 * @param file Destination file
+	 * @return Number of written words
+	 * @throws IOException Any exception that occurs while writing the file
+	 */
+	public int write(File file) throws IOException {
+		List<String> words = new ArrayList<String>();
+		List<String> wordTags = new ArrayList<String>();
+		for (Entry<String, Map<String, int[]>> entry : counts.entrySet()) {
+			String tag = selectTag(entry.getValue());
+			if (tag != null && entry.getKey().length() <= Short.MAX_VALUE) {
+				words.add(entry.getKey());
+				wordTags.add(tag);
+			}
+		}
+
+		Map<String, Integer> tagset = new HashMap<String, Integer>();
+		List<String> tags = new ArrayList<String>();
+		int wordCount = words.size();
+		int slotCount = 2;
+		while (slotCount < wordCount * 2) {
+			slotCount <<= 1;
+		}
+		int[] slotHashes = new int[slotCount];
+		int[] slotData = new int[slotCount];
+		int[] slotTags = new int[slotCount];
+
+		long data = PosLexicon.HEADER_SIZE + (long) slotCount * PosLexicon.SLOT_SIZE;
+		for (String tag : wordTags) {
+			if (!tagset.containsKey(tag)) {
+				tagset.put(tag, tags.size());
+				tags.add(tag);
+				data += 2 + 2L * tag.length();
+			}
+		}
+		int mask = slotCount - 1;
+		for (int i = 0; i < wordCount; i++) {
+			String word = words.get(i);
+			int hash = PosLexicon.hash(word);
+			int slot = hash & mask;
+			while (slotData[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			if (data > Integer.MAX_VALUE)
+				throw new IOException("The POS lexicon exceeds 2GB");
+			slotHashes[slot] = hash;
+			slotData[slot] = (int) data;
+			slotTags[slot] = tagset.get(wordTags.get(i));
+			data += 2 + 2L * word.length();
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			out.writeInt(PosLexicon.MAGIC);
+			out.writeInt(PosLexicon.VERSION);
+			out.writeInt(wordCount);
+			out.writeInt(slotCount);
+			out.writeInt(tags.size());
+			out.writeInt(0);
+			for (int slot = 0; slot < slotCount; slot++) {
+				out.writeInt(slotHashes[slot]);
+				out.writeInt(slotData[slot]);
+				out.writeInt(slotTags[slot]);
+			}
+			for (String tag : tags) {
+				out.writeShort(tag.length());
+				out.writeChars(tag);
+			}
+			for (String word : words) {
+				out.writeShort(word.length());
+				out.writeChars(word);
+			}
+		} finally {
+			out.close();
+		}
+		logger.info("Written " + wordCount + " unambiguous words of " + counts.size()
+				+ " words to " + file);
+		return wordCount;
+	}
+
+	/**
+	 * Counts a tagged word
+	 * @param word The word
+	 * @param tag Tag of the word
+	 */
+	protected void addWord(String word, String tag) {
+		Map<String, int[]> tags = counts.get(word);
+		if (tags == null) {
+			tags = new HashMap<String, int[]>(4);
+			counts.put(word, tags);
+		}
+		int[] count = tags.get(tag);
+		if (count == null)
+			tags.put(tag, new int[]{1});
+		else
+			count[0]++;
+		tokenCount++;
+	}
+
+	/**
+	 * Selects the tag of a word
+	 * @param tags Counts of the tags of the word
+	 * @return The most frequent tag, null if the word is ambiguous or it has
+	 * been seen too few times
+	 */
+	protected String selectTag(Map<String, int[]> tags) {
+		String selected = null;
+		int max = 0;
+		int total = 0;
+		for (Entry<String, int[]> entry : tags.entrySet()) {
+			int count = entry.getValue()[0];
+			total += count;
+			if (count > max) {
+				max = count;
+				selected = entry.getKey();
+			}
+		}
+		if (total < minCount || max < minRatio * total)
+			return null;
+		return selected;
+	}
+
+	/**
+	 * Builds a lexicon from tagged corpora
+	 * @param args Lexicon file, corpus files and, optionally, the minimum count
+	 * (-count) and the minimum ratio (-ratio)
+	 * @throws Exception Any exception that occurs
+	 */
+	public static void main(String[] args) throws Exception {
+		int minCount = DEFAULT_MIN_COUNT;
+		double minRatio = DEFAULT_MIN_RATIO;
+		List<String> files = new ArrayList<String>();
+		for (int i = 0; i < args.length; i++) {
+			if ("-count".equals(args[i]) && i + 1 < args.length)
+				minCount = Integer.parseInt(args[++i]);
+			else if ("-ratio".equals(args[i]) && i + 1 < args.length)
+				minRatio = Double.parseDouble(args[++i]);
+			else
+				files.add(args[i]);
+		}
+		if (files.size() < 2) {
+			System.err.println("Usage: PosLexiconBuilder <lexicon> <corpus>... [-count n] [-ratio r]");
+			System.exit(1);
+		}
+		PosLexiconBuilder builder = new PosLexiconBuilder(minCount, minRatio);
+		for (String file : files.subList(1, files.size())) {
+			Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+			try {
+				builder.addCorpus(reader);
+			} finally {
+				reader.close();
+			}
+		}
+		builder.write(new File(files.get(0)));
+	}
+
+}
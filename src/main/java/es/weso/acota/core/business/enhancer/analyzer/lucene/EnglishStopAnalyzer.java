@@ -1,60 +1,95 @@
 package es.weso.acota.core.business.enhancer.analyzer.lucene;
 
-import java.io.IOException;
 import java.io.Reader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
 import org.apache.lucene.analysis.LengthFilter;
 import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.ReusableAnalyzerBase;
 import org.apache.lucene.analysis.StopAnalyzer;
 import org.apache.lucene.analysis.StopFilter;
 import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
 import org.apache.lucene.analysis.standard.StandardTokenizer;
 import org.apache.lucene.util.Version;
 
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.sets.TermSets;
+
 /**
  * For non English text, it tokenizes, converts to
  * lower case, removes words to long (>50) and to short(<3),
- * and removes English stops words.
+ * and removes English stops words. The chain of components is created
+ * once per thread, and reused by {@link #reusableTokenStream(String, Reader)}.
+ * The stop words are Lucene's ones, or the ones of the file configured
+ * by lucene.en.stopwords, with an instance shared process-wide per
+ * stop words file.
  * 
  * @author César Luis Alvargonzález
  */
-public class EnglishStopAnalyzer extends Analyzer {
+public class EnglishStopAnalyzer extends ReusableAnalyzerBase {
+	
+	private static final EnglishStopAnalyzer ENGLISH_STOP_ANALYZER = new EnglishStopAnalyzer(
+			(CharArraySet) StopAnalyzer.ENGLISH_STOP_WORDS_SET);
+	
+	private static final ConcurrentMap<String, EnglishStopAnalyzer> ANALYZERS = 
+			new ConcurrentHashMap<String, EnglishStopAnalyzer>();
 	
-	private static EnglishStopAnalyzer ENGLISH_STOP_ANALYZER;
+	protected final CharArraySet stopWords;
 	
 	/**
-	 * Zero-argument default constructor.
+	 * One-argument constructor.
+	 * @param stopWords Immutable set of stop words
 	 */
-	private EnglishStopAnalyzer() {}
+	private EnglishStopAnalyzer(CharArraySet stopWords) {
+		this.stopWords = stopWords;
+	}
 
 	/**
-	 * Gets an instance of {@link EnglishStopAnalyzer }, 
-	 * in the case it does not exists, it will create one,
+	 * Gets the instance of {@link EnglishStopAnalyzer } with the default stop words
 	 * @return The {@link EnglishStopAnalyzer }'s instance
 	 */
 	public static EnglishStopAnalyzer getInstance(){
-		if(ENGLISH_STOP_ANALYZER==null)
-			EnglishStopAnalyzer.ENGLISH_STOP_ANALYZER = new EnglishStopAnalyzer();
 		return ENGLISH_STOP_ANALYZER;
 	}
 	
+	/**
+	 * Gets the instance of {@link EnglishStopAnalyzer } with the configured stop words, 
+	 * the instances are shared by the path of their stop words file, in the 
+	 * case there is not one for the file, it will create one
+	 * @param configuration acota-core's configuration class
+	 * @return The {@link EnglishStopAnalyzer }'s instance
+	 * @throws AcotaConfigurationException If the stop words could not be loaded
+	 */
+	public static EnglishStopAnalyzer getInstance(CoreConfiguration configuration) 
+			throws AcotaConfigurationException {
+		String file = configuration.getLuceneEnStopWords();
+		if(file==null || file.trim().length()==0)
+			return ENGLISH_STOP_ANALYZER;
+		file = file.trim();
+		EnglishStopAnalyzer analyzer = ANALYZERS.get(file);
+		if(analyzer==null){
+			EnglishStopAnalyzer created = new EnglishStopAnalyzer(TermSets.fromFile(file, false));
+			analyzer = ANALYZERS.putIfAbsent(file, created);
+			if(analyzer==null)
+				analyzer = created;
+		}
+		return analyzer;
+	}
+	
 	@Override
-	public final TokenStream tokenStream(String arg0, Reader reader) {
-		TokenStream result = new StandardTokenizer(Version.LUCENE_31, reader);
+	protected TokenStreamComponents createComponents(String fieldName, Reader reader) {
+		Tokenizer source = new StandardTokenizer(Version.LUCENE_31, reader);
 		
-		result = new LowerCaseFilter(Version.LUCENE_31, result);
+		TokenStream result = new LowerCaseFilter(Version.LUCENE_31, source);
 		
 		result = new LengthFilter(false, result, 3, 50);
 		
-		result = new StopFilter(Version.LUCENE_31,result, StopAnalyzer.ENGLISH_STOP_WORDS_SET); 
+		result = new StopFilter(Version.LUCENE_31,result, stopWords); 
 	
-		return result;
-	}
-	
-	@Override
-	public final TokenStream reusableTokenStream(String fieldName, Reader reader)
-			throws IOException {
-		return super.reusableTokenStream(fieldName, reader);
+		return new TokenStreamComponents(source, result);
 	}
 }
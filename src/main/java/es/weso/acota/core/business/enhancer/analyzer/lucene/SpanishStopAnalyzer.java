@@ -1,25 +1,35 @@
 package es.weso.acota.core.business.enhancer.analyzer.lucene;
 
-import java.io.IOException;
 import java.io.Reader;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
 import org.apache.lucene.analysis.LengthFilter;
 import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.ReusableAnalyzerBase;
 import org.apache.lucene.analysis.StopFilter;
 import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
 import org.apache.lucene.analysis.standard.StandardTokenizer;
 import org.apache.lucene.util.Version;
 
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.sets.TermSets;
+
 /**
  * For non Spanish text, it tokenizes, converts to
  * lower case, removes words to long (>50) and to short(<3),
- * and removes Spanish stops words.
+ * and removes Spanish stops words. The chain of components is created
+ * once per thread, and reused by {@link #reusableTokenStream(String, Reader)}.
+ * The stop words are the built-in ones, or the ones of the file configured
+ * by lucene.es.stopwords, with an instance shared process-wide per
+ * stop words file.
  * 
  * @author César Luis Alvargonzález
  */
-public class SpanishStopAnalyzer extends Analyzer {
+public class SpanishStopAnalyzer extends ReusableAnalyzerBase {
 	
 	private final static String[] SPANISH_STOP_WORDS = {
 		"de","la","que","el","en","y","a","los","del","se","las","por","un","para",
@@ -58,44 +68,65 @@ public class SpanishStopAnalyzer extends Analyzer {
 		"tenidas","tened"
 	};
 	
-	private static SpanishStopAnalyzer SPANISH_STOP_ANALYZER;
+	private final static CharArraySet DEFAULT_STOP_WORDS = TermSets.fromArray(SPANISH_STOP_WORDS);
+
+	private static final SpanishStopAnalyzer SPANISH_STOP_ANALYZER = new SpanishStopAnalyzer(
+			DEFAULT_STOP_WORDS);
+	
+	private static final ConcurrentMap<String, SpanishStopAnalyzer> ANALYZERS = 
+			new ConcurrentHashMap<String, SpanishStopAnalyzer>();
 	
-	protected Set<Object> stopWrods;
+	protected final CharArraySet stopWords;
 	
 	/**
-	 * Zero-argument default constructor.
+	 * One-argument constructor.
+	 * @param stopWords Immutable set of stop words
 	 */
-	private SpanishStopAnalyzer() {
-		this.stopWrods = StopFilter.makeStopSet(Version.LUCENE_31,SPANISH_STOP_WORDS);
+	private SpanishStopAnalyzer(CharArraySet stopWords) {
+		this.stopWords = stopWords;
 	}
 	
 	/**
-	 * Gets an instance of {@link EnglishStopAnalyzer }, 
-	 * in the case it does not exists, it will create one,
-	 * @return The {@link EnglishStopAnalyzer }'s instance
+	 * Gets the instance of {@link SpanishStopAnalyzer } with the default stop words
+	 * @return The {@link SpanishStopAnalyzer }'s instance
 	 */
 	public static SpanishStopAnalyzer getInstance(){
-		if(SPANISH_STOP_ANALYZER==null)
-			SpanishStopAnalyzer.SPANISH_STOP_ANALYZER = new SpanishStopAnalyzer();
 		return SPANISH_STOP_ANALYZER;
 	}
+	
+	/**
+	 * Gets the instance of {@link SpanishStopAnalyzer } with the configured stop words, 
+	 * the instances are shared by the path of their stop words file, in the 
+	 * case there is not one for the file, it will create one
+	 * @param configuration acota-core's configuration class
+	 * @return The {@link SpanishStopAnalyzer }'s instance
+	 * @throws AcotaConfigurationException If the stop words could not be loaded
+	 */
+	public static SpanishStopAnalyzer getInstance(CoreConfiguration configuration) 
+			throws AcotaConfigurationException {
+		String file = configuration.getLuceneEsStopWords();
+		if(file==null || file.trim().length()==0)
+			return SPANISH_STOP_ANALYZER;
+		file = file.trim();
+		SpanishStopAnalyzer analyzer = ANALYZERS.get(file);
+		if(analyzer==null){
+			SpanishStopAnalyzer created = new SpanishStopAnalyzer(TermSets.fromFile(file, false));
+			analyzer = ANALYZERS.putIfAbsent(file, created);
+			if(analyzer==null)
+				analyzer = created;
+		}
+		return analyzer;
+	}
 
 	@Override
-	public final TokenStream tokenStream(String arg0, Reader reader) {
-
-		TokenStream result = new StandardTokenizer(Version.LUCENE_31, reader);  
+	protected TokenStreamComponents createComponents(String fieldName, Reader reader) {
+		Tokenizer source = new StandardTokenizer(Version.LUCENE_31, reader);
 		
-		result = new LowerCaseFilter(Version.LUCENE_31, result);
+		TokenStream result = new LowerCaseFilter(Version.LUCENE_31, source);
 		
 		result = new LengthFilter(false, result, 3, 50);
 		
-		return new StopFilter(Version.LUCENE_31,result, stopWrods);
-	}
-	
-	@Override
-	public final TokenStream reusableTokenStream(String fieldName, Reader reader)
-			throws IOException {
-		return super.reusableTokenStream(fieldName, reader);
+		return new TokenStreamComponents(source, new StopFilter(Version.LUCENE_31, result, stopWords));
 	}
 
 }
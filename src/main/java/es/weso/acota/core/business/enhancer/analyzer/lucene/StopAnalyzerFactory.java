@@ -0,0 +1,52 @@
+package es.weso.acota.core.business.enhancer.analyzer.lucene;
+
+import static es.weso.acota.core.utils.lang.LanguageDetector.ISO_639_ENGLISH;
+import static es.weso.acota.core.utils.lang.LanguageDetector.ISO_639_SPANISH;
+
+import org.apache.lucene.analysis.Analyzer;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+/**
+ * Selects the Lucene's stop analyzer of a language
+ * 
+ * @author César Luis Alvargonzález
+ */
+public final class StopAnalyzerFactory {
+
+	private StopAnalyzerFactory() {}
+
+	/**
+	 * Loads a language analyzer (English, Spanish or Default)
+	 * @param language Language of the analyzer to load
+	 * @return Lucene's {@link Analyzer}
+	 */
+	public static Analyzer getAnalyzer(String language) {
+		if (ISO_639_SPANISH.equals(language)) {
+			return SpanishStopAnalyzer.getInstance();
+		} else if (ISO_639_ENGLISH.equals(language)) {
+			return EnglishStopAnalyzer.getInstance();
+		}
+		return DefaultStopAnalyzer.getInstance();
+	}
+
+	/**
+	 * Loads a language analyzer (English, Spanish or Default), with the 
+	 * configured stop words
+	 * @param language Language of the analyzer to load
+	 * @param configuration acota-core's configuration class
+	 * @return Lucene's {@link Analyzer}
+	 * @throws AcotaConfigurationException If the stop words could not be loaded
+	 */
+	public static Analyzer getAnalyzer(String language, CoreConfiguration configuration) 
+			throws AcotaConfigurationException {
+		if (ISO_639_SPANISH.equals(language)) {
+			return SpanishStopAnalyzer.getInstance(configuration);
+		} else if (ISO_639_ENGLISH.equals(language)) {
+			return EnglishStopAnalyzer.getInstance(configuration);
+		}
+		return DefaultStopAnalyzer.getInstance();
+	}
+
+}
@@ -0,0 +1,175 @@
+package es.weso.acota.core.business.enhancer.analyzer.model;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+/**
+ * DecoderPool lends OpenNLP decoders (sentence detectors, tokenizers and POS taggers)
+ * to the threads, so each thread works with its own decoder while all of them share
+ * the maxent model of the {@link ModelRegistry}. Decoders are created on demand, up to
+ * the size of the pool, when every decoder is in use the next thread waits for one to
+ * be released. Idle decoders are reused in LIFO order, so the least recently used ones
+ * age at the bottom of the pool and are discarded once they have been idle longer than
+ * the idle timeout.
+ *
+ * @param <T> Type of the decoder
+ * @author César Luis Alvargonzález
+ */
+public class DecoderPool<T> {
+
+	/**
+	 * Creates the decoders of a {@link DecoderPool}
+	 * @param <T> Type of the decoder
+	 */
+	public interface DecoderFactory<T> {
+
+		/**
+		 * Creates a decoder
+		 * @return A new decoder
+		 * @throws AcotaConfigurationException Any exception that occurs while
+		 * creating the decoder
+		 */
+		T create() throws AcotaConfigurationException;
+	}
+
+	protected final DecoderFactory<T> factory;
+	protected final int size;
+	protected final long idleTimeout;
+
+	protected final Semaphore permits;
+	protected final Deque<IdleDecoder<T>> idle;
+	protected int created;
+
+	/**
+	 * Three-argument constructor
+	 * @param factory Factory of the decoders
+	 * @param size Maximum number of decoders, 0 or less means one per available processor
+	 * @param idleTimeout Milliseconds a decoder can be idle before being discarded,
+	 * 0 or less means never
+	 */
+	public DecoderPool(DecoderFactory<T> factory, int size, long idleTimeout) {
+		this.factory = factory;
+		this.size = size > 0 ? size : Runtime.getRuntime().availableProcessors();
+		this.idleTimeout = idleTimeout > 0 ? TimeUnit.MILLISECONDS.toNanos(idleTimeout) : 0L;
+		this.permits = new Semaphore(this.size, true);
+		this.idle = new ArrayDeque<IdleDecoder<T>>(this.size);
+	}
+
+	/**
+	 * Takes a decoder of the pool, creating it if there is no idle decoder. The
+	 * decoder must be given back with {@link #release(Object)}
+	 * @return A decoder only used by the calling thread until it is released
+	 * @throws AcotaConfigurationException Any exception that occurs while creating
+	 * the decoder
+	 */
+	public T acquire() throws AcotaConfigurationException {
+		permits.acquireUninterruptibly();
+		try {
+			synchronized (idle) {
+				evict(System.nanoTime());
+				IdleDecoder<T> decoder = idle.pollFirst();
+				if (decoder != null)
+					return decoder.decoder;
+				created++;
+			}
+			return factory.create();
+		} catch (AcotaConfigurationException e) {
+			failed();
+			throw e;
+		} catch (RuntimeException e) {
+			failed();
+			throw e;
+		}
+	}
+
+	/**
+	 * Gives a decoder back to the pool
+	 * @param decoder Decoder taken with {@link #acquire()}
+	 */
+	public void release(T decoder) {
+		long now = System.nanoTime();
+		synchronized (idle) {
+			idle.addFirst(new IdleDecoder<T>(decoder, now));
+			evict(now);
+		}
+		permits.release();
+	}
+
+	/**
+	 * Maximum number of decoders
+	 * @return The size of the pool
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Number of decoders alive, in use or idle
+	 * @return The number of created and not discarded decoders
+	 */
+	public int getCreated() {
+		synchronized (idle) {
+			return created;
+		}
+	}
+
+	/**
+	 * Number of idle decoders
+	 * @return The number of decoders waiting to be reused
+	 */
+	public int getIdle() {
+		synchronized (idle) {
+			return idle.size();
+		}
+	}
+
+	/**
+	 * Discards the decoders idle longer than the idle timeout, the pool
+	 * must be locked
+	 * @param now Current time, in nanoseconds
+	 */
+	protected void evict(long now) {
+		if (idleTimeout == 0L)
+			return;
+		IdleDecoder<T> oldest;
+		while ((oldest = idle.peekLast()) != null && now - oldest.since > idleTimeout) {
+			idle.pollLast();
+			created--;
+		}
+	}
+
+	/**
+	 * Gives back the permit of a decoder that could not be created
+	 */
+	private void failed() {
+		synchronized (idle) {
+			created--;
+		}
+		permits.release();
+	}
+
+	/**
+	 * Decoder waiting in the pool
+	 * @param <T> Type of the decoder
+	 */
+	protected static class IdleDecoder<T> {
+
+		protected final T decoder;
+		protected final long since;
+
+		/**
+		 * Two-argument constructor
+		 * @param decoder Idle decoder
+		 * @param since Time it was released, in nanoseconds
+		 */
+		public IdleDecoder(T decoder, long since) {
+			this.decoder = decoder;
+			this.since = since;
+		}
+	}
+
+}
@@ -0,0 +1,54 @@
+package es.weso.acota.core.business.enhancer.analyzer.model;
+
+/**
+ * Information about a model loaded by the {@link ModelRegistry}
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class ModelInfo {
+
+	public static final long UNKNOWN_HEAP = -1L;
+
+	protected final String path;
+	protected final ModelType type;
+	protected final long heapBytes;
+	protected final long loadMillis;
+
+	/**
+	 * Four-argument constructor
+	 * @param path Path of the model's binary
+	 * @param type Type of the model
+	 * @param heapBytes Approximate heap used by the model, in bytes, or {@link #UNKNOWN_HEAP}
+	 * @param loadMillis Time spent loading the model, in milliseconds
+	 */
+	public ModelInfo(String path, ModelType type, long heapBytes, long loadMillis) {
+		this.path = path;
+		this.type = type;
+		this.heapBytes = heapBytes;
+		this.loadMillis = loadMillis;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public ModelType getType() {
+		return type;
+	}
+
+	public long getHeapBytes() {
+		return heapBytes;
+	}
+
+	public long getLoadMillis() {
+		return loadMillis;
+	}
+
+	@Override
+	public String toString() {
+		if (heapBytes == UNKNOWN_HEAP)
+			return type + " " + path + " (" + loadMillis + " ms)";
+		return type + " " + path + " (~" + (heapBytes / 1024) + " KB, " + loadMillis + " ms)";
+	}
+
+}
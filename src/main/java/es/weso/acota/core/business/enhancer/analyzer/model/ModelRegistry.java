@@ -0,0 +1,304 @@
+package es.weso.acota.core.business.enhancer.analyzer.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import opennlp.maxent.MaxentModel;
+import opennlp.maxent.io.SuggestedModelReader;
+import opennlp.tools.dictionary.Dictionary;
+import opennlp.tools.postag.POSTagger;
+import opennlp.tools.postag.POSTaggerME;
+import opennlp.tools.sentdetect.SentenceDetector;
+import opennlp.tools.sentdetect.SentenceDetectorME;
+import opennlp.tools.tokenize.Tokenizer;
+import opennlp.tools.tokenize.TokenizerME;
+
+import org.apache.log4j.Logger;
+
+import es.weso.acota.core.business.enhancer.analyzer.lexicon.PosLexicon;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+/**
+ * ModelRegistry loads each OpenNLP model once per JVM, keyed by its path and its
+ * type. The maxent models are immutable, so they are shared by all the decoders
+ * (sentence detectors, tokenizers and POS taggers) built by the registry, which
+ * are cheap to create but must not be shared between threads, so they are lent
+ * to the threads by a {@link DecoderPool}. The POS lexicons are memory-mapped
+ * once per JVM as well. When a model has an up to date {@link ModelSnapshot} next
+ * to its binary, the model is loaded from the snapshot.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class ModelRegistry {
+
+	protected static Logger logger = Logger.getLogger(ModelRegistry.class);
+	private static final ModelRegistry MODEL_REGISTRY = new ModelRegistry();
+
+	protected final Map<String, MaxentModel> models;
+	protected final Map<String, PosLexicon> lexicons;
+	protected final Map<String, ModelInfo> infos;
+
+	/**
+	 * Zero-argument default constructor
+	 */
+	protected ModelRegistry() {
+		this.models = new ConcurrentHashMap<String, MaxentModel>();
+		this.lexicons = new ConcurrentHashMap<String, PosLexicon>();
+		this.infos = new ConcurrentHashMap<String, ModelInfo>();
+	}
+
+	/**
+	 * Gets the instance of {@link ModelRegistry}
+	 * @return The {@link ModelRegistry}'s instance
+	 */
+	public static ModelRegistry getInstance() {
+		return MODEL_REGISTRY;
+	}
+
+	/**
+	 * Gets a model, in the case it has not been loaded, it will load it
+	 * @param path Path of the model's binary
+	 * @param type Type of the model
+	 * @return The shared model
+	 * @throws AcotaConfigurationException Any exception that occurs while reading the model
+	 */
+	public MaxentModel getModel(String path, ModelType type) throws AcotaConfigurationException {
+		String key = createKey(path, type);
+		MaxentModel model = models.get(key);
+		if (model == null) {
+			synchronized (this) {
+				model = models.get(key);
+				if (model == null) {
+					model = loadModel(key, path, type);
+					models.put(key, model);
+				}
+			}
+		}
+		return model;
+	}
+
+	/**
+	 * Gets a POS lexicon, in the case it has not been mapped, it will map it
+	 * @param path Path of the lexicon's binary
+	 * @return The shared lexicon
+	 * @throws AcotaConfigurationException Any exception that occurs while mapping the lexicon
+	 */
+	public PosLexicon getLexicon(String path) throws AcotaConfigurationException {
+		String key = createKey(path, ModelType.LEXICON);
+		PosLexicon lexicon = lexicons.get(key);
+		if (lexicon == null) {
+			synchronized (this) {
+				lexicon = lexicons.get(key);
+				if (lexicon == null) {
+					long start = System.currentTimeMillis();
+					try {
+						lexicon = new PosLexicon(new File(path));
+					} catch (IOException e) {
+						throw new AcotaConfigurationException(e);
+					}
+					ModelInfo info = new ModelInfo(path, ModelType.LEXICON, 0L,
+							System.currentTimeMillis() - start);
+					infos.put(key, info);
+					lexicons.put(key, lexicon);
+					logger.info("Loaded model " + info);
+				}
+			}
+		}
+		return lexicon;
+	}
+
+	/**
+	 * Creates a sentence detector over a shared model
+	 * @param path Path of the model's binary
+	 * @return A new sentence detector
+	 * @throws AcotaConfigurationException Any exception that occurs while reading the model
+	 */
+	public SentenceDetector createSentenceDetector(String path) throws AcotaConfigurationException {
+		return new SentenceDetectorME(getModel(path, ModelType.SENTENCE_DETECTOR));
+	}
+
+	/**
+	 * Creates a tokenizer over a shared model
+	 * @param path Path of the model's binary
+	 * @return A new tokenizer
+	 * @throws AcotaConfigurationException Any exception that occurs while reading the model
+	 */
+	public Tokenizer createTokenizer(String path) throws AcotaConfigurationException {
+		TokenizerME tokenizer = new TokenizerME(getModel(path, ModelType.TOKENIZER));
+		tokenizer.setAlphaNumericOptimization(true);
+		return tokenizer;
+	}
+
+	/**
+	 * Creates a POS tagger over a shared model
+	 * @param path Path of the model's binary
+	 * @param dictionary Tag dictionary, it could be null
+	 * @return A new POS tagger
+	 * @throws AcotaConfigurationException Any exception that occurs while reading the model
+	 */
+	public POSTagger createPosTagger(String path, Dictionary dictionary) throws AcotaConfigurationException {
+		return new POSTaggerME(getModel(path, ModelType.POS_TAGGER), dictionary);
+	}
+
+	/**
+	 * Creates a pool of sentence detectors over a shared model
+	 * @param path Path of the model's binary
+	 * @param size Maximum number of sentence detectors
+	 * @param idleTimeout Milliseconds a sentence detector can be idle before being discarded
+	 * @return A new pool of sentence detectors
+	 * @throws AcotaConfigurationException Any exception that occurs while reading the model
+	 */
+	public DecoderPool<SentenceDetector> createSentenceDetectorPool(final String path, int size, long idleTimeout)
+			throws AcotaConfigurationException {
+		getModel(path, ModelType.SENTENCE_DETECTOR);
+		return new DecoderPool<SentenceDetector>(new DecoderPool.DecoderFactory<SentenceDetector>() {
+			@Override
+			public SentenceDetector create() throws AcotaConfigurationException {
+				return createSentenceDetector(path);
+			}
+		}, size, idleTimeout);
+	}
+
+	/**
+	 * Creates a pool of tokenizers over a shared model
+	 * @param path Path of the model's binary
+	 * @param size Maximum number of tokenizers
+	 * @param idleTimeout Milliseconds a tokenizer can be idle before being discarded
+	 * @return A new pool of tokenizers
+	 * @throws AcotaConfigurationException Any exception that occurs while reading the model
+	 */
+	public DecoderPool<Tokenizer> createTokenizerPool(final String path, int size, long idleTimeout)
+			throws AcotaConfigurationException {
+		getModel(path, ModelType.TOKENIZER);
+		return new DecoderPool<Tokenizer>(new DecoderPool.DecoderFactory<Tokenizer>() {
+			@Override
+			public Tokenizer create() throws AcotaConfigurationException {
+				return createTokenizer(path);
+			}
+		}, size, idleTimeout);
+	}
+
+	/**
+	 * Creates a pool of POS taggers over a shared model
+	 * @param path Path of the model's binary
+	 * @param dictionary Tag dictionary, shared by the POS taggers, it could be null
+	 * @param size Maximum number of POS taggers
+	 * @param idleTimeout Milliseconds a POS tagger can be idle before being discarded
+	 * @return A new pool of POS taggers
+	 * @throws AcotaConfigurationException Any exception that occurs while reading the model
+	 */
+	public DecoderPool<POSTagger> createPosTaggerPool(final String path, final Dictionary dictionary,
+			int size, long idleTimeout) throws AcotaConfigurationException {
+		getModel(path, ModelType.POS_TAGGER);
+		return new DecoderPool<POSTagger>(new DecoderPool.DecoderFactory<POSTagger>() {
+			@Override
+			public POSTagger create() throws AcotaConfigurationException {
+				return createPosTagger(path, dictionary);
+			}
+		}, size, idleTimeout);
+	}
+
+	/**
+	 * Returns the information of the loaded models
+	 * @return Path, type, approximate heap usage and load time of each model, the
+	 * heap usage is only measured while the registry's debug logging is enabled
+	 */
+	public List<ModelInfo> getModelInfos() {
+		return new ArrayList<ModelInfo>(infos.values());
+	}
+
+	/**
+	 * Returns the approximate heap used by the loaded models whose heap usage
+	 * has been measured
+	 * @return Heap usage in bytes
+	 */
+	public long getHeapBytes() {
+		long heapBytes = 0;
+		for (ModelInfo info : infos.values()) {
+			if (info.getHeapBytes() != ModelInfo.UNKNOWN_HEAP)
+				heapBytes += info.getHeapBytes();
+		}
+		return heapBytes;
+	}
+
+	/**
+	 * Reads a model, measuring the time it takes and, only as a debug diagnostic,
+	 * the heap it retains, as the measure requests full garbage collections
+	 * @param key Key of the model
+	 * @param path Path of the model's binary
+	 * @param type Type of the model
+	 * @return The model
+	 * @throws AcotaConfigurationException Any exception that occurs while reading the model
+	 */
+	protected MaxentModel loadModel(String key, String path, ModelType type) throws AcotaConfigurationException {
+		boolean measureHeap = logger.isDebugEnabled();
+		long usedBefore = measureHeap ? usedHeap() : 0L;
+		long start = System.currentTimeMillis();
+		MaxentModel model;
+		try {
+			model = readModel(new File(path));
+		} catch (IOException e) {
+			throw new AcotaConfigurationException(e);
+		}
+		long loadMillis = System.currentTimeMillis() - start;
+		long heapBytes = measureHeap ? Math.max(0, usedHeap() - usedBefore) : ModelInfo.UNKNOWN_HEAP;
+		ModelInfo info = new ModelInfo(path, type, heapBytes, loadMillis);
+		infos.put(key, info);
+		logger.info("Loaded model " + info);
+		return model;
+	}
+
+	/**
+	 * Reads a model from its snapshot, if there is an up to date one, or from its binary
+	 * @param file File of the model's binary
+	 * @return The model
+	 * @throws IOException Any exception that occurs while reading the model
+	 */
+	protected MaxentModel readModel(File file) throws IOException {
+		File snapshotFile = ModelSnapshot.getSnapshotFile(file);
+		if (snapshotFile.isFile()) {
+			try {
+				ModelSnapshot snapshot = new ModelSnapshot(snapshotFile);
+				if (snapshot.isSnapshotOf(file)) {
+					logger.info("Loading model snapshot " + snapshot);
+					return snapshot.getModel();
+				}
+				logger.warn("Ignoring stale model snapshot " + snapshotFile);
+			} catch (IOException e) {
+				logger.warn("Ignoring model snapshot " + snapshotFile, e);
+			}
+		}
+		return new SuggestedModelReader(file).getModel();
+	}
+
+	/**
+	 * Calculates the heap in use, after requesting a garbage collection
+	 * @return Used heap in bytes
+	 */
+	protected long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Creates the key of a model
+	 * @param path Path of the model's binary
+	 * @param type Type of the model
+	 * @return Key of the model
+	 */
+	protected String createKey(String path, ModelType type) {
+		String canonicalPath;
+		try {
+			canonicalPath = new File(path).getCanonicalPath();
+		} catch (IOException e) {
+			canonicalPath = path;
+		}
+		return type + ":" + canonicalPath;
+	}
+
+}
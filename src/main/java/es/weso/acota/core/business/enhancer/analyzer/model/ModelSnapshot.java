@@ -0,0 +1,222 @@
+package es.weso.acota.core.business.enhancer.analyzer.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import opennlp.maxent.Context;
+import opennlp.maxent.GISModel;
+import opennlp.maxent.MaxentModel;
+
+import org.apache.log4j.Logger;
+
+/**
+ * ModelSnapshot reads a maxent model from a snapshot, written by {@link ModelSnapshotWriter}
+ * next to the OpenNLP model's binary. The snapshot keeps the structures of the model
+ * already deserialized, as flat arrays of doubles, ints and chars, so it is memory-mapped
+ * and each section is copied in bulk, instead of inflating the model and parsing it value
+ * by value. Only the loading is faster, the model is built on the heap from the copied
+ * sections, so it takes the same heap as a model parsed from its binary. The snapshot
+ * records the length and the modification time of the model's binary it was converted
+ * from, so a stale snapshot is detected.
+ *
+ * @author César Luis Alvargonzález
+ */
+public class ModelSnapshot {
+
+	protected static Logger logger = Logger.getLogger(ModelSnapshot.class);
+
+	public static final String EXTENSION = ".snapshot";
+
+	protected static final int MAGIC = 0x414D5331;
+	protected static final int VERSION = 1;
+
+	protected static final int HEADER_SIZE = 64;
+
+	protected final File file;
+	protected final ByteBuffer buffer;
+
+	protected final long sourceLength;
+	protected final long sourceModified;
+	protected final double correctionParam;
+	protected final int correctionConstant;
+	protected final int outcomeCount;
+	protected final int predicateCount;
+	protected final int patternCount;
+	protected final int patternIntCount;
+	protected final int parameterCount;
+	protected final int charCount;
+
+	/**
+	 * Maps a snapshot from a file
+	 * @param file File that contains the snapshot
+	 * @throws IOException If the file could not be read or it is not a snapshot
+	 */
+	public ModelSnapshot(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			raf.close();
+		}
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+			throw new IOException(file + " is not a model snapshot");
+		if (buffer.getInt(4) != VERSION)
+			throw new IOException("Unsupported model snapshot version " + buffer.getInt(4));
+		this.file = file;
+		this.sourceLength = buffer.getLong(8);
+		this.sourceModified = buffer.getLong(16);
+		this.correctionParam = buffer.getDouble(24);
+		this.correctionConstant = buffer.getInt(32);
+		this.outcomeCount = buffer.getInt(36);
+		this.predicateCount = buffer.getInt(40);
+		this.patternCount = buffer.getInt(44);
+		this.patternIntCount = buffer.getInt(48);
+		this.parameterCount = buffer.getInt(52);
+		this.charCount = buffer.getInt(56);
+		if (getCharsOffset() + 2L * charCount != buffer.capacity())
+			throw new IOException(file + " is a truncated model snapshot");
+	}
+
+	/**
+	 * Returns the snapshot file of a model
+	 * @param model File of the model's binary
+	 * @return The snapshot file, it could not exist
+	 */
+	public static File getSnapshotFile(File model) {
+		return new File(model.getPath() + EXTENSION);
+	}
+
+	/**
+	 * Checks whether the snapshot was converted from a model's binary
+	 * @param model File of the model's binary
+	 * @return true if the binary has not changed since the snapshot was
+	 * converted, or it does not exist
+	 */
+	public boolean isSnapshotOf(File model) {
+		if (!model.exists()) {
+			logger.warn("The binary " + model + " of the model snapshot " + file
+					+ " does not exist, the snapshot is used without checking whether it is stale");
+			return true;
+		}
+		return model.length() == sourceLength && model.lastModified() == sourceModified;
+	}
+
+	/**
+	 * Builds the model
+	 * @return A new model
+	 */
+	public MaxentModel getModel() {
+		String[] labels = readLabels();
+		String[] outcomes = new String[outcomeCount];
+		String[] predicates = new String[predicateCount];
+		System.arraycopy(labels, 0, outcomes, 0, outcomeCount);
+		System.arraycopy(labels, outcomeCount, predicates, 0, predicateCount);
+		return new GISModel(readParameters(), predicates, outcomes, correctionConstant, correctionParam);
+	}
+
+	/**
+	 * Number of predicates (context features) of the model
+	 * @return The number of predicates
+	 */
+	public int getPredicateCount() {
+		return predicateCount;
+	}
+
+	/**
+	 * Number of outcomes of the model
+	 * @return The number of outcomes
+	 */
+	public int getOutcomeCount() {
+		return outcomeCount;
+	}
+
+	/**
+	 * Reads the parameters of the predicates, the predicates that share an
+	 * outcome pattern share its array of outcomes
+	 * @return The parameters, by predicate
+	 */
+	protected Context[] readParameters() {
+		double[] parameters = new double[parameterCount];
+		ByteBuffer section = section(HEADER_SIZE);
+		section.asDoubleBuffer().get(parameters);
+		int[] patternLengths = new int[patternCount];
+		section = section(getPatternLengthsOffset());
+		section.asIntBuffer().get(patternLengths);
+		int[] patterns = new int[patternIntCount];
+		section = section(getPatternsOffset());
+		section.asIntBuffer().get(patterns);
+
+		Context[] contexts = new Context[predicateCount];
+		int predicate = 0;
+		int parameter = 0;
+		int position = 0;
+		for (int i = 0; i < patternCount; i++) {
+			int outcomes = patternLengths[i] - 1;
+			int[] pattern = new int[outcomes];
+			System.arraycopy(patterns, position + 1, pattern, 0, outcomes);
+			for (int j = 0; j < patterns[position]; j++) {
+				double[] contextParameters = new double[outcomes];
+				System.arraycopy(parameters, parameter, contextParameters, 0, outcomes);
+				contexts[predicate++] = new Context(pattern, contextParameters);
+				parameter += outcomes;
+			}
+			position += patternLengths[i];
+		}
+		return contexts;
+	}
+
+	/**
+	 * Reads the labels of the outcomes followed by the labels of the predicates
+	 * @return The labels
+	 */
+	protected String[] readLabels() {
+		int[] lengths = new int[outcomeCount + predicateCount];
+		section(getLabelLengthsOffset()).asIntBuffer().get(lengths);
+		char[] chars = new char[charCount];
+		section(getCharsOffset()).asCharBuffer().get(chars);
+		String[] labels = new String[lengths.length];
+		int offset = 0;
+		for (int i = 0; i < lengths.length; i++) {
+			labels[i] = new String(chars, offset, lengths[i]);
+			offset += lengths[i];
+		}
+		return labels;
+	}
+
+	/**
+	 * Returns a view of the snapshot that starts at a section
+	 * @param offset Offset of the section
+	 * @return A view positioned at the section
+	 */
+	protected ByteBuffer section(long offset) {
+		ByteBuffer section = buffer.duplicate();
+		section.position((int) offset);
+		return section;
+	}
+
+	protected long getPatternLengthsOffset() {
+		return HEADER_SIZE + 8L * parameterCount;
+	}
+
+	protected long getPatternsOffset() {
+		return getPatternLengthsOffset() + 4L * patternCount;
+	}
+
+	protected long getLabelLengthsOffset() {
+		return getPatternsOffset() + 4L * patternIntCount;
+	}
+
+	protected long getCharsOffset() {
+		return getLabelLengthsOffset() + 4L * (outcomeCount + predicateCount);
+	}
+
+	@Override
+	public String toString() {
+		return file + " (" + predicateCount + " predicates, " + outcomeCount + " outcomes)";
+	}
+
+}
@@ -0,0 +1,262 @@
+package es.weso.acota.core.business.enhancer.analyzer.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import opennlp.maxent.Context;
+import opennlp.maxent.io.BinaryGISModelReader;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Batch tool that converts OpenNLP models' binaries into {@link ModelSnapshot}s. The
+ * model is parsed once, here, and its structures are written as flat sections, so the
+ * analyzers load the snapshot instead of parsing the binary again in every JVM. The
+ * snapshot is written next to the binary, to a temporary file that is then renamed, so
+ * a process never maps a snapshot that is being written.
+ * <p>
+ * Usage: <code>ModelSnapshotWriter &lt;model&gt;...</code>
+ *
+ * @author César Luis Alvargonzález
+ */
+public class ModelSnapshotWriter {
+
+	protected static Logger logger = Logger.getLogger(ModelSnapshotWriter.class);
+
+	protected int correctionConstant;
+	protected double correctionParam;
+	protected String[] outcomes;
+	protected int[][] outcomePatterns;
+	protected String[] predicates;
+	protected Context[] parameters;
+	protected long sourceLength;
+	protected long sourceModified;
+
+	/**
+	 * One-argument constructor, parses a model's binary
+	 * @param model File of the model's binary
+	 * @throws IOException Any exception that occurs while reading the model
+	 */
+	public ModelSnapshotWriter(File model) throws IOException {
+		ModelReader reader = new ModelReader(model);
+		try {
+			reader.read(this);
+		} finally {
+			reader.close();
+		}
+		this.sourceLength = model.length();
+		this.sourceModified = model.lastModified();
+	}
+
+	/**
+	 * Constructor of a snapshot of the structures of a model
+	 * @param correctionConstant Correction constant of the model
+	 * @param correctionParam Correction parameter of the model
+	 * @param outcomes Labels of the outcomes
+	 * @param outcomePatterns Outcome patterns, the number of predicates that have
+	 * the pattern followed by its outcomes
+	 * @param predicates Labels of the predicates, sorted by outcome pattern
+	 * @param parameters Parameters of the predicates
+	 */
+	protected ModelSnapshotWriter(int correctionConstant, double correctionParam, String[] outcomes,
+			int[][] outcomePatterns, String[] predicates, Context[] parameters) {
+		this.correctionConstant = correctionConstant;
+		this.correctionParam = correctionParam;
+		this.outcomes = outcomes;
+		this.outcomePatterns = outcomePatterns;
+		this.predicates = predicates;
+		this.parameters = parameters;
+	}
+
+	/**
+	 * Writes the snapshot
+	 * @param file Destination file
+	 * @throws IOException Any exception that occurs while writing the file
+	 */
+	public void write(File file) throws IOException {
+		int patternIntCount = 0;
+		int patternPredicates = 0;
+		long parameterCount = 0;
+		for (int[] pattern : outcomePatterns) {
+			patternIntCount += pattern.length;
+			patternPredicates += pattern[0];
+			parameterCount += (long) pattern[0] * (pattern.length - 1);
+		}
+		if (patternPredicates != predicates.length || parameters.length != predicates.length)
+			throw new IOException("The outcome patterns do not match the predicates");
+		long charCount = 0;
+		for (String outcome : outcomes) {
+			charCount += outcome.length();
+		}
+		for (String predicate : predicates) {
+			charCount += predicate.length();
+		}
+		if (charCount > Integer.MAX_VALUE || ModelSnapshot.HEADER_SIZE + 8 * parameterCount
+				+ 4L * (patternIntCount + outcomePatterns.length + outcomes.length + predicates.length)
+				+ 2 * charCount > Integer.MAX_VALUE)
+			throw new IOException("The model snapshot exceeds 2GB");
+
+		File temporary = new File(file.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+		try {
+			out.writeInt(ModelSnapshot.MAGIC);
+			out.writeInt(ModelSnapshot.VERSION);
+			out.writeLong(sourceLength);
+			out.writeLong(sourceModified);
+			out.writeDouble(correctionParam);
+			out.writeInt(correctionConstant);
+			out.writeInt(outcomes.length);
+			out.writeInt(predicates.length);
+			out.writeInt(outcomePatterns.length);
+			out.writeInt(patternIntCount);
+			out.writeInt((int) parameterCount);
+			out.writeInt((int) charCount);
+			out.writeInt(0);
+			int pid = 0;
+			for (int[] pattern : outcomePatterns) {
+				for (int j = 0; j < pattern[0]; j++, pid++) {
+					double[] contextParameters = parameters[pid].getParameters();
+					if (contextParameters.length != pattern.length - 1)
+						throw new IOException("The parameters of " + predicates[pid]
+								+ " do not match its outcome pattern");
+					for (double parameter : contextParameters) {
+						out.writeDouble(parameter);
+					}
+				}
+			}
+			for (int[] pattern : outcomePatterns) {
+				out.writeInt(pattern.length);
+			}
+			for (int[] pattern : outcomePatterns) {
+				for (int value : pattern) {
+					out.writeInt(value);
+				}
+			}
+			for (String outcome : outcomes) {
+				out.writeInt(outcome.length());
+			}
+			for (String predicate : predicates) {
+				out.writeInt(predicate.length());
+			}
+			for (String outcome : outcomes) {
+				out.writeChars(outcome);
+			}
+			for (String predicate : predicates) {
+				out.writeChars(predicate);
+			}
+		} catch (IOException e) {
+			out.close();
+			temporary.delete();
+			throw e;
+		}
+		out.close();
+		if (!temporary.renameTo(file)) {
+			file.delete();
+			if (!temporary.renameTo(file)) {
+				temporary.delete();
+				throw new IOException("The model snapshot could not be moved to " + file);
+			}
+		}
+		logger.info("Written " + predicates.length + " predicates and " + outcomes.length
+				+ " outcomes to " + file);
+	}
+
+	/**
+	 * Converts models' binaries into snapshots, written next to each binary
+	 * @param args Files of the models' binaries
+	 * @throws Exception Any exception that occurs
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length == 0) {
+			System.err.println("Usage: ModelSnapshotWriter <model>...");
+			System.exit(1);
+		}
+		for (String path : args) {
+			File model = new File(path);
+			new ModelSnapshotWriter(model).write(ModelSnapshot.getSnapshotFile(model));
+		}
+	}
+
+	/**
+	 * Reader of the structures of a model's binary, in the order they are
+	 * stored in the binary. The reader owns the stream of the binary, so it
+	 * could be closed, unlike the stream opened by a SuggestedModelReader
+	 */
+	protected static class ModelReader extends BinaryGISModelReader {
+
+		protected final DataInputStream input;
+
+		/**
+		 * One-argument constructor
+		 * @param model File of the model's binary, optionally gzipped
+		 * @throws IOException Any exception that occurs while opening the model
+		 */
+		public ModelReader(File model) throws IOException {
+			this(open(model));
+		}
+
+		/**
+		 * One-argument constructor
+		 * @param input Stream of the model's binary
+		 */
+		protected ModelReader(DataInputStream input) {
+			super(input);
+			this.input = input;
+		}
+
+		/**
+		 * Opens the stream of a model's binary
+		 * @param model File of the model's binary, optionally gzipped
+		 * @return Stream of the binary
+		 * @throws IOException If the model is not a binary model or it could not be opened
+		 */
+		protected static DataInputStream open(File model) throws IOException {
+			String name = model.getName();
+			if (name.endsWith(".gz"))
+				name = name.substring(0, name.length() - 3);
+			if (name.endsWith(".txt"))
+				throw new IOException("Only binary models could be converted into snapshots: " + model);
+			InputStream in = new FileInputStream(model);
+			try {
+				if (model.getName().endsWith(".gz"))
+					in = new GZIPInputStream(in);
+			} catch (IOException e) {
+				in.close();
+				throw e;
+			}
+			return new DataInputStream(new BufferedInputStream(in));
+		}
+
+		/**
+		 * Closes the stream of the model's binary
+		 * @throws IOException Any exception that occurs while closing the stream
+		 */
+		public void close() throws IOException {
+			input.close();
+		}
+
+		/**
+		 * Reads the structures of the model
+		 * @param writer Writer that receives the structures
+		 * @throws IOException Any exception that occurs while reading the model
+		 */
+		public void read(ModelSnapshotWriter writer) throws IOException {
+			checkModelType();
+			writer.correctionConstant = getCorrectionConstant();
+			writer.correctionParam = getCorrectionParameter();
+			writer.outcomes = getOutcomes();
+			writer.outcomePatterns = getOutcomePatterns();
+			writer.predicates = getPredicates();
+			writer.parameters = getParameters(writer.outcomePatterns);
+		}
+	}
+
+}
@@ -0,0 +1,10 @@
+package es.weso.acota.core.business.enhancer.analyzer.model;
+
+/**
+ * Types of the OpenNLP models loaded by the {@link ModelRegistry}
+ * 
+ * @author César Luis Alvargonzález
+ */
+public enum ModelType {
+	SENTENCE_DETECTOR, TOKENIZER, POS_TAGGER, LEXICON
+}
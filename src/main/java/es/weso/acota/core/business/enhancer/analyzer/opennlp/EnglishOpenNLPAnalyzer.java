@@ -1,12 +1,8 @@
 package es.weso.acota.core.business.enhancer.analyzer.opennlp;
 
-import java.io.IOException;
-
 import opennlp.tools.dictionary.Dictionary;
-import opennlp.tools.lang.english.PosTagger;
-import opennlp.tools.lang.english.SentenceDetector;
-import opennlp.tools.lang.english.Tokenizer;
 import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.model.ModelRegistry;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
 
 /**
@@ -38,6 +34,10 @@ public class EnglishOpenNLPAnalyzer extends OpenNLPAnalyzerAdapter implements Op
 		setOpenNlpNouns(configuration.getOpenNlpEnNouns());
 		setOpenNlpVerbs(configuration.getOpenNlpEnVerbs());
 		setOpenNlpAdjectives(configuration.getOpenNlpEnAdjectives());
+		setOpenNlpPoolSize(configuration.getOpenNlpPoolSize());
+		setOpenNlpPoolIdleTimeout(configuration.getOpenNlpPoolIdleTimeout());
+		setOpenNlpLexicon(configuration.isOpenNlpLexiconEnabled()
+				? configuration.getOpenNlpEnLexicon() : null);
 	}
 
 	/**
@@ -45,13 +45,13 @@ public class EnglishOpenNLPAnalyzer extends OpenNLPAnalyzerAdapter implements Op
 	 */
 	@Override
 	protected void lazyOpenNlpInitialization() throws AcotaConfigurationException {
-		try{
-			this.sentenceDetector = new SentenceDetector(openNlpSentBin);
-			this.posTagger = new PosTagger(openNlpPosBin,new Dictionary());
-			this.tokenizer = new Tokenizer(openNlpTokBin);
-		} catch (IOException e) {
-			throw new AcotaConfigurationException(e);
-		}
+		ModelRegistry registry = ModelRegistry.getInstance();
+		this.sentenceDetectors = registry.createSentenceDetectorPool(openNlpSentBin,
+				openNlpPoolSize, openNlpPoolIdleTimeout);
+		this.posTaggers = registry.createPosTaggerPool(openNlpPosBin, new Dictionary(),
+				openNlpPoolSize, openNlpPoolIdleTimeout);
+		this.tokenizers = registry.createTokenizerPool(openNlpTokBin,
+				openNlpPoolSize, openNlpPoolIdleTimeout);
 		
 	}
 }
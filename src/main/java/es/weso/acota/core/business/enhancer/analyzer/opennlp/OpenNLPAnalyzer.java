@@ -66,4 +66,11 @@ public interface OpenNLPAnalyzer extends Configurable{
 	 * @throws AcotaConfigurationException Any exception that occurs
 	 */
 	boolean isVerb(String tag) throws AcotaConfigurationException;
+	
+	/**
+	 * Returns the classes of the tags, so the tags of a request are
+	 * classified without checking the configuration for each tag
+	 * @return The table of tag classes of the current configuration
+	 */
+	TagClassTable getTagClasses();
 }
@@ -1,31 +1,43 @@
 package es.weso.acota.core.business.enhancer.analyzer.opennlp;
 
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
 
 import opennlp.tools.postag.POSTagger;
 import opennlp.tools.sentdetect.SentenceDetector;
 import opennlp.tools.tokenize.Tokenizer;
 
 import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.lexicon.PosLexicon;
+import es.weso.acota.core.business.enhancer.analyzer.model.DecoderPool;
+import es.weso.acota.core.business.enhancer.analyzer.model.ModelRegistry;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
 
 /**
  * This class adapts the interface OpenNLPAnalyzer, implementing common
- * operations for derived classes
+ * operations for derived classes. The decoders are lent to each thread by a
+ * {@link DecoderPool}, over the maxent models shared by the {@link ModelRegistry},
+ * so concurrent requests do not wait for each other. The tag sets are compiled
+ * into a {@link TagClassTable} as soon as they are configured, so classifying a tag
+ * does not need to load the models. When a {@link PosLexicon} is configured, the
+ * unambiguous words are tagged from it and the maxent POS tagger only tags the
+ * spans around the rest of the words
  * @author César Luis Alvargonzález
  */
 public abstract class OpenNLPAnalyzerAdapter implements OpenNLPAnalyzer{
 
-	protected SentenceDetector sentenceDetector;
-	protected Tokenizer tokenizer;
-	protected POSTagger posTagger;
+	/**
+	 * Words of context tagged at each side of a word missing from the lexicon,
+	 * the maxent POS tagger uses the two previous and next words as features
+	 */
+	protected static final int LEXICON_CONTEXT = 2;
+
+	protected DecoderPool<SentenceDetector> sentenceDetectors;
+	protected DecoderPool<Tokenizer> tokenizers;
+	protected DecoderPool<POSTagger> posTaggers;
 	
-	protected Set<String> tokens;
-	protected Set<String> nouns;
-	protected Set<String> verbs;
-	protected Set<String> adjectives;
+	protected volatile PosLexicon lexicon;
+	protected volatile TagClassTable tagClasses = TagClassTable.EMPTY;
 	
 	protected String openNlpPosBin;
 	protected String openNlpSentBin;
@@ -34,8 +46,11 @@ public abstract class OpenNLPAnalyzerAdapter implements OpenNLPAnalyzer{
 	protected List<String> openNlpNouns;
 	protected List<String> openNlpVerbs;
 	protected List<String> openNlpAdjectives;
+	protected int openNlpPoolSize;
+	protected int openNlpPoolIdleTimeout;
+	protected String openNlpLexicon;
 	
-	private boolean modified;
+	private volatile boolean modified;
 	
 	/**
 	 * @see es.weso.acota.core.business.enhancer.Configurable#loadConfiguration(CoreConfiguration)
@@ -49,7 +64,58 @@ public abstract class OpenNLPAnalyzerAdapter implements OpenNLPAnalyzer{
 	@Override
 	public String[] tag(String[] text) throws AcotaConfigurationException {
 		lazyInitialization();
-		return posTagger.tag(text);
+		PosLexicon lexicon = this.lexicon;
+		String[] tags = new String[text.length];
+		int missing = text.length;
+		if (lexicon != null) {
+			for (int i = 0; i < text.length; i++) {
+				if ((tags[i] = lexicon.getTag(text[i])) != null)
+					missing--;
+			}
+			if (missing == 0)
+				return tags;
+		}
+		DecoderPool<POSTagger> pool = posTaggers;
+		POSTagger posTagger = pool.acquire();
+		try {
+			if (missing == text.length)
+				return posTagger.tag(text);
+			tagSpans(posTagger, text, tags);
+			return tags;
+		} finally {
+			pool.release(posTagger);
+		}
+	}
+
+	/**
+	 * Tags the words missing from the lexicon, each one is tagged with
+	 * {@link #LEXICON_CONTEXT} words at each side, and the spans that would
+	 * overlap are merged
+	 * @param posTagger POS tagger
+	 * @param text Words of the sentence
+	 * @param tags Tags of the words, null for the words missing from the lexicon
+	 */
+	protected void tagSpans(POSTagger posTagger, String[] text, String[] tags) {
+		int i = 0;
+		while (i < text.length) {
+			if (tags[i] != null) {
+				i++;
+				continue;
+			}
+			int last = i;
+			for (int j = i + 1; j < text.length && j <= last + 2 * LEXICON_CONTEXT; j++) {
+				if (tags[j] == null)
+					last = j;
+			}
+			int start = Math.max(0, i - LEXICON_CONTEXT);
+			int end = Math.min(text.length, last + LEXICON_CONTEXT + 1);
+			String[] spanTags = posTagger.tag(Arrays.copyOfRange(text, start, end));
+			for (int j = i; j <= last; j++) {
+				if (tags[j] == null)
+					tags[j] = spanTags[j - start];
+			}
+			i = last + 1;
+		}
 	}
 
 	/**
@@ -58,7 +124,13 @@ public abstract class OpenNLPAnalyzerAdapter implements OpenNLPAnalyzer{
 	@Override
 	public String[] tokenize(String text) throws AcotaConfigurationException {
 		lazyInitialization();
-		return tokenizer.tokenize(text);
+		DecoderPool<Tokenizer> pool = tokenizers;
+		Tokenizer tokenizer = pool.acquire();
+		try {
+			return tokenizer.tokenize(text);
+		} finally {
+			pool.release(tokenizer);
+		}
 	}
 
 	/**
@@ -67,7 +139,13 @@ public abstract class OpenNLPAnalyzerAdapter implements OpenNLPAnalyzer{
 	@Override
 	public String[] sentDetect(String text) throws AcotaConfigurationException {
 		lazyInitialization();
-		return sentenceDetector.sentDetect(text);
+		DecoderPool<SentenceDetector> pool = sentenceDetectors;
+		SentenceDetector sentenceDetector = pool.acquire();
+		try {
+			return sentenceDetector.sentDetect(text);
+		} finally {
+			pool.release(sentenceDetector);
+		}
 	}
 	
 	/**
@@ -75,8 +153,7 @@ public abstract class OpenNLPAnalyzerAdapter implements OpenNLPAnalyzer{
 	 */
 	@Override
 	public boolean isDispenasble(String tag) throws AcotaConfigurationException {
-		lazyInitialization();
-		return tokens.contains(tag);
+		return tagClasses.is(tag, TagClassTable.DISPENSABLE);
 	}
 
 	/**
@@ -84,8 +161,7 @@ public abstract class OpenNLPAnalyzerAdapter implements OpenNLPAnalyzer{
 	 */
 	@Override
 	public boolean isNoun(String tag) throws AcotaConfigurationException {
-		lazyInitialization();
-		return nouns.contains(tag);
+		return tagClasses.is(tag, TagClassTable.NOUN);
 	}
 
 	/**
@@ -93,8 +169,7 @@ public abstract class OpenNLPAnalyzerAdapter implements OpenNLPAnalyzer{
 	 */
 	@Override
 	public boolean isVerb(String tag) throws AcotaConfigurationException {
-		lazyInitialization();
-		return verbs.contains(tag);
+		return tagClasses.is(tag, TagClassTable.VERB);
 	}
 	
 	/**
@@ -102,15 +177,22 @@ public abstract class OpenNLPAnalyzerAdapter implements OpenNLPAnalyzer{
 	 */
 	@Override
 	public boolean isAdjective(String tag) throws AcotaConfigurationException {
-		lazyInitialization();
-		return adjectives.contains(tag);
+		return tagClasses.is(tag, TagClassTable.ADJECTIVE);
+	}
+	
+	/**
+	 * @see OpenNLPAnalyzer#getTagClasses()
+	 */
+	@Override
+	public TagClassTable getTagClasses() {
+		return tagClasses;
 	}
 	
 	/**
 	 * Sets the OpenNLP POS.bin path and the modified flag to true
 	 * @param openNlpPosBin OpenNLP POS.bin path
 	 */
-	protected void setOpenNlpPosBin(String openNlpPosBin){
+	protected synchronized void setOpenNlpPosBin(String openNlpPosBin){
 		if(this.openNlpPosBin==null || !this.openNlpPosBin.equals(openNlpPosBin)){
 			this.openNlpPosBin = openNlpPosBin;
 			this.modified = true;
@@ -121,7 +203,7 @@ public abstract class OpenNLPAnalyzerAdapter implements OpenNLPAnalyzer{
 	 * Sets the OpenNLP SENT.bin path and the modified flag to true
 	 * @param openNlpSentBin OpenNLP SENT.bin path
 	 */
-	protected void setOpenNlpSentBin(String openNlpSentBin){
+	protected synchronized void setOpenNlpSentBin(String openNlpSentBin){
 		if(this.openNlpSentBin==null || !this.openNlpSentBin.equals(openNlpSentBin)){
 			this.openNlpSentBin = openNlpSentBin;
 			this.modified = true;
@@ -132,7 +214,7 @@ public abstract class OpenNLPAnalyzerAdapter implements OpenNLPAnalyzer{
 	 * Sets the OpenNLP TOK.bin path and the modified flag to true
 	 * @param openNlpTokBin OpenNLP TOK.bin path
 	 */
-	protected void setOpenNlpTokBin(String openNlpTokBin){
+	protected synchronized void setOpenNlpTokBin(String openNlpTokBin){
 		if(this.openNlpTokBin==null || !this.openNlpTokBin.equals(openNlpTokBin)){
 			this.openNlpTokBin = openNlpTokBin;
 			this.modified = true;
@@ -140,66 +222,119 @@ public abstract class OpenNLPAnalyzerAdapter implements OpenNLPAnalyzer{
 	}
 	
 	/**
-	 * Sets the OpenNLP Tokens and the modified flag to true
+	 * Sets the OpenNLP Tokens and compiles the table of tag classes
 	 * @param openNlpTokens OpenNlp Tokens
 	 */
-	protected void setOpenNlpTokens(List<String> openNlpTokens){
+	protected synchronized void setOpenNlpTokens(List<String> openNlpTokens){
 		if(this.openNlpTokens==null || !this.openNlpTokens.equals(openNlpTokens)){
 			this.openNlpTokens = openNlpTokens;
-			this.modified = true;
+			compileTagClasses();
 		}
 	}
 	
 	/**
-	 * Sets the OpenNLP Nouns and the modified flag to true
+	 * Sets the OpenNLP Nouns and compiles the table of tag classes
 	 * @param openNlpNouns OpenNlp Nouns
 	 */
-	protected void setOpenNlpNouns(List<String> openNlpNouns){
+	protected synchronized void setOpenNlpNouns(List<String> openNlpNouns){
 		if(this.openNlpNouns==null || !this.openNlpNouns.equals(openNlpNouns)){
 			this.openNlpNouns = openNlpNouns;
-			this.modified = true;
+			compileTagClasses();
 		}
 	}
 	
 	/**
-	 * Sets the OpenNLP Verbs and the modified flag to true
+	 * Sets the OpenNLP Verbs and compiles the table of tag classes
 	 * @param openNlpVerbs OpenNlp Verbs
 	 */
-	protected void setOpenNlpVerbs(List<String> openNlpVerbs){
+	protected synchronized void setOpenNlpVerbs(List<String> openNlpVerbs){
 		if(this.openNlpVerbs==null || !this.openNlpVerbs.equals(openNlpVerbs)){
 			this.openNlpVerbs = openNlpVerbs;
-			this.modified = true;
+			compileTagClasses();
 		}
 	}
 	
 	/**
-	 * Sets the OpenNLP Adjectives and the modified flag to true
+	 * Sets the OpenNLP Adjectives and compiles the table of tag classes
 	 * @param openNlpAdjectives OpenNlp Adjectives
 	 */
-	protected void setOpenNlpAdjectives(List<String> openNlpAdjectives){
+	protected synchronized void setOpenNlpAdjectives(List<String> openNlpAdjectives){
 		if(this.openNlpAdjectives==null || !this.openNlpAdjectives.equals(openNlpAdjectives)){
 			this.openNlpAdjectives = openNlpAdjectives;
+			compileTagClasses();
+		}
+	}
+	
+	/**
+	 * Sets the size of the pools of decoders and the modified flag to true
+	 * @param openNlpPoolSize Maximum number of decoders of each type
+	 */
+	protected synchronized void setOpenNlpPoolSize(int openNlpPoolSize){
+		if(this.openNlpPoolSize != openNlpPoolSize){
+			this.openNlpPoolSize = openNlpPoolSize;
+			this.modified = true;
+		}
+	}
+	
+	/**
+	 * Sets the idle timeout of the decoders and the modified flag to true
+	 * @param openNlpPoolIdleTimeout Milliseconds a decoder can be idle before being discarded
+	 */
+	protected synchronized void setOpenNlpPoolIdleTimeout(int openNlpPoolIdleTimeout){
+		if(this.openNlpPoolIdleTimeout != openNlpPoolIdleTimeout){
+			this.openNlpPoolIdleTimeout = openNlpPoolIdleTimeout;
 			this.modified = true;
 		}
 	}
 	
 	/**
-	 * Lazy Load the configuration required by the Analyzer
+	 * Sets the POS lexicon path and the modified flag to true
+	 * @param openNlpLexicon POS lexicon path, null to tag every word with the
+	 * maxent POS tagger
+	 */
+	protected synchronized void setOpenNlpLexicon(String openNlpLexicon){
+		if(this.openNlpLexicon==null ? openNlpLexicon!=null : !this.openNlpLexicon.equals(openNlpLexicon)){
+			this.openNlpLexicon = openNlpLexicon;
+			this.modified = true;
+		}
+	}
+	
+	/**
+	 * Compiles the configured tag sets into the table of tag classes
+	 */
+	protected synchronized void compileTagClasses(){
+		TagClassTable table = TagClassTable.EMPTY;
+		if(openNlpTokens!=null)
+			table = table.with(openNlpTokens, TagClassTable.DISPENSABLE);
+		if(openNlpNouns!=null)
+			table = table.with(openNlpNouns, TagClassTable.NOUN);
+		if(openNlpVerbs!=null)
+			table = table.with(openNlpVerbs, TagClassTable.VERB);
+		if(openNlpAdjectives!=null)
+			table = table.with(openNlpAdjectives, TagClassTable.ADJECTIVE);
+		this.tagClasses = table;
+	}
+	
+	/**
+	 * Lazy Load the configuration required by the Analyzer, the pools of decoders
+	 * are replaced, the decoders in use are given back to their previous pool
 	 * @throws AcotaConfigurationException Any exception that occurs
 	 */
 	protected final void lazyInitialization() throws AcotaConfigurationException {
 		if(modified){
-			lazyOpenNlpInitialization();
-			this.tokens = new HashSet<String>(openNlpTokens);
-			this.nouns = new HashSet<String>(openNlpNouns);
-			this.verbs = new HashSet<String>(openNlpVerbs);
-			this.adjectives = new HashSet<String>(openNlpAdjectives);
-			this.modified = false;
+			synchronized (this) {
+				if(modified){
+					lazyOpenNlpInitialization();
+					this.lexicon = openNlpLexicon == null ? null
+							: ModelRegistry.getInstance().getLexicon(openNlpLexicon);
+					this.modified = false;
+				}
+			}
 		}
 	}
 	
 	/**
-	 * Loads OpenNLP required files
+	 * Loads OpenNLP required files and creates the pools of decoders
 	 * @throws AcotaConfigurationException Any exception that occurs 
 	 */
 	protected abstract void lazyOpenNlpInitialization() throws AcotaConfigurationException;
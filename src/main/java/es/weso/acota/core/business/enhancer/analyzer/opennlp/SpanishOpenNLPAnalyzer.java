@@ -1,11 +1,7 @@
 package es.weso.acota.core.business.enhancer.analyzer.opennlp;
 
-import java.io.IOException;
-
-import opennlp.tools.lang.spanish.PosTagger;
-import opennlp.tools.lang.spanish.SentenceDetector;
-import opennlp.tools.lang.spanish.Tokenizer;
 import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.model.ModelRegistry;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
 
 /**
@@ -39,6 +35,10 @@ public class SpanishOpenNLPAnalyzer extends OpenNLPAnalyzerAdapter implements
 		setOpenNlpNouns(configuration.getOpenNlpEsNouns());
 		setOpenNlpVerbs(configuration.getOpenNlpEsVerbs());
 		setOpenNlpAdjectives(configuration.getOpenNlpEsAdjectives());
+		setOpenNlpPoolSize(configuration.getOpenNlpPoolSize());
+		setOpenNlpPoolIdleTimeout(configuration.getOpenNlpPoolIdleTimeout());
+		setOpenNlpLexicon(configuration.isOpenNlpLexiconEnabled()
+				? configuration.getOpenNlpEsLexicon() : null);
 	}
 
 	/**
@@ -46,13 +46,13 @@ public class SpanishOpenNLPAnalyzer extends OpenNLPAnalyzerAdapter implements
 	 */
 	@Override
 	protected void lazyOpenNlpInitialization() throws AcotaConfigurationException {
-		try{
-			this.sentenceDetector = new SentenceDetector(openNlpSentBin);
-			this.posTagger = new PosTagger(openNlpPosBin);
-			this.tokenizer = new Tokenizer(openNlpTokBin);
-		} catch (IOException e) {
-			throw new AcotaConfigurationException(e);
-		}
+		ModelRegistry registry = ModelRegistry.getInstance();
+		this.sentenceDetectors = registry.createSentenceDetectorPool(openNlpSentBin,
+				openNlpPoolSize, openNlpPoolIdleTimeout);
+		this.posTaggers = registry.createPosTaggerPool(openNlpPosBin, null,
+				openNlpPoolSize, openNlpPoolIdleTimeout);
+		this.tokenizers = registry.createTokenizerPool(openNlpTokBin,
+				openNlpPoolSize, openNlpPoolIdleTimeout);
 		
 	}
 
@@ -0,0 +1,132 @@
+package es.weso.acota.core.business.enhancer.analyzer.opennlp;
+
+import java.util.Collection;
+
+/**
+ * TagClassTable maps each tag of a tagset to its classes (dispensable, noun, verb,
+ * adjective or meaningful), packed as a bitmask. The table is compiled when the
+ * configuration of an analyzer is loaded and it is immutable, so it is resolved once
+ * per request and then each tag of the tagger's output is classified with a single
+ * lookup. It is an open-addressing table, kept at most a quarter full and keyed by the
+ * hash cached by the tag's String, so a lookup is usually a single probe.
+ *
+ * @author César Luis Alvargonzález
+ */
+public final class TagClassTable {
+
+	public static final int NONE = 0;
+	public static final int DISPENSABLE = 1;
+	public static final int NOUN = 1 << 1;
+	public static final int VERB = 1 << 2;
+	public static final int ADJECTIVE = 1 << 3;
+	public static final int MEANINGFUL = 1 << 4;
+
+	public static final TagClassTable EMPTY = new TagClassTable(new String[4], new int[4], 0);
+
+	private final String[] tags;
+	private final int[] classes;
+	private int size;
+
+	private TagClassTable(String[] tags, int[] classes, int size) {
+		this.tags = tags;
+		this.classes = classes;
+		this.size = size;
+	}
+
+	/**
+	 * Creates a table with the tags of this one plus a tag set
+	 * @param tagSet Tags of the class
+	 * @param tagClass Class, or classes, of the tags
+	 * @return A new table
+	 */
+	public TagClassTable with(Collection<String> tagSet, int tagClass) {
+		int capacity = tags.length;
+		while (capacity < (size + tagSet.size()) * 4) {
+			capacity <<= 1;
+		}
+		TagClassTable table = new TagClassTable(new String[capacity], new int[capacity], 0);
+		for (int i = 0; i < tags.length; i++) {
+			if (tags[i] != null)
+				table.put(tags[i], classes[i]);
+		}
+		for (String tag : tagSet) {
+			table.put(tag.trim(), tagClass);
+		}
+		return table;
+	}
+
+	/**
+	 * Returns the classes of a tag
+	 * @param tag Tag to classify
+	 * @return The bitmask of the classes of the tag, {@link #NONE} if it is unknown
+	 */
+	public int classify(String tag) {
+		int mask = tags.length - 1;
+		int slot = mix(tag.hashCode()) & mask;
+		String current;
+		while ((current = tags[slot]) != null) {
+			if (current.equals(tag))
+				return classes[slot];
+			slot = (slot + 1) & mask;
+		}
+		return NONE;
+	}
+
+	/**
+	 * Checks whether a tag belongs to a class
+	 * @param tag Tag to classify
+	 * @param tagClass Class to check
+	 * @return true if the tag belongs to the class
+	 */
+	public boolean is(String tag, int tagClass) {
+		return (classify(tag) & tagClass) != 0;
+	}
+
+	/**
+	 * Number of tags
+	 * @return The number of classified tags
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds the classes of a tag, the table is being built
+	 * @param tag Tag to add
+	 * @param tagClass Classes of the tag
+	 */
+	private void put(String tag, int tagClass) {
+		int mask = tags.length - 1;
+		int slot = mix(tag.hashCode()) & mask;
+		String current;
+		while ((current = tags[slot]) != null) {
+			if (current.equals(tag)) {
+				classes[slot] |= tagClass;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		tags[slot] = tag;
+		classes[slot] = tagClass;
+		size++;
+	}
+
+	private static int mix(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("{");
+		for (int i = 0; i < tags.length; i++) {
+			if (tags[i] != null) {
+				if (builder.length() > 1)
+					builder.append(", ");
+				builder.append(tags[i]).append('=').append(Integer.toBinaryString(classes[i]));
+			}
+		}
+		return builder.append('}').toString();
+	}
+
+}
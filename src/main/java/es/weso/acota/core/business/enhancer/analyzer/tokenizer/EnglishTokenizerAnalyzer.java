@@ -1,14 +1,9 @@
 package es.weso.acota.core.business.enhancer.analyzer.tokenizer;
 
-import java.io.IOException;
-
-import opennlp.tools.dictionary.Dictionary;
-import opennlp.tools.lang.english.PosTagger;
-import opennlp.tools.lang.english.SentenceDetector;
-import opennlp.tools.lang.english.Tokenizer;
-
 import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.document.DocumentAnalyzer;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.lang.LanguageDetector;
 
 
 /**
@@ -33,24 +28,11 @@ public class EnglishTokenizerAnalyzer extends TokenizerAnalyzerAdapter implement
 	 * @see es.weso.acota.core.business.enhancer.Configurable#loadConfiguration(CoreConfiguration)
 	 */
 	@Override
-	public void loadConfiguration(CoreConfiguration configuration){
-		setOpenNlpPosBin(configuration.getOpenNlpEnPosBin());
-		setOpenNlpSentBin(configuration.getOpenNlpEnSentBin());
-		setOpenNlpTokBin(configuration.getOpenNlpEnTokBin());
+	public void loadConfiguration(CoreConfiguration configuration) throws AcotaConfigurationException {
+		setOpenNlpAnalyzer(DocumentAnalyzer.getInstance(configuration)
+				.loadAnalyzer(LanguageDetector.ISO_639_ENGLISH));
 		setTokenizerPattern(configuration.getTokenizerEnPattern());
 		setTokenizerTokens(configuration.getTokenizerEnTokens());
 	}
 
-	@Override
-	protected void lazyOpenNlpInitialization() throws AcotaConfigurationException {
-		try{
-			this.sentenceDetector = new SentenceDetector(openNlpSentBin);
-			this.posTagger = new PosTagger(openNlpPosBin, new Dictionary());
-			this.tokenizer = new Tokenizer(openNlpTokBin);
-		} catch (IOException e) {
-			throw new AcotaConfigurationException(e);
-		}
-		
-	}
-
 }
\ No newline at end of file
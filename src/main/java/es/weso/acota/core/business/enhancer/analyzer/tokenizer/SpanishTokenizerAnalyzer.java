@@ -1,13 +1,9 @@
 package es.weso.acota.core.business.enhancer.analyzer.tokenizer;
 
-import java.io.IOException;
-
-import opennlp.tools.lang.spanish.PosTagger;
-import opennlp.tools.lang.spanish.SentenceDetector;
-import opennlp.tools.lang.spanish.Tokenizer;
-
 import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.document.DocumentAnalyzer;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.lang.LanguageDetector;
 
 
 /**
@@ -32,23 +28,10 @@ public class SpanishTokenizerAnalyzer extends TokenizerAnalyzerAdapter implement
 	 * @see es.weso.acota.core.business.enhancer.Configurable#loadConfiguration(CoreConfiguration)
 	 */
 	@Override
-	public void loadConfiguration(CoreConfiguration configuration){
-		setOpenNlpPosBin(configuration.getOpenNlpEsPosBin());
-		setOpenNlpSentBin(configuration.getOpenNlpEsSentBin());
-		setOpenNlpTokBin(configuration.getOpenNlpEsTokBin());
+	public void loadConfiguration(CoreConfiguration configuration) throws AcotaConfigurationException {
+		setOpenNlpAnalyzer(DocumentAnalyzer.getInstance(configuration)
+				.loadAnalyzer(LanguageDetector.ISO_639_SPANISH));
 		setTokenizerPattern(configuration.getTokenizerEsPattern());
 		setTokenizerTokens(configuration.getTokenizerEsTokens());
 	}
-
-	@Override
-	protected void lazyOpenNlpInitialization() throws AcotaConfigurationException {
-		try{
-			this.sentenceDetector = new SentenceDetector(openNlpSentBin);
-			this.posTagger = new PosTagger(openNlpPosBin);
-			this.tokenizer = new Tokenizer(openNlpTokBin);
-		} catch (IOException e) {
-			throw new AcotaConfigurationException(e);
-		}
-		
-	}
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package es.weso.acota.core.business.enhancer.analyzer.tokenizer;
 
 import es.weso.acota.core.business.enhancer.Configurable;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.TagClassTable;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
 
 /**
@@ -27,6 +28,13 @@ public interface TokenizerAnalyzer extends Configurable{
 	 */
 	public boolean containsTag(String tag) throws AcotaConfigurationException;
 	
+	/**
+	 * Returns the classes of the tags, the tags of the tag set are
+	 * {@link TagClassTable#MEANINGFUL}
+	 * @return The table of tag classes of the current configuration
+	 */
+	public TagClassTable getTagClasses();
+	
 	/**
 	 * Tags a text with Morphosyntactic Tags
 	 * @param text The string to be tagged.
@@ -1,37 +1,30 @@
 package es.weso.acota.core.business.enhancer.analyzer.tokenizer;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.regex.Pattern;
 
-import opennlp.tools.postag.POSTagger;
-import opennlp.tools.sentdetect.SentenceDetector;
-import opennlp.tools.tokenize.Tokenizer;
-
 import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.OpenNLPAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.opennlp.TagClassTable;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
 
 /**
  * This class adapts the interface TokenizerAnalyzer, implementing common
- * operations for derived classes
+ * operations for derived classes. The NLP operations are delegated to the
+ * {@link OpenNLPAnalyzer} shared by the process, so no OpenNLP model is loaded twice,
+ * and the tag set is compiled into a {@link TagClassTable} as soon as it is configured
  * @author César Luis Alvargonzález
  */
 public abstract class TokenizerAnalyzerAdapter implements TokenizerAnalyzer{
 	
 	protected Pattern pattern;
-	protected SentenceDetector sentenceDetector;
-	protected Tokenizer tokenizer;
-	protected POSTagger posTagger;
-	protected Set<String> tokens;
+	protected volatile TagClassTable tagClasses = TagClassTable.EMPTY;
 	
 	protected String tokenizerPattern;
 	protected List<String> tokenizerTokens;
-	protected String openNlpPosBin;
-	protected String openNlpSentBin;
-	protected String openNlpTokBin;
+	protected volatile OpenNLPAnalyzer openNlpAnalyzer;
 	
-	private boolean modified;
+	private volatile boolean modified;
 	
 	/**
 	 * @see es.weso.acota.core.business.enhancer.Configurable#loadConfiguration(CoreConfiguration)
@@ -55,18 +48,24 @@ public abstract class TokenizerAnalyzerAdapter implements TokenizerAnalyzer{
 	 */
 	@Override
 	public boolean containsTag(String tag) throws AcotaConfigurationException {
-		lazyInitialization();
-		return tokens.contains(tag);
+		return tagClasses.is(tag, TagClassTable.MEANINGFUL);
 	};
 	
+	/**
+	 * @see TokenizerAnalyzer#getTagClasses()
+	 */
+	@Override
+	public TagClassTable getTagClasses() {
+		return tagClasses;
+	}
+	
 	/**
 	 * @throws AcotaConfigurationException 
 	 * @see TokenizerAnalyzer#tag(java.lang.String[])
 	 */
 	@Override
 	public String[] tag(String[] text) throws AcotaConfigurationException  {
-		lazyInitialization();
-		return posTagger.tag(text);
+		return openNlpAnalyzer.tag(text);
 	}
 
 	/**
@@ -75,8 +74,7 @@ public abstract class TokenizerAnalyzerAdapter implements TokenizerAnalyzer{
 	 */
 	@Override
 	public String[] tokenize(String text) throws AcotaConfigurationException {
-		lazyInitialization();
-		return tokenizer.tokenize(text);
+		return openNlpAnalyzer.tokenize(text);
 	}
 
 	/**
@@ -85,48 +83,22 @@ public abstract class TokenizerAnalyzerAdapter implements TokenizerAnalyzer{
 	 */
 	@Override
 	public String[] sentDetect(String text) throws AcotaConfigurationException {
-		lazyInitialization();
-		return sentenceDetector.sentDetect(text);
-	}
-	
-	/**
-	 * Sets the OpenNLP POS.bin path and the modified flag to true
-	 * @param openNlpPosBin OpenNLP POS.bin path
-	 */
-	protected void setOpenNlpPosBin(String openNlpPosBin){
-		if(this.openNlpPosBin==null || !this.openNlpPosBin.equals(openNlpPosBin)){
-			this.openNlpPosBin = openNlpPosBin;
-			this.modified = true;
-		}
-	}
-	
-	/**
-	 * Sets the OpenNLP SENT.bin path and the modified flag to true
-	 * @param openNlpSentBin OpenNLP SENT.bin path
-	 */
-	protected void setOpenNlpSentBin(String openNlpSentBin){
-		if(this.openNlpSentBin==null || !this.openNlpSentBin.equals(openNlpSentBin)){
-			this.openNlpSentBin = openNlpSentBin;
-			this.modified = true;
-		}
+		return openNlpAnalyzer.sentDetect(text);
 	}
 	
 	/**
-	 * Sets the OpenNLP TOK.bin path and the modified flag to true
-	 * @param openNlpTokBin OpenNLP TOK.bin path
+	 * Sets the analyzer which performs the NLP operations
+	 * @param openNlpAnalyzer OpenNLP analyzer of the language
 	 */
-	protected void setOpenNlpTokBin(String openNlpTokBin){
-		if(this.openNlpTokBin==null || !this.openNlpTokBin.equals(openNlpTokBin)){
-			this.openNlpTokBin = openNlpTokBin;
-			this.modified = true;
-		}
+	protected void setOpenNlpAnalyzer(OpenNLPAnalyzer openNlpAnalyzer){
+		this.openNlpAnalyzer = openNlpAnalyzer;
 	}
 	
 	/**
 	 * Sets the Tokenizer Patter (RegEx.) and the modified flag to true
 	 * @param tokenizerPattern Tokenizer Pattern 
 	 */
-	protected void setTokenizerPattern(String tokenizerPattern){
+	protected synchronized void setTokenizerPattern(String tokenizerPattern){
 		if(this.tokenizerPattern==null || !this.tokenizerPattern.equals(tokenizerPattern)){
 			this.tokenizerPattern = tokenizerPattern;
 			this.modified = true;
@@ -134,13 +106,13 @@ public abstract class TokenizerAnalyzerAdapter implements TokenizerAnalyzer{
 	}
 	
 	/**
-	 * Sets the Tokenizer Tokens and the modified flag to true
+	 * Sets the Tokenizer Tokens and compiles their table of tag classes
 	 * @param tokenizerTokens Tokenizer Tokens
 	 */
-	protected void setTokenizerTokens(List<String> tokenizerTokens){
+	protected synchronized void setTokenizerTokens(List<String> tokenizerTokens){
 		if(this.tokenizerTokens==null || !this.tokenizerTokens.equals(tokenizerTokens)){
 			this.tokenizerTokens = tokenizerTokens;
-			this.modified = true;
+			this.tagClasses = TagClassTable.EMPTY.with(tokenizerTokens, TagClassTable.MEANINGFUL);
 		}
 	}
 	
@@ -150,16 +122,12 @@ public abstract class TokenizerAnalyzerAdapter implements TokenizerAnalyzer{
 	 */
 	protected void lazyInitialization() throws AcotaConfigurationException {
 		if(modified){
-			lazyOpenNlpInitialization();
-			this.pattern = Pattern.compile(tokenizerPattern);
-			this.tokens = new HashSet<String>(tokenizerTokens);
-			this.modified = false;
+			synchronized (this) {
+				if(modified){
+					this.pattern = Pattern.compile(tokenizerPattern);
+					this.modified = false;
+				}
+			}
 		}
 	}
-	
-	/**
-	 * Lazy Load all OpenNLP Files required by the Analyzer
-	 * @throws AcotaConfigurationException Any exception that occurs
-	 */
-	protected abstract void lazyOpenNlpInitialization() throws AcotaConfigurationException;
-}
+}
\ No newline at end of file
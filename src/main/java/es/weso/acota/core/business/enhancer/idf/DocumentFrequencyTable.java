@@ -0,0 +1,281 @@
+package es.weso.acota.core.business.enhancer.idf;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+/**
+ * DocumentFrequencyTable gives the number of documents of a corpus that contain
+ * each term, so the enhancers can weight the terms by their IDF. The table is built
+ * offline by {@link DocumentFrequencyTableBuilder}, and it is memory-mapped read-only,
+ * so it takes no heap and it is shared, through the page cache, by every process.
+ * The file is an open-addressing hash table of fixed-size slots (hash, offset of the
+ * term, document frequency) followed by the terms as UTF-16 chars, so a term is looked
+ * up straight from a char buffer, without decoding nor allocating. Reads only use
+ * absolute positions, and the mapped table is kept in a single immutable
+ * {@link Mapping}, so the table is safe to be used by any number of threads. The
+ * tables are shared by the canonical path of their file, and a table never changes
+ * its file, so each enhancer keeps the corpus statistics it was configured with.
+ *
+ * @author César Luis Alvargonzález
+ */
+public class DocumentFrequencyTable {
+
+	protected static Logger logger = Logger.getLogger(DocumentFrequencyTable.class);
+
+	protected static final int MAGIC = 0x41444631;
+	protected static final int VERSION = 1;
+
+	protected static final int HEADER_SIZE = 24;
+	protected static final int SLOT_SIZE = 12;
+
+	private static final Map<String, DocumentFrequencyTable> TABLES = 
+			new ConcurrentHashMap<String, DocumentFrequencyTable>();
+
+	protected final Mapping mapping;
+
+	/**
+	 * Maps a table from a file
+	 * @param file File that contains the table
+	 * @throws IOException If the file could not be read or it is not a table
+	 */
+	public DocumentFrequencyTable(File file) throws IOException {
+		this.mapping = map(file);
+	}
+
+	/**
+	 * Gets the table of the configured file, in the case it has not been 
+	 * mapped, it will map it
+	 * @param configuration acota-core's configuration class
+	 * @return The {@link DocumentFrequencyTable} of the file
+	 * @throws AcotaConfigurationException Any exception that occurs while
+	 * mapping the table
+	 */
+	public static DocumentFrequencyTable getInstance(CoreConfiguration configuration)
+			throws AcotaConfigurationException {
+		if (configuration == null)
+			configuration = new CoreConfiguration();
+		String file = configuration.getLuceneIdfFile();
+		String key = createKey(file);
+		DocumentFrequencyTable table = TABLES.get(key);
+		if (table == null) {
+			synchronized (TABLES) {
+				table = TABLES.get(key);
+				if (table == null) {
+					try {
+						table = new DocumentFrequencyTable(new File(file));
+					} catch (IOException e) {
+						throw new AcotaConfigurationException("Fail mapping the document frequency table " + file, e);
+					}
+					TABLES.put(key, table);
+				}
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Creates the key of a table
+	 * @param file Path of the file that contains the table
+	 * @return Key of the table, the canonical path of its file
+	 */
+	protected static String createKey(String file) {
+		try {
+			return new File(file).getCanonicalPath();
+		} catch (IOException e) {
+			return file;
+		}
+	}
+
+	/**
+	 * Maps a table
+	 * @param file File that contains the table
+	 * @return The mapping of the table
+	 * @throws IOException If the file could not be read or it is not a table
+	 */
+	protected static Mapping map(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		MappedByteBuffer buffer;
+		try {
+			FileChannel channel = raf.getChannel();
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			raf.close();
+		}
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+			throw new IOException(file + " is not a document frequency table");
+		if (buffer.getInt(4) != VERSION)
+			throw new IOException("Unsupported document frequency table version " + buffer.getInt(4));
+		long documentCount = buffer.getLong(8);
+		int termCount = buffer.getInt(16);
+		int slotCount = buffer.getInt(20);
+		if (documentCount < 0 || termCount < 0)
+			throw new IOException(file + " is a corrupted document frequency table");
+		if (slotCount <= 0 || (slotCount & (slotCount - 1)) != 0 || termCount >= slotCount)
+			throw new IOException(file + " has an invalid number of slots " + slotCount);
+		if (HEADER_SIZE + (long) slotCount * SLOT_SIZE > buffer.capacity())
+			throw new IOException(file + " is a truncated document frequency table");
+		logger.info("Mapped " + termCount + " document frequencies of " + documentCount
+				+ " documents from " + file);
+		return new Mapping(file.getPath(), buffer, documentCount, termCount, slotCount);
+	}
+
+	/**
+	 * Number of documents of the corpus
+	 * @return The number of documents
+	 */
+	public long getDocumentCount() {
+		return mapping.documentCount;
+	}
+
+	/**
+	 * Number of distinct terms of the corpus
+	 * @return The number of terms
+	 */
+	public int size() {
+		return mapping.termCount;
+	}
+
+	/**
+	 * Returns the number of documents that contain a term
+	 * @param term The term
+	 * @return The document frequency, 0 if the term is unknown
+	 */
+	public int getDocumentFrequency(String term) {
+		return getDocumentFrequency(term.toCharArray(), 0, term.length());
+	}
+
+	/**
+	 * Returns the number of documents that contain a term held in a char buffer
+	 * @param buffer Buffer that contains the term
+	 * @param offset Position of the first char of the term
+	 * @param length Number of chars of the term
+	 * @return The document frequency, 0 if the term is unknown
+	 */
+	public int getDocumentFrequency(char[] buffer, int offset, int length) {
+		return getDocumentFrequency(mapping, buffer, offset, length);
+	}
+
+	/**
+	 * Returns the weight of a term held in a char buffer, its IDF normalized by the
+	 * IDF of an unknown term, so weights are in (0, 1] and the rarest terms weight 1
+	 * @param buffer Buffer that contains the term
+	 * @param offset Position of the first char of the term
+	 * @param length Number of chars of the term
+	 * @return The weight of the term
+	 */
+	public double getWeight(char[] buffer, int offset, int length) {
+		return idf(mapping.documentCount, getDocumentFrequency(mapping, buffer, offset, length)) / mapping.maxIdf;
+	}
+
+	/**
+	 * Looks up the number of documents that contain a term in a mapping
+	 * @param mapping Mapped table
+	 * @param buffer Buffer that contains the term
+	 * @param offset Position of the first char of the term
+	 * @param length Number of chars of the term
+	 * @return The document frequency, 0 if the term is unknown
+	 */
+	protected int getDocumentFrequency(Mapping mapping, char[] buffer, int offset, int length) {
+		ByteBuffer table = mapping.table;
+		int hash = hash(buffer, offset, length);
+		int mask = mapping.slotCount - 1;
+		int slot = hash & mask;
+		while (true) {
+			int position = HEADER_SIZE + slot * SLOT_SIZE;
+			int data = table.getInt(position + 4);
+			if (data == 0)
+				return 0;
+			if (table.getInt(position) == hash && sameTerm(table, data, buffer, offset, length))
+				return table.getInt(position + 8);
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Calculates the smoothed IDF of a document frequency
+	 * @param documentCount Number of documents of the corpus
+	 * @param documentFrequency Number of documents that contain a term
+	 * @return log((N + 1) / (df + 1)) + 1
+	 */
+	protected static double idf(long documentCount, int documentFrequency) {
+		return Math.log((documentCount + 1d) / (documentFrequency + 1d)) + 1d;
+	}
+
+	/**
+	 * Compares a stored term with a term held in a char buffer
+	 * @param table Mapped table
+	 * @param data Position of the stored term
+	 * @param buffer Buffer that contains the term
+	 * @param offset Position of the first char of the term
+	 * @param length Number of chars of the term
+	 * @return true if both terms are equal
+	 */
+	protected static boolean sameTerm(ByteBuffer table, int data, char[] buffer, int offset, int length) {
+		if (table.getShort(data) != length)
+			return false;
+		int position = data + 2;
+		for (int i = offset; i < offset + length; i++, position += 2) {
+			if (table.getChar(position) != buffer[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Hashes a term, FNV-1a over its chars with a final mix
+	 * @param buffer Buffer that contains the term
+	 * @param offset Position of the first char of the term
+	 * @param length Number of chars of the term
+	 * @return The hash of the term
+	 */
+	protected static int hash(char[] buffer, int offset, int length) {
+		int hash = 0x811C9DC5;
+		for (int i = offset; i < offset + length; i++) {
+			hash = (hash ^ buffer[i]) * 0x01000193;
+		}
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Immutable mapping of a table, with its header
+	 */
+	protected static final class Mapping {
+
+		protected final String file;
+		protected final ByteBuffer table;
+		protected final long documentCount;
+		protected final int termCount;
+		protected final int slotCount;
+		protected final double maxIdf;
+
+		/**
+		 * Five-argument constructor
+		 * @param file Path of the file that contains the table
+		 * @param table Mapped table
+		 * @param documentCount Number of documents of the corpus
+		 * @param termCount Number of distinct terms of the corpus
+		 * @param slotCount Number of slots of the table, a power of two
+		 */
+		public Mapping(String file, ByteBuffer table, long documentCount, int termCount, int slotCount) {
+			this.file = file;
+			this.table = table;
+			this.documentCount = documentCount;
+			this.termCount = termCount;
+			this.slotCount = slotCount;
+			this.maxIdf = idf(documentCount, 0);
+		}
+	}
+
+}
@@ -0,0 +1,239 @@
+package es.weso.acota.core.business.enhancer.idf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.lucene.StopAnalyzerFactory;
+import es.weso.acota.core.entity.ResourceTO;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.lang.CachedLanguageDetector;
+import es.weso.acota.core.utils.stream.ResourceReader;
+import es.weso.acota.core.utils.stream.StreamFormat;
+
+/**
+ * Batch tool that builds a {@link DocumentFrequencyTable} from a corpus of resources.
+ * Each resource is a document, its label and description are analyzed with the
+ * Lucene's stop analyzer of their language, as LuceneEnhancer does, so the terms of
+ * the table are the same ones that are looked up at runtime.
+ * <p>
+ * Usage: <code>DocumentFrequencyTableBuilder &lt;jsonl|csv&gt; &lt;corpus&gt; &lt;table&gt;</code>
+ *
+ * @author César Luis Alvargonzález
+ */
+public class DocumentFrequencyTableBuilder {
+
+	protected static Logger logger = Logger.getLogger(DocumentFrequencyTableBuilder.class);
+
+	protected static final String FIELD = "description";
+
+	protected CoreConfiguration configuration;
+	protected CachedLanguageDetector languageDetector;
+
+	protected Map<String, int[]> frequencies;
+	protected long documentCount;
+
+	/**
+	 * One-argument constructor
+	 * @param configuration acota-core's configuration class
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing
+	 * a Configuration object
+	 */
+	public DocumentFrequencyTableBuilder(CoreConfiguration configuration) throws AcotaConfigurationException {
+		this.configuration = configuration;
+		this.languageDetector = CachedLanguageDetector.getInstance(configuration);
+		this.frequencies = new HashMap<String, int[]>();
+	}
+
+	/**
+	 * Adds every resource of a reader as a document
+	 * @param reader Reader of the corpus
+	 * @return Number of added documents
+	 * @throws IOException Any exception that occurs while reading the corpus
+	 * @throws AcotaConfigurationException Any exception that occurs while
+	 * detecting the language of the texts
+	 */
+	public long addResources(ResourceReader reader) throws IOException, AcotaConfigurationException {
+		long count = 0;
+		ResourceTO resource;
+		while ((resource = reader.read()) != null) {
+			addResource(resource);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Adds a resource, its label and description, as a document
+	 * @param resource Resource to add
+	 * @throws IOException Any exception that occurs while reading Lucene's TokenStream
+	 * @throws AcotaConfigurationException Any exception that occurs while
+	 * detecting the language of the texts
+	 */
+	public void addResource(ResourceTO resource) throws IOException, AcotaConfigurationException {
+		Set<String> terms = new HashSet<String>();
+		addTerms(terms, resource.getLabel());
+		addTerms(terms, resource.getDescription());
+		addDocument(terms);
+	}
+
+	/**
+	 * Adds a text as a document
+	 * @param text Text to add
+	 * @throws IOException Any exception that occurs while reading Lucene's TokenStream
+	 * @throws AcotaConfigurationException Any exception that occurs while
+	 * detecting the language of the text
+	 */
+	public void addText(String text) throws IOException, AcotaConfigurationException {
+		Set<String> terms = new HashSet<String>();
+		addTerms(terms, text);
+		addDocument(terms);
+	}
+
+	/**
+	 * Number of added documents
+	 * @return The number of documents
+	 */
+	public long getDocumentCount() {
+		return documentCount;
+	}
+
+	/**
+	 * Writes the table
+	 * @param file Destination file
+	 * @throws IOException Any exception that occurs while writing the file
+	 */
+	public void write(File file) throws IOException {
+		int termCount = frequencies.size();
+		int slotCount = 2;
+		while (slotCount < termCount * 2) {
+			slotCount <<= 1;
+		}
+		int[] slotHashes = new int[slotCount];
+		int[] slotData = new int[slotCount];
+		int[] slotFrequencies = new int[slotCount];
+		String[] terms = new String[termCount];
+
+		long data = DocumentFrequencyTable.HEADER_SIZE + (long) slotCount * DocumentFrequencyTable.SLOT_SIZE;
+		int mask = slotCount - 1;
+		int i = 0;
+		for (Entry<String, int[]> entry : frequencies.entrySet()) {
+			String term = entry.getKey();
+			int hash = DocumentFrequencyTable.hash(term.toCharArray(), 0, term.length());
+			int slot = hash & mask;
+			while (slotData[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			if (data > Integer.MAX_VALUE)
+				throw new IOException("The document frequency table exceeds 2GB");
+			slotHashes[slot] = hash;
+			slotData[slot] = (int) data;
+			slotFrequencies[slot] = entry.getValue()[0];
+			terms[i++] = term;
+			data += 2 + 2L * term.length();
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			out.writeInt(DocumentFrequencyTable.MAGIC);
+			out.writeInt(DocumentFrequencyTable.VERSION);
+			out.writeLong(documentCount);
+			out.writeInt(termCount);
+			out.writeInt(slotCount);
+			for (int slot = 0; slot < slotCount; slot++) {
+				out.writeInt(slotHashes[slot]);
+				out.writeInt(slotData[slot]);
+				out.writeInt(slotFrequencies[slot]);
+			}
+			for (String term : terms) {
+				out.writeShort(term.length());
+				out.writeChars(term);
+			}
+		} finally {
+			out.close();
+		}
+		logger.info("Written " + termCount + " document frequencies of " + documentCount
+				+ " documents to " + file);
+	}
+
+	/**
+	 * Adds the terms of a text
+	 * @param terms Set where the terms are added
+	 * @param text Text to analyze
+	 * @throws IOException Any exception that occurs while reading Lucene's TokenStream
+	 * @throws AcotaConfigurationException Any exception that occurs while
+	 * detecting the language of the text
+	 */
+	protected void addTerms(Set<String> terms, String text) throws IOException, AcotaConfigurationException {
+		if (text == null || text.length() == 0)
+			return;
+		String language = languageDetector.detect(text);
+		TokenStream stream = StopAnalyzerFactory.getAnalyzer(language, configuration)
+				.reusableTokenStream(FIELD, new StringReader(text));
+		CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+		try {
+			stream.reset();
+			while (stream.incrementToken()) {
+				if (term.length() <= Short.MAX_VALUE)
+					terms.add(term.toString());
+			}
+			stream.end();
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Counts a document
+	 * @param terms Distinct terms of the document
+	 */
+	protected void addDocument(Set<String> terms) {
+		for (String term : terms) {
+			int[] frequency = frequencies.get(term);
+			if (frequency == null)
+				frequencies.put(term, new int[]{1});
+			else
+				frequency[0]++;
+		}
+		documentCount++;
+	}
+
+	/**
+	 * Builds a table from a corpus file
+	 * @param args Format of the corpus (jsonl or csv), corpus file and table file
+	 * @throws Exception Any exception that occurs
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length != 3) {
+			System.err.println("Usage: DocumentFrequencyTableBuilder <jsonl|csv> <corpus> <table>");
+			System.exit(1);
+		}
+		StreamFormat format = StreamFormat.valueOf(args[0].toUpperCase());
+		DocumentFrequencyTableBuilder builder = new DocumentFrequencyTableBuilder(new CoreConfiguration());
+		InputStream in = new BufferedInputStream(new FileInputStream(args[1]));
+		ResourceReader reader = format.createReader(in);
+		try {
+			builder.addResources(reader);
+		} finally {
+			reader.close();
+		}
+		builder.write(new File(args[2]));
+	}
+
+}
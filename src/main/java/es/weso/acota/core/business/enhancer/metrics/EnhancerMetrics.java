@@ -0,0 +1,190 @@
+package es.weso.acota.core.business.enhancer.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms, by {@link Stage}, and counters of the requests processed 
+ * by an enhancer for a language.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class EnhancerMetrics implements EnhancerMetricsMBean {
+
+	protected final String enhancer;
+	protected final String language;
+
+	protected final Histogram[] stages;
+	protected final Histogram textLength;
+	protected final AtomicLong errors;
+	protected final AtomicLong tagsAdded;
+	protected final AtomicLong tagsRemoved;
+
+	/**
+	 * Two-argument constructor
+	 * @param enhancer Name of the enhancer
+	 * @param language Language of the processed requests
+	 */
+	public EnhancerMetrics(String enhancer, String language) {
+		this.enhancer = enhancer;
+		this.language = language;
+		this.stages = new Histogram[Stage.values().length];
+		for (int i = 0; i < stages.length; i++) {
+			stages[i] = new Histogram();
+		}
+		this.textLength = new Histogram();
+		this.errors = new AtomicLong();
+		this.tagsAdded = new AtomicLong();
+		this.tagsRemoved = new AtomicLong();
+	}
+
+	/**
+	 * Records the wall time of a stage
+	 * @param stage Stage of the lifecycle
+	 * @param nanos Wall time in nanoseconds
+	 */
+	public void record(Stage stage, long nanos) {
+		stages[stage.ordinal()].record(nanos);
+	}
+
+	/**
+	 * Records a processed request, its total wall time is recorded 
+	 * as {@link Stage#TOTAL}
+	 * @param nanos Total wall time in nanoseconds
+	 * @param length Length of the processed text
+	 * @param added Number of tags added
+	 * @param removed Number of tags removed
+	 * @param failed true if the enhancement failed
+	 */
+	public void recordRequest(long nanos, int length, int added, int removed, boolean failed) {
+		record(Stage.TOTAL, nanos);
+		textLength.record(length);
+		if (added > 0) {
+			tagsAdded.addAndGet(added);
+		}
+		if (removed > 0) {
+			tagsRemoved.addAndGet(removed);
+		}
+		if (failed) {
+			errors.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the metrics
+	 * @return The snapshot of the metrics
+	 */
+	public EnhancerMetricsSnapshot snapshot() {
+		HistogramSnapshot[] snapshots = new HistogramSnapshot[stages.length];
+		for (int i = 0; i < stages.length; i++) {
+			snapshots[i] = stages[i].snapshot();
+		}
+		return new EnhancerMetricsSnapshot(enhancer, language, snapshots, textLength.snapshot(),
+				errors.get(), tagsAdded.get(), tagsRemoved.get());
+	}
+
+	@Override
+	public void reset() {
+		for (Histogram stage : stages) {
+			stage.reset();
+		}
+		textLength.reset();
+		errors.set(0);
+		tagsAdded.set(0);
+		tagsRemoved.set(0);
+	}
+
+	@Override
+	public String getEnhancer() {
+		return enhancer;
+	}
+
+	@Override
+	public String getLanguage() {
+		return language;
+	}
+
+	@Override
+	public long getRequests() {
+		return stages[Stage.TOTAL.ordinal()].count.get();
+	}
+
+	@Override
+	public long getErrors() {
+		return errors.get();
+	}
+
+	@Override
+	public long getTagsAdded() {
+		return tagsAdded.get();
+	}
+
+	@Override
+	public long getTagsRemoved() {
+		return tagsRemoved.get();
+	}
+
+	@Override
+	public long getTextLength() {
+		return textLength.sum.get();
+	}
+
+	@Override
+	public double getMeanTextLength() {
+		return textLength.snapshot().getMean();
+	}
+
+	@Override
+	public double getMeanMicros() {
+		return toMicros(stages[Stage.TOTAL.ordinal()].snapshot().getMean());
+	}
+
+	@Override
+	public long getP50Micros() {
+		return toMicros(stages[Stage.TOTAL.ordinal()].snapshot().getPercentile(50));
+	}
+
+	@Override
+	public long getP90Micros() {
+		return toMicros(stages[Stage.TOTAL.ordinal()].snapshot().getPercentile(90));
+	}
+
+	@Override
+	public long getP99Micros() {
+		return toMicros(stages[Stage.TOTAL.ordinal()].snapshot().getPercentile(99));
+	}
+
+	@Override
+	public long getMaxMicros() {
+		return toMicros(stages[Stage.TOTAL.ordinal()].max.get());
+	}
+
+	@Override
+	public double getMeanPreExecuteMicros() {
+		return toMicros(stages[Stage.PRE_EXECUTE.ordinal()].snapshot().getMean());
+	}
+
+	@Override
+	public double getMeanExecuteMicros() {
+		return toMicros(stages[Stage.EXECUTE.ordinal()].snapshot().getMean());
+	}
+
+	@Override
+	public double getMeanPostExecuteMicros() {
+		return toMicros(stages[Stage.POST_EXECUTE.ordinal()].snapshot().getMean());
+	}
+
+	@Override
+	public long getP99ExecuteMicros() {
+		return toMicros(stages[Stage.EXECUTE.ordinal()].snapshot().getPercentile(99));
+	}
+
+	private static long toMicros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+
+	private static double toMicros(double nanos) {
+		return nanos / 1000d;
+	}
+
+}
@@ -0,0 +1,50 @@
+package es.weso.acota.core.business.enhancer.metrics;
+
+/**
+ * JMX management interface of {@link EnhancerMetrics}, latencies are 
+ * expressed in microseconds
+ * 
+ * @author César Luis Alvargonzález
+ */
+public interface EnhancerMetricsMBean {
+
+	String getEnhancer();
+
+	String getLanguage();
+
+	long getRequests();
+
+	long getErrors();
+
+	long getTagsAdded();
+
+	long getTagsRemoved();
+
+	long getTextLength();
+
+	double getMeanTextLength();
+
+	double getMeanMicros();
+
+	long getP50Micros();
+
+	long getP90Micros();
+
+	long getP99Micros();
+
+	long getMaxMicros();
+
+	double getMeanPreExecuteMicros();
+
+	double getMeanExecuteMicros();
+
+	double getMeanPostExecuteMicros();
+
+	long getP99ExecuteMicros();
+
+	/**
+	 * Discards all the recorded values
+	 */
+	void reset();
+
+}
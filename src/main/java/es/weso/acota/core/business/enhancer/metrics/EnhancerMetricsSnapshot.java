@@ -0,0 +1,79 @@
+package es.weso.acota.core.business.enhancer.metrics;
+
+/**
+ * Immutable snapshot of the {@link EnhancerMetrics} of an enhancer for 
+ * a language, latencies are expressed in nanoseconds
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class EnhancerMetricsSnapshot {
+
+	protected final String enhancer;
+	protected final String language;
+	protected final HistogramSnapshot[] stages;
+	protected final HistogramSnapshot textLength;
+	protected final long errors;
+	protected final long tagsAdded;
+	protected final long tagsRemoved;
+
+	/**
+	 * Seven-argument constructor
+	 * @param enhancer Name of the enhancer
+	 * @param language Language of the processed requests
+	 * @param stages Latency histograms, indexed by {@link Stage#ordinal()}
+	 * @param textLength Histogram of the length of the processed texts
+	 * @param errors Number of failed requests
+	 * @param tagsAdded Number of tags added
+	 * @param tagsRemoved Number of tags removed
+	 */
+	public EnhancerMetricsSnapshot(String enhancer, String language, HistogramSnapshot[] stages,
+			HistogramSnapshot textLength, long errors, long tagsAdded, long tagsRemoved) {
+		this.enhancer = enhancer;
+		this.language = language;
+		this.stages = stages;
+		this.textLength = textLength;
+		this.errors = errors;
+		this.tagsAdded = tagsAdded;
+		this.tagsRemoved = tagsRemoved;
+	}
+
+	public String getEnhancer() {
+		return enhancer;
+	}
+
+	public String getLanguage() {
+		return language;
+	}
+
+	public HistogramSnapshot getLatency(Stage stage) {
+		return stages[stage.ordinal()];
+	}
+
+	public HistogramSnapshot getTextLength() {
+		return textLength;
+	}
+
+	public long getRequests() {
+		return stages[Stage.TOTAL.ordinal()].getCount();
+	}
+
+	public long getErrors() {
+		return errors;
+	}
+
+	public long getTagsAdded() {
+		return tagsAdded;
+	}
+
+	public long getTagsRemoved() {
+		return tagsRemoved;
+	}
+
+	@Override
+	public String toString() {
+		return enhancer + "[" + language + "]: requests=" + getRequests() + ", errors=" + errors
+				+ ", tagsAdded=" + tagsAdded + ", tagsRemoved=" + tagsRemoved 
+				+ ", latency={" + stages[Stage.TOTAL.ordinal()] + "}";
+	}
+
+}
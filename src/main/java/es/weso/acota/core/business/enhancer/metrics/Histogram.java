@@ -0,0 +1,94 @@
+package es.weso.acota.core.business.enhancer.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of non-negative long values, such as latencies in 
+ * nanoseconds or text lengths. Values are counted in log-linear buckets, 
+ * each power of two is split in {@value #SUB_BUCKETS} buckets, so any
+ * percentile is reported with an error below 12.5%, using a fixed amount
+ * of memory and a few atomic increments per value.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class Histogram {
+
+	protected static final int SUB_BUCKET_BITS = 3;
+	protected static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	protected static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	protected final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	protected final AtomicLong count = new AtomicLong();
+	protected final AtomicLong sum = new AtomicLong();
+	protected final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a value, negative values are recorded as 0
+	 * @param value Value to record
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		buckets.incrementAndGet(bucketOf(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+		long current;
+		while (value > (current = max.get()) && !max.compareAndSet(current, value));
+	}
+
+	/**
+	 * Takes a snapshot of the recorded values, values recorded concurrently
+	 * could be partially reflected
+	 * @return The snapshot of the histogram
+	 */
+	public HistogramSnapshot snapshot() {
+		long[] counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets.get(i);
+		}
+		return new HistogramSnapshot(counts, count.get(), sum.get(), max.get());
+	}
+
+	/**
+	 * Discards all the recorded values
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0);
+		}
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	/**
+	 * Calculates the bucket of a value
+	 * @param value Non-negative value
+	 * @return Index of the bucket
+	 */
+	protected static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return ((shift + 1) << SUB_BUCKET_BITS) | (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * Calculates the highest value counted by a bucket
+	 * @param bucket Index of the bucket
+	 * @return The highest value of the bucket
+	 */
+	protected static long highestValueOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+		long lowest = (long) (SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1))) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+}
@@ -0,0 +1,76 @@
+package es.weso.acota.core.business.enhancer.metrics;
+
+/**
+ * Immutable snapshot of a {@link Histogram}
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class HistogramSnapshot {
+
+	protected final long[] buckets;
+	protected final long count;
+	protected final long sum;
+	protected final long max;
+
+	/**
+	 * Four-argument constructor
+	 * @param buckets Number of values of each bucket
+	 * @param count Number of recorded values
+	 * @param sum Sum of the recorded values
+	 * @param max Maximum recorded value
+	 */
+	public HistogramSnapshot(long[] buckets, long count, long sum, long max) {
+		this.buckets = buckets;
+		this.count = count;
+		this.sum = sum;
+		this.max = max;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getSum() {
+		return sum;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return count == 0 ? 0d : (double) sum / count;
+	}
+
+	/**
+	 * Calculates a percentile of the recorded values
+	 * @param percentile Percentile, between 0 and 100
+	 * @return The highest value of the bucket that contains the percentile,
+	 * bounded by the maximum recorded value, 0 if there are not values
+	 */
+	public long getPercentile(double percentile) {
+		long total = 0;
+		for (long bucket : buckets) {
+			total += bucket;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0d), 100d) / 100d);
+		long seen = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			seen += buckets[i];
+			if (seen >= rank && seen > 0) {
+				return Math.min(Histogram.highestValueOf(i), max);
+			}
+		}
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + count + ", mean=" + getMean() + ", p50=" + getPercentile(50) 
+				+ ", p99=" + getPercentile(99) + ", max=" + max;
+	}
+
+}
@@ -0,0 +1,155 @@
+package es.weso.acota.core.business.enhancer.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.Configurable;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.lang.LanguageDetector;
+
+/**
+ * MetricsRegistry keeps the {@link EnhancerMetrics} of each enhancer and language
+ * of the process. Each {@link EnhancerMetrics} is registered, when it is created,
+ * as a JMX MBean named <code>es.weso.acota:type=Enhancer,enhancer=&lt;enhancer&gt;,
+ * language=&lt;language&gt;</code>, and all of them could be read through 
+ * {@link #snapshot()}.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class MetricsRegistry implements Configurable {
+
+	public static final String DOMAIN = "es.weso.acota";
+
+	protected static Logger logger = Logger.getLogger(MetricsRegistry.class);
+	private static MetricsRegistry METRICS_REGISTRY;
+
+	protected final ConcurrentMap<String, ConcurrentMap<String, EnhancerMetrics>> metrics;
+
+	protected volatile boolean metricsEnabled;
+	protected volatile boolean metricsJmx;
+
+	/**
+	 * Default Constructor
+	 * @param configuration acota-core's configuration class
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
+	 * a Configuration object
+	 */
+	protected MetricsRegistry(CoreConfiguration configuration) throws AcotaConfigurationException {
+		this.metrics = new ConcurrentHashMap<String, ConcurrentMap<String, EnhancerMetrics>>();
+		loadConfiguration(configuration);
+	}
+
+	/**
+	 * Gets an instance of {@link MetricsRegistry}, 
+	 * in the case it does not exists, it will create one,
+	 * @param configuration acota-core's configuration class
+	 * @return The {@link MetricsRegistry}'s instance
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
+	 * a Configuration object
+	 */
+	public static synchronized MetricsRegistry getInstance(CoreConfiguration configuration) throws AcotaConfigurationException {
+		if (METRICS_REGISTRY == null) {
+			MetricsRegistry.METRICS_REGISTRY = new MetricsRegistry(configuration);
+		}
+		return METRICS_REGISTRY;
+	}
+
+	@Override
+	public void loadConfiguration(CoreConfiguration configuration) throws AcotaConfigurationException {
+		if (configuration == null)
+			configuration = new CoreConfiguration();
+		this.metricsEnabled = configuration.isMetricsEnabled();
+		this.metricsJmx = configuration.isMetricsJmx();
+	}
+
+	public boolean isEnabled() {
+		return metricsEnabled;
+	}
+
+	/**
+	 * Gets the {@link EnhancerMetrics} of an enhancer for a language,
+	 * in the case it does not exists, it will create one,
+	 * @param enhancer Name of the enhancer
+	 * @param language Language of the request, null if it is unknown
+	 * @return The {@link EnhancerMetrics}
+	 */
+	public EnhancerMetrics getMetrics(String enhancer, String language) {
+		if (language == null) {
+			language = LanguageDetector.ISO_639_UNDEFINED;
+		}
+		ConcurrentMap<String, EnhancerMetrics> languages = metrics.get(enhancer);
+		if (languages == null) {
+			ConcurrentMap<String, EnhancerMetrics> created = new ConcurrentHashMap<String, EnhancerMetrics>();
+			languages = metrics.putIfAbsent(enhancer, created);
+			if (languages == null) {
+				languages = created;
+			}
+		}
+		EnhancerMetrics enhancerMetrics = languages.get(language);
+		if (enhancerMetrics == null) {
+			EnhancerMetrics created = new EnhancerMetrics(enhancer, language);
+			enhancerMetrics = languages.putIfAbsent(language, created);
+			if (enhancerMetrics == null) {
+				enhancerMetrics = created;
+				register(created);
+			}
+		}
+		return enhancerMetrics;
+	}
+
+	/**
+	 * Takes a snapshot of the metrics of all the enhancers and languages
+	 * @return The snapshots of the metrics
+	 */
+	public List<EnhancerMetricsSnapshot> snapshot() {
+		List<EnhancerMetricsSnapshot> snapshots = new ArrayList<EnhancerMetricsSnapshot>();
+		for (ConcurrentMap<String, EnhancerMetrics> languages : metrics.values()) {
+			for (EnhancerMetrics enhancerMetrics : languages.values()) {
+				snapshots.add(enhancerMetrics.snapshot());
+			}
+		}
+		return snapshots;
+	}
+
+	/**
+	 * Discards the values recorded by all the enhancers
+	 */
+	public void reset() {
+		for (ConcurrentMap<String, EnhancerMetrics> languages : metrics.values()) {
+			for (EnhancerMetrics enhancerMetrics : languages.values()) {
+				enhancerMetrics.reset();
+			}
+		}
+	}
+
+	/**
+	 * Registers the metrics in the platform's MBean server
+	 * @param enhancerMetrics Metrics to register
+	 */
+	protected void register(EnhancerMetrics enhancerMetrics) {
+		if (!metricsJmx)
+			return;
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(DOMAIN + ":type=Enhancer,enhancer=" 
+					+ ObjectName.quote(enhancerMetrics.getEnhancer()) 
+					+ ",language=" + ObjectName.quote(enhancerMetrics.getLanguage()));
+			if (!server.isRegistered(name)) {
+				server.registerMBean(enhancerMetrics, name);
+			}
+		} catch (JMException e) {
+			logger.warn("Unable to register the metrics of " + enhancerMetrics.getEnhancer(), e);
+		}
+	}
+
+}
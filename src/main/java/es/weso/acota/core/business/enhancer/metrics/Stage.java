@@ -0,0 +1,11 @@
+package es.weso.acota.core.business.enhancer.metrics;
+
+/**
+ * Stages of the enhancement lifecycle of a request, {@link #TOTAL} covers 
+ * the whole lifecycle.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public enum Stage {
+	PRE_EXECUTE, EXECUTE, POST_EXECUTE, TOTAL
+}
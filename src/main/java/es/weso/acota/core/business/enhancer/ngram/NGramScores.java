@@ -0,0 +1,333 @@
+package es.weso.acota.core.business.enhancer.ngram;
+
+import java.util.Arrays;
+
+/**
+ * NGramScores accumulates the relevance of the n-grams of a text. It is an
+ * open-addressing table whose keys are sequences of token ids of a
+ * {@link TokenDictionary}, stored in a single int pool, and whose values are
+ * kept in a double[], so adding an n-gram neither boxes its score nor creates
+ * any object. N-grams of one or two tokens are also packed into a long key, so
+ * they are compared with a single comparison. Entries are kept in insertion order
+ * and are iterated by index, without allocating. After {@link #clear()} the table
+ * can be reused, keeping the allocated memory.
+ *
+ * @author César Luis Alvargonzález
+ */
+public class NGramScores {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	protected int[] pool;
+	protected int poolSize;
+
+	protected int[] slots;
+	protected int[] offsets;
+	protected int[] lengths;
+	protected int[] hashes;
+	protected long[] keys;
+	protected double[] values;
+	protected int[] counts;
+	protected int size;
+
+	/**
+	 * Zero-argument default constructor
+	 */
+	public NGramScores() {
+		this.pool = new int[INITIAL_CAPACITY * 2];
+		this.slots = new int[INITIAL_CAPACITY * 2];
+		this.offsets = new int[INITIAL_CAPACITY];
+		this.lengths = new int[INITIAL_CAPACITY];
+		this.hashes = new int[INITIAL_CAPACITY];
+		this.keys = new long[INITIAL_CAPACITY];
+		this.values = new double[INITIAL_CAPACITY];
+		this.counts = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Discards all the n-grams, keeping the allocated memory
+	 */
+	public void clear() {
+		this.poolSize = 0;
+		Arrays.fill(slots, 0);
+		this.size = 0;
+	}
+
+	/**
+	 * Adds a value to the score of a n-gram, adding the n-gram if it does not exist
+	 * @param ids Array that contains the token ids of the n-gram
+	 * @param from First position (inclusive) of the n-gram
+	 * @param to Last position (exclusive) of the n-gram
+	 * @param value Value to add
+	 * @return Index of the n-gram
+	 */
+	public int add(int[] ids, int from, int to, double value) {
+		return add(ids, from, to, value, 1);
+	}
+
+	/**
+	 * Adds a value to the score of a n-gram, adding the n-gram if it does not exist,
+	 * and counts the occurrences of the n-gram
+	 * @param ids Array that contains the token ids of the n-gram
+	 * @param from First position (inclusive) of the n-gram
+	 * @param to Last position (exclusive) of the n-gram
+	 * @param value Value to add
+	 * @param occurrences Number of occurrences of the n-gram in the text
+	 * @return Index of the n-gram
+	 */
+	public int add(int[] ids, int from, int to, double value, int occurrences) {
+		int length = to - from;
+		long key = pack(ids, from, to);
+		int hash;
+		if (key != 0) {
+			hash = (int) (key ^ (key >>> 32));
+		} else {
+			hash = 0;
+			for (int i = from; i < to; i++) {
+				hash = 31 * hash + ids[i];
+			}
+		}
+		int mask = slots.length - 1;
+		int slot = mix(hash) & mask;
+		int entry;
+		while ((entry = slots[slot]) != 0) {
+			int index = entry - 1;
+			if (hashes[index] == hash && keys[index] == key && lengths[index] == length
+					&& (key != 0 || sameNGram(index, ids, from, to))) {
+				values[index] += value;
+				counts[index] += occurrences;
+				return index;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (size == offsets.length) {
+			grow();
+			return add(ids, from, to, value, occurrences);
+		}
+		if (poolSize + length > pool.length) {
+			this.pool = Arrays.copyOf(pool, Math.max(poolSize + length, pool.length * 2));
+		}
+		System.arraycopy(ids, from, pool, poolSize, length);
+		offsets[size] = poolSize;
+		lengths[size] = length;
+		hashes[size] = hash;
+		keys[size] = key;
+		values[size] = value;
+		counts[size] = occurrences;
+		poolSize += length;
+		slots[slot] = ++size;
+		return size - 1;
+	}
+
+	/**
+	 * Number of unique n-grams
+	 * @return The number of unique n-grams
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the accumulated score of a n-gram
+	 * @param index Index of the n-gram
+	 * @return Sum of the values added to the n-gram
+	 */
+	public double getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Returns the number of occurrences of a n-gram
+	 * @param index Index of the n-gram
+	 * @return Number of occurrences added to the n-gram
+	 */
+	public int getCount(int index) {
+		return counts[index];
+	}
+
+	/**
+	 * Returns the number of tokens of a n-gram
+	 * @param index Index of the n-gram
+	 * @return Number of tokens
+	 */
+	public int getLength(int index) {
+		return lengths[index];
+	}
+
+	/**
+	 * Selects the n-grams that reach a minimum count and a minimum score, keeping
+	 * only the ones with the highest scores when there are more than a limit. The
+	 * selection uses a bounded heap, so it takes O(n log limit) time
+	 * @param minCount Minimum number of occurrences
+	 * @param minValue Minimum accumulated score
+	 * @param limit Maximum number of n-grams to select, 0 or less means no limit
+	 * @return The indexes of the selected n-grams, in insertion order
+	 */
+	public int[] select(int minCount, double minValue, int limit) {
+		int capacity = limit > 0 && limit < size ? limit : size;
+		int[] heap = new int[capacity];
+		int heapSize = 0;
+		for (int index = 0; index < size; index++) {
+			if (counts[index] < minCount || values[index] < minValue)
+				continue;
+			if (heapSize < capacity) {
+				heap[heapSize] = index;
+				siftUp(heap, heapSize++);
+			} else if (lower(heap[0], index)) {
+				heap[0] = index;
+				siftDown(heap, heapSize);
+			}
+		}
+		int[] selected = Arrays.copyOf(heap, heapSize);
+		Arrays.sort(selected);
+		return selected;
+	}
+
+	/**
+	 * Checks whether a n-gram ranks below other, n-grams with the same score 
+	 * are ranked by insertion order
+	 * @param index Index of the n-gram
+	 * @param other Index of the other n-gram
+	 * @return true if the n-gram ranks below the other
+	 */
+	protected boolean lower(int index, int other) {
+		return values[index] < values[other] 
+				|| (values[index] == values[other] && index > other);
+	}
+
+	private void siftUp(int[] heap, int position) {
+		int index = heap[position];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (!lower(index, heap[parent]))
+				break;
+			heap[position] = heap[parent];
+			position = parent;
+		}
+		heap[position] = index;
+	}
+
+	private void siftDown(int[] heap, int heapSize) {
+		int index = heap[0];
+		int position = 0;
+		int child;
+		while ((child = 2 * position + 1) < heapSize) {
+			if (child + 1 < heapSize && lower(heap[child + 1], heap[child]))
+				child++;
+			if (!lower(heap[child], index))
+				break;
+			heap[position] = heap[child];
+			position = child;
+		}
+		heap[position] = index;
+	}
+
+	/**
+	 * Returns the id of a token of a n-gram
+	 * @param index Index of the n-gram
+	 * @param position Position of the token in the n-gram
+	 * @return Id of the token
+	 */
+	public int getTokenId(int index, int position) {
+		return pool[offsets[index] + position];
+	}
+
+	/**
+	 * Returns the label of a n-gram, its tokens separated by spaces
+	 * @param index Index of the n-gram
+	 * @param dictionary Dictionary of the token ids
+	 * @return The label of the n-gram
+	 */
+	public String getLabel(int index, TokenDictionary dictionary) {
+		int offset = offsets[index];
+		int length = lengths[index];
+		if (length == 1)
+			return dictionary.getToken(pool[offset]);
+		StringBuilder label = new StringBuilder(dictionary.getToken(pool[offset]));
+		for (int i = offset + 1; i < offset + length; i++) {
+			label.append(' ').append(dictionary.getToken(pool[i]));
+		}
+		return label.toString();
+	}
+
+	/**
+	 * Appends the label of a n-gram, its tokens separated by spaces, to a builder
+	 * @param index Index of the n-gram
+	 * @param dictionary Dictionary of the token ids
+	 * @param label Builder where the label is appended
+	 * @return The builder
+	 */
+	public StringBuilder appendLabel(int index, TokenDictionary dictionary, StringBuilder label) {
+		int offset = offsets[index];
+		for (int i = offset; i < offset + lengths[index]; i++) {
+			if (i > offset)
+				label.append(' ');
+			label.append(dictionary.getToken(pool[i]));
+		}
+		return label;
+	}
+
+	/**
+	 * Compares a stored n-gram with an id sequence of the same length
+	 * @param index Index of the stored n-gram
+	 * @param ids Array that contains the id sequence
+	 * @param from First position (inclusive) of the sequence
+	 * @param to Last position (exclusive) of the sequence
+	 * @return true if both have the same ids
+	 */
+	protected boolean sameNGram(int index, int[] ids, int from, int to) {
+		int offset = offsets[index];
+		for (int i = from; i < to; i++) {
+			if (pool[offset++] != ids[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Packs the ids of a n-gram of one or two tokens into a long, each
+	 * id is stored plus one, so the packed key is never 0
+	 * @param ids Array that contains the id sequence
+	 * @param from First position (inclusive) of the sequence
+	 * @param to Last position (exclusive) of the sequence
+	 * @return The packed key, 0 if the n-gram has more than two tokens
+	 */
+	protected static long pack(int[] ids, int from, int to) {
+		switch (to - from) {
+		case 1:
+			return ids[from] + 1L;
+		case 2:
+			return ((ids[from] + 1L) << 32) | (ids[from + 1] + 1L);
+		default:
+			return 0L;
+		}
+	}
+
+	/**
+	 * Doubles the capacity of the table
+	 */
+	protected void grow() {
+		int capacity = offsets.length * 2;
+		this.offsets = Arrays.copyOf(offsets, capacity);
+		this.lengths = Arrays.copyOf(lengths, capacity);
+		this.hashes = Arrays.copyOf(hashes, capacity);
+		this.keys = Arrays.copyOf(keys, capacity);
+		this.values = Arrays.copyOf(values, capacity);
+		this.counts = Arrays.copyOf(counts, capacity);
+		this.slots = new int[capacity * 2];
+		int mask = slots.length - 1;
+		for (int index = 0; index < size; index++) {
+			int slot = mix(hashes[index]) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = index + 1;
+		}
+	}
+
+	private static int mix(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+}
@@ -0,0 +1,398 @@
+package es.weso.acota.core.business.enhancer.ngram;
+
+import java.util.Arrays;
+
+import es.weso.acota.core.business.enhancer.analyzer.tokenizer.TokenizerAnalyzer;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+/**
+ * NGramSpans enumerates the n-grams, up to k tokens, of the sentences of a text
+ * and keeps the unique ones, counting their occurrences in the text. Each n-gram is a (sentence, start, end) span over
+ * the token array of its sentence, cleaned by dropping the tokens that match the
+ * tokenizer's pattern and the short (2 or less characters) tokens of its edges.
+ * Each token is classified once, when its sentence is added, into a bitset of
+ * flags: kept as inner token and kept as edge token, so cleaning is reduced to bit
+ * tests. Kept tokens are interned into a {@link TokenDictionary}, so cleaned n-grams
+ * are hashed incrementally, as the span grows, and compared as sequences of int ids.
+ * They are stored in an open-addressing table of int arrays, so only the unique spans
+ * take memory and no String[] is created until {@link #getTokens(int)} is called.
+ * An occurrence is a distinct (sentence, first kept token, last kept token) position,
+ * so the spans that only differ in their dropped edges count as a single occurrence.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class NGramSpans {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	protected final int k;
+
+	protected String[][] sentences;
+	protected int[] sentenceOffsets;
+	protected int sentenceCount;
+	protected long[] flags;
+	protected int[] tokenIds;
+	protected int tokenCount;
+
+	protected int[] slots;
+	protected int[] spanSentence;
+	protected int[] spanStart;
+	protected int[] spanEnd;
+	protected int[] spanHash;
+	protected int[] spanOccurrences;
+	protected int[] lastSentence;
+	protected int[] lastFirst;
+	protected int[] lastEnd;
+	protected int size;
+
+	protected TokenizerAnalyzer analyzer;
+	protected TokenDictionary dictionary;
+
+	/**
+	 * One-argument constructor
+	 * @param k Maximum number of tokens of the n-grams
+	 */
+	public NGramSpans(int k) {
+		this.k = k;
+		this.sentences = new String[8][];
+		this.sentenceOffsets = new int[8];
+		this.flags = new long[4];
+		this.tokenIds = new int[INITIAL_CAPACITY];
+		this.slots = new int[INITIAL_CAPACITY * 2];
+		this.spanSentence = new int[INITIAL_CAPACITY];
+		this.spanStart = new int[INITIAL_CAPACITY];
+		this.spanEnd = new int[INITIAL_CAPACITY];
+		this.spanHash = new int[INITIAL_CAPACITY];
+		this.spanOccurrences = new int[INITIAL_CAPACITY];
+		this.lastSentence = new int[INITIAL_CAPACITY];
+		this.lastFirst = new int[INITIAL_CAPACITY];
+		this.lastEnd = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Discards all the sentences and n-grams, keeping the allocated memory
+	 * @param analyzer Analyzer of the language of the next text
+	 * @param dictionary Dictionary where the kept tokens are interned
+	 */
+	public void clear(TokenizerAnalyzer analyzer, TokenDictionary dictionary) {
+		this.analyzer = analyzer;
+		this.dictionary = dictionary;
+		Arrays.fill(sentences, 0, sentenceCount, null);
+		this.sentenceCount = 0;
+		Arrays.fill(flags, 0, wordOf(2 * tokenCount) + 1, 0L);
+		this.tokenCount = 0;
+		Arrays.fill(slots, 0);
+		this.size = 0;
+	}
+
+	/**
+	 * Enumerates the n-grams of a sentence, keeping the unique ones
+	 * @param tokens Tokens of the sentence
+	 * @throws AcotaConfigurationException Any exception that occurs 
+	 */
+	public void addSentence(String[] tokens) throws AcotaConfigurationException {
+		if (sentenceCount == sentences.length) {
+			this.sentences = Arrays.copyOf(sentences, sentenceCount * 2);
+			this.sentenceOffsets = Arrays.copyOf(sentenceOffsets, sentenceCount * 2);
+		}
+		int sentence = sentenceCount++;
+		sentences[sentence] = tokens;
+		int offset = tokenCount;
+		sentenceOffsets[sentence] = offset;
+		classify(tokens);
+
+		for (int start = 0; start < tokens.length; start++) {
+			int limit = Math.min(start + k, tokens.length);
+			int prefixHash = 0;
+			int prefixCount = 0;
+			int prefixFirst = -1;
+			int prefixLast = -1;
+			for (int end = start; end < limit; end++) {
+				int hash = prefixHash;
+				int count = prefixCount;
+				int first = prefixFirst;
+				int last = prefixLast;
+				if (end == start) {
+					if (isIncluded(sentence, end, true)) {
+						hash = tokenIds[offset + end];
+						count = 1;
+						first = end;
+						last = end;
+					}
+					prefixHash = hash;
+					prefixCount = count;
+					prefixFirst = first;
+					prefixLast = last;
+				} else {
+					if (isIncluded(sentence, end, true)) {
+						hash = 31 * hash + tokenIds[offset + end];
+						count++;
+						if (first < 0)
+							first = end;
+						last = end;
+					}
+					if (isIncluded(sentence, end, false)) {
+						prefixHash = 31 * prefixHash + tokenIds[offset + end];
+						prefixCount++;
+						if (prefixFirst < 0)
+							prefixFirst = end;
+						prefixLast = end;
+					}
+				}
+				if (count > 0) {
+					add(sentence, start, end, hash, first, last);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Maximum number of tokens of the n-grams
+	 * @return k
+	 */
+	public int getK() {
+		return k;
+	}
+
+	/**
+	 * Number of unique n-grams
+	 * @return The number of unique n-grams
+	 */
+	public int size() {
+		return size;
+	}
+
+	public int getSentence(int span) {
+		return spanSentence[span];
+	}
+
+	public int getStart(int span) {
+		return spanStart[span];
+	}
+
+	public int getEnd(int span) {
+		return spanEnd[span];
+	}
+
+	/**
+	 * Returns the number of occurrences of a n-gram
+	 * @param span Index of the n-gram
+	 * @return Number of distinct positions of the sentences where the
+	 * cleaned n-gram appears
+	 */
+	public int getOccurrences(int span) {
+		return spanOccurrences[span];
+	}
+
+	/**
+	 * Returns the id of a token
+	 * @param sentence Index of the sentence
+	 * @param position Position of the token
+	 * @return Id of the token in the {@link TokenDictionary}, -1 if the token is 
+	 * never kept
+	 */
+	public int getTokenId(int sentence, int position) {
+		return tokenIds[sentenceOffsets[sentence] + position];
+	}
+
+	/**
+	 * Returns the positions, in its sentence, of the tokens of a cleaned n-gram
+	 * @param span Index of the n-gram
+	 * @return The positions of the tokens
+	 */
+	public int[] getPositions(int span) {
+		int[] positions = new int[spanEnd[span] - spanStart[span] + 1];
+		return Arrays.copyOf(positions, getPositions(span, positions));
+	}
+
+	/**
+	 * Copies the positions, in its sentence, of the tokens of a cleaned n-gram
+	 * into a buffer, without allocating
+	 * @param span Index of the n-gram
+	 * @param positions Buffer of at least k positions
+	 * @return The number of tokens
+	 */
+	public int getPositions(int span, int[] positions) {
+		int sentence = spanSentence[span];
+		int start = spanStart[span];
+		int end = spanEnd[span];
+		int count = 0;
+		for (int i = start; i <= end; i++) {
+			if (isIncluded(sentence, i, i == start || i == end))
+				positions[count++] = i;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the tokens of a cleaned n-gram
+	 * @param span Index of the n-gram
+	 * @return The tokens of the n-gram
+	 */
+	public String[] getTokens(int span) {
+		String[] tokens = sentences[spanSentence[span]];
+		int[] positions = getPositions(span);
+		String[] ngram = new String[positions.length];
+		for (int i = 0; i < positions.length; i++) {
+			ngram[i] = tokens[positions[i]];
+		}
+		return ngram;
+	}
+
+	/**
+	 * Classifies the tokens of a sentence, tokens that match the tokenizer's pattern
+	 * are dropped, and also the tokens of the edges of 2 or less characters. The kept
+	 * tokens are interned
+	 * @param tokens Tokens of the sentence
+	 * @throws AcotaConfigurationException Any exception that occurs 
+	 */
+	protected void classify(String[] tokens) throws AcotaConfigurationException {
+		int required = wordOf(2 * (tokenCount + tokens.length)) + 1;
+		if (required > flags.length) {
+			this.flags = Arrays.copyOf(flags, Math.max(required, flags.length * 2));
+		}
+		if (tokenCount + tokens.length > tokenIds.length) {
+			this.tokenIds = Arrays.copyOf(tokenIds, Math.max(tokenCount + tokens.length, tokenIds.length * 2));
+		}
+		for (String token : tokens) {
+			if (!analyzer.match(token)) {
+				int bit = 2 * tokenCount;
+				flags[wordOf(bit)] |= 1L << bit;
+				if (token.length() > 2)
+					flags[wordOf(bit + 1)] |= 1L << (bit + 1);
+				tokenIds[tokenCount] = dictionary.intern(token);
+			} else {
+				tokenIds[tokenCount] = -1;
+			}
+			tokenCount++;
+		}
+	}
+
+	/**
+	 * Checks whether a token is kept in a cleaned n-gram
+	 * @param sentence Index of the sentence
+	 * @param position Position of the token
+	 * @param edge true if the token is an edge of the n-gram
+	 * @return true if the token is kept
+	 */
+	protected boolean isIncluded(int sentence, int position, boolean edge) {
+		int bit = 2 * (sentenceOffsets[sentence] + position) + (edge ? 1 : 0);
+		return (flags[wordOf(bit)] & (1L << bit)) != 0;
+	}
+
+	private static int wordOf(int bit) {
+		return bit >>> 6;
+	}
+
+	/**
+	 * Adds a span, unless an equal cleaned n-gram already exists, in which case
+	 * a new occurrence is counted if the kept tokens are at other positions
+	 * @param sentence Index of the sentence
+	 * @param start First position of the span
+	 * @param end Last position of the span
+	 * @param hash Hash of the cleaned n-gram
+	 * @param first Position of the first kept token
+	 * @param last Position of the last kept token
+	 */
+	protected void add(int sentence, int start, int end, int hash, int first, int last) {
+		int mask = slots.length - 1;
+		int slot = mix(hash) & mask;
+		int entry;
+		while ((entry = slots[slot]) != 0) {
+			int span = entry - 1;
+			if (spanHash[span] == hash && sameNGram(span, sentence, start, end)) {
+				if (lastSentence[span] != sentence || lastFirst[span] != first || lastEnd[span] != last) {
+					spanOccurrences[span]++;
+					lastSentence[span] = sentence;
+					lastFirst[span] = first;
+					lastEnd[span] = last;
+				}
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (size == spanStart.length) {
+			grow();
+			add(sentence, start, end, hash, first, last);
+			return;
+		}
+		spanSentence[size] = sentence;
+		spanStart[size] = start;
+		spanEnd[size] = end;
+		spanHash[size] = hash;
+		spanOccurrences[size] = 1;
+		lastSentence[size] = sentence;
+		lastFirst[size] = first;
+		lastEnd[size] = last;
+		slots[slot] = ++size;
+	}
+
+	/**
+	 * Compares the cleaned n-gram of a stored span with the cleaned n-gram of other span
+	 * @param span Index of the stored span
+	 * @param sentence Index of the sentence of the other span
+	 * @param start First position of the other span
+	 * @param end Last position of the other span
+	 * @return true if both cleaned n-grams have the same tokens
+	 */
+	protected boolean sameNGram(int span, int sentence, int start, int end) {
+		int stored = spanSentence[span];
+		int storedOffset = sentenceOffsets[stored];
+		int i = next(stored, spanStart[span], spanEnd[span], spanStart[span]);
+		int otherOffset = sentenceOffsets[sentence];
+		int j = next(sentence, start, end, start);
+		while (i >= 0 && j >= 0) {
+			if (tokenIds[storedOffset + i] != tokenIds[otherOffset + j])
+				return false;
+			i = next(stored, spanStart[span], spanEnd[span], i + 1);
+			j = next(sentence, start, end, j + 1);
+		}
+		return i < 0 && j < 0;
+	}
+
+	/**
+	 * Finds the next token kept in a cleaned n-gram
+	 * @param sentence Index of the sentence
+	 * @param start First position of the span
+	 * @param end Last position of the span
+	 * @param from Position to start the search
+	 * @return The position of the next kept token, -1 if there are no more
+	 */
+	protected int next(int sentence, int start, int end, int from) {
+		for (int i = from; i <= end; i++) {
+			if (isIncluded(sentence, i, i == start || i == end))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Doubles the capacity of the table
+	 */
+	protected void grow() {
+		int capacity = spanStart.length * 2;
+		this.spanSentence = Arrays.copyOf(spanSentence, capacity);
+		this.spanStart = Arrays.copyOf(spanStart, capacity);
+		this.spanEnd = Arrays.copyOf(spanEnd, capacity);
+		this.spanHash = Arrays.copyOf(spanHash, capacity);
+		this.spanOccurrences = Arrays.copyOf(spanOccurrences, capacity);
+		this.lastSentence = Arrays.copyOf(lastSentence, capacity);
+		this.lastFirst = Arrays.copyOf(lastFirst, capacity);
+		this.lastEnd = Arrays.copyOf(lastEnd, capacity);
+		this.slots = new int[capacity * 2];
+		int mask = slots.length - 1;
+		for (int span = 0; span < size; span++) {
+			int slot = mix(spanHash[span]) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = span + 1;
+		}
+	}
+
+	private static int mix(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+}
@@ -0,0 +1,95 @@
+package es.weso.acota.core.business.enhancer.ngram;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+
+/**
+ * ShingleExtractor generates the multi-word candidates of a text in a single pass
+ * over a Lucene {@link TokenStream}, so the tokens are already lower cased and
+ * cleaned by the stop and length filters of the analyzer. Each token closes the 
+ * shingles, up to k tokens, that end on it, which are accumulated into a 
+ * {@link NGramScores}. Shingles do not span the holes left by the tokens removed
+ * by the filters, nor the punctuation that separates sentences and clauses.
+ *
+ * @author César Luis Alvargonzález
+ */
+public class ShingleExtractor {
+
+	protected static final String BOUNDARIES = ".,;:!?¿¡()[]{}\"|";
+
+	protected final int k;
+
+	/**
+	 * One-argument constructor
+	 * @param k Maximum number of tokens of the shingles
+	 */
+	public ShingleExtractor(int k) {
+		this.k = k;
+	}
+
+	/**
+	 * Accumulates the shingles of a text
+	 * @param analyzer Lucene's analyzer of the language of the text
+	 * @param field FieldName (description, label)
+	 * @param text Text to extract the shingles
+	 * @param relevance Weight which is incremented each matched shingle
+	 * @param dictionary Dictionary where the tokens are interned
+	 * @param scores Accumulator of the scores of the shingles
+	 * @throws IOException Any exception that occurs while reading Lucene's TokenStream
+	 */
+	public void extract(Analyzer analyzer, String field, String text, double relevance,
+			TokenDictionary dictionary, NGramScores scores) throws IOException {
+		TokenStream stream = analyzer.reusableTokenStream(field, new StringReader(text));
+		CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+		PositionIncrementAttribute increment = stream.addAttribute(PositionIncrementAttribute.class);
+		OffsetAttribute offset = stream.addAttribute(OffsetAttribute.class);
+		int[] window = new int[k];
+		int length = 0;
+		int lastEnd = 0;
+		try {
+			stream.reset();
+			while (stream.incrementToken()) {
+				if (increment.getPositionIncrement() > 1 
+						|| isBoundary(text, lastEnd, offset.startOffset())) {
+					length = 0;
+				}
+				if (length == k) {
+					System.arraycopy(window, 1, window, 0, k - 1);
+					length--;
+				}
+				window[length++] = dictionary.intern(term.buffer(), 0, term.length());
+				for (int from = 0; from < length; from++) {
+					scores.add(window, from, length, relevance);
+				}
+				lastEnd = offset.endOffset();
+			}
+			stream.end();
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Checks whether the text between two tokens separates sentences or clauses, 
+	 * or contains a token removed by a filter that does not leave a position hole
+	 * @param text Analyzed text
+	 * @param from End offset of the previous token
+	 * @param to Start offset of the current token
+	 * @return true if there is a boundary punctuation or a removed token between the tokens
+	 */
+	protected boolean isBoundary(String text, int from, int to) {
+		for (int i = Math.max(from, 0); i < to && i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (Character.isLetterOrDigit(c) || BOUNDARIES.indexOf(c) >= 0)
+				return true;
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,143 @@
+package es.weso.acota.core.business.enhancer.ngram;
+
+import java.util.Arrays;
+
+/**
+ * TokenDictionary maps each distinct token of a request to a dense int id,
+ * starting at 0, so n-grams can be hashed and compared as int sequences
+ * instead of by the content of their Strings. It is an open-addressing table
+ * that, after {@link #clear()}, can be reused keeping the allocated memory.
+ *
+ * @author César Luis Alvargonzález
+ */
+public class TokenDictionary {
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	protected String[] tokens;
+	protected int[] hashes;
+	protected int[] slots;
+	protected int size;
+
+	/**
+	 * Zero-argument default constructor
+	 */
+	public TokenDictionary() {
+		this.tokens = new String[INITIAL_CAPACITY];
+		this.hashes = new int[INITIAL_CAPACITY];
+		this.slots = new int[INITIAL_CAPACITY * 2];
+	}
+
+	/**
+	 * Discards all the tokens, keeping the allocated memory
+	 */
+	public void clear() {
+		Arrays.fill(tokens, 0, size, null);
+		Arrays.fill(slots, 0);
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the id of a token, assigning a new one if the token is not
+	 * in the dictionary
+	 * @param token Token to intern
+	 * @return Id of the token
+	 */
+	public int intern(String token) {
+		int hash = token.hashCode();
+		int mask = slots.length - 1;
+		int slot = mix(hash) & mask;
+		int entry;
+		while ((entry = slots[slot]) != 0) {
+			int id = entry - 1;
+			if (hashes[id] == hash && tokens[id].equals(token))
+				return id;
+			slot = (slot + 1) & mask;
+		}
+		if (size == tokens.length) {
+			grow();
+			return intern(token);
+		}
+		tokens[size] = token;
+		hashes[size] = hash;
+		slots[slot] = ++size;
+		return size - 1;
+	}
+
+	/**
+	 * Returns the id of a token held in a char buffer, assigning a new one if the
+	 * token is not in the dictionary. The String of the token is only created 
+	 * when it is new
+	 * @param buffer Buffer that contains the token
+	 * @param offset Position of the first char of the token
+	 * @param length Number of chars of the token
+	 * @return Id of the token
+	 */
+	public int intern(char[] buffer, int offset, int length) {
+		int hash = 0;
+		for (int i = offset; i < offset + length; i++) {
+			hash = 31 * hash + buffer[i];
+		}
+		int mask = slots.length - 1;
+		int slot = mix(hash) & mask;
+		int entry;
+		while ((entry = slots[slot]) != 0) {
+			int id = entry - 1;
+			if (hashes[id] == hash && sameToken(tokens[id], buffer, offset, length))
+				return id;
+			slot = (slot + 1) & mask;
+		}
+		return intern(new String(buffer, offset, length));
+	}
+
+	/**
+	 * Returns the token of an id
+	 * @param id Id of the token
+	 * @return The token
+	 */
+	public String getToken(int id) {
+		return tokens[id];
+	}
+
+	/**
+	 * Number of distinct tokens
+	 * @return The number of distinct tokens
+	 */
+	public int size() {
+		return size;
+	}
+
+	private static boolean sameToken(String token, char[] buffer, int offset, int length) {
+		if (token.length() != length)
+			return false;
+		for (int i = 0; i < length; i++) {
+			if (token.charAt(i) != buffer[offset + i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Doubles the capacity of the table
+	 */
+	protected void grow() {
+		int capacity = tokens.length * 2;
+		this.tokens = Arrays.copyOf(tokens, capacity);
+		this.hashes = Arrays.copyOf(hashes, capacity);
+		this.slots = new int[capacity * 2];
+		int mask = slots.length - 1;
+		for (int id = 0; id < size; id++) {
+			int slot = mix(hashes[id]) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = id + 1;
+		}
+	}
+
+	private static int mix(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+}
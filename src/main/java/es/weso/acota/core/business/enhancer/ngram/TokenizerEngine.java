@@ -0,0 +1,38 @@
+package es.weso.acota.core.business.enhancer.ngram;
+
+/**
+ * Engines that the {@link es.weso.acota.core.business.enhancer.TokenizerEnhancer}
+ * can use to generate its multi-word candidates
+ *
+ * @author César Luis Alvargonzález
+ */
+public enum TokenizerEngine {
+
+	/**
+	 * Sentences are detected, tokenized and POS tagged with the maxent models of
+	 * OpenNLP, n-grams are cleaned and trimmed by their tags. Slower, better quality
+	 */
+	MAXENT,
+
+	/**
+	 * Shingles are emitted in a single pass over the Lucene's stop analyzer of the
+	 * language, no model is used. Cheaper, suited for high-volume ingestion
+	 */
+	SHINGLE;
+
+	/**
+	 * Parses the name of an engine, ignoring its case
+	 * @param name Name of the engine
+	 * @return The engine, or null if there is no engine with that name
+	 */
+	public static TokenizerEngine parse(String name) {
+		if (name == null)
+			return null;
+		for (TokenizerEngine engine : values()) {
+			if (engine.name().equalsIgnoreCase(name.trim()))
+				return engine;
+		}
+		return null;
+	}
+
+}
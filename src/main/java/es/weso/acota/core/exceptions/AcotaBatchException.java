@@ -0,0 +1,39 @@
+package es.weso.acota.core.exceptions;
+
+/**
+ * An exception that occurs while enhancing a batch of requests
+ * @author César Luis Alvargonzález
+ */
+public class AcotaBatchException extends Exception {
+
+	private static final long serialVersionUID = -2871459318447104227L;
+
+	/**
+	 * Constructs a new AcotaBatchException with the
+	 *  specified detail message and cause.
+	 * @param message the detail message
+	 * @param cause the cause
+	 */
+	public AcotaBatchException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+	/**
+	 * Constructs a new AcotaBatchException with 
+	 * the specified detail message.
+	 * @param message the detail message
+	 */
+	public AcotaBatchException(String message) {
+		super(message);
+	}
+
+	/**
+	 * Constructs a new AcotaBatchException with the 
+	 * specified cause
+	 * @param cause the cause
+	 */
+	public AcotaBatchException(Throwable cause) {
+		super(cause);
+	}
+
+}
@@ -0,0 +1,181 @@
+package es.weso.acota.core.utils.lang;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.Configurable;
+import es.weso.acota.core.business.enhancer.analyzer.document.RequestDocuments;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+/**
+ * CachedLanguageDetector memoizes the results of the {@link LanguageDetector}. The
+ * languages of the texts of a request are kept in its {@link RequestDocuments}, so
+ * the enhancers of a chain detect each text once, and the rest of the texts are kept
+ * in a bounded table shared by the process. The table is direct-mapped and keyed by a
+ * 64-bit hash of the text, it is read and written without locks and it does not keep
+ * the texts themselves. Optionally, the short labels derived from a text could inherit
+ * the language of that text, skipping the detection, which is not accurate on tiny
+ * strings anyway.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class CachedLanguageDetector implements Configurable {
+
+	private static CachedLanguageDetector CACHED_LANGUAGE_DETECTOR;
+
+	protected int languageCacheSize;
+	protected boolean languageInherit;
+	protected int languageInheritLength;
+
+	protected volatile LanguageEntry[] cache;
+	protected volatile LanguageDetector languageDetector;
+
+	/**
+	 * Default Constructor
+	 * @param configuration acota-core's configuration class
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
+	 * a Configuration object
+	 */
+	protected CachedLanguageDetector(CoreConfiguration configuration) throws AcotaConfigurationException {
+		loadConfiguration(configuration);
+	}
+
+	/**
+	 * Gets an instance of {@link CachedLanguageDetector}, 
+	 * in the case it does not exists, it will create one,
+	 * @param configuration acota-core's configuration class
+	 * @return The {@link CachedLanguageDetector}'s instance
+	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
+	 * a Configuration object
+	 */
+	public static synchronized CachedLanguageDetector getInstance(CoreConfiguration configuration) throws AcotaConfigurationException {
+		if (CACHED_LANGUAGE_DETECTOR == null) {
+			CachedLanguageDetector.CACHED_LANGUAGE_DETECTOR = new CachedLanguageDetector(configuration);
+		}
+		return CACHED_LANGUAGE_DETECTOR;
+	}
+
+	@Override
+	public synchronized void loadConfiguration(CoreConfiguration configuration) throws AcotaConfigurationException {
+		if (configuration == null)
+			configuration = new CoreConfiguration();
+		this.languageDetector = LanguageDetector.getInstance(configuration);
+		this.languageCacheSize = configuration.getLanguageCacheSize();
+		this.languageInherit = configuration.isLanguageInherit();
+		this.languageInheritLength = configuration.getLanguageInheritLength();
+		this.cache = createCache(languageCacheSize);
+	}
+
+	/**
+	 * Detects the language of a text
+	 * @param text Text to analyze
+	 * @return ISO 639 code of the language
+	 * @throws AcotaConfigurationException Any exception that occurs while detecting the language
+	 */
+	public String detect(String text) throws AcotaConfigurationException {
+		String language = getCachedLanguage(text);
+		if (language == null) {
+			language = languageDetector.detect(text);
+			putCachedLanguage(text, language);
+		}
+		return language;
+	}
+
+	/**
+	 * Detects the language of a text of a request, if it has already been detected
+	 * for the request, its language is returned
+	 * @param text Text to analyze
+	 * @param documents Documents of the request
+	 * @return ISO 639 code of the language
+	 * @throws AcotaConfigurationException Any exception that occurs while detecting the language
+	 */
+	public String detect(String text, RequestDocuments documents) throws AcotaConfigurationException {
+		if (text == null)
+			return detect(text);
+		String language = documents.getLanguage(text);
+		if (language == null) {
+			language = detect(text);
+			documents.putLanguage(text, language);
+		}
+		return language;
+	}
+
+	/**
+	 * Detects the language of a label derived from a text whose language is known, 
+	 * if the inheritance is enabled, short labels inherit the language of the text
+	 * @param label Label to analyze
+	 * @param sourceLanguage Language of the text the label comes from
+	 * @return ISO 639 code of the language
+	 * @throws AcotaConfigurationException Any exception that occurs while detecting the language
+	 */
+	public String detect(String label, String sourceLanguage) throws AcotaConfigurationException {
+		if (languageInherit && sourceLanguage != null && label.length() <= languageInheritLength)
+			return sourceLanguage;
+		return detect(label);
+	}
+
+	protected String getCachedLanguage(String text) {
+		LanguageEntry[] cache = this.cache;
+		if (cache == null || text == null)
+			return null;
+		long hash = hash(text);
+		LanguageEntry entry = cache[(int) hash & (cache.length - 1)];
+		return entry != null && entry.hash == hash ? entry.language : null;
+	}
+
+	protected void putCachedLanguage(String text, String language) {
+		LanguageEntry[] cache = this.cache;
+		if (cache != null && text != null) {
+			long hash = hash(text);
+			cache[(int) hash & (cache.length - 1)] = new LanguageEntry(hash, language);
+		}
+	}
+
+	/**
+	 * Creates the table of detected languages
+	 * @param size Minimum number of texts
+	 * @return A table with a power of two slots, null if the cache is disabled
+	 */
+	protected static LanguageEntry[] createCache(int size) {
+		if (size <= 0)
+			return null;
+		int slots = 1;
+		while (slots < size && slots < 1 << 30) {
+			slots <<= 1;
+		}
+		return new LanguageEntry[slots];
+	}
+
+	/**
+	 * Calculates a 64-bit FNV-1a hash of a text, its length is mixed in
+	 * @param text Text to hash
+	 * @return The hash of the text
+	 */
+	protected static long hash(String text) {
+		long hash = 0xcbf29ce484222325L ^ text.length();
+		for (int i = 0; i < text.length(); i++) {
+			hash ^= text.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash ^ (hash >>> 32);
+	}
+
+	/**
+	 * Detected language of a text, the entry is immutable so it could be
+	 * published to the table without locks
+	 */
+	protected static final class LanguageEntry {
+
+		protected final long hash;
+		protected final String language;
+
+		/**
+		 * Two-argument constructor
+		 * @param hash Hash of the text
+		 * @param language ISO 639 code of the language
+		 */
+		public LanguageEntry(long hash, String language) {
+			this.hash = hash;
+			this.language = language;
+		}
+	}
+
+}
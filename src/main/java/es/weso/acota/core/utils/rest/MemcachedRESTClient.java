@@ -72,7 +72,7 @@ public class MemcachedRESTClient implements Configurable{
 	 * @throws AcotaConfigurationException Any exception that occurs while initializing 
 	 * a Configuration object
 	 */
-	public static MemcachedRESTClient getInstance(CoreConfiguration configuration) throws AcotaConfigurationException{
+	public static synchronized MemcachedRESTClient getInstance(CoreConfiguration configuration) throws AcotaConfigurationException{
 		if(MEMCACHED_REST_CLIENT==null){
 			MemcachedRESTClient.MEMCACHED_REST_CLIENT = new MemcachedRESTClient(configuration);
 		}
@@ -109,19 +109,33 @@ public class MemcachedRESTClient implements Configurable{
 	 * @throws AcotaRESTException
 	 */
 	public String execute(String url, String accept,  String encoding) throws IOException, AcotaRESTException{
+		return execute(url, accept, encoding, 0);
+	}
+	
+	/**
+	 * 
+	 * @param url URL of the REST Call
+	 * @param accept Format Expected  by the REST CALL
+	 * @param encoding Encoding Expected by the REST CALL
+	 * @param timeout Connect and read timeout (ms) of the REST Call, 0 means no timeout
+	 * @return Response as plain text (RAW)
+	 * @throws IOException
+	 * @throws AcotaRESTException
+	 */
+	public String execute(String url, String accept,  String encoding, int timeout) throws IOException, AcotaRESTException{
 		String result;
 		if(memcachedEnabled){
 			try {
-				result = getResultFromCache(url, accept, encoding);
+				result = getResultFromCache(url, accept, encoding, timeout);
 			} catch (TimeoutException e) {
-				result = treatCacheException(url, accept, encoding, e);
+				result = treatCacheException(url, accept, encoding, timeout, e);
 			} catch (InterruptedException e) {
-				result = treatCacheException(url, accept, encoding, e);
+				result = treatCacheException(url, accept, encoding, timeout, e);
 			} catch (MemcachedException e) {
-				result = treatCacheException(url, accept, encoding, e);
+				result = treatCacheException(url, accept, encoding, timeout, e);
 			}
 		}else{
-			result = makeRESTCall(url, accept, encoding);
+			result = makeRESTCall(url, accept, encoding, timeout);
 		}
 		return result;
 	}
@@ -132,18 +146,19 @@ public class MemcachedRESTClient implements Configurable{
 	 * @param url URL of the REST Call
 	 * @param accept Format Expected  by the REST CALL
 	 * @param encoding Encoding Expected by the REST Call
+	 * @param timeout Connect and read timeout (ms) of the REST Call
 	 * @return Response as plain text (RAW)
 	 * @throws TimeoutException
 	 * @throws InterruptedException
 	 * @throws MemcachedException
 	 * @throws AcotaRESTException
 	 */
-	protected String getResultFromCache(String url, String accept, String encoding) throws TimeoutException,
+	protected String getResultFromCache(String url, String accept, String encoding, int timeout) throws TimeoutException,
 			InterruptedException, MemcachedException, AcotaRESTException {
 		String key = "rest_" + url.hashCode();
 		String response = memcachedClient.get(key);
 		if (response == null) {
-			response = queryEndpointAndStore(key, url, accept, encoding);
+			response = queryEndpointAndStore(key, url, accept, encoding, timeout);
 		}
 		return response;
 	}
@@ -153,14 +168,15 @@ public class MemcachedRESTClient implements Configurable{
 	 * @param url URL of the REST Call
 	 * @param accept Format Expected  by the REST CALL
 	 * @param encoding Encoding Expected by the REST CALL
+	 * @param timeout Connect and read timeout (ms) of the REST Call
 	 * @param e
 	 * @return Response as plain text (RAW)
 	 * @throws IOException
 	 */
-	protected String treatCacheException(String url, String accept, String encoding, Exception e) throws IOException {
+	protected String treatCacheException(String url, String accept, String encoding, int timeout, Exception e) throws IOException {
 		log.error("An error occured querying the cache. "
 				+ "Querying SPARQL endpoint", e);
-		return makeRESTCall(url, accept, encoding);
+		return makeRESTCall(url, accept, encoding, timeout);
 	}
 	
 	/**
@@ -169,17 +185,18 @@ public class MemcachedRESTClient implements Configurable{
 	 * @param url URL of the REST Call
 	 * @param accept Format Expected  by the REST CALL
 	 * @param encoding Encoding Expected by the REST CALL
+	 * @param timeout Connect and read timeout (ms) of the REST Call
 	 * @return Response as plain text (RAW)
 	 * @throws TimeoutException
 	 * @throws InterruptedException
 	 * @throws MemcachedException
 	 * @throws AcotaRESTException
 	 */
-	protected String queryEndpointAndStore(String key, String url, String accept, String encoding)
+	protected String queryEndpointAndStore(String key, String url, String accept, String encoding, int timeout)
 			throws TimeoutException, InterruptedException, MemcachedException, AcotaRESTException {
 		String response = "";
 		try {
-			response = makeRESTCall(url, accept, encoding);
+			response = makeRESTCall(url, accept, encoding, timeout);
 			log.info("Catching: "+key);
 			memcachedClient.set(key, memcachedExpireTime, response);
 		} catch (IOException e) {
@@ -196,14 +213,17 @@ public class MemcachedRESTClient implements Configurable{
 	 * @param url URL of the REST Call
 	 * @param accept Format Expected  by the REST CALL
 	 * @param encoding Encoding Expected by the REST CALL
+	 * @param timeout Connect and read timeout (ms) of the REST Call
 	 * @return Response as plain text (RAW)
 	 * @throws IOException
 	 */
-	protected String makeRESTCall(String url, String accept, String encoding) throws IOException{
+	protected String makeRESTCall(String url, String accept, String encoding, int timeout) throws IOException{
 		HttpURLConnection connection = null;
 		try {
 			connection = (HttpURLConnection) new URL(url).openConnection();
 			connection.setInstanceFollowRedirects(true);
+			connection.setConnectTimeout(timeout);
+			connection.setReadTimeout(timeout);
 			connection.setRequestProperty("Accept", accept);
 			try{
 				connection.connect();
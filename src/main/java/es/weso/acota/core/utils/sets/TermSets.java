@@ -0,0 +1,120 @@
+package es.weso.acota.core.utils.sets;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.util.Version;
+
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+/**
+ * TermSets builds the stop-word, tag-class and gazetteer sets as immutable 
+ * {@link CharArraySet}s, which keep each term as a single char[] in an open-addressing
+ * table and are looked up straight from char buffers. The sets loaded from files are
+ * shared process-wide, keyed by their path, so they are built once however many
+ * analyzers use them. The sets built from arrays or collections are not cached, the
+ * callers that share them keep them in a constant.
+ * <p>
+ * Term files are UTF-8, with a term per line, blank lines and lines starting 
+ * with '#' are ignored.
+ *
+ * @author César Luis Alvargonzález
+ */
+public final class TermSets {
+
+	protected static Logger logger = Logger.getLogger(TermSets.class);
+
+	private static final Version VERSION = Version.LUCENE_31;
+
+	private static final Map<String, CharArraySet> SETS = new HashMap<String, CharArraySet>();
+
+	private TermSets() {}
+
+	/**
+	 * Builds the set of some terms
+	 * @param terms Terms of the set
+	 * @return A new immutable set
+	 */
+	public static CharArraySet fromArray(String... terms) {
+		return fromCollection(Arrays.asList(terms));
+	}
+
+	/**
+	 * Builds the set of some terms
+	 * @param terms Terms of the set
+	 * @return A new immutable set
+	 */
+	public static CharArraySet fromCollection(Collection<String> terms) {
+		return CharArraySet.unmodifiableSet(new CharArraySet(VERSION, terms, false));
+	}
+
+	/**
+	 * Gets the shared set of the terms of a file
+	 * @param file Path of the file
+	 * @param ignoreCase true if the terms are compared ignoring their case
+	 * @return The immutable set
+	 * @throws AcotaConfigurationException If the file could not be read
+	 */
+	public static synchronized CharArraySet fromFile(String file, boolean ignoreCase) 
+			throws AcotaConfigurationException {
+		String key = (ignoreCase ? "i:" : "s:") + file;
+		CharArraySet set = SETS.get(key);
+		if (set == null) {
+			set = CharArraySet.unmodifiableSet(readFile(file, ignoreCase));
+			SETS.put(key, set);
+			logger.info("Loaded " + set.size() + " terms from " + file);
+		}
+		return set;
+	}
+
+	/**
+	 * Gets the shared set of the terms of a file, or the default set when
+	 * there is no file
+	 * @param file Path of the file, null or empty if there is no file
+	 * @param defaults Default set
+	 * @return The immutable set
+	 * @throws AcotaConfigurationException If the file could not be read
+	 */
+	public static CharArraySet fromFile(String file, CharArraySet defaults) throws AcotaConfigurationException {
+		if (file == null || file.trim().length() == 0)
+			return defaults;
+		return fromFile(file.trim(), false);
+	}
+
+	/**
+	 * Reads the terms of a file
+	 * @param file Path of the file
+	 * @param ignoreCase true if the terms are compared ignoring their case
+	 * @return A new set
+	 * @throws AcotaConfigurationException If the file could not be read
+	 */
+	private static CharArraySet readFile(String file, boolean ignoreCase) throws AcotaConfigurationException {
+		CharArraySet set = new CharArraySet(VERSION, 1024, ignoreCase);
+		try {
+			BufferedReader reader = new BufferedReader(
+					new InputStreamReader(new FileInputStream(file), "UTF-8"));
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					line = line.trim();
+					if (line.length() > 0 && line.charAt(0) != '#')
+						set.add(line);
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e) {
+			throw new AcotaConfigurationException("Fail loading the terms of " + file, e);
+		}
+		return set;
+	}
+
+}
@@ -0,0 +1,167 @@
+package es.weso.acota.core.utils.stream;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import es.weso.acota.core.entity.ResourceTO;
+
+/**
+ * Reads {@link ResourceTO}s from a CSV (RFC 4180) stream, the first row is
+ * a header that names the columns, "label", "description" and "uri" columns
+ * are loaded into the resource, other columns are ignored. Quoted fields could
+ * contain commas, line breaks and doubled quotes.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class CsvResourceReader implements ResourceReader {
+
+	protected final Reader reader;
+	protected int lineNumber = 1;
+	protected int pushback = -2;
+
+	protected int labelColumn = -1;
+	protected int descriptionColumn = -1;
+	protected int uriColumn = -1;
+	protected boolean header;
+
+	/**
+	 * One-argument constructor
+	 * @param reader Reader of the stream, it should be buffered
+	 */
+	public CsvResourceReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	@Override
+	public ResourceTO read() throws IOException {
+		if (!header) {
+			readHeader();
+		}
+		List<String> row;
+		do {
+			row = readRow();
+			if (row == null) {
+				return null;
+			}
+		} while (row.size() == 1 && row.get(0).length() == 0);
+
+		ResourceTO resource = new ResourceTO();
+		resource.setLabel(column(row, labelColumn));
+		resource.setDescription(column(row, descriptionColumn));
+		resource.setUri(column(row, uriColumn));
+		return resource;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * Reads the header row and finds the known columns
+	 * @throws IOException If the stream does not have a header
+	 */
+	protected void readHeader() throws IOException {
+		this.header = true;
+		List<String> names = readRow();
+		if (names == null) {
+			return;
+		}
+		for (int i = 0; i < names.size(); i++) {
+			String name = names.get(i).trim();
+			if (i == 0 && name.length() > 0 && name.charAt(0) == '\uFEFF') {
+				name = name.substring(1);
+			}
+			if ("label".equalsIgnoreCase(name)) {
+				this.labelColumn = i;
+			} else if ("description".equalsIgnoreCase(name)) {
+				this.descriptionColumn = i;
+			} else if ("uri".equalsIgnoreCase(name)) {
+				this.uriColumn = i;
+			}
+		}
+		if (labelColumn < 0 && descriptionColumn < 0) {
+			throw new IOException("CSV header must contain a label or a description column");
+		}
+	}
+
+	/**
+	 * Reads the fields of the next row
+	 * @return The fields of the row, null if the end of the stream has been reached
+	 * @throws IOException Any exception that occurs while reading the stream, or
+	 * if a quoted field is not closed
+	 */
+	protected List<String> readRow() throws IOException {
+		int c = readChar();
+		if (c < 0) {
+			return null;
+		}
+		List<String> row = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		int startLine = lineNumber;
+		while (true) {
+			if (quoted) {
+				if (c < 0) {
+					throw new IOException("Unclosed quoted field starting at line " + startLine);
+				} else if (c == '"') {
+					c = readChar();
+					if (c == '"') {
+						field.append('"');
+					} else {
+						quoted = false;
+						continue;
+					}
+				} else {
+					field.append((char) c);
+				}
+			} else if (c == '"' && field.length() == 0) {
+				quoted = true;
+				startLine = lineNumber;
+			} else if (c == ',') {
+				row.add(field.toString());
+				field.setLength(0);
+			} else if (c < 0 || c == '\n' || c == '\r') {
+				if (c == '\r') {
+					int lf = readChar();
+					if (lf != '\n') {
+						unread(lf);
+					}
+				}
+				row.add(field.toString());
+				return row;
+			} else {
+				field.append((char) c);
+			}
+			c = readChar();
+		}
+	}
+
+	protected int readChar() throws IOException {
+		int c;
+		if (pushback != -2) {
+			c = pushback;
+			this.pushback = -2;
+		} else {
+			c = reader.read();
+		}
+		if (c == '\n') {
+			lineNumber++;
+		}
+		return c;
+	}
+
+	protected void unread(int c) {
+		if (c == '\n') {
+			lineNumber--;
+		}
+		this.pushback = c;
+	}
+
+	protected static String column(List<String> row, int column) {
+		return column >= 0 && column < row.size() ? row.get(column) : null;
+	}
+
+}
@@ -0,0 +1,86 @@
+package es.weso.acota.core.utils.stream;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map.Entry;
+
+import es.weso.acota.core.entity.ResourceTO;
+import es.weso.acota.core.entity.SuggestionTO;
+import es.weso.acota.core.entity.TagTO;
+import es.weso.acota.core.utils.AcotaUtil;
+
+/**
+ * Writes {@link SuggestionTO}s to a CSV (RFC 4180) stream, with a header row and 
+ * a row per tag: uri, label, tag, lang and value. The tags of each resource are 
+ * sorted by weight.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class CsvSuggestionWriter implements SuggestionWriter {
+
+	public static final String HEADER = "uri,label,tag,lang,value";
+
+	protected final Writer writer;
+	protected boolean header;
+
+	/**
+	 * One-argument constructor
+	 * @param writer Writer of the stream, it should be buffered
+	 */
+	public CsvSuggestionWriter(Writer writer) {
+		this.writer = writer;
+	}
+
+	@Override
+	public void write(SuggestionTO suggestion) throws IOException {
+		if (!header) {
+			writer.write(HEADER);
+			writer.write("\r\n");
+			this.header = true;
+		}
+		ResourceTO resource = suggestion.getResource();
+		for (Entry<String, TagTO> entry : AcotaUtil.sortTags(suggestion.getTags())) {
+			TagTO tag = entry.getValue();
+			writeField(resource == null ? null : resource.getUri());
+			writer.write(',');
+			writeField(resource == null ? null : resource.getLabel());
+			writer.write(',');
+			writeField(tag.getLabel());
+			writer.write(',');
+			writeField(tag.getLang());
+			writer.write(',');
+			writer.write(Double.toString(tag.getValue()));
+			writer.write("\r\n");
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	/**
+	 * Writes a field, quoting it when it contains commas, quotes or line breaks
+	 * @param value Field to write, null is written as an empty field
+	 * @throws IOException Any exception that occurs while writing the stream
+	 */
+	protected void writeField(String value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 
+				&& value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			writer.write(value);
+		} else {
+			writer.write('"');
+			writer.write(value.replace("\"", "\"\""));
+			writer.write('"');
+		}
+	}
+
+}
@@ -0,0 +1,209 @@
+package es.weso.acota.core.utils.stream;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import es.weso.acota.core.entity.ResourceTO;
+
+/**
+ * Reads {@link ResourceTO}s from a JSON Lines stream, each line is a JSON object
+ * whose "label", "description" and "uri" string members are loaded into the 
+ * resource, other members are ignored and blank lines are skipped.
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class JsonLinesResourceReader implements ResourceReader {
+
+	protected final BufferedReader reader;
+	protected int lineNumber;
+
+	protected String line;
+	protected int position;
+
+	/**
+	 * One-argument constructor
+	 * @param reader Reader of the stream
+	 */
+	public JsonLinesResourceReader(BufferedReader reader) {
+		this.reader = reader;
+	}
+
+	@Override
+	public ResourceTO read() throws IOException {
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			position = 0;
+			skipWhitespace();
+			if (position < line.length()) {
+				return parseResource();
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * Parses the JSON object of the current line
+	 * @return The resource
+	 * @throws IOException If the line is not a JSON object
+	 */
+	protected ResourceTO parseResource() throws IOException {
+		ResourceTO resource = new ResourceTO();
+		expect('{');
+		skipWhitespace();
+		if (peek() == '}') {
+			position++;
+			return resource;
+		}
+		while (true) {
+			skipWhitespace();
+			String name = parseString();
+			skipWhitespace();
+			expect(':');
+			skipWhitespace();
+			if (peek() == '"') {
+				String value = parseString();
+				if ("label".equals(name)) {
+					resource.setLabel(value);
+				} else if ("description".equals(name)) {
+					resource.setDescription(value);
+				} else if ("uri".equals(name)) {
+					resource.setUri(value);
+				}
+			} else {
+				skipValue();
+			}
+			skipWhitespace();
+			char c = next();
+			if (c == '}') {
+				return resource;
+			} else if (c != ',') {
+				throw error("Expected ',' or '}'");
+			}
+		}
+	}
+
+	/**
+	 * Parses a JSON string, unescaping its content
+	 * @return The content of the string
+	 * @throws IOException If there is not a well-formed string
+	 */
+	protected String parseString() throws IOException {
+		expect('"');
+		StringBuilder value = new StringBuilder();
+		while (true) {
+			char c = next();
+			if (c == '"') {
+				return value.toString();
+			} else if (c != '\\') {
+				value.append(c);
+				continue;
+			}
+			c = next();
+			switch (c) {
+			case '"':
+			case '\\':
+			case '/':
+				value.append(c);
+				break;
+			case 'b':
+				value.append('\b');
+				break;
+			case 'f':
+				value.append('\f');
+				break;
+			case 'n':
+				value.append('\n');
+				break;
+			case 'r':
+				value.append('\r');
+				break;
+			case 't':
+				value.append('\t');
+				break;
+			case 'u':
+				if (position + 4 > line.length()) {
+					throw error("Truncated unicode escape");
+				}
+				try {
+					value.append((char) Integer.parseInt(line.substring(position, position + 4), 16));
+				} catch (NumberFormatException e) {
+					throw error("Invalid unicode escape");
+				}
+				position += 4;
+				break;
+			default:
+				throw error("Invalid escape '\\" + c + "'");
+			}
+		}
+	}
+
+	/**
+	 * Skips a JSON value that is not loaded into the resource,
+	 * such as numbers, literals, arrays or objects
+	 * @throws IOException If there is not a well-formed value
+	 */
+	protected void skipValue() throws IOException {
+		char c = peek();
+		if (c == '"') {
+			parseString();
+		} else if (c == '{' || c == '[') {
+			int depth = 0;
+			do {
+				c = peek();
+				if (c == '"') {
+					parseString();
+					continue;
+				}
+				position++;
+				if (c == '{' || c == '[') {
+					depth++;
+				} else if (c == '}' || c == ']') {
+					depth--;
+				}
+			} while (depth > 0);
+		} else {
+			int start = position;
+			while (position < line.length() && ",}] \t".indexOf(line.charAt(position)) < 0) {
+				position++;
+			}
+			if (start == position) {
+				throw error("Expected a value");
+			}
+		}
+	}
+
+	protected void skipWhitespace() {
+		while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+			position++;
+		}
+	}
+
+	protected char peek() throws IOException {
+		if (position >= line.length()) {
+			throw error("Unexpected end of line");
+		}
+		return line.charAt(position);
+	}
+
+	protected char next() throws IOException {
+		char c = peek();
+		position++;
+		return c;
+	}
+
+	protected void expect(char expected) throws IOException {
+		if (next() != expected) {
+			throw error("Expected '" + expected + "'");
+		}
+	}
+
+	protected IOException error(String message) {
+		return new IOException(message + " at line " + lineNumber + ", column " + position);
+	}
+
+}
@@ -0,0 +1,107 @@
+package es.weso.acota.core.utils.stream;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map.Entry;
+
+import es.weso.acota.core.entity.ResourceTO;
+import es.weso.acota.core.entity.SuggestionTO;
+import es.weso.acota.core.entity.TagTO;
+import es.weso.acota.core.utils.AcotaUtil;
+
+/**
+ * Writes {@link SuggestionTO}s to a JSON Lines stream, one JSON object per line 
+ * with the "uri" and the "label" of the resource and its "tags", sorted by weight:
+ * <code>{"uri":"...","label":"...","tags":[{"label":"...","lang":"en","value":1.0}]}</code>
+ * 
+ * @author César Luis Alvargonzález
+ */
+public class JsonLinesSuggestionWriter implements SuggestionWriter {
+
+	protected final Writer writer;
+
+	/**
+	 * One-argument constructor
+	 * @param writer Writer of the stream, it should be buffered
+	 */
+	public JsonLinesSuggestionWriter(Writer writer) {
+		this.writer = writer;
+	}
+
+	@Override
+	public void write(SuggestionTO suggestion) throws IOException {
+		ResourceTO resource = suggestion.getResource();
+		writer.write("{\"uri\":");
+		writeString(resource == null ? null : resource.getUri());
+		writer.write(",\"label\":");
+		writeString(resource == null ? null : resource.getLabel());
+		writer.write(",\"tags\":[");
+		boolean first = true;
+		for (Entry<String, TagTO> entry : AcotaUtil.sortTags(suggestion.getTags())) {
+			TagTO tag = entry.getValue();
+			if (!first) {
+				writer.write(',');
+			}
+			first = false;
+			writer.write("{\"label\":");
+			writeString(tag.getLabel());
+			writer.write(",\"lang\":");
+			writeString(tag.getLang());
+			writer.write(",\"value\":");
+			writer.write(Double.toString(tag.getValue()));
+			writer.write('}');
+		}
+		writer.write("]}\n");
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	/**
+	 * Writes a JSON string, escaping its content
+	 * @param value String to write, it could be null
+	 * @throws IOException Any exception that occurs while writing the stream
+	 */
+	protected void writeString(String value) throws IOException {
+		if (value == null) {
+			writer.write("null");
+			return;
+		}
+		writer.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				writer.write("\\\"");
+				break;
+			case '\\':
+				writer.write("\\\\");
+				break;
+			case '\n':
+				writer.write("\\n");
+				break;
+			case '\r':
+				writer.write("\\r");
+				break;
+			case '\t':
+				writer.write("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					writer.write(String.format("\\u%04x", (int) c));
+				} else {
+					writer.write(c);
+				}
+			}
+		}
+		writer.write('"');
+	}
+
+}
@@ -0,0 +1,22 @@
+package es.weso.acota.core.utils.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import es.weso.acota.core.entity.ResourceTO;
+
+/**
+ * Reads, one by one, the {@link ResourceTO}s of a stream
+ * @author César Luis Alvargonzález
+ */
+public interface ResourceReader extends Closeable {
+
+	/**
+	 * Reads the next resource of the stream
+	 * @return The next resource, null if the end of the stream has been reached
+	 * @throws IOException Any exception that occurs while reading the stream, or
+	 * if the stream is malformed
+	 */
+	ResourceTO read() throws IOException;
+
+}
@@ -0,0 +1,63 @@
+package es.weso.acota.core.utils.stream;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+
+/**
+ * Formats of the streams of resources and suggestions, both are encoded in UTF-8
+ * @author César Luis Alvargonzález
+ */
+public enum StreamFormat {
+
+	/**
+	 * One JSON object per line
+	 */
+	JSONL {
+		@Override
+		public ResourceReader createReader(InputStream in) {
+			return new JsonLinesResourceReader(new BufferedReader(new InputStreamReader(in, UTF_8)));
+		}
+
+		@Override
+		public SuggestionWriter createWriter(OutputStream out) {
+			return new JsonLinesSuggestionWriter(new BufferedWriter(new OutputStreamWriter(out, UTF_8)));
+		}
+	},
+
+	/**
+	 * Comma-separated values (RFC 4180) with a header row
+	 */
+	CSV {
+		@Override
+		public ResourceReader createReader(InputStream in) {
+			return new CsvResourceReader(new BufferedReader(new InputStreamReader(in, UTF_8)));
+		}
+
+		@Override
+		public SuggestionWriter createWriter(OutputStream out) {
+			return new CsvSuggestionWriter(new BufferedWriter(new OutputStreamWriter(out, UTF_8)));
+		}
+	};
+
+	protected static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * Creates a reader of resources in this format
+	 * @param in Stream to read
+	 * @return The reader
+	 */
+	public abstract ResourceReader createReader(InputStream in);
+
+	/**
+	 * Creates a writer of suggestions in this format
+	 * @param out Stream to write
+	 * @return The writer
+	 */
+	public abstract SuggestionWriter createWriter(OutputStream out);
+
+}
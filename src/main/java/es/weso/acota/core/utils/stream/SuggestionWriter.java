@@ -0,0 +1,22 @@
+package es.weso.acota.core.utils.stream;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+import es.weso.acota.core.entity.SuggestionTO;
+
+/**
+ * Writes, one by one, {@link SuggestionTO}s to a stream
+ * @author César Luis Alvargonzález
+ */
+public interface SuggestionWriter extends Closeable, Flushable {
+
+	/**
+	 * Writes the suggestions of a resource
+	 * @param suggestion Suggestions to write
+	 * @throws IOException Any exception that occurs while writing the stream
+	 */
+	void write(SuggestionTO suggestion) throws IOException;
+
+}
@@ -0,0 +1,309 @@
+package es.weso.acota.core.business.enhancer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.document.RequestDocuments;
+import es.weso.acota.core.entity.ProviderTO;
+import es.weso.acota.core.entity.RequestSuggestionTO;
+import es.weso.acota.core.entity.ResourceTO;
+import es.weso.acota.core.entity.SuggestionTO;
+import es.weso.acota.core.entity.TagTO;
+import es.weso.acota.core.exceptions.AcotaBatchException;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.lang.LanguageDetector;
+import es.weso.acota.core.utils.stream.StreamFormat;
+
+public class BatchEnhancerTest {
+
+	private static final int THREADS = 4;
+
+	private BatchEnhancer batchEnhancer;
+	private AtomicInteger chains;
+
+	@Before
+	public void startTest() throws AcotaConfigurationException {
+		this.chains = new AtomicInteger();
+		CoreConfiguration configuration = new CoreConfiguration();
+		configuration.setBatchThreads(THREADS);
+		this.batchEnhancer = new BatchEnhancer(new EnhancerFactory() {
+			@Override
+			public EnhancerAdapter createEnhancer() throws IOException, AcotaConfigurationException {
+				chains.incrementAndGet();
+				return new LabelEnhancer();
+			}
+		}, configuration);
+	}
+
+	@After
+	public void endTest() {
+		batchEnhancer.shutdown();
+	}
+
+	@Test
+	public void enhanceEmptyTest() throws AcotaBatchException {
+		assertTrue(batchEnhancer.enhance(Collections.<RequestSuggestionTO> emptyList()).isEmpty());
+	}
+
+	@Test
+	public void enhanceKeepsOrderTest() throws AcotaBatchException {
+		List<RequestSuggestionTO> requests = new ArrayList<RequestSuggestionTO>();
+		for (int i = 0; i < 200; i++) {
+			requests.add(createRequest("label" + i));
+		}
+
+		List<SuggestionTO> suggestions = batchEnhancer.enhance(requests);
+
+		assertEquals(requests.size(), suggestions.size());
+		for (int i = 0; i < suggestions.size(); i++) {
+			assertTrue(suggestions.get(i).getTags().containsKey("label" + i));
+		}
+	}
+
+	@Test
+	public void enhanceOneChainPerWorkerTest() throws AcotaBatchException {
+		List<RequestSuggestionTO> requests = new ArrayList<RequestSuggestionTO>();
+		for (int i = 0; i < 100; i++) {
+			requests.add(createRequest("label" + i));
+		}
+
+		batchEnhancer.enhance(requests.iterator());
+
+		assertTrue(chains.get() <= THREADS);
+	}
+
+	@Test
+	public void enhanceIteratorBoundedTest() throws AcotaBatchException, AcotaConfigurationException {
+		final int queueSize = 3;
+		final AtomicInteger processed = new AtomicInteger();
+		final AtomicInteger maxInFlight = new AtomicInteger();
+		CoreConfiguration configuration = new CoreConfiguration();
+		configuration.setBatchThreads(THREADS);
+		configuration.setBatchQueueSize(queueSize);
+		BatchEnhancer boundedEnhancer = new BatchEnhancer(new ConcurrentLabelEnhancer() {
+			@Override
+			protected void execute(EnhancerContext context) throws Exception {
+				super.execute(context);
+				processed.incrementAndGet();
+			}
+		}, configuration);
+		Iterator<RequestSuggestionTO> requests = new Iterator<RequestSuggestionTO>() {
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < 100;
+			}
+
+			@Override
+			public RequestSuggestionTO next() {
+				int inFlight = next - processed.get();
+				if (inFlight > maxInFlight.get())
+					maxInFlight.set(inFlight);
+				return createRequest("label" + next++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+
+		List<SuggestionTO> suggestions = boundedEnhancer.enhance(requests);
+		boundedEnhancer.shutdown();
+
+		assertEquals(100, suggestions.size());
+		assertTrue(maxInFlight.get() <= queueSize);
+	}
+
+	@Test
+	public void enhanceSharedChainTest() throws AcotaBatchException, AcotaConfigurationException {
+		CoreConfiguration configuration = new CoreConfiguration();
+		configuration.setBatchThreads(THREADS);
+		BatchEnhancer sharedEnhancer = new BatchEnhancer(new ConcurrentLabelEnhancer(), configuration);
+		List<RequestSuggestionTO> requests = new ArrayList<RequestSuggestionTO>();
+		for (int i = 0; i < 200; i++) {
+			requests.add(createRequest("label" + i));
+		}
+
+		List<SuggestionTO> suggestions = sharedEnhancer.enhance(requests);
+		sharedEnhancer.shutdown();
+
+		for (int i = 0; i < suggestions.size(); i++) {
+			assertEquals(1, suggestions.get(i).getTags().size());
+			assertTrue(suggestions.get(i).getTags().containsKey("label" + i));
+		}
+	}
+
+	@Test
+	public void enhanceJsonLinesStreamTest() throws Exception {
+		CoreConfiguration configuration = new CoreConfiguration();
+		configuration.setBatchThreads(THREADS);
+		configuration.setBatchQueueSize(3);
+		BatchEnhancer streamEnhancer = new BatchEnhancer(new ConcurrentLabelEnhancer(), configuration);
+		StringBuilder in = new StringBuilder();
+		for (int i = 0; i < 50; i++) {
+			in.append("{\"uri\":\"http://example.org/").append(i)
+				.append("\", \"label\":\"label").append(i).append("\",\"score\":[1,{\"a\":\"}\"}]}\n\n");
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long written = streamEnhancer.enhance(new ByteArrayInputStream(in.toString().getBytes("UTF-8")), 
+				out, StreamFormat.JSONL);
+		streamEnhancer.shutdown();
+
+		String[] lines = out.toString("UTF-8").split("\n");
+		assertEquals(50, written);
+		assertEquals(50, lines.length);
+		for (int i = 0; i < lines.length; i++) {
+			assertEquals("{\"uri\":\"http://example.org/" + i + "\",\"label\":\"label" + i 
+					+ "\",\"tags\":[{\"label\":\"label" + i + "\",\"lang\":\"en\",\"value\":1.0}]}", lines[i]);
+		}
+	}
+
+	@Test
+	public void enhanceCsvStreamTest() throws Exception {
+		CoreConfiguration configuration = new CoreConfiguration();
+		configuration.setBatchThreads(THREADS);
+		BatchEnhancer streamEnhancer = new BatchEnhancer(new ConcurrentLabelEnhancer(), configuration);
+		String in = "uri,label,description\r\n" 
+				+ "http://example.org/1,\"first, \"\"quoted\"\"\",\"multi\nline\"\r\n"
+				+ "http://example.org/2,second,\n";
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long written = streamEnhancer.enhance(new ByteArrayInputStream(in.getBytes("UTF-8")), 
+				out, StreamFormat.CSV);
+		streamEnhancer.shutdown();
+
+		assertEquals(2, written);
+		assertEquals("uri,label,tag,lang,value\r\n"
+				+ "http://example.org/1,\"first, \"\"quoted\"\"\",\"first, \"\"quoted\"\"\",en,1.0\r\n"
+				+ "http://example.org/2,second,second,en,1.0\r\n", out.toString("UTF-8"));
+	}
+
+	@Test
+	public void legacyLifecycleTest() throws Exception {
+		ConcurrentLabelEnhancer enhancer = new ConcurrentLabelEnhancer("label");
+		RequestSuggestionTO request = createRequest("semantic web");
+		List<ProviderTO> providers = new ArrayList<ProviderTO>();
+		when(request.getTargetProviders()).thenReturn(providers);
+
+		enhancer.request = request;
+		enhancer.preExecute();
+		enhancer.execute();
+		enhancer.postExecute();
+
+		assertTrue(enhancer.getSuggest().getTags().containsKey("semantic web"));
+		assertEquals(Collections.singletonList(enhancer.getProvider()), providers);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void legacyLifecycleWithoutPreExecuteTest() throws Exception {
+		new ConcurrentLabelEnhancer("label").execute();
+	}
+
+	@Test
+	public void providerPerEnhancerTest() {
+		ConcurrentLabelEnhancer first = new ConcurrentLabelEnhancer("first");
+		ConcurrentLabelEnhancer second = new ConcurrentLabelEnhancer("second");
+		assertEquals("first", first.getProvider().getDescription());
+		assertEquals("second", second.getProvider().getDescription());
+	}
+
+	@Test
+	public void documentsPassedDownTheChainTest() throws Exception {
+		ConcurrentLabelEnhancer first = new ConcurrentLabelEnhancer();
+		ConcurrentLabelEnhancer second = new ConcurrentLabelEnhancer();
+		first.setSuccessor(second);
+
+		first.enhance(createRequest("semantic web"));
+		RequestDocuments documents = first.documents;
+		assertSame(documents, second.documents);
+
+		first.enhance(createRequest("semantic web"));
+		assertSame(first.documents, second.documents);
+		assertNotSame(documents, first.documents);
+	}
+
+	private RequestSuggestionTO createRequest(String label) {
+		ResourceTO resource = new ResourceTO();
+		resource.setLabel(label);
+		SuggestionTO suggestion = new SuggestionTO();
+
+		RequestSuggestionTO request = mock(RequestSuggestionTO.class);
+		when(request.getResource()).thenReturn(resource);
+		when(request.getSuggestions()).thenReturn(suggestion);
+		return request;
+	}
+
+	/**
+	 * Adds the label of the resource as a tag
+	 */
+	private static class LabelEnhancer extends EnhancerAdapter {
+
+		@Override
+		protected void preExecute() throws Exception {
+			this.suggest = request.getSuggestions();
+			this.tags = suggest.getTags();
+		}
+
+		@Override
+		protected void execute() throws Exception {
+			fillSuggestions(new TagTO(request.getResource().getLabel(),
+					LanguageDetector.ISO_639_ENGLISH, provider, request.getResource()), 1d);
+		}
+
+		@Override
+		protected void postExecute() throws Exception {
+			request.setSuggestions(suggest);
+		}
+	}
+
+	/**
+	 * Adds the label of the resource as a tag, keeping the state in the context
+	 */
+	private static class ConcurrentLabelEnhancer extends ConcurrentEnhancerAdapter<EnhancerContext> {
+
+		private volatile RequestDocuments documents;
+
+		public ConcurrentLabelEnhancer() {
+			this("Label Enhancer");
+		}
+
+		public ConcurrentLabelEnhancer(String provider) {
+			this.provider = new ProviderTO(provider);
+		}
+
+		@Override
+		protected EnhancerContext createContext(RequestSuggestionTO request) {
+			return new EnhancerContext(request);
+		}
+
+		@Override
+		protected void execute(EnhancerContext context) throws Exception {
+			ResourceTO resource = context.getRequest().getResource();
+			this.documents = context.getDocuments();
+			fillSuggestions(context, new TagTO(resource.getLabel(),
+					LanguageDetector.ISO_639_ENGLISH, provider, resource), 1d);
+		}
+	}
+
+}
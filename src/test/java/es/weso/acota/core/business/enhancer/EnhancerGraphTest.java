@@ -0,0 +1,140 @@
+package es.weso.acota.core.business.enhancer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.entity.RequestSuggestionTO;
+import es.weso.acota.core.entity.ResourceTO;
+import es.weso.acota.core.entity.SuggestionTO;
+import es.weso.acota.core.entity.TagTO;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.lang.LanguageDetector;
+
+public class EnhancerGraphTest {
+
+	private EnhancerGraph graph;
+
+	@Before
+	public void startTest() throws AcotaConfigurationException {
+		CoreConfiguration configuration = new CoreConfiguration();
+		configuration.setGraphThreads(2);
+		this.graph = new EnhancerGraph(configuration);
+	}
+
+	@After
+	public void endTest() {
+		graph.shutdown();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void addEnhancerUnknownInputTest() {
+		graph.addEnhancer("scale", new ScaleEnhancer(), "foo");
+	}
+
+	@Test
+	public void enhanceMergesIndependentEnhancersTest() {
+		graph.addEnhancer("foo", new AddEnhancer("foo", 1d, null))
+				.addEnhancer("bar", new AddEnhancer("foo", 2d, null))
+				.addEnhancer("baz", new AddEnhancer("baz", 4d, null));
+		SuggestionTO suggestion = new SuggestionTO();
+
+		graph.enhance(createRequest(suggestion));
+
+		assertEquals(2, suggestion.getTags().size());
+		assertEquals(3d, suggestion.getTags().get("foo").getValue(), 1e-15d);
+		assertEquals(4d, suggestion.getTags().get("baz").getValue(), 1e-15d);
+	}
+
+	@Test
+	public void enhanceDependentEnhancerTest() {
+		graph.addEnhancer("foo", new AddEnhancer("foo", 1d, null))
+				.addEnhancer("bar", new AddEnhancer("foo", 2d, null))
+				.addEnhancer("scale", new ScaleEnhancer(), "foo", "bar");
+		SuggestionTO suggestion = new SuggestionTO();
+
+		graph.enhance(createRequest(suggestion));
+
+		assertEquals(6d, suggestion.getTags().get("foo").getValue(), 1e-15d);
+	}
+
+	@Test
+	public void enhanceRunsIndependentEnhancersConcurrentlyTest() {
+		CountDownLatch latch = new CountDownLatch(2);
+		graph.addEnhancer("foo", new AddEnhancer("foo", 1d, latch))
+				.addEnhancer("bar", new AddEnhancer("bar", 1d, latch));
+		SuggestionTO suggestion = new SuggestionTO();
+
+		graph.enhance(createRequest(suggestion));
+
+		assertTrue(suggestion.getTags().containsKey("foo"));
+		assertTrue(suggestion.getTags().containsKey("bar"));
+	}
+
+	private RequestSuggestionTO createRequest(SuggestionTO suggestion) {
+		RequestSuggestionTO request = mock(RequestSuggestionTO.class);
+		when(request.getResource()).thenReturn(new ResourceTO());
+		when(request.getSuggestions()).thenReturn(suggestion);
+		return request;
+	}
+
+	/**
+	 * Adds a tag, waiting for the other enhancers of the latch
+	 */
+	private static class AddEnhancer extends ConcurrentEnhancerAdapter<EnhancerContext> {
+
+		private final String label;
+		private final double value;
+		private final CountDownLatch latch;
+
+		public AddEnhancer(String label, double value, CountDownLatch latch) {
+			this.label = label;
+			this.value = value;
+			this.latch = latch;
+		}
+
+		@Override
+		protected EnhancerContext createContext(RequestSuggestionTO request) {
+			return new EnhancerContext(request);
+		}
+
+		@Override
+		protected void execute(EnhancerContext context) throws Exception {
+			if (latch != null) {
+				latch.countDown();
+				if (!latch.await(10, TimeUnit.SECONDS))
+					return;
+			}
+			fillSuggestions(context, new TagTO(label, LanguageDetector.ISO_639_ENGLISH,
+					provider, context.getRequest().getResource()), value);
+		}
+	}
+
+	/**
+	 * Doubles the weight of every tag
+	 */
+	private static class ScaleEnhancer extends ConcurrentEnhancerAdapter<EnhancerContext> {
+
+		@Override
+		protected EnhancerContext createContext(RequestSuggestionTO request) {
+			return new EnhancerContext(request);
+		}
+
+		@Override
+		protected void execute(EnhancerContext context) throws Exception {
+			for (TagTO tag : context.getTags().values()) {
+				tag.addValue(tag.getValue());
+			}
+		}
+	}
+
+}
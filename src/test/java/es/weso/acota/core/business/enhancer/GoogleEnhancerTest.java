@@ -1,7 +1,10 @@
 package es.weso.acota.core.business.enhancer;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
@@ -15,9 +18,11 @@ import es.weso.acota.core.entity.ResourceTO;
 import es.weso.acota.core.entity.SuggestionTO;
 import es.weso.acota.core.entity.TagTO;
 import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.rest.MemcachedRESTClient;
 
 public class GoogleEnhancerTest {
 protected GoogleEnhancer googleEnhancer;
+protected EnhancerContext context;
 	
 	@Before
 	public void setUp() throws AcotaConfigurationException {
@@ -45,7 +50,7 @@ protected GoogleEnhancer googleEnhancer;
 	
 	@Test
 	public void getProviderTest(){
-		assertEquals(GoogleEnhancer.provider, googleEnhancer.getProvider());
+		assertEquals("Google Enhancer", googleEnhancer.getProvider().getDescription());
 	}
 
 	@Test
@@ -58,9 +63,27 @@ protected GoogleEnhancer googleEnhancer;
 		when(request.getSuggestions()).thenReturn(suggestion);
 
 		
-		googleEnhancer.request = request;
-		googleEnhancer.preExecute();
+		this.context = new EnhancerContext(request);
+		googleEnhancer.preExecute(context);
 		
-		assertEquals(resource, googleEnhancer.suggest.getResource());
+		assertEquals(resource, context.getSuggest().getResource());
+	}
+
+	@Test
+	public void lookupTimeoutTest() throws Exception {
+		TagTO tag = new TagTO("semantic web", "en", googleEnhancer.getProvider(), new ResourceTO());
+		MemcachedRESTClient restClient = mock(MemcachedRESTClient.class);
+		when(restClient.execute(anyString(), anyString(), anyString(), eq(0))).thenReturn("<toplevel/>");
+		when(restClient.execute(anyString(), anyString(), anyString(), eq(2000))).thenReturn("<toplevel/>");
+		googleEnhancer.restClient = restClient;
+		googleEnhancer.googleTimeout = 2000;
+
+		googleEnhancer.googleAsync = false;
+		googleEnhancer.lookup(tag);
+		verify(restClient).execute(anyString(), anyString(), anyString(), eq(0));
+
+		googleEnhancer.googleAsync = true;
+		googleEnhancer.lookup(tag);
+		verify(restClient).execute(anyString(), anyString(), anyString(), eq(2000));
 	}
 }
@@ -27,6 +27,7 @@ import es.weso.acota.core.utils.lang.LanguageDetector;
 public class LuceneEnhancerTest{
 
 	private LuceneEnhancer luceneEnhancer;
+	private EnhancerContext context;
 
 	@Before
 	public void startTest() throws AcotaConfigurationException {
@@ -35,7 +36,7 @@ public class LuceneEnhancerTest{
 
 	@Test
 	public void getProviderTest(){
-		assertEquals(LuceneEnhancer.provider, luceneEnhancer.getProvider());
+		assertEquals("Lucene Enhancer", luceneEnhancer.getProvider().getDescription());
 	}
 	
 	@Test
@@ -95,10 +96,10 @@ public class LuceneEnhancerTest{
 		when(request.getSuggestions()).thenReturn(suggestion);
 
 		
-		luceneEnhancer.request = request;
-		luceneEnhancer.preExecute();
+		this.context = new EnhancerContext(request);
+		luceneEnhancer.preExecute(context);
 		
-		assertEquals(resource, luceneEnhancer.suggest.getResource());
+		assertEquals(resource, context.getSuggest().getResource());
 	}
 
 	@Test
@@ -126,14 +127,14 @@ public class LuceneEnhancerTest{
 		
 		SuggestionTO suggest = initializeSuggest();
 		suggest.setTags(tags);
-		luceneEnhancer.suggest = suggest;
-		luceneEnhancer.tags = tags;
+		context.setSuggest(suggest);
+		context.setTags(tags);
 		
 		ResourceTO resource = new ResourceTO();
 		resource.setDescription("Esto es Español");
 		
-		luceneEnhancer.request = new RequestSuggestionTO(resource);
-		luceneEnhancer.extractDescriptionTerms();
+		this.context = createContext(new RequestSuggestionTO(resource));
+		luceneEnhancer.extractDescriptionTerms(context);
 		
 		assertEquals(0.72d, suggest.getTags().get("español").getValue(), 1e-15d);
 	}
@@ -145,20 +146,20 @@ public class LuceneEnhancerTest{
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		
 		TagTO tag = new TagTO("español", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider,
+				luceneEnhancer.getProvider(),
 				suggest.getResource());
 		tag.setValue(1.0d);
 		tags.put(tag.getLabel(),tag);
 		
 		suggest.setTags(tags);
-		luceneEnhancer.suggest = suggest;
-		luceneEnhancer.tags = tags;
+		context.setSuggest(suggest);
+		context.setTags(tags);
 		
 		ResourceTO resource = new ResourceTO();
 		resource.setDescription("asdfokl");
 		
-		luceneEnhancer.request = new RequestSuggestionTO(resource);
-		luceneEnhancer.extractDescriptionTerms();
+		this.context = createContext(new RequestSuggestionTO(resource));
+		luceneEnhancer.extractDescriptionTerms(context);
 		
 		assertEquals(1d, suggest.getTags().get("español").getValue(), 1e-15d);
 	}
@@ -171,20 +172,20 @@ public class LuceneEnhancerTest{
 		
 		TagTO tag = new TagTO("español", 
 				LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider,
+				luceneEnhancer.getProvider(),
 				suggest.getResource());
 		tag.setValue(1.0d);
 		tags.put(tag.getLabel(),tag);
 		
 		suggest.setTags(tags);
-		luceneEnhancer.suggest = suggest;
-		luceneEnhancer.tags = tags;
+		context.setSuggest(suggest);
+		context.setTags(tags);
 		
 		ResourceTO resource = new ResourceTO();
 		resource.setDescription("Esto es Español");
 		
-		luceneEnhancer.request = new RequestSuggestionTO(resource);
-		luceneEnhancer.extractDescriptionTerms();
+		this.context = createContext(new RequestSuggestionTO(resource));
+		luceneEnhancer.extractDescriptionTerms(context);
 		
 		assertEquals(1.72d, suggest.getTags().get("español").getValue(),1e-15d);
 	}
@@ -195,15 +196,15 @@ public class LuceneEnhancerTest{
 		
 		SuggestionTO suggest = initializeSuggest();
 		suggest.setTags(tags);
-		luceneEnhancer.suggest = suggest;
-		luceneEnhancer.tags = tags;
+		context.setSuggest(suggest);
+		context.setTags(tags);
 		
 		ResourceTO resource = new ResourceTO();
 		resource.setLabel("Esto es Español");
 		
-		luceneEnhancer.request = new RequestSuggestionTO(resource);
+		this.context = createContext(new RequestSuggestionTO(resource));
 		
-		luceneEnhancer.extractLabelTerms();
+		luceneEnhancer.extractLabelTerms(context);
 		
 		assertEquals(1.0d, suggest.getTags().get("español").getValue(), 1e-15d);
 	}
@@ -215,20 +216,20 @@ public class LuceneEnhancerTest{
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		
 		TagTO tag = new TagTO("español", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				luceneEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(1.0d);
 		tags.put(tag.getLabel(),tag);
 		
 		suggest.setTags(tags);
-		luceneEnhancer.suggest = suggest;
-		luceneEnhancer.tags = tags;
+		context.setSuggest(suggest);
+		context.setTags(tags);
 		
 		ResourceTO resource = new ResourceTO();
 		resource.setLabel("asdfokl");
 		
-		luceneEnhancer.request = new RequestSuggestionTO(resource);
+		this.context = createContext(new RequestSuggestionTO(resource));
 		
-		luceneEnhancer.extractLabelTerms();
+		luceneEnhancer.extractLabelTerms(context);
 		
 		assertEquals(1d, suggest.getTags().get("español").getValue(), 1e-15);
 	}
@@ -240,21 +241,21 @@ public class LuceneEnhancerTest{
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		
 		TagTO tag = new TagTO("español", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				luceneEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(1.0d);
 		tags.put(tag.getLabel(),tag);
 		
 
 		suggest.setTags(tags);
-		luceneEnhancer.suggest = suggest;
-		luceneEnhancer.tags = tags;
+		context.setSuggest(suggest);
+		context.setTags(tags);
 		
 		ResourceTO resource = new ResourceTO();
 		resource.setLabel("Esto es Español");
 		
-		luceneEnhancer.request = new RequestSuggestionTO(resource);
+		this.context = createContext(new RequestSuggestionTO(resource));
 		
-		luceneEnhancer.extractLabelTerms();
+		luceneEnhancer.extractLabelTerms(context);
 		
 		assertEquals(2.0d, suggest.getTags().get("español").getValue(), 1e-15d);
 	}
@@ -265,10 +266,10 @@ public class LuceneEnhancerTest{
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		
 		suggest.setTags(tags);
-		luceneEnhancer.suggest = suggest;
-		luceneEnhancer.tags = tags;
+		context.setSuggest(suggest);
+		context.setTags(tags);
 		
-		luceneEnhancer.extractTerms("label", "Esto es Español", 10d);
+		luceneEnhancer.extractTerms(context, "label", "Esto es Español", 10d);
 		assertEquals(10d, suggest.getTags().get("español").getValue(), 1e-15d);
 	}
 	
@@ -278,14 +279,14 @@ public class LuceneEnhancerTest{
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("español", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				luceneEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(3.0d);
 		tags.put(tag.getLabel(), tag);
 		
-		luceneEnhancer.suggest.setTags(tags);
-		luceneEnhancer.tags = tags;
+		context.getSuggest().setTags(tags);
+		context.setTags(tags);
 		
-		luceneEnhancer.extractTerms("label", "Esto es Español", 10d);
+		luceneEnhancer.extractTerms(context, "label", "Esto es Español", 10d);
 		assertEquals(13d, suggest.getTags().get("español").getValue(), 1e-15);
 	}
 	
@@ -295,17 +296,17 @@ public class LuceneEnhancerTest{
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("foo", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				luceneEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(1);
 		tags.put(tag.getLabel(), tag);
 		
-		luceneEnhancer.suggest = suggest;
-		luceneEnhancer.tags = tags;
+		context.setSuggest(suggest);
+		context.setTags(tags);
 		
 		tag = new TagTO("foo", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				luceneEnhancer.getProvider(), suggest.getResource());
 		
-		luceneEnhancer.fillSuggestions(tag,1d);
+		luceneEnhancer.fillSuggestions(context, tag,1d);
 		
 		assertEquals(2d, tags.get("foo").getValue(), 1e-15d);
 	}
@@ -316,13 +317,13 @@ public class LuceneEnhancerTest{
 		
 		SuggestionTO suggest = initializeSuggest();
 
-		luceneEnhancer.suggest = suggest;
-		luceneEnhancer.tags = tags;
+		context.setSuggest(suggest);
+		context.setTags(tags);
 		
 		TagTO tag = new TagTO("foo", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				luceneEnhancer.getProvider(), suggest.getResource());
 		
-		luceneEnhancer.fillSuggestions(tag,1d);
+		luceneEnhancer.fillSuggestions(context, tag,1d);
 		
 		assertEquals(1d, tags.get("foo").getValue(), 1e-15d);
 	}
@@ -333,9 +334,9 @@ public class LuceneEnhancerTest{
 		attribute.append("foo");
 		SuggestionTO suggest = initializeSuggest();
 		TagTO tag = new TagTO("foo", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				luceneEnhancer.getProvider(), suggest.getResource());
 
-		assertEquals(tag, luceneEnhancer.createTag(attribute, LanguageDetector.ISO_639_SPANISH));
+		assertEquals(tag, luceneEnhancer.createTag(context, attribute, LanguageDetector.ISO_639_SPANISH));
 	}
 	
 	private SuggestionTO initializeSuggest() throws Exception {
@@ -344,8 +345,15 @@ public class LuceneEnhancerTest{
 		RequestSuggestionTO request = mock(RequestSuggestionTO.class);
 		when(request.getResource()).thenReturn(resource);
 		when(request.getSuggestions()).thenReturn(suggest);
-		luceneEnhancer.request = request;
-		luceneEnhancer.preExecute();
-		return luceneEnhancer.suggest;
+		this.context = new EnhancerContext(request);
+		luceneEnhancer.preExecute(context);
+		return context.getSuggest();
+	}
+	
+	private EnhancerContext createContext(RequestSuggestionTO request) {
+		EnhancerContext newContext = new EnhancerContext(request);
+		newContext.setSuggest(context.getSuggest());
+		newContext.setTags(context.getTags());
+		return newContext;
 	}
 }
@@ -7,7 +7,6 @@ import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +16,7 @@ import org.junit.Test;
 
 import es.weso.acota.core.business.enhancer.LuceneEnhancer;
 import es.weso.acota.core.business.enhancer.OpenNLPEnhancer;
+import es.weso.acota.core.business.enhancer.OpenNLPEnhancer.OpenNLPContext;
 import es.weso.acota.core.business.enhancer.analyzer.opennlp.SpanishOpenNLPAnalyzer;
 import es.weso.acota.core.entity.ProviderTO;
 import es.weso.acota.core.entity.RequestSuggestionTO;
@@ -29,6 +29,7 @@ import es.weso.acota.core.utils.lang.LanguageDetector;
 public class OpenNLPEnhancerTest {
 	
 	protected OpenNLPEnhancer openNLPEnhancer;
+	protected OpenNLPContext context;
 	
 	@Before
 	public void setUp() throws AcotaConfigurationException{
@@ -37,22 +38,22 @@ public class OpenNLPEnhancerTest {
 	
 	@Test
 	public void getProviderTest(){
-		assertEquals(OpenNLPEnhancer.provider, openNLPEnhancer.getProvider());
+		assertEquals("OpenNPL Enhancer", openNLPEnhancer.getProvider().getDescription());
 	}
 	
 	@Test
 	public void OpenNLPEConstructorNouns(){
-		assertEquals(Collections.EMPTY_SET, openNLPEnhancer.nouns);
+		assertEquals(Collections.EMPTY_SET, openNLPEnhancer.createContext(null).getNouns());
 	}
 	
 	@Test
 	public void OpenNLPEConstructorVerbs(){
-		assertEquals(Collections.EMPTY_SET, openNLPEnhancer.verbs);
+		assertEquals(Collections.EMPTY_SET, openNLPEnhancer.createContext(null).getVerbs());
 	}
 
 	@Test
 	public void OpenNLPEConstructorNumbers(){
-		assertEquals(Collections.EMPTY_SET, openNLPEnhancer.adjectives);
+		assertEquals(Collections.EMPTY_SET, openNLPEnhancer.createContext(null).getAdjectives());
 	}
 	
 	@Test
@@ -65,10 +66,10 @@ public class OpenNLPEnhancerTest {
 		when(request.getSuggestions()).thenReturn(suggestion);
 
 		
-		openNLPEnhancer.request = request;
-		openNLPEnhancer.preExecute();
+		this.context = new OpenNLPContext(request);
+		openNLPEnhancer.preExecute(context);
 		
-		assertEquals(resource, openNLPEnhancer.suggest.getResource());
+		assertEquals(resource, context.getSuggest().getResource());
 	}
 	
 	@Test
@@ -78,10 +79,10 @@ public class OpenNLPEnhancerTest {
 		RequestSuggestionTO request = mock(RequestSuggestionTO.class);
 		when(request.getTargetProviders()).thenReturn(providers);
 		
-		openNLPEnhancer.request = request;
+		this.context = new OpenNLPContext(request);
 		
-		openNLPEnhancer.postExecute();
-		assertTrue(openNLPEnhancer.request.getTargetProviders().contains(OpenNLPEnhancer.provider)==true);
+		openNLPEnhancer.postExecute(context);
+		assertTrue(context.getRequest().getTargetProviders().contains(openNLPEnhancer.getProvider())==true);
 	}
 	
 	@Test
@@ -91,10 +92,10 @@ public class OpenNLPEnhancerTest {
 		RequestSuggestionTO request = mock(RequestSuggestionTO.class);
 		when(request.getSuggestions()).thenReturn(suggestion);
 		
-		openNLPEnhancer.request = request;
+		this.context = new OpenNLPContext(request);
 		
-		openNLPEnhancer.postExecute();
-		assertEquals(suggestion, openNLPEnhancer.request.getSuggestions());
+		openNLPEnhancer.postExecute(context);
+		assertEquals(suggestion, context.getRequest().getSuggestions());
 	}
 	
 	@Test
@@ -103,12 +104,12 @@ public class OpenNLPEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("prueba", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(4.0d);
 		tags.put(tag.getLabel(), tag);
 		
-		openNLPEnhancer.tags = tags;
-		openNLPEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
 		suggest.setTags(tags);
 		
@@ -132,16 +133,16 @@ public class OpenNLPEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag1 = new TagTO("eso", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag1.setValue(2.0);
 		TagTO tag2 = new TagTO("tu", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag2.setValue(2.0);
 		TagTO tag3 = new TagTO("comer", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag3.setValue(2.0);
 		TagTO tag4 = new TagTO("bueno", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag4.setValue(2.0);
 		
 		tags.put(tag1.getLabel(), tag1);
@@ -149,12 +150,12 @@ public class OpenNLPEnhancerTest {
 		tags.put(tag3.getLabel(), tag3);
 		tags.put(tag4.getLabel(), tag4);
 		
-		openNLPEnhancer.tags = tags;
-		openNLPEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
 		suggest.setTags(tags);
 		
-		openNLPEnhancer.processSetence(new String[]{}, new String[]{});
+		openNLPEnhancer.processSetence(context, new String[]{}, new String[]{});
 		
 		assertEquals(2.0d, tags.get("eso").getValue(), 1e-15d);
 		assertEquals(2.0d, tags.get("tu").getValue(), 1e-15d);
@@ -168,18 +169,18 @@ public class OpenNLPEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("perro",LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(2.0);
 		tags.put(tag.getLabel(), tag);
 		
-		openNLPEnhancer.tags = tags;
-		openNLPEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
-		openNLPEnhancer.openNlpAnalyzer = new SpanishOpenNLPAnalyzer(openNLPEnhancer.configuration);
+		context.setOpenNlpAnalyzer(new SpanishOpenNLPAnalyzer(openNLPEnhancer.configuration));
 		
-		openNLPEnhancer.processSetence(new String[]{"T"}, new String[]{"perro"});
+		openNLPEnhancer.processSetence(context, new String[]{"T"}, new String[]{"perro"});
 		
-		assertEquals(2d, openNLPEnhancer.tags.get("perro").getValue(), 1e-15d);
+		assertEquals(2d, context.getTags().get("perro").getValue(), 1e-15d);
 	}
 	
 	@Test
@@ -188,16 +189,16 @@ public class OpenNLPEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag1 = new TagTO("eso", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider,suggest.getResource());
+				openNLPEnhancer.getProvider(),suggest.getResource());
 		tag1.setValue(2.0);
 		TagTO tag2 = new TagTO("perro", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider,suggest.getResource());
+				openNLPEnhancer.getProvider(),suggest.getResource());
 		tag2.setValue(2.0);
 		TagTO tag3 = new TagTO("comer", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider,suggest.getResource());
+				openNLPEnhancer.getProvider(),suggest.getResource());
 		tag3.setValue(2.0);
 		TagTO tag4 = new TagTO("bueno", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider,suggest.getResource());
+				openNLPEnhancer.getProvider(),suggest.getResource());
 		tag4.setValue(2.0);
 		
 		tags.put(tag1.getLabel(), tag1);
@@ -205,26 +206,27 @@ public class OpenNLPEnhancerTest {
 		tags.put(tag3.getLabel(), tag3);
 		tags.put(tag4.getLabel(), tag4);
 		
-		openNLPEnhancer.tags = tags;
-		openNLPEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
 		suggest.setTags(tags);
 		
-		openNLPEnhancer.openNlpAnalyzer = new SpanishOpenNLPAnalyzer(openNLPEnhancer.configuration);
-		openNLPEnhancer.processSetence(new String[]{"PN","NC","VS","AQ"}, new String[]{"eso","perro","comer","bueno"});
+		context.setOpenNlpAnalyzer(new SpanishOpenNLPAnalyzer(openNLPEnhancer.configuration));
+		openNLPEnhancer.processSetence(context, new String[]{"PN","NC","VS","AQ"}, new String[]{"eso","perro","comer","bueno"});
 		
-		assertEquals(openNLPEnhancer.tags.get("eso"),null);
-		assertTrue(openNLPEnhancer.nouns.contains("perro"));
-		assertTrue(openNLPEnhancer.verbs.contains("comer"));
-		assertTrue(openNLPEnhancer.adjectives.contains("bueno"));
+		assertEquals(context.getTags().get("eso"),null);
+		assertTrue(context.getNouns().contains("perro"));
+		assertTrue(context.getVerbs().contains("comer"));
+		assertTrue(context.getAdjectives().contains("bueno"));
 	}
 	
 	@Test 
 	public void calculateMaxValueEmptyTest(){
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		
-		openNLPEnhancer.tags = tags;
-		assertEquals(0d, openNLPEnhancer.calculateMaxValue(), 1e-15d);
+		this.context = new OpenNLPContext(mock(RequestSuggestionTO.class));
+		context.setTags(tags);
+		assertEquals(0d, openNLPEnhancer.calculateMaxValue(context), 1e-15d);
 	}
 	
 	@Test 
@@ -233,16 +235,16 @@ public class OpenNLPEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("esos", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(1.0);
 		tags.put(tag.getLabel(), tag);
 		
-		openNLPEnhancer.tags = tags;
-		openNLPEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
-		openNLPEnhancer.findAndRemove("eso");
+		openNLPEnhancer.findAndRemove(context, "eso");
 		
-		assertTrue(null == openNLPEnhancer.tags.get("eso"));
+		assertTrue(null == context.getTags().get("eso"));
 	}
 	
 	@Test 
@@ -251,16 +253,16 @@ public class OpenNLPEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("eso", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(1.0);
 		tags.put(tag.getLabel(), tag);
 		
-		openNLPEnhancer.tags = tags;
-		openNLPEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
-		openNLPEnhancer.findAndRemove("eso");
+		openNLPEnhancer.findAndRemove(context, "eso");
 		
-		assertTrue(null == openNLPEnhancer.tags.get("eso"));
+		assertTrue(null == context.getTags().get("eso"));
 	}
 	
 	@Test
@@ -269,16 +271,16 @@ public class OpenNLPEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("yo", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(1.0);
 		tags.put(tag.getLabel(), tag);
 		
-		openNLPEnhancer.tags = tags;
-		openNLPEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
-		openNLPEnhancer.alterTags();
+		openNLPEnhancer.alterTags(context);
 		
-		assertEquals(1d, openNLPEnhancer.tags.get("yo").getValue(), 1e-15d);
+		assertEquals(1d, context.getTags().get("yo").getValue(), 1e-15d);
 	}
 	
 	@Test
@@ -287,19 +289,18 @@ public class OpenNLPEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("yo", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(1.0);
 		tags.put(tag.getLabel(), tag);
 		
-		openNLPEnhancer.tags = tags;
-		openNLPEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
-		openNLPEnhancer.nouns = new HashSet<String>();
-		openNLPEnhancer.nouns.add("yo");
+		context.getNouns().add("yo");
 		
-		openNLPEnhancer.alterTags();
+		openNLPEnhancer.alterTags(context);
 		
-		assertEquals(2d, openNLPEnhancer.tags.get("yo").getValue(), 1e-15d);
+		assertEquals(2d, context.getTags().get("yo").getValue(), 1e-15d);
 	}
 	
 	@Test
@@ -308,16 +309,16 @@ public class OpenNLPEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("comer", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(2.0);
 		tags.put(tag.getLabel(), tag);
 		
-		openNLPEnhancer.tags = tags;
-		openNLPEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
-		openNLPEnhancer.alterTags();
+		openNLPEnhancer.alterTags(context);
 		
-		assertEquals(2d, openNLPEnhancer.tags.get("comer").getValue(), 1e-15d);
+		assertEquals(2d, context.getTags().get("comer").getValue(), 1e-15d);
 	}
 	
 	@Test
@@ -326,19 +327,18 @@ public class OpenNLPEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("comer", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(2.0);
 		tags.put(tag.getLabel(), tag);
 		
-		openNLPEnhancer.tags = tags;
-		openNLPEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
-		openNLPEnhancer.verbs = new HashSet<String>();
-		openNLPEnhancer.verbs.add("comer");
+		context.getVerbs().add("comer");
 		
-		openNLPEnhancer.alterTags();
+		openNLPEnhancer.alterTags(context);
 		
-		assertEquals(3d, openNLPEnhancer.tags.get("comer").getValue(), 1e-15d);
+		assertEquals(3d, context.getTags().get("comer").getValue(), 1e-15d);
 	}
 	
 	@Test
@@ -347,16 +347,16 @@ public class OpenNLPEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("bueno", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				openNLPEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(1.0);
 		tags.put(tag.getLabel(), tag);
 		
-		openNLPEnhancer.tags = tags;
-		openNLPEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
-		openNLPEnhancer.alterTags();
+		openNLPEnhancer.alterTags(context);
 		
-		assertEquals(1d, openNLPEnhancer.tags.get("bueno").getValue(), 1e-15d);
+		assertEquals(1d, context.getTags().get("bueno").getValue(), 1e-15d);
 	}
 	
 	@Test
@@ -365,19 +365,18 @@ public class OpenNLPEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("bueno", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider,suggest.getResource());
+				openNLPEnhancer.getProvider(),suggest.getResource());
 		tag.setValue(1.0);
 		tags.put(tag.getLabel(), tag);
 		
-		openNLPEnhancer.tags = tags;
-		openNLPEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
-		openNLPEnhancer.adjectives = new HashSet<String>();
-		openNLPEnhancer.adjectives.add("bueno");
+		context.getAdjectives().add("bueno");
 		
-		openNLPEnhancer.alterTags();
+		openNLPEnhancer.alterTags(context);
 		
-		assertEquals(2d, openNLPEnhancer.tags.get("bueno").getValue(), 1e-15d);
+		assertEquals(2d, context.getTags().get("bueno").getValue(), 1e-15d);
 	}
 	
 	private SuggestionTO initializeSuggest() throws Exception {
@@ -386,9 +385,9 @@ public class OpenNLPEnhancerTest {
 		RequestSuggestionTO request = mock(RequestSuggestionTO.class);
 		when(request.getResource()).thenReturn(resource);
 		when(request.getSuggestions()).thenReturn(suggest);
-		openNLPEnhancer.request = request;
-		openNLPEnhancer.preExecute();
-		return openNLPEnhancer.suggest;
+		this.context = new OpenNLPContext(request);
+		openNLPEnhancer.preExecute(context);
+		return context.getSuggest();
 	}
 	
 }
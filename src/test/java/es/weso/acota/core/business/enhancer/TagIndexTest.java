@@ -0,0 +1,79 @@
+package es.weso.acota.core.business.enhancer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import es.weso.acota.core.entity.TagTO;
+
+public class TagIndexTest {
+
+	@Test
+	public void maxValueTest() {
+		TagIndex index = new TagIndex(new HashMap<String, TagTO>());
+		assertEquals(0d, index.getMaxValue(), 1e-15d);
+
+		assertTrue(index.add(new TagTO("foo", "en", null, null), 2d));
+		assertTrue(index.add(new TagTO("bar", "en", null, null), 5d));
+		assertFalse(index.add(new TagTO("foo", "en", null, null), 4d));
+		assertEquals(6d, index.getMaxValue(), 1e-15d);
+
+		index.remove("foo");
+		assertEquals(5d, index.getMaxValue(), 1e-15d);
+		index.addValue(index.get("bar"), -4d);
+		assertEquals(1d, index.getMaxValue(), 1e-15d);
+	}
+
+	@Test
+	public void topTest() {
+		Map<String, TagTO> tags = new HashMap<String, TagTO>();
+		TagIndex index = new TagIndex(tags);
+		index.add(new TagTO("a", "en", null, null), 1d);
+		index.add(new TagTO("b", "en", null, null), 3d);
+		index.add(new TagTO("c", "en", null, null), 2d);
+		index.add(new TagTO("d", "en", null, null), 3d);
+		index.add(new TagTO("e", "en", null, null), 5d);
+		index.remove("e");
+
+		List<TagTO> top = index.top(3);
+		assertEquals(3, top.size());
+		assertEquals("b", top.get(0).getLabel());
+		assertEquals("d", top.get(1).getLabel());
+		assertEquals("c", top.get(2).getLabel());
+		assertEquals(4, index.top(10).size());
+		assertTrue(index.top(0).isEmpty());
+	}
+
+	@Test
+	public void iterationTest() {
+		Map<String, TagTO> tags = new HashMap<String, TagTO>();
+		tags.put("foo", new TagTO("foo", "en", null, null));
+		TagIndex index = new TagIndex(tags);
+		index.add(new TagTO("bar", "en", null, null), 1d);
+
+		int visited = 0;
+		for (int i = 0, count = index.getEntryCount(); i < count; i++) {
+			if (index.getEntry(i) != null)
+				visited++;
+			index.add(new TagTO(index.getLabel(i) + i, "en", null, null), 1d);
+		}
+		assertEquals(2, visited);
+		assertEquals(4, index.size());
+
+		index.remove("bar");
+		assertNull(index.getEntry(1));
+		assertTrue(index.isIndexing(tags));
+		tags.put("baz", new TagTO("baz", "en", null, null));
+		assertFalse(index.isIndexing(tags));
+		assertSame(tags.get("foo"), index.getEntry(0));
+	}
+
+}
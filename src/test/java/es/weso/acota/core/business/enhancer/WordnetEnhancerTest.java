@@ -27,6 +27,7 @@ import es.weso.acota.core.utils.lang.LanguageDetector;
 public class WordnetEnhancerTest {
 	
 	private WordnetEnhancer wordnetEnhancer;
+	private EnhancerContext context;
 	
 	@Before
 	public void startTest() throws AcotaConfigurationException, IOException {
@@ -35,7 +36,7 @@ public class WordnetEnhancerTest {
 	
 	@Test
 	public void getProviderTest(){
-		assertEquals(WordnetEnhancer.provider, wordnetEnhancer.getProvider());
+		assertEquals("Wordnet Enhancer", wordnetEnhancer.getProvider().getDescription());
 	}
 	
 	@Test
@@ -48,10 +49,10 @@ public class WordnetEnhancerTest {
 		when(request.getSuggestions()).thenReturn(suggestion);
 
 		
-		wordnetEnhancer.request = request;
-		wordnetEnhancer.preExecute();
+		this.context = new EnhancerContext(request);
+		wordnetEnhancer.preExecute(context);
 		
-		assertEquals(resource, wordnetEnhancer.suggest.getResource());
+		assertEquals(resource, context.getSuggest().getResource());
 	}
 	
 	@Test
@@ -61,10 +62,10 @@ public class WordnetEnhancerTest {
 		RequestSuggestionTO request = mock(RequestSuggestionTO.class);
 		when(request.getTargetProviders()).thenReturn(providers);
 		
-		wordnetEnhancer.request = request;
+		this.context = new EnhancerContext(request);
 		
-		wordnetEnhancer.postExecute();
-		assertTrue(wordnetEnhancer.request.getTargetProviders().contains(WordnetEnhancer.provider)==true);
+		wordnetEnhancer.postExecute(context);
+		assertTrue(context.getRequest().getTargetProviders().contains(wordnetEnhancer.getProvider())==true);
 	}
 	
 	@Test
@@ -74,10 +75,10 @@ public class WordnetEnhancerTest {
 		RequestSuggestionTO request = mock(RequestSuggestionTO.class);
 		when(request.getSuggestions()).thenReturn(suggestion);
 		
-		wordnetEnhancer.request = request;
+		this.context = new EnhancerContext(request);
 		
-		wordnetEnhancer.postExecute();
-		assertEquals(suggestion, wordnetEnhancer.request.getSuggestions());
+		wordnetEnhancer.postExecute(context);
+		assertEquals(suggestion, context.getRequest().getSuggestions());
 	}
 	
 	
@@ -87,12 +88,12 @@ public class WordnetEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("open", LanguageDetector.ISO_639_ENGLISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				wordnetEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(4.0);
 		tags.put(tag.getLabel(), tag);
 		
-		wordnetEnhancer.tags = tags;
-		wordnetEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
 		ResourceTO resource = new ResourceTO();
 		resource.setDescription("Open");
@@ -115,12 +116,12 @@ public class WordnetEnhancerTest {
 		
 		Map<String, TagTO> tags = new HashMap<String, TagTO>();
 		TagTO tag = new TagTO("abierto", LanguageDetector.ISO_639_SPANISH,
-				LuceneEnhancer.provider, suggest.getResource());
+				wordnetEnhancer.getProvider(), suggest.getResource());
 		tag.setValue(4.0);
 		tags.put(tag.getLabel(), tag);
 		
-		wordnetEnhancer.tags = tags;
-		wordnetEnhancer.suggest = suggest;
+		context.setTags(tags);
+		context.setSuggest(suggest);
 		
 		ResourceTO resource = new ResourceTO();
 		resource.setDescription("Abierto");
@@ -143,8 +144,8 @@ public class WordnetEnhancerTest {
 		RequestSuggestionTO request = mock(RequestSuggestionTO.class);
 		when(request.getResource()).thenReturn(resource);
 		when(request.getSuggestions()).thenReturn(suggest);
-		wordnetEnhancer.request = request;
-		wordnetEnhancer.preExecute();
-		return wordnetEnhancer.suggest;
+		this.context = new EnhancerContext(request);
+		wordnetEnhancer.preExecute(context);
+		return context.getSuggest();
 	}
 }
@@ -0,0 +1,70 @@
+package es.weso.acota.core.business.enhancer.analyzer.lexicon;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PosLexiconTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private PosLexicon lexicon;
+
+	@Before
+	public void startTest() throws Exception {
+		PosLexiconBuilder builder = new PosLexiconBuilder(3, 0.9d);
+		for (int i = 0; i < 3; i++) {
+			builder.addSentence(new String[] { "The", "semantic", "web", "works" },
+					new String[] { "DT", "JJ", "NN", "VBZ" });
+		}
+		builder.addCorpus(new StringReader("I_PRP web_VB the_DT data_NNS\nThe_DT data_NNS works_VBZ"));
+		builder.addCorpus(new StringReader("The_DT data_NNS"));
+		for (int i = 0; i < 1000; i++) {
+			builder.addSentence(new String[] { "term" + i, "term" + i, "term" + i },
+					new String[] { "NN", "NN", "NN" });
+		}
+
+		File file = folder.newFile("lexicon.bin");
+		assertEquals(1004, builder.write(file));
+		this.lexicon = new PosLexicon(file);
+	}
+
+	@Test
+	public void getTagTest() {
+		assertEquals(1004, lexicon.size());
+		assertEquals("DT", lexicon.getTag("The"));
+		assertEquals("JJ", lexicon.getTag("semantic"));
+		assertEquals("VBZ", lexicon.getTag("works"));
+		assertEquals("NNS", lexicon.getTag("data"));
+		assertEquals("NN", lexicon.getTag("term999"));
+		assertSame(lexicon.getTag("term0"), lexicon.getTag("term1"));
+	}
+
+	@Test
+	public void getTagMissingTest() {
+		assertNull(lexicon.getTag("web"));
+		assertNull(lexicon.getTag("the"));
+		assertNull(lexicon.getTag("I"));
+		assertNull(lexicon.getTag("unknown"));
+		assertNull(lexicon.getTag(""));
+	}
+
+	@Test
+	public void getTagsetTest() {
+		String[] tagset = lexicon.getTagset();
+		Arrays.sort(tagset);
+		assertArrayEquals(new String[] { "DT", "JJ", "NN", "NNS", "VBZ" }, tagset);
+	}
+
+}
@@ -0,0 +1,56 @@
+package es.weso.acota.core.business.enhancer.analyzer.lucene;
+
+import static es.weso.acota.core.utils.lang.LanguageDetector.ISO_639_ENGLISH;
+import static es.weso.acota.core.utils.lang.LanguageDetector.ISO_639_SPANISH;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import es.weso.acota.core.CoreConfiguration;
+
+public class StopAnalyzerFactoryTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void defaultStopWordsTest() throws Exception {
+		CoreConfiguration configuration = new CoreConfiguration();
+		configuration.setLuceneEsStopWords("");
+		configuration.setLuceneEnStopWords("");
+		assertSame(SpanishStopAnalyzer.getInstance(),
+				StopAnalyzerFactory.getAnalyzer(ISO_639_SPANISH, configuration));
+		assertSame(EnglishStopAnalyzer.getInstance(),
+				StopAnalyzerFactory.getAnalyzer(ISO_639_ENGLISH, configuration));
+	}
+
+	@Test
+	public void sharedByFileTest() throws Exception {
+		CoreConfiguration first = new CoreConfiguration();
+		first.setLuceneEsStopWords(stopWords("first.txt", "de\nla\n").getPath());
+		CoreConfiguration second = new CoreConfiguration();
+		second.setLuceneEsStopWords(stopWords("second.txt", "que\n").getPath());
+
+		SpanishStopAnalyzer analyzer = SpanishStopAnalyzer.getInstance(first);
+		assertNotSame(analyzer, SpanishStopAnalyzer.getInstance(second));
+		assertNotSame(SpanishStopAnalyzer.getInstance(), analyzer);
+		assertSame(analyzer, SpanishStopAnalyzer.getInstance(first));
+	}
+
+	private File stopWords(String name, String content) throws Exception {
+		File file = folder.newFile(name);
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		writer.write(content);
+		writer.close();
+		return file;
+	}
+
+}
@@ -0,0 +1,77 @@
+package es.weso.acota.core.business.enhancer.analyzer.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import es.weso.acota.core.business.enhancer.analyzer.model.DecoderPool.DecoderFactory;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+public class DecoderPoolTest {
+
+	@Test
+	public void reuseTest() throws Exception {
+		DecoderPool<Object> pool = new DecoderPool<Object>(new CountingFactory(), 2, 0);
+		Object first = pool.acquire();
+		Object second = pool.acquire();
+		assertNotSame(first, second);
+		assertEquals(2, pool.getCreated());
+
+		pool.release(first);
+		pool.release(second);
+		assertSame(second, pool.acquire());
+		assertEquals(2, pool.getCreated());
+		assertEquals(1, pool.getIdle());
+	}
+
+	@Test
+	public void boundedTest() throws Exception {
+		final DecoderPool<Object> pool = new DecoderPool<Object>(new CountingFactory(), 1, 0);
+		final Object decoder = pool.acquire();
+		final CountDownLatch acquired = new CountDownLatch(1);
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					assertSame(decoder, pool.acquire());
+					acquired.countDown();
+				} catch (AcotaConfigurationException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+		thread.start();
+		assertEquals(false, acquired.await(100, TimeUnit.MILLISECONDS));
+		pool.release(decoder);
+		assertEquals(true, acquired.await(5, TimeUnit.SECONDS));
+		assertEquals(1, pool.getCreated());
+	}
+
+	@Test
+	public void evictionTest() throws Exception {
+		DecoderPool<Object> pool = new DecoderPool<Object>(new CountingFactory(), 2, 1);
+		Object decoder = pool.acquire();
+		pool.release(decoder);
+		Thread.sleep(20);
+		assertNotSame(decoder, pool.acquire());
+		assertEquals(1, pool.getCreated());
+		assertEquals(0, pool.getIdle());
+	}
+
+	private static class CountingFactory implements DecoderFactory<Object> {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Object create() {
+			return Integer.valueOf(count.incrementAndGet());
+		}
+	}
+
+}
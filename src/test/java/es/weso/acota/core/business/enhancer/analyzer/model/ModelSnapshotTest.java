@@ -0,0 +1,98 @@
+package es.weso.acota.core.business.enhancer.analyzer.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import opennlp.maxent.Context;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ModelSnapshotTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File model;
+	private File file;
+
+	@Before
+	public void startTest() throws Exception {
+		int[][] patterns = new int[][] { { 2, 0, 1 }, { 1, 2 } };
+		int[] first = new int[] { 0, 1 };
+		Context[] parameters = new Context[] {
+				new Context(first, new double[] { 0.5d, -1.25d }),
+				new Context(first, new double[] { 2d, 0d }),
+				new Context(new int[] { 2 }, new double[] { Math.PI }) };
+		ModelSnapshotWriter writer = new ModelSnapshotWriter(3, 0.75d,
+				new String[] { "NN", "VB", "JJ" }, patterns,
+				new String[] { "w=web", "p=DT", "suf=ñol" }, parameters);
+
+		this.model = folder.newFile("POS.bin");
+		writer.sourceLength = model.length();
+		writer.sourceModified = model.lastModified();
+		this.file = ModelSnapshot.getSnapshotFile(model);
+		writer.write(file);
+	}
+
+	@Test
+	public void readTest() throws IOException {
+		ModelSnapshot snapshot = new ModelSnapshot(file);
+		assertEquals(3, snapshot.getOutcomeCount());
+		assertEquals(3, snapshot.getPredicateCount());
+		assertEquals(3, snapshot.correctionConstant);
+		assertEquals(0.75d, snapshot.correctionParam, 0d);
+		assertArrayEquals(new String[] { "NN", "VB", "JJ", "w=web", "p=DT", "suf=ñol" },
+				snapshot.readLabels());
+
+		Context[] contexts = snapshot.readParameters();
+		assertEquals(3, contexts.length);
+		assertArrayEquals(new int[] { 0, 1 }, contexts[0].getOutcomes());
+		assertSame(contexts[0].getOutcomes(), contexts[1].getOutcomes());
+		assertArrayEquals(new int[] { 2 }, contexts[2].getOutcomes());
+		assertArrayEquals(new double[] { 0.5d, -1.25d }, contexts[0].getParameters(), 0d);
+		assertArrayEquals(new double[] { 2d, 0d }, contexts[1].getParameters(), 0d);
+		assertArrayEquals(new double[] { Math.PI }, contexts[2].getParameters(), 0d);
+	}
+
+	@Test
+	public void isSnapshotOfTest() throws IOException {
+		ModelSnapshot snapshot = new ModelSnapshot(file);
+		assertTrue(snapshot.isSnapshotOf(model));
+		assertTrue(snapshot.isSnapshotOf(new File(folder.getRoot(), "Missing.bin")));
+		FileOutputStream out = new FileOutputStream(model);
+		out.write(1);
+		out.close();
+		assertFalse(snapshot.isSnapshotOf(model));
+		assertFalse(new File(file.getPath() + ".tmp").exists());
+	}
+
+	@Test(expected = IOException.class)
+	public void truncatedTest() throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.setLength(raf.length() - 2);
+		raf.close();
+		new ModelSnapshot(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void notSnapshotTest() throws IOException {
+		new ModelSnapshot(model);
+	}
+
+	@Test(expected = IOException.class)
+	public void plainTextModelTest() throws IOException {
+		new ModelSnapshotWriter(folder.newFile("model.txt"));
+	}
+
+}
@@ -0,0 +1,90 @@
+package es.weso.acota.core.business.enhancer.analyzer.opennlp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+
+import opennlp.tools.dictionary.Dictionary;
+import opennlp.tools.postag.POSTagger;
+import opennlp.tools.sentdetect.SentenceDetector;
+import opennlp.tools.tokenize.Tokenizer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import es.weso.acota.core.CoreConfiguration;
+
+/**
+ * Checks, on the shipped models, that the analyzers built over the shared models of
+ * the ModelRegistry produce the same output as OpenNLP's language-specific classes.
+ * The test is skipped when the models are not installed.
+ */
+public class OpenNLPModelsGoldenTest {
+
+	private static final String[] ENGLISH_TEXTS = new String[] {
+			"The semantic web extends the World Wide Web through standards set by the W3C. "
+					+ "Its goal is to make Internet data machine-readable.",
+			"Dr. Smith didn't arrive until 5 p.m., so the meeting was moved to Room 3-B.",
+			"Linked data: RDF, SPARQL and OWL (the Web Ontology Language) are its building blocks!" };
+
+	private static final String[] SPANISH_TEXTS = new String[] {
+			"La web semántica es una extensión de la World Wide Web. "
+					+ "Su objetivo es que los datos de Internet sean legibles por las máquinas.",
+			"¿Dónde está el Sr. García? El director llegó a las 5 de la tarde.",
+			"Los datos enlazados (RDF, SPARQL y OWL) son sus piezas básicas, ¡sin duda!" };
+
+	private CoreConfiguration configuration;
+
+	@Before
+	public void startTest() throws Exception {
+		this.configuration = new CoreConfiguration();
+		configuration.setOpenNlpLexiconEnabled(false);
+	}
+
+	@Test
+	public void englishTest() throws Exception {
+		String sent = configuration.getOpenNlpEnSentBin();
+		String tok = configuration.getOpenNlpEnTokBin();
+		String pos = configuration.getOpenNlpEnPosBin();
+		assumeModels(sent, tok, pos);
+
+		assertSameOutput(new EnglishOpenNLPAnalyzer(configuration),
+				new opennlp.tools.lang.english.SentenceDetector(sent),
+				new opennlp.tools.lang.english.Tokenizer(tok),
+				new opennlp.tools.lang.english.PosTagger(pos, new Dictionary()), ENGLISH_TEXTS);
+	}
+
+	@Test
+	public void spanishTest() throws Exception {
+		String sent = configuration.getOpenNlpEsSentBin();
+		String tok = configuration.getOpenNlpEsTokBin();
+		String pos = configuration.getOpenNlpEsPosBin();
+		assumeModels(sent, tok, pos);
+
+		assertSameOutput(new SpanishOpenNLPAnalyzer(configuration),
+				new opennlp.tools.lang.spanish.SentenceDetector(sent),
+				new opennlp.tools.lang.spanish.Tokenizer(tok),
+				new opennlp.tools.lang.spanish.PosTagger(pos), SPANISH_TEXTS);
+	}
+
+	private void assertSameOutput(OpenNLPAnalyzer analyzer, SentenceDetector sentenceDetector,
+			Tokenizer tokenizer, POSTagger posTagger, String[] texts) throws Exception {
+		for (String text : texts) {
+			String[] sentences = sentenceDetector.sentDetect(text);
+			assertArrayEquals(text, sentences, analyzer.sentDetect(text));
+			for (String sentence : sentences) {
+				String[] tokens = tokenizer.tokenize(sentence);
+				assertArrayEquals(sentence, tokens, analyzer.tokenize(sentence));
+				assertArrayEquals(sentence, posTagger.tag(tokens), analyzer.tag(tokens));
+			}
+		}
+	}
+
+	private void assumeModels(String... paths) {
+		for (String path : paths) {
+			assumeTrue(path != null && new File(path).isFile());
+		}
+	}
+
+}
@@ -0,0 +1,32 @@
+package es.weso.acota.core.business.enhancer.analyzer.opennlp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class TagClassTableTest {
+
+	@Test
+	public void classifyTest() {
+		TagClassTable table = TagClassTable.EMPTY
+				.with(Arrays.asList("PRP", "CC", "IN"), TagClassTable.DISPENSABLE)
+				.with(Arrays.asList("NN", "NNS", "NNP"), TagClassTable.NOUN)
+				.with(Arrays.asList("VB", "VBD"), TagClassTable.VERB)
+				.with(Arrays.asList("JJ", " JJR"), TagClassTable.ADJECTIVE)
+				.with(Arrays.asList("NN", "JJ"), TagClassTable.MEANINGFUL);
+
+		assertEquals(10, table.size());
+		assertEquals(TagClassTable.DISPENSABLE, table.classify("CC"));
+		assertEquals(TagClassTable.NOUN | TagClassTable.MEANINGFUL, table.classify("NN"));
+		assertEquals(TagClassTable.ADJECTIVE, table.classify("JJR"));
+		assertEquals(TagClassTable.NONE, table.classify("DT"));
+		assertTrue(table.is(new String("VBD"), TagClassTable.VERB));
+		assertFalse(table.is("NNS", TagClassTable.MEANINGFUL));
+		assertEquals(0, TagClassTable.EMPTY.size());
+	}
+
+}
@@ -0,0 +1,107 @@
+package es.weso.acota.core.business.enhancer.idf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.entity.ResourceTO;
+
+public class DocumentFrequencyTableTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file;
+	private DocumentFrequencyTable table;
+
+	@Before
+	public void startTest() throws Exception {
+		DocumentFrequencyTableBuilder builder = new DocumentFrequencyTableBuilder(new CoreConfiguration());
+		builder.addText("The semantic web is a web of data");
+		builder.addText("Open data portals publish data");
+		ResourceTO resource = new ResourceTO();
+		resource.setLabel("Semantic tagging");
+		resource.setDescription("Automatic collaborative tagging of web resources");
+		builder.addResource(resource);
+		for (int i = 0; i < 1000; i++) {
+			builder.addText("term" + i);
+		}
+
+		this.file = folder.newFile("df.bin");
+		builder.write(file);
+		this.table = new DocumentFrequencyTable(file);
+	}
+
+	@Test
+	public void documentFrequencyTest() {
+		assertEquals(1003, table.getDocumentCount());
+		assertEquals(2, table.getDocumentFrequency("semantic"));
+		assertEquals(2, table.getDocumentFrequency("web"));
+		assertEquals(2, table.getDocumentFrequency("data"));
+		assertEquals(1, table.getDocumentFrequency("tagging"));
+		assertEquals(1, table.getDocumentFrequency("term999"));
+		assertEquals(0, table.getDocumentFrequency("the"));
+		assertEquals(0, table.getDocumentFrequency("unknown"));
+	}
+
+	@Test
+	public void weightTest() {
+		char[] buffer = "xxwebunknownxx".toCharArray();
+		double web = table.getWeight(buffer, 2, 3);
+		double unknown = table.getWeight(buffer, 5, 7);
+		assertEquals(1d, unknown, 0d);
+		assertTrue(web > 0 && web < table.getWeight("tagging".toCharArray(), 0, 7));
+	}
+
+	@Test
+	public void sharedByFileTest() throws Exception {
+		DocumentFrequencyTableBuilder builder = new DocumentFrequencyTableBuilder(new CoreConfiguration());
+		builder.addText("Linked data");
+		File other = folder.newFile("other.bin");
+		builder.write(other);
+
+		CoreConfiguration configuration = new CoreConfiguration();
+		configuration.setLuceneIdfFile(file.getPath());
+		DocumentFrequencyTable shared = DocumentFrequencyTable.getInstance(configuration);
+		CoreConfiguration otherConfiguration = new CoreConfiguration();
+		otherConfiguration.setLuceneIdfFile(other.getPath());
+		assertEquals(1, DocumentFrequencyTable.getInstance(otherConfiguration).getDocumentCount());
+
+		assertEquals(1003, shared.getDocumentCount());
+		configuration.setLuceneIdfFile(new File(folder.getRoot(), "./df.bin").getPath());
+		assertSame(shared, DocumentFrequencyTable.getInstance(configuration));
+	}
+
+	@Test(expected = IOException.class)
+	public void slotCountNotPowerOfTwoTest() throws IOException {
+		writeSlotCount(table.mapping.slotCount - 1);
+		new DocumentFrequencyTable(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void slotCountBeyondFileTest() throws IOException {
+		writeSlotCount(table.mapping.slotCount << 4);
+		new DocumentFrequencyTable(file);
+	}
+
+	private void writeSlotCount(int slotCount) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.seek(20);
+			raf.writeInt(slotCount);
+		} finally {
+			raf.close();
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+package es.weso.acota.core.business.enhancer.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.ConcurrentEnhancerAdapter;
+import es.weso.acota.core.business.enhancer.EnhancerContext;
+import es.weso.acota.core.entity.RequestSuggestionTO;
+import es.weso.acota.core.entity.ResourceTO;
+import es.weso.acota.core.entity.SuggestionTO;
+import es.weso.acota.core.entity.TagTO;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+import es.weso.acota.core.utils.lang.LanguageDetector;
+
+public class MetricsRegistryTest {
+
+	private MetricsRegistry registry;
+
+	@Before
+	public void startTest() throws AcotaConfigurationException {
+		this.registry = MetricsRegistry.getInstance(new CoreConfiguration());
+	}
+
+	@Test
+	public void histogramPercentileTest() {
+		Histogram histogram = new Histogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i);
+		}
+		HistogramSnapshot snapshot = histogram.snapshot();
+		assertEquals(1000, snapshot.getCount());
+		assertEquals(1000, snapshot.getMax());
+		assertEquals(500.5d, snapshot.getMean(), 1e-9d);
+		assertEquals(500d, snapshot.getPercentile(50), 500 * 0.125d);
+		assertEquals(990d, snapshot.getPercentile(99), 990 * 0.125d);
+		assertEquals(1000, snapshot.getPercentile(100));
+	}
+
+	@Test
+	public void histogramEmptyTest() {
+		HistogramSnapshot snapshot = new Histogram().snapshot();
+		assertEquals(0, snapshot.getCount());
+		assertEquals(0, snapshot.getPercentile(99));
+	}
+
+	@Test
+	public void processRecordsMetricsTest() {
+		LabelEnhancer enhancer = new LabelEnhancer("MetricsLabelEnhancer", registry);
+		enhancer.process(createRequest("label"));
+		enhancer.process(createRequest("other label"));
+
+		EnhancerMetrics metrics = registry.getMetrics("MetricsLabelEnhancer", LanguageDetector.ISO_639_ENGLISH);
+		EnhancerMetricsSnapshot snapshot = metrics.snapshot();
+		assertEquals(2, snapshot.getRequests());
+		assertEquals(0, snapshot.getErrors());
+		assertEquals(2, snapshot.getTagsAdded());
+		assertEquals(16, snapshot.getTextLength().getSum());
+		assertEquals(2, snapshot.getLatency(Stage.EXECUTE).getCount());
+		assertTrue(registry.snapshot().size() > 0);
+	}
+
+	@Test
+	public void processRecordsErrorsTest() {
+		LabelEnhancer enhancer = new LabelEnhancer("MetricsFailingEnhancer", registry);
+		enhancer.process(createRequest(null));
+
+		EnhancerMetricsSnapshot snapshot = registry.getMetrics("MetricsFailingEnhancer", 
+				LanguageDetector.ISO_639_ENGLISH).snapshot();
+		assertEquals(1, snapshot.getRequests());
+		assertEquals(1, snapshot.getErrors());
+		assertEquals(0, snapshot.getLatency(Stage.POST_EXECUTE).getCount());
+	}
+
+	private RequestSuggestionTO createRequest(String label) {
+		ResourceTO resource = new ResourceTO();
+		resource.setLabel(label);
+		RequestSuggestionTO request = new RequestSuggestionTO(resource);
+		request.setSuggestions(new SuggestionTO());
+		return request;
+	}
+
+	/**
+	 * Adds the label of the resource as an English tag
+	 */
+	private static class LabelEnhancer extends ConcurrentEnhancerAdapter<EnhancerContext> {
+
+		private final String name;
+
+		public LabelEnhancer(String name, MetricsRegistry metrics) {
+			this.name = name;
+			this.metrics = metrics;
+		}
+
+		@Override
+		protected EnhancerContext createContext(RequestSuggestionTO request) {
+			return new EnhancerContext(request);
+		}
+
+		@Override
+		protected void execute(EnhancerContext context) throws Exception {
+			context.setLanguage(LanguageDetector.ISO_639_ENGLISH);
+			ResourceTO resource = context.getRequest().getResource();
+			fillSuggestions(context, new TagTO(resource.getLabel().trim(),
+					LanguageDetector.ISO_639_ENGLISH, provider, resource), 1d);
+		}
+
+		@Override
+		protected String getMetricsName() {
+			return name;
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+package es.weso.acota.core.business.enhancer.ngram;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class NGramScoresTest {
+
+	private TokenDictionary dictionary;
+	private NGramScores scores;
+
+	@Before
+	public void startTest() {
+		this.dictionary = new TokenDictionary();
+		this.scores = new NGramScores();
+	}
+
+	@Test
+	public void accumulateTest() {
+		int[] ids = intern("perro", "de", "caza", "perro", "de", "caza");
+		scores.add(ids, 0, 3, 1d);
+		scores.add(ids, 3, 6, 2d);
+		scores.add(ids, 0, 1, 1d);
+		scores.add(ids, 0, 2, 1d);
+		scores.add(ids, 3, 5, 1d);
+
+		assertEquals(3, dictionary.size());
+		assertEquals(3, scores.size());
+		assertEquals("perro de caza", scores.getLabel(0, dictionary));
+		assertEquals(3d, scores.getValue(0), 0d);
+		assertEquals(2, scores.getCount(0));
+		assertEquals("perro", scores.getLabel(1, dictionary));
+		assertEquals("perro de", scores.getLabel(2, dictionary));
+		assertEquals(2d, scores.getValue(2), 0d);
+		assertEquals(ids[1], scores.getTokenId(2, 1));
+	}
+
+	@Test
+	public void occurrencesTest() {
+		int[] ids = intern("semantic", "web");
+		scores.add(ids, 0, 2, 1d, 3);
+		scores.add(ids, 0, 2, 1d, 2);
+		scores.add(ids, 1, 2, 1d);
+		assertEquals(2d, scores.getValue(0), 0d);
+		assertEquals(5, scores.getCount(0));
+		assertEquals(1, scores.getCount(1));
+		assertArrayEquals(new int[] { 0 }, scores.select(2, 0d, 0));
+	}
+
+	@Test
+	public void growAndClearTest() {
+		for (int round = 0; round < 2; round++) {
+			dictionary.clear();
+			Map<String, Double> expected = new HashMap<String, Double>();
+			for (int i = 0; i < 1000; i++) {
+				String[] tokens = new String[]{"t" + (i % 300), "u" + (i % 7), "v" + (i % 2)};
+				int length = 1 + i % 3;
+				scores.add(intern(tokens), 0, length, i);
+				String label = tokens[0];
+				for (int j = 1; j < length; j++) {
+					label += " " + tokens[j];
+				}
+				Double value = expected.get(label);
+				expected.put(label, value == null ? i : value + i);
+			}
+			assertEquals(expected.size(), scores.size());
+			for (int i = 0; i < scores.size(); i++) {
+				assertEquals(expected.get(scores.getLabel(i, dictionary)), scores.getValue(i), 0d);
+			}
+			scores.clear();
+			assertEquals(0, scores.size());
+		}
+	}
+
+	@Test
+	public void selectTest() {
+		int[] ids = intern("a", "b", "c", "d", "e", "f");
+		double[] values = new double[]{0.5, 3, 1, 3, 2, 0.1};
+		for (int i = 0; i < ids.length; i++) {
+			scores.add(ids, i, i + 1, values[i]);
+		}
+		scores.add(ids, 2, 3, 1d);
+		scores.add(ids, 5, 6, 0.1);
+
+		assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, scores.select(1, 0d, 0));
+		assertArrayEquals(new int[]{2, 5}, scores.select(2, 0d, 0));
+		assertArrayEquals(new int[]{1, 2, 3, 4}, scores.select(1, 1d, 0));
+		assertArrayEquals(new int[]{1, 2, 3}, scores.select(1, 0d, 3));
+		assertArrayEquals(new int[]{1}, scores.select(1, 0d, 1));
+		assertEquals(0, scores.select(3, 0d, 2).length);
+	}
+
+	private int[] intern(String... tokens) {
+		int[] ids = new int[tokens.length];
+		for (int i = 0; i < tokens.length; i++) {
+			ids[i] = dictionary.intern(tokens[i]);
+		}
+		return ids;
+	}
+
+}
@@ -0,0 +1,155 @@
+package es.weso.acota.core.business.enhancer.ngram;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import es.weso.acota.core.business.enhancer.analyzer.tokenizer.TokenizerAnalyzer;
+import es.weso.acota.core.exceptions.AcotaConfigurationException;
+
+public class NGramSpansTest {
+
+	private static final int K = 5;
+
+	private TokenizerAnalyzer analyzer;
+	private NGramSpans ngrams;
+
+	@Before
+	public void startTest() throws AcotaConfigurationException {
+		this.analyzer = mock(TokenizerAnalyzer.class);
+		when(analyzer.match(anyString())).thenAnswer(new Answer<Boolean>() {
+			@Override
+			public Boolean answer(InvocationOnMock invocation) throws Throwable {
+				return ((String) invocation.getArguments()[0]).matches("[^\\p{L}\\p{N}]+");
+			}
+		});
+		this.ngrams = new NGramSpans(K);
+		ngrams.clear(analyzer, new TokenDictionary());
+	}
+
+	@Test
+	public void emptySentenceTest() throws AcotaConfigurationException {
+		ngrams.addSentence(new String[]{});
+		ngrams.addSentence(new String[]{",", "a"});
+		assertEquals(0, ngrams.size());
+	}
+
+	@Test
+	public void cleanedNGramsTest() throws AcotaConfigurationException {
+		ngrams.addSentence(new String[]{"el", "perro", ",", "de", "caza"});
+		Set<List<String>> expected = new HashSet<List<String>>();
+		expected.add(Arrays.asList("perro"));
+		expected.add(Arrays.asList("caza"));
+		expected.add(Arrays.asList("de", "caza"));
+		expected.add(Arrays.asList("perro", "de", "caza"));
+		assertEquals(expected, actual());
+	}
+
+	@Test
+	public void sameAsArrayEnumerationTest() throws AcotaConfigurationException {
+		String[][] sentences = {
+			"WESO is a multidisciplinary research group from the Department of Computer Science , Spanish Philology and Philosophy at the University of Oviedo .".split(" "),
+			"The group is involved in semantic web research , education and technology transfer .".split(" "),
+			"The group is involved in semantic web research , web research and the group .".split(" ")
+		};
+		Set<List<String>> expected = new HashSet<List<String>>();
+		for (String[] sentence : sentences) {
+			ngrams.addSentence(sentence);
+			expected.addAll(enumerate(sentence));
+		}
+		assertEquals(expected, actual());
+		assertEquals(expected.size(), ngrams.size());
+	}
+
+	@Test
+	public void classifyOnceTest() throws AcotaConfigurationException {
+		ngrams.addSentence(new String[]{"semantic", "web", "research", ",", "semantic", "web"});
+		ngrams.getTokens(0);
+		verify(analyzer, times(2)).match("semantic");
+		verify(analyzer, times(1)).match(",");
+	}
+
+	@Test
+	public void occurrencesTest() throws AcotaConfigurationException {
+		ngrams.addSentence(new String[]{"semantic", "web", ",", "semantic", "web"});
+		ngrams.addSentence(new String[]{"the", "semantic", "web"});
+		int found = 0;
+		for (int i = 0; i < ngrams.size(); i++) {
+			List<String> tokens = Arrays.asList(ngrams.getTokens(i));
+			if (tokens.equals(Arrays.asList("semantic", "web"))) {
+				assertEquals(3, ngrams.getOccurrences(i));
+				found++;
+			} else if (tokens.equals(Arrays.asList("web", "semantic", "web"))) {
+				assertEquals(1, ngrams.getOccurrences(i));
+				found++;
+			}
+		}
+		assertEquals(2, found);
+	}
+
+	@Test
+	public void positionsBufferTest() throws AcotaConfigurationException {
+		ngrams.addSentence(new String[]{"el", "perro", ",", "de", "caza", ".", "y", "el", "gato"});
+		int[] buffer = new int[K];
+		for (int i = 0; i < ngrams.size(); i++) {
+			int[] positions = ngrams.getPositions(i);
+			assertEquals(positions.length, ngrams.getPositions(i, buffer));
+			assertArrayEquals(positions, Arrays.copyOf(buffer, positions.length));
+		}
+	}
+
+	@Test
+	public void growTest() throws AcotaConfigurationException {
+		String[] sentence = new String[500];
+		for (int i = 0; i < sentence.length; i++) {
+			sentence[i] = "token" + (i % 250);
+		}
+		ngrams.addSentence(sentence);
+		assertEquals(enumerate(sentence).size(), ngrams.size());
+	}
+
+	private Set<List<String>> actual() throws AcotaConfigurationException {
+		Set<List<String>> actual = new HashSet<List<String>>();
+		for (int i = 0; i < ngrams.size(); i++) {
+			actual.add(Arrays.asList(ngrams.getTokens(i)));
+		}
+		return actual;
+	}
+
+	/**
+	 * Copies and cleans every n-gram, as TokenizerEnhancer used to do
+	 */
+	private Set<List<String>> enumerate(String[] tokens) throws AcotaConfigurationException {
+		Set<List<String>> result = new HashSet<List<String>>();
+		for (int i = 1; i <= K; i++) {
+			for (int j = 0; j + i <= tokens.length; j++) {
+				String[] chunk = Arrays.copyOfRange(tokens, j, i + j);
+				List<String> cleaned = new ArrayList<String>();
+				for (int c = 0; c < chunk.length; c++) {
+					if (!analyzer.match(chunk[c]) 
+							&& !((c == 0 || c == chunk.length - 1) && chunk[c].length() <= 2))
+						cleaned.add(chunk[c]);
+				}
+				if (!cleaned.isEmpty())
+					result.add(cleaned);
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,72 @@
+package es.weso.acota.core.business.enhancer.ngram;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import es.weso.acota.core.business.enhancer.analyzer.lucene.EnglishStopAnalyzer;
+import es.weso.acota.core.business.enhancer.analyzer.lucene.SpanishStopAnalyzer;
+
+public class ShingleExtractorTest {
+
+	private TokenDictionary dictionary;
+	private NGramScores scores;
+	private ShingleExtractor extractor;
+
+	@Before
+	public void startTest() {
+		this.dictionary = new TokenDictionary();
+		this.scores = new NGramScores();
+		this.extractor = new ShingleExtractor(3);
+	}
+
+	@Test
+	public void shinglesTest() throws IOException {
+		extractor.extract(EnglishStopAnalyzer.getInstance(), "description",
+				"Open source semantic Web tools. Semantic Web", 1d, dictionary, scores);
+
+		Map<String, Double> expected = new HashMap<String, Double>();
+		expected.put("open", 1d);
+		expected.put("source", 1d);
+		expected.put("open source", 1d);
+		expected.put("semantic", 2d);
+		expected.put("source semantic", 1d);
+		expected.put("open source semantic", 1d);
+		expected.put("web", 2d);
+		expected.put("semantic web", 2d);
+		expected.put("source semantic web", 1d);
+		expected.put("tools", 1d);
+		expected.put("web tools", 1d);
+		expected.put("semantic web tools", 1d);
+		assertEquals(expected, actual());
+	}
+
+	@Test
+	public void stopWordsBreakShinglesTest() throws IOException {
+		extractor.extract(SpanishStopAnalyzer.getInstance(), "label",
+				"Perro de caza", 1d, dictionary, scores);
+		extractor.extract(SpanishStopAnalyzer.getInstance(), "label",
+				"perro pastor", 1d, dictionary, scores);
+
+		Map<String, Double> expected = new HashMap<String, Double>();
+		expected.put("perro", 2d);
+		expected.put("caza", 1d);
+		expected.put("pastor", 1d);
+		expected.put("perro pastor", 1d);
+		assertEquals(expected, actual());
+	}
+
+	private Map<String, Double> actual() {
+		Map<String, Double> actual = new HashMap<String, Double>();
+		for (int i = 0; i < scores.size(); i++) {
+			actual.put(scores.getLabel(i, dictionary), scores.getValue(i));
+		}
+		return actual;
+	}
+
+}
@@ -0,0 +1,57 @@
+package es.weso.acota.core.utils.lang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import es.weso.acota.core.CoreConfiguration;
+import es.weso.acota.core.business.enhancer.analyzer.document.RequestDocuments;
+
+public class CachedLanguageDetectorTest {
+
+	private CoreConfiguration configuration;
+	private CachedLanguageDetector detector;
+
+	@Before
+	public void startTest() throws Exception {
+		this.configuration = new CoreConfiguration();
+		configuration.setLanguageCacheSize(4);
+		this.detector = new CachedLanguageDetector(configuration);
+	}
+
+	@Test
+	public void cacheTest() {
+		assertEquals(4, detector.cache.length);
+		assertNull(detector.getCachedLanguage("semantic web"));
+		detector.putCachedLanguage("semantic web", LanguageDetector.ISO_639_ENGLISH);
+		assertEquals(LanguageDetector.ISO_639_ENGLISH, detector.getCachedLanguage("semantic web"));
+		assertNull(detector.getCachedLanguage("web semantica"));
+		assertNull(detector.getCachedLanguage(null));
+	}
+
+	@Test
+	public void disabledCacheTest() throws Exception {
+		configuration.setLanguageCacheSize(0);
+		detector.loadConfiguration(configuration);
+		detector.putCachedLanguage("semantic web", LanguageDetector.ISO_639_ENGLISH);
+		assertNull(detector.getCachedLanguage("semantic web"));
+	}
+
+	@Test
+	public void requestLanguageTest() throws Exception {
+		RequestDocuments documents = new RequestDocuments();
+		documents.putLanguage("web", LanguageDetector.ISO_639_SPANISH);
+		assertEquals(LanguageDetector.ISO_639_SPANISH, detector.detect("web", documents));
+	}
+
+	@Test
+	public void hashTest() {
+		assertEquals(CachedLanguageDetector.hash("semantic web"), CachedLanguageDetector.hash("semantic web"));
+		assertTrue(CachedLanguageDetector.hash("ab") != CachedLanguageDetector.hash("ba"));
+		assertTrue(CachedLanguageDetector.hash("") != CachedLanguageDetector.hash("\u0000"));
+	}
+
+}
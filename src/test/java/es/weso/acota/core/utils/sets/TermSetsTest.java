@@ -0,0 +1,55 @@
+package es.weso.acota.core.utils.sets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+
+import org.apache.lucene.analysis.CharArraySet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TermSetsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void arraySetTest() {
+		CharArraySet set = TermSets.fromArray("NN", "NNS", "JJ");
+		assertEquals(set, TermSets.fromCollection(Arrays.asList("NN", "NNS", "JJ")));
+		assertTrue(set.contains("NNS"));
+		assertTrue(set.contains("xNNx".toCharArray(), 1, 2));
+		assertFalse(set.contains("nn"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void immutableSetTest() {
+		TermSets.fromArray("de", "la").add("que");
+	}
+
+	@Test
+	public void fileSetTest() throws Exception {
+		File file = folder.newFile("gazetteer.txt");
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		writer.write("# Gazetteer\nSemantic Web\n\n  Linked Data  \nOviedo\n");
+		writer.close();
+
+		CharArraySet set = TermSets.fromFile(file.getPath(), true);
+		assertSame(set, TermSets.fromFile(file.getPath(), true));
+		assertFalse(TermSets.fromFile(file.getPath(), CharArraySet.EMPTY_SET).contains("oviedo"));
+		assertEquals(3, set.size());
+		assertTrue(set.contains(new StringBuilder("semantic web")));
+		assertTrue(set.contains("linked data"));
+		assertFalse(set.contains("# gazetteer"));
+		assertSame(CharArraySet.EMPTY_SET, TermSets.fromFile("", CharArraySet.EMPTY_SET));
+	}
+
+}